@@ -0,0 +1,74 @@
+package turing.example.documentmanagement.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import turing.example.documentmanagement.config.AuthProperties;
+import turing.example.documentmanagement.config.SecurityConfig;
+import turing.example.documentmanagement.security.TokenService;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what authenticating one API request costs before any document work starts.
+ * <p>
+ * {@code basicBcrypt} is an HTTP Basic request checked against the BCrypt hash, as every request
+ * was before access tokens; {@code basicCached} is the same request answered from the cache of
+ * verified credentials; {@code bearerToken} verifies an access token. All three go through the
+ * beans {@link SecurityConfig} defines.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuthenticationBenchmark {
+
+    private static final String USERNAME = "admin";
+    private static final String PASSWORD = "admin123";
+
+    private AuthenticationProvider bcryptProvider;
+    private AuthenticationProvider cachingProvider;
+    private TokenService tokenService;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        SecurityConfig config = new SecurityConfig();
+        AuthProperties properties = new AuthProperties();
+        properties.setTokenSecret("benchmark-secret-of-at-least-32-bytes");
+
+        var passwordEncoder = config.passwordEncoder();
+        var userDetailsService = config.userDetailsService(passwordEncoder);
+        properties.setCredentialCacheEnabled(false);
+        bcryptProvider = config.authenticationProvider(userDetailsService, passwordEncoder, properties);
+        properties.setCredentialCacheEnabled(true);
+        cachingProvider = config.authenticationProvider(userDetailsService, passwordEncoder, properties);
+        cachingProvider.authenticate(credentials());
+
+        tokenService = new TokenService(properties);
+        token = tokenService.issue(bcryptProvider.authenticate(credentials())).token();
+    }
+
+    @Benchmark
+    public Authentication basicBcrypt() {
+        return bcryptProvider.authenticate(credentials());
+    }
+
+    @Benchmark
+    public Authentication basicCached() {
+        return cachingProvider.authenticate(credentials());
+    }
+
+    @Benchmark
+    public Authentication bearerToken() {
+        return tokenService.verify(token);
+    }
+
+    private static Authentication credentials() {
+        return UsernamePasswordAuthenticationToken.unauthenticated(USERNAME, PASSWORD);
+    }
+}
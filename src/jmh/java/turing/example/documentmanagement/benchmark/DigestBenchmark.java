@@ -0,0 +1,72 @@
+package turing.example.documentmanagement.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the SHA-256 computation that addresses every stored blob.
+ * <p>
+ * {@code inMemory} digests a byte array in one call and bounds what the algorithm itself costs;
+ * {@code fromFile} reads the content from disk through a {@link DigestInputStream}, as the
+ * digest pass of {@link turing.example.documentmanagement.storage.BlobStore} does.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DigestBenchmark {
+
+    // Matches the buffer size of the blob store's digest pass
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Param({"4096", "1048576", "16777216"})
+    private int fileSize;
+
+    private byte[] content;
+    private Path directory;
+    private Path file;
+    private byte[] buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        content = new byte[fileSize];
+        ThreadLocalRandom.current().nextBytes(content);
+        directory = Files.createTempDirectory("jmh-digest");
+        file = Files.write(directory.resolve("content"), content);
+        buffer = new byte[BUFFER_SIZE];
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public byte[] inMemory() throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance("SHA-256").digest(content);
+    }
+
+    @Benchmark
+    public byte[] fromFile() throws IOException, NoSuchAlgorithmException {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            while (in.read(buffer) != -1) {
+                // The digest is updated as the stream is read
+            }
+        }
+        return digest.digest();
+    }
+}
@@ -0,0 +1,80 @@
+package turing.example.documentmanagement.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the strategies for moving an uploaded file into storage.
+ * <p>
+ * The source is a file on disk, as multipart uploads are spooled to disk before the handler
+ * runs. {@code byteArray} reads the whole file into memory and writes it out, {@code stream}
+ * copies it through a stream buffer and {@code channel} uses {@link FileChannel#transferFrom},
+ * as {@link turing.example.documentmanagement.storage.BlobStore} does.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileWriteBenchmark {
+
+    @Param({"4096", "1048576", "16777216"})
+    private int fileSize;
+
+    private Path directory;
+    private Path source;
+    private Path target;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("jmh-file-write");
+        byte[] content = new byte[fileSize];
+        ThreadLocalRandom.current().nextBytes(content);
+        source = Files.write(directory.resolve("source"), content);
+        target = directory.resolve("target");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(source);
+        Files.deleteIfExists(target);
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public Path byteArray() throws IOException {
+        return Files.write(target, Files.readAllBytes(source));
+    }
+
+    @Benchmark
+    public long stream() throws IOException {
+        try (InputStream in = Files.newInputStream(source); OutputStream out = Files.newOutputStream(target)) {
+            return in.transferTo(out);
+        }
+    }
+
+    @Benchmark
+    public long channel() throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            long position = 0;
+            long size = in.size();
+            while (position < size) {
+                position += out.transferFrom(in, position, size - position);
+            }
+            return position;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package turing.example.documentmanagement.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import turing.example.documentmanagement.dto.DocumentPage;
+import turing.example.documentmanagement.dto.DocumentResponse;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the JSON serialization of document metadata responses.
+ * <p>
+ * Uses an {@link ObjectMapper} configured like the one Spring MVC writes responses with.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private DocumentResponse document;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        document = response(1);
+    }
+
+    /**
+     * A page of the document listing.
+     */
+    @State(Scope.Benchmark)
+    public static class Page {
+
+        @Param({"50", "500"})
+        private int pageSize;
+
+        private DocumentPage page;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            List<DocumentResponse> items = new ArrayList<>(pageSize);
+            for (int i = 0; i < pageSize; i++) {
+                items.add(response(i));
+            }
+            page = new DocumentPage(items, "MjAyNC0wMS0wMVQxMDowMHwxMjM0NQ");
+        }
+    }
+
+    @Benchmark
+    public byte[] singleDocument() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(document);
+    }
+
+    @Benchmark
+    public byte[] documentPage(Page page) throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page.page);
+    }
+
+    private static DocumentResponse response(long id) {
+        return new DocumentResponse(id, "quarterly-report-" + id + ".pdf", "JohnDoe",
+                LocalDateTime.of(2024, 1, 1, 10, 0).plusMinutes(id), 3, "uploads/" + "a".repeat(64));
+    }
+}
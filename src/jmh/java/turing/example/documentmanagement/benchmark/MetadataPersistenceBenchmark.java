@@ -0,0 +1,129 @@
+package turing.example.documentmanagement.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.util.FileSystemUtils;
+import turing.example.documentmanagement.DocumentManagementApplication;
+import turing.example.documentmanagement.entity.ContentBlob;
+import turing.example.documentmanagement.entity.Document;
+import turing.example.documentmanagement.entity.DocumentVersion;
+import turing.example.documentmanagement.service.DocumentService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures how fast {@link DocumentService} records uploads in the database.
+ * <p>
+ * Runs the application without a web server against an in-memory H2 database and registers
+ * versions for content that is assumed to be stored already, so only the metadata path is
+ * measured: a version of a new document, a new version of an existing document and a batch
+ * of new documents.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MetadataPersistenceBenchmark {
+
+    // Documents registered per call of the batch benchmark
+    private static final int BATCH_SIZE = 50;
+
+    private final AtomicLong names = new AtomicLong();
+    private Path directory;
+    private ConfigurableApplicationContext context;
+    private DocumentService documentService;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("jmh-metadata");
+        // Passed as arguments, which take precedence over application.yml
+        context = new SpringApplicationBuilder(DocumentManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(
+                        "--spring.main.banner-mode=off",
+                        "--spring.datasource.url=jdbc:h2:mem:jmh;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.springframework=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN",
+                        "--document-management.storage.root=" + directory.resolve("uploads"),
+                        "--document-management.search.enabled=false",
+                        "--document-management.search.index-dir=" + directory.resolve("index"));
+        documentService = context.getBean(DocumentService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    /**
+     * Per-thread document that receives new versions.
+     */
+    @State(Scope.Thread)
+    public static class ExistingDocument {
+
+        private String name;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            name = "existing-" + Thread.currentThread().getId() + ".txt";
+        }
+    }
+
+    @Benchmark
+    public Document newDocument() {
+        return documentService.registerUpload(nextName(), "bench", blob());
+    }
+
+    @Benchmark
+    public Document newVersion(ExistingDocument existing) {
+        return documentService.registerUpload(existing.name, "bench", blob());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<DocumentVersion> newDocumentBatch() {
+        List<String> batchNames = new ArrayList<>(BATCH_SIZE);
+        List<ContentBlob> blobs = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batchNames.add(nextName());
+            blobs.add(blob());
+        }
+        return documentService.registerUploads(batchNames, "bench", blobs);
+    }
+
+    private String nextName() {
+        return "document-" + names.incrementAndGet() + ".txt";
+    }
+
+    private static ContentBlob blob() {
+        byte[] hash = new byte[32];
+        ThreadLocalRandom.current().nextBytes(hash);
+        ContentBlob blob = new ContentBlob();
+        blob.setHash(HexFormat.of().formatHex(hash));
+        blob.setPath("uploads/" + blob.getHash());
+        blob.setSize(1024);
+        blob.setRefCount(1);
+        return blob;
+    }
+}
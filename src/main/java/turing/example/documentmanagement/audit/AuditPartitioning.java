@@ -0,0 +1,33 @@
+package turing.example.documentmanagement.audit;
+
+import turing.example.documentmanagement.config.AuditProperties;
+
+import java.time.YearMonth;
+
+/**
+ * Strategy managing the monthly buckets the audit trail is stored in.
+ * <p>
+ * Entries are bucketed by the month of their timestamp, so that expired entries are removed a
+ * whole month at a time. How cheap that is depends on the database: see
+ * {@link MySqlAuditPartitioning} and {@link RangeDeleteAuditPartitioning}.
+ * </p>
+ */
+public interface AuditPartitioning {
+
+    /**
+     * Makes sure every month up to and including {@code through} has a bucket of its own.
+     *
+     * @param current The current month; entries from before it may share a bucket when the
+     *                buckets are created for the first time.
+     * @param through The last month that needs a bucket.
+     */
+    void prepare(YearMonth current, YearMonth through);
+
+    /**
+     * Removes the buckets of all months before the given one.
+     *
+     * @param before The first month that is kept.
+     * @param policy Whether the entries of the removed months are archived or discarded.
+     */
+    void expire(YearMonth before, AuditProperties.ExpiredPolicy policy);
+}
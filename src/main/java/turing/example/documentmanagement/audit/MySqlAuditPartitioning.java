@@ -0,0 +1,184 @@
+package turing.example.documentmanagement.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import turing.example.documentmanagement.config.AuditProperties;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Objects;
+import java.util.StringJoiner;
+
+/**
+ * Stores the audit trail in native MySQL {@code RANGE COLUMNS} partitions, one per month.
+ * <p>
+ * The first call converts the table: the timestamp becomes part of the primary key, as MySQL
+ * requires of a partitioning column, and everything older than the current month ends up in a
+ * single partition. Partitioned tables cannot have foreign keys, so the one an earlier schema
+ * declared on the document column is dropped first. The last partition, {@code pmax}, catches
+ * everything after the newest month and is kept empty by partitioning months ahead of time, so
+ * splitting it does not move rows.
+ * </p>
+ *
+ * <p>
+ * Expiring a month drops its partition, which takes the same short time however many entries it
+ * holds and leaves no fragmented space behind. To archive the month instead, its partition is
+ * first exchanged with an empty table {@code audit_trail_archive_pYYYYMM}, which only swaps the
+ * underlying files.
+ * </p>
+ */
+public class MySqlAuditPartitioning implements AuditPartitioning {
+
+    private static final Logger log = LoggerFactory.getLogger(MySqlAuditPartitioning.class);
+
+    private static final String TABLE = "audit_trail";
+    private static final String ARCHIVE_PREFIX = "audit_trail_archive_";
+    private static final String CATCH_ALL = "pmax";
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates the strategy.
+     *
+     * @param jdbcTemplate Template executing the DDL statements.
+     */
+    public MySqlAuditPartitioning(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void prepare(YearMonth current, YearMonth through) {
+        List<String> partitions = partitions();
+        if (partitions.isEmpty()) {
+            log.warn("Table {} does not exist; it is partitioned once it has been created", TABLE);
+            return;
+        }
+        if (partitions.size() == 1 && partitions.get(0) == null) {
+            partitionTable(current, through);
+            return;
+        }
+        if (!CATCH_ALL.equals(partitions.get(partitions.size() - 1))) {
+            log.warn("Table {} is not partitioned by month; its partitions are left unchanged", TABLE);
+            return;
+        }
+
+        YearMonth next = partitions.stream()
+                .map(MySqlAuditPartitioning::month)
+                .filter(Objects::nonNull)
+                .max(YearMonth::compareTo)
+                .map(month -> month.plusMonths(1))
+                .orElse(current);
+        if (next.isAfter(through)) {
+            return;
+        }
+        StringJoiner definitions = new StringJoiner(", ");
+        for (YearMonth month = next; !month.isAfter(through); month = month.plusMonths(1)) {
+            definitions.add(definition(month));
+        }
+        definitions.add(catchAll());
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " REORGANIZE PARTITION " + CATCH_ALL + " INTO (" + definitions + ")");
+        log.info("Partitioned {} ahead from {} through {}", TABLE, next, through);
+    }
+
+    @Override
+    public void expire(YearMonth before, AuditProperties.ExpiredPolicy policy) {
+        for (String partition : partitions()) {
+            YearMonth month = month(partition);
+            if (month == null || !month.isBefore(before)) {
+                continue;
+            }
+            if (policy == AuditProperties.ExpiredPolicy.ARCHIVE && !archive(partition)) {
+                continue;
+            }
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PARTITION " + partition);
+            log.info("Removed partition {} of {}", partition, TABLE);
+        }
+    }
+
+    /**
+     * Moves the rows of a partition into its archive table, leaving the partition empty.
+     *
+     * @return {@code false} if the partition still holds rows and has to be kept.
+     */
+    private boolean archive(String partition) {
+        String archive = ARCHIVE_PREFIX + partition;
+        Integer existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.TABLES "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", Integer.class, archive);
+        if (existing == null || existing == 0) {
+            jdbcTemplate.execute("CREATE TABLE " + archive + " LIKE " + TABLE);
+            jdbcTemplate.execute("ALTER TABLE " + archive + " REMOVE PARTITIONING");
+        } else if (!jdbcTemplate.queryForList("SELECT 1 FROM " + TABLE + " PARTITION (" + partition + ") LIMIT 1",
+                Integer.class).isEmpty()) {
+            // Exchanging again would swap the archived rows back into the table
+            log.warn("Partition {} of {} cannot be archived because {} already exists", partition, TABLE, archive);
+            return false;
+        } else {
+            // Archived by an earlier run that stopped before dropping the partition
+            return true;
+        }
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " EXCHANGE PARTITION " + partition + " WITH TABLE " + archive);
+        log.info("Archived partition {} of {} into {}", partition, TABLE, archive);
+        return true;
+    }
+
+    /**
+     * Converts the unpartitioned table into monthly partitions.
+     */
+    private void partitionTable(YearMonth current, YearMonth through) {
+        StringJoiner definitions = new StringJoiner(", ");
+        // Everything before the current month goes into the partition of the previous month
+        for (YearMonth month = current.minusMonths(1); !month.isAfter(through); month = month.plusMonths(1)) {
+            definitions.add(definition(month));
+        }
+        definitions.add(catchAll());
+        log.info("Partitioning {} by month; this rebuilds the table once", TABLE);
+        // Created by schema updates before the entity declared no constraint;
+        // MySQL rejects partitioning otherwise
+        for (String foreignKey : foreignKeys()) {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP FOREIGN KEY `" + foreignKey + "`");
+            log.info("Dropped foreign key {} of {}", foreignKey, TABLE);
+        }
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DROP PRIMARY KEY, ADD PRIMARY KEY (id, `timestamp`)");
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " PARTITION BY RANGE COLUMNS(`timestamp`) (" + definitions + ")");
+    }
+
+    /**
+     * Lists the partitions of the table in order; a single {@code null} if it is not partitioned.
+     */
+    private List<String> partitions() {
+        return jdbcTemplate.queryForList("SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? ORDER BY PARTITION_ORDINAL_POSITION",
+                String.class, TABLE);
+    }
+
+    /**
+     * Lists the names of the foreign keys declared on the table.
+     */
+    private List<String> foreignKeys() {
+        return jdbcTemplate.queryForList("SELECT CONSTRAINT_NAME FROM information_schema.TABLE_CONSTRAINTS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND CONSTRAINT_TYPE = 'FOREIGN KEY'",
+                String.class, TABLE);
+    }
+
+    private static String definition(YearMonth month) {
+        return "PARTITION " + month.format(NAME_FORMAT)
+                + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + " 00:00:00')";
+    }
+
+    private static String catchAll() {
+        return "PARTITION " + CATCH_ALL + " VALUES LESS THAN (MAXVALUE)";
+    }
+
+    /**
+     * Returns the month a partition holds, or {@code null} for partitions not named after a month.
+     */
+    static YearMonth month(String partition) {
+        if (partition == null || !partition.matches("p\\d{6}")) {
+            return null;
+        }
+        return YearMonth.parse(partition, NAME_FORMAT);
+    }
+}
@@ -0,0 +1,69 @@
+package turing.example.documentmanagement.audit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import turing.example.documentmanagement.config.AuditProperties;
+import turing.example.documentmanagement.repository.AuditTrailRepository;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Keeps the monthly buckets of the audit trail on databases without table partitioning, such as H2.
+ * <p>
+ * The buckets are purely logical: there is nothing to create ahead of time, and an expired month
+ * is removed in batches of {@code delete-batch-size} entries found through the timestamp index,
+ * one short transaction per batch, instead of in a single large {@code DELETE}. Archiving needs
+ * a partition to exchange, so with {@link AuditProperties.ExpiredPolicy#ARCHIVE} expired
+ * entries are kept.
+ * </p>
+ */
+public class RangeDeleteAuditPartitioning implements AuditPartitioning {
+
+    private static final Logger log = LoggerFactory.getLogger(RangeDeleteAuditPartitioning.class);
+
+    private final AuditTrailRepository auditTrailRepository;
+    private final int batchSize;
+    private boolean archiveWarned;
+
+    /**
+     * Creates the strategy.
+     *
+     * @param auditTrailRepository Repository the expired entries are deleted through.
+     * @param batchSize            Number of entries deleted per transaction.
+     */
+    public RangeDeleteAuditPartitioning(AuditTrailRepository auditTrailRepository, int batchSize) {
+        this.auditTrailRepository = auditTrailRepository;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    public void prepare(YearMonth current, YearMonth through) {
+        // Buckets are defined by the timestamp alone
+    }
+
+    @Override
+    public void expire(YearMonth before, AuditProperties.ExpiredPolicy policy) {
+        if (policy == AuditProperties.ExpiredPolicy.ARCHIVE) {
+            if (!archiveWarned) {
+                archiveWarned = true;
+                log.warn("Expired audit entries cannot be archived on this database and are kept");
+            }
+            return;
+        }
+
+        LocalDateTime end = before.atDay(1).atStartOfDay();
+        PageRequest batch = PageRequest.of(0, batchSize);
+        long deleted = 0;
+        List<Long> ids;
+        while (!(ids = auditTrailRepository.findIdsBefore(end, batch)).isEmpty()) {
+            auditTrailRepository.deleteAllByIdInBatch(ids);
+            deleted += ids.size();
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} audit entries from before {}", deleted, before);
+        }
+    }
+}
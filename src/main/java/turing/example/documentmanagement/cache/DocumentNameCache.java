@@ -0,0 +1,131 @@
+package turing.example.documentmanagement.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.stereotype.Component;
+import turing.example.documentmanagement.config.MetadataCacheProperties;
+import turing.example.documentmanagement.repository.DocumentRepository;
+
+import java.util.Optional;
+
+/**
+ * Bounded in-process cache mapping document names to document IDs.
+ * <p>
+ * Backed by Caffeine, whose W-TinyLFU policy keeps the frequently used names when the cache
+ * is full. Names that belong to no document are cached as well, with a shorter lifetime, so
+ * repeated existence checks for unknown names do not reach the database either. Names the
+ * {@link DocumentNameFilter} rules out are not looked up at all.
+ * </p>
+ *
+ * <p>
+ * The cache is written through by {@link turing.example.documentmanagement.service.DocumentService}
+ * once a new document has been committed. Changes made by other application instances become
+ * visible when the cached entry expires; callers that must not act on a stale entry verify it
+ * against the database, for example when locking the document by its ID.
+ * </p>
+ */
+@Component
+public class DocumentNameCache {
+
+    /**
+     * Name under which the statistics of this cache are reported.
+     */
+    public static final String NAME = "document-names";
+
+    private final LoadingCache<String, Optional<Long>> cache;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param documentRepository Repository used to resolve names missing from the cache.
+     * @param nameFilter         Filter ruling out names that belong to no document.
+     * @param properties         Cache configuration.
+     */
+    public DocumentNameCache(DocumentRepository documentRepository, DocumentNameFilter nameFilter,
+                             MetadataCacheProperties properties) {
+        long positiveTtl = properties.getDocumentNamesTtl().toNanos();
+        long negativeTtl = properties.getDocumentNamesNegativeTtl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getDocumentNamesMaximumSize())
+                .expireAfter(new Expiry<String, Optional<Long>>() {
+                    @Override
+                    public long expireAfterCreate(String name, Optional<Long> id, long currentTime) {
+                        return id.isPresent() ? positiveTtl : negativeTtl;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String name, Optional<Long> id, long currentTime,
+                                                  long currentDuration) {
+                        return expireAfterCreate(name, id, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String name, Optional<Long> id, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build(name -> nameFilter.mightExist(name)
+                        ? documentRepository.findIdByName(name) : Optional.empty());
+    }
+
+    /**
+     * Resolves a document name to the ID of the document.
+     *
+     * @param name The document name.
+     * @return The ID of the document, or an empty {@link Optional} if no document has this name.
+     */
+    public Optional<Long> findIdByName(String name) {
+        return cache.get(name);
+    }
+
+    /**
+     * Checks whether a document with the given name exists.
+     *
+     * @param name The document name.
+     * @return {@code true} if a document with this name exists.
+     */
+    public boolean exists(String name) {
+        return findIdByName(name).isPresent();
+    }
+
+    /**
+     * Records the document a name belongs to, replacing a cached negative lookup.
+     *
+     * @param name       The document name.
+     * @param documentId The ID of the document.
+     */
+    public void put(String name, Long documentId) {
+        cache.put(name, Optional.of(documentId));
+    }
+
+    /**
+     * Removes a name from the cache, so the next lookup reads it from the database.
+     *
+     * @param name The document name.
+     */
+    public void invalidate(String name) {
+        cache.invalidate(name);
+    }
+
+    /**
+     * Returns the hit, miss, load and eviction statistics of the cache.
+     *
+     * @return A snapshot of the cache statistics.
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Returns the approximate number of cached names.
+     *
+     * @return The estimated cache size.
+     */
+    public long estimatedSize() {
+        return cache.estimatedSize();
+    }
+}
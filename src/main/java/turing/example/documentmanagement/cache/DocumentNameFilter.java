@@ -0,0 +1,196 @@
+package turing.example.documentmanagement.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import turing.example.documentmanagement.config.MetadataCacheProperties;
+import turing.example.documentmanagement.repository.DocumentRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Membership filter over the names of all documents.
+ * <p>
+ * Most uploads use names that have never been seen, and finding that out from the database
+ * costs an index probe. The filter answers "definitely no such document" from memory, so those
+ * lookups are skipped; only names it reports as possibly present are looked up.
+ * </p>
+ *
+ * <p>
+ * The filter is a {@link ScalableBloomFilter} built at start-up by scanning the {@code document}
+ * table in ID order, one page at a time. Until the scan has finished, every name is reported as
+ * possibly present. Names are added by {@link turing.example.documentmanagement.service.DocumentService}
+ * before the creating transaction commits, so a concurrent upload of the same name is rarely told
+ * it does not exist; a rolled-back creation merely leaves a false positive. A name that was added
+ * to the previous filter just before a build began, and whose document commits after the scan
+ * passed it, would be missing from the new filter; the documents created shortly before the build
+ * are therefore read again before it replaces the previous one.
+ * </p>
+ *
+ * <p>
+ * The filter is not shared between application instances, so it misses the names of documents
+ * another instance is creating. A miss only costs a failed insert: document names are unique, and
+ * {@code DocumentService} retries an upload whose creation lost to another one as a lookup.
+ * </p>
+ *
+ * <p>
+ * A Bloom filter cannot forget a name. Deleted names are counted instead, and the filter is
+ * rebuilt from the table once they make up too large a share of it.
+ * </p>
+ */
+@Component
+public class DocumentNameFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentNameFilter.class);
+
+    // Number of names read per query while building the filter
+    private static final int SCAN_PAGE_SIZE = 10_000;
+
+    private final DocumentRepository documentRepository;
+    private final MetadataCacheProperties properties;
+    private final AtomicLong removedNames = new AtomicLong();
+
+    // Serialises rebuilds; a lock rather than synchronized, as the scan blocks on JDBC
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // The filter answering queries; null until the first build has finished
+    private volatile ScalableBloomFilter filter;
+
+    // The filter being built, which receives additions made while the scan runs
+    private volatile ScalableBloomFilter building;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param documentRepository Repository scanned for the names of existing documents.
+     * @param properties         Cache configuration containing the filter settings.
+     */
+    public DocumentNameFilter(DocumentRepository documentRepository, MetadataCacheProperties properties) {
+        this.documentRepository = documentRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * Checks whether a document with the given name may exist.
+     *
+     * @param name The document name.
+     * @return {@code false} only if no document with this name exists.
+     */
+    public boolean mightExist(String name) {
+        ScalableBloomFilter current = filter;
+        return current == null || current.mightContain(name);
+    }
+
+    /**
+     * Records the name of a document that is being created.
+     *
+     * @param name The document name.
+     */
+    public void add(String name) {
+        // Written to the new filter first, so a concurrent swap cannot lose the name
+        ScalableBloomFilter next = building;
+        if (next != null) {
+            next.add(name);
+        }
+        ScalableBloomFilter current = filter;
+        if (current != null) {
+            current.add(name);
+        }
+    }
+
+    /**
+     * Records that the document with the given name has been deleted.
+     *
+     * @param name The document name.
+     */
+    public void remove(String name) {
+        removedNames.incrementAndGet();
+    }
+
+    /**
+     * Builds the filter from the names of all documents at start-up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (!properties.isNameFilterEnabled()) {
+            return;
+        }
+        rebuild();
+    }
+
+    /**
+     * Periodically rebuilds the filter when deleted names make up too large a share of it.
+     */
+    @Scheduled(fixedDelayString = "${document-management.cache.name-filter-check-interval:PT10M}")
+    public void rebuildIfStale() {
+        ScalableBloomFilter current = filter;
+        if (current != null && removedNames.get() > current.size() * properties.getNameFilterMaxStaleRatio()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Replaces the filter with one built from a fresh scan of the {@code document} table.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            scan();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void scan() {
+        long started = System.nanoTime();
+        long removedBefore = removedNames.get();
+        ScalableBloomFilter next = new ScalableBloomFilter(properties.getNameFilterInitialCapacity(),
+                properties.getNameFilterFalsePositiveRate());
+        building = next;
+        LocalDateTime rescanSince = LocalDateTime.now().minus(properties.getNameFilterRescanWindow());
+        try {
+            long afterId = 0;
+            List<DocumentRepository.DocumentName> page;
+            do {
+                page = documentRepository.findNamesAfter(afterId, PageRequest.of(0, SCAN_PAGE_SIZE));
+                for (DocumentRepository.DocumentName entry : page) {
+                    next.add(entry.getName());
+                    afterId = entry.getId();
+                }
+            } while (page.size() == SCAN_PAGE_SIZE);
+            // Documents whose names reached only the previous filter and that committed behind the scan
+            documentRepository.findNamesCreatedSince(rescanSince).forEach(next::add);
+            filter = next;
+            removedNames.addAndGet(-removedBefore);
+        } finally {
+            building = null;
+        }
+        log.info("Built document name filter with {} names ({} bytes) in {} ms", next.size(),
+                next.memoryBytes(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Returns the filter currently answering queries.
+     *
+     * @return The filter, or {@code null} while it has not been built.
+     */
+    public ScalableBloomFilter currentFilter() {
+        return filter;
+    }
+
+    /**
+     * Returns the number of deleted names still contained in the filter.
+     *
+     * @return The number of stale names.
+     */
+    public long removedNames() {
+        return removedNames.get();
+    }
+}
@@ -0,0 +1,228 @@
+package turing.example.documentmanagement.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over strings that grows with the number of elements added.
+ * <p>
+ * Follows the scalable Bloom filter of Almeida et al.: the filter is a series of plain Bloom
+ * filters. When the newest one has received as many elements as it was sized for, a new one
+ * with twice the capacity and half the false-positive probability is added. The per-filter
+ * probabilities form a geometric series, so the compound false-positive probability stays
+ * below the configured bound however many elements are added.
+ * </p>
+ *
+ * <p>
+ * A query answers "possibly present" or "definitely absent"; there are no false negatives.
+ * Elements cannot be removed. Queries are lock-free and may run concurrently with additions,
+ * which are serialised.
+ * </p>
+ */
+public class ScalableBloomFilter {
+
+    // Capacity multiplier of each new stage
+    private static final int GROWTH_FACTOR = 2;
+
+    // False-positive probability multiplier of each new stage
+    private static final double TIGHTENING_RATIO = 0.5;
+
+    private final double falsePositiveRate;
+    private volatile Stage[] stages;
+    private volatile long size;
+
+    /**
+     * Creates an empty filter.
+     *
+     * @param initialCapacity   The number of elements the first stage is sized for.
+     * @param falsePositiveRate The bound on the compound false-positive probability, between 0 and 1.
+     */
+    public ScalableBloomFilter(long initialCapacity, double falsePositiveRate) {
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("The initial capacity must be positive.");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("The false-positive rate must be between 0 and 1.");
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        // The stage probabilities p0 * r^i sum up to p0 / (1 - r), which must not exceed the bound
+        this.stages = new Stage[]{new Stage(initialCapacity, falsePositiveRate * (1 - TIGHTENING_RATIO))};
+    }
+
+    /**
+     * Adds an element.
+     *
+     * @param element The element to add.
+     * @return {@code true} if the element was not possibly present before.
+     */
+    public synchronized boolean add(String element) {
+        long[] hashes = hash(element);
+        if (mightContain(hashes)) {
+            return false;
+        }
+        Stage[] current = stages;
+        Stage last = current[current.length - 1];
+        if (last.count >= last.capacity) {
+            last = new Stage(last.capacity * GROWTH_FACTOR, last.falsePositiveRate * TIGHTENING_RATIO);
+            Stage[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = last;
+            stages = grown;
+        }
+        last.set(hashes[0], hashes[1]);
+        last.count++;
+        size++;
+        return true;
+    }
+
+    /**
+     * Checks whether an element may have been added.
+     *
+     * @param element The element to look for.
+     * @return {@code false} if the element has definitely not been added.
+     */
+    public boolean mightContain(String element) {
+        return mightContain(hash(element));
+    }
+
+    /**
+     * Returns the number of elements added, not counting additions of elements that were
+     * already possibly present.
+     *
+     * @return The number of elements.
+     */
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Returns the number of stages the filter has grown to.
+     *
+     * @return The number of stages.
+     */
+    public int stageCount() {
+        return stages.length;
+    }
+
+    /**
+     * Returns the memory used by the bit arrays of all stages.
+     *
+     * @return The size of the bit arrays in bytes.
+     */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Stage stage : stages) {
+            bytes += stage.bits.length() * (long) Long.BYTES;
+        }
+        return bytes;
+    }
+
+    /**
+     * Returns the configured bound on the false-positive probability.
+     *
+     * @return The false-positive rate the filter was created with.
+     */
+    public double falsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    /**
+     * Estimates the current false-positive probability from the fill of every stage.
+     *
+     * @return The probability that an absent element is reported as possibly present.
+     */
+    public double estimatedFalsePositiveRate() {
+        double allNegative = 1;
+        for (Stage stage : stages) {
+            double unset = Math.exp(-(double) stage.hashCount * stage.count / stage.bitCount);
+            allNegative *= 1 - Math.pow(1 - unset, stage.hashCount);
+        }
+        return 1 - allNegative;
+    }
+
+    private boolean mightContain(long[] hashes) {
+        for (Stage stage : stages) {
+            if (stage.get(hashes[0], hashes[1])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes two independent 64-bit hashes of the element's UTF-8 bytes.
+     * <p>
+     * FNV-1a followed by the MurmurHash3 finaliser; the second hash re-mixes the first
+     * with a different constant.
+     * </p>
+     */
+    private static long[] hash(String element) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : element.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xFF;
+            h *= 0x100000001b3L;
+        }
+        long h1 = mix(h);
+        long h2 = mix(h ^ 0x9E3779B97F4A7C15L) | 1;
+        return new long[]{h1, h2};
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * A plain Bloom filter sized for a fixed number of elements.
+     */
+    private static final class Stage {
+
+        final long capacity;
+        final double falsePositiveRate;
+        final long bitCount;
+        final int hashCount;
+        final AtomicLongArray bits;
+
+        // Only written while holding the filter's lock
+        volatile long count;
+
+        Stage(long capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            double ln2 = Math.log(2);
+            long words = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (ln2 * ln2) / Long.SIZE);
+            if (words > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Bloom filter stage for " + capacity + " elements is too large.");
+            }
+            this.bits = new AtomicLongArray((int) Math.max(1, words));
+            this.bitCount = bits.length() * (long) Long.SIZE;
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * ln2));
+        }
+
+        void set(long h1, long h2) {
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long value;
+                do {
+                    value = bits.get(word);
+                } while ((value & mask) == 0 && !bits.compareAndSet(word, value, value | mask));
+            }
+        }
+
+        boolean get(long h1, long h2) {
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package turing.example.documentmanagement.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import turing.example.documentmanagement.audit.AuditPartitioning;
+import turing.example.documentmanagement.audit.MySqlAuditPartitioning;
+import turing.example.documentmanagement.audit.RangeDeleteAuditPartitioning;
+import turing.example.documentmanagement.repository.AuditTrailRepository;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+
+/**
+ * Configuration of the audit trail storage.
+ */
+@Configuration
+public class AuditConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditConfig.class);
+
+    /**
+     * Provides the partitioning strategy matching the database: native partitions on MySQL,
+     * batched deletes everywhere else.
+     *
+     * @param dataSource           The application's data source.
+     * @param jdbcTemplate         Template executing the partitioning statements.
+     * @param auditTrailRepository Repository used where the database has no partitions.
+     * @param properties           Audit configuration.
+     * @return The partitioning strategy.
+     */
+    @Bean
+    public AuditPartitioning auditPartitioning(DataSource dataSource, JdbcTemplate jdbcTemplate,
+                                               AuditTrailRepository auditTrailRepository, AuditProperties properties) {
+        String database;
+        try {
+            database = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+        } catch (MetaDataAccessException e) {
+            log.warn("Could not determine the database; the audit trail is not partitioned", e);
+            database = null;
+        }
+        if ("MySQL".equals(database)) {
+            return new MySqlAuditPartitioning(jdbcTemplate);
+        }
+        return new RangeDeleteAuditPartitioning(auditTrailRepository, properties.getPartitions().getDeleteBatchSize());
+    }
+}
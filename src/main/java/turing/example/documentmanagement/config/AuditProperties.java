@@ -0,0 +1,121 @@
+package turing.example.documentmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the asynchronous audit trail.
+ * <p>
+ * Bound from the {@code document-management.audit} prefix in {@code application.yml}.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "document-management.audit")
+public class AuditProperties {
+
+    /**
+     * Whether audit events are recorded at all.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of events waiting to be written.
+     */
+    private int queueCapacity = 65536;
+
+    /**
+     * Maximum number of events written in one transaction.
+     */
+    private int flushSize = 500;
+
+    /**
+     * Longest time an event waits in the queue before a partial batch is written.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * What to do with an event when the queue is full.
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+    /**
+     * How long {@link OverflowPolicy#BLOCK} waits for space before dropping the event.
+     */
+    private Duration blockTimeout = Duration.ofMillis(100);
+
+    /**
+     * Settings for the monthly partitions of the audit trail.
+     */
+    private Partitions partitions = new Partitions();
+
+    /**
+     * Behaviour of the audit queue when it is full.
+     */
+    public enum OverflowPolicy {
+
+        /**
+         * Discard the event and count it as dropped; requests are never slowed down.
+         */
+        DROP,
+
+        /**
+         * Wait up to {@code block-timeout} for space, then discard the event.
+         */
+        BLOCK,
+
+        /**
+         * Write the event synchronously on the calling thread; no event is lost.
+         */
+        CALLER_RUNS
+    }
+
+    /**
+     * Configuration of the monthly partitions the audit trail is stored in.
+     */
+    @Data
+    public static class Partitions {
+
+        /**
+         * How long entries are kept. A month is expired once all of it lies further back than this.
+         */
+        private Duration retention = Duration.ofDays(365);
+
+        /**
+         * Number of future months that are kept partitioned ahead of time.
+         */
+        private int premadeMonths = 3;
+
+        /**
+         * What happens to the entries of an expired month.
+         */
+        private ExpiredPolicy expiredPolicy = ExpiredPolicy.ARCHIVE;
+
+        /**
+         * Number of entries removed per transaction where months cannot be dropped as a whole.
+         */
+        private int deleteBatchSize = 5000;
+
+        /**
+         * How often partitions are created ahead and expired months are removed.
+         */
+        private Duration maintenanceInterval = Duration.ofHours(6);
+    }
+
+    /**
+     * Handling of the entries of an expired month.
+     */
+    public enum ExpiredPolicy {
+
+        /**
+         * Move the month into a table of its own, {@code audit_trail_archive_pYYYYMM}.
+         */
+        ARCHIVE,
+
+        /**
+         * Discard the month.
+         */
+        DROP
+    }
+}
@@ -0,0 +1,46 @@
+package turing.example.documentmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for API authentication.
+ * <p>
+ * Bound from the {@code document-management.auth} prefix in {@code application.yml}.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "document-management.auth")
+public class AuthProperties {
+
+    /**
+     * Secret signing the access tokens, at least 32 bytes. If empty, a random secret is
+     * generated at startup, so tokens do not survive a restart and are only accepted by the
+     * instance that issued them.
+     */
+    private String tokenSecret = "";
+
+    /**
+     * Lifetime of an access token.
+     */
+    private Duration tokenTtl = Duration.ofMinutes(15);
+
+    /**
+     * Whether verified username/password credentials are remembered, so that clients still
+     * sending them with every request do not pay for a password hash check each time.
+     */
+    private boolean credentialCacheEnabled = true;
+
+    /**
+     * Maximum number of users whose verified credentials are remembered.
+     */
+    private long credentialCacheMaximumSize = 10_000;
+
+    /**
+     * Time after which remembered credentials are verified against the password hash again;
+     * also how long a changed password or disabled account may go unnoticed.
+     */
+    private Duration credentialCacheTtl = Duration.ofMinutes(5);
+}
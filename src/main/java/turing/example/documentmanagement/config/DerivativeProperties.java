@@ -0,0 +1,68 @@
+package turing.example.documentmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the generation of thumbnails and previews.
+ * <p>
+ * Bound from the {@code document-management.derivatives} prefix in {@code application.yml}.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "document-management.derivatives")
+public class DerivativeProperties {
+
+    /**
+     * Whether derivatives are generated for new versions.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of worker threads; {@code 0} uses one per available processor.
+     */
+    private int workerThreads = 0;
+
+    /**
+     * Number of claimed jobs that may wait for a free worker.
+     */
+    private int queueCapacity = 32;
+
+    /**
+     * How often the job table is polled for jobs that were not picked up right away.
+     */
+    private Duration pollInterval = Duration.ofSeconds(30);
+
+    /**
+     * Running jobs that have not finished after this time are considered abandoned and rerun.
+     */
+    private Duration staleAfter = Duration.ofMinutes(10);
+
+    /**
+     * Number of attempts before a job is marked as failed.
+     */
+    private int maxAttempts = 3;
+
+    /**
+     * Versions larger than this get no derivatives.
+     */
+    private DataSize maxSourceSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Longest edge of a thumbnail in pixels.
+     */
+    private int thumbnailSize = 256;
+
+    /**
+     * Images with more pixels than this are not decoded for a thumbnail.
+     */
+    private long maxImagePixels = 64L * 1024 * 1024;
+
+    /**
+     * Maximum number of characters of a text preview.
+     */
+    private int previewLength = 4096;
+}
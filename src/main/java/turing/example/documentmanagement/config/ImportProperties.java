@@ -0,0 +1,37 @@
+package turing.example.documentmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for bulk imports of local directory trees and ZIP archives.
+ * <p>
+ * Bound from the {@code document-management.imports} prefix in {@code application.yml}.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "document-management.imports")
+public class ImportProperties {
+
+    /**
+     * Directory import sources are resolved against; sources outside of it are rejected.
+     */
+    private String root = "imports/";
+
+    /**
+     * Number of threads hashing and copying files into the blob store.
+     */
+    private int threads = 8;
+
+    /**
+     * Number of files recorded per transaction; also the distance between checkpoints.
+     */
+    private int batchSize = 500;
+
+    /**
+     * How often the progress of a running import is logged.
+     */
+    private Duration progressInterval = Duration.ofSeconds(30);
+}
@@ -0,0 +1,129 @@
+package turing.example.documentmanagement.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the in-process metadata caches.
+ * <p>
+ * Bound from the {@code document-management.cache} prefix in {@code application.yml}.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "document-management.cache")
+public class MetadataCacheProperties {
+
+    /**
+     * Maximum number of document names kept in the name cache.
+     */
+    private long documentNamesMaximumSize = 100_000;
+
+    /**
+     * Time after which a cached name that belongs to a document is looked up again.
+     */
+    private Duration documentNamesTtl = Duration.ofMinutes(30);
+
+    /**
+     * Time after which a cached name that belongs to no document is looked up again.
+     * <p>
+     * Kept short, as only documents created by this instance update the cache immediately.
+     * </p>
+     */
+    private Duration documentNamesNegativeTtl = Duration.ofMinutes(1);
+
+    /**
+     * Whether document names are pre-checked with a Bloom filter before looking them up.
+     */
+    private boolean nameFilterEnabled = true;
+
+    /**
+     * Number of names the first stage of the name filter is sized for; the filter grows beyond it.
+     */
+    private long nameFilterInitialCapacity = 100_000;
+
+    /**
+     * Upper bound on the probability that the name filter reports an unknown name as possibly present.
+     */
+    private double nameFilterFalsePositiveRate = 0.01;
+
+    /**
+     * Share of deleted names in the name filter above which it is rebuilt.
+     */
+    private double nameFilterMaxStaleRatio = 0.1;
+
+    /**
+     * How often the share of deleted names in the name filter is checked.
+     */
+    private Duration nameFilterCheckInterval = Duration.ofMinutes(10);
+
+    /**
+     * How long before a name filter build started documents are read again before the filter is used;
+     * covers creating transactions that commit after the scan has passed their rows.
+     */
+    private Duration nameFilterRescanWindow = Duration.ofMinutes(5);
+
+    /**
+     * Limits of the Hibernate second-level cache regions.
+     */
+    private SecondLevel secondLevel = new SecondLevel();
+
+    /**
+     * Configuration of the Hibernate second-level cache, one entry per region.
+     * <p>
+     * Every region is bounded by an entry count and an expiry after write. The update timestamps
+     * Hibernate keeps per table to invalidate cached queries are not configurable; they must outlive
+     * every cached query result and are never evicted.
+     * </p>
+     */
+    @Data
+    public static class SecondLevel {
+
+        /**
+         * Cached {@code Document} entities.
+         */
+        private Region documents = new Region(100_000, Duration.ofHours(1));
+
+        /**
+         * Cached {@code DocumentVersion} entities.
+         */
+        private Region documentVersions = new Region(200_000, Duration.ofHours(1));
+
+        /**
+         * Cached {@code Document.versions} collections, as lists of version IDs.
+         */
+        private Region documentVersionCollections = new Region(20_000, Duration.ofMinutes(30));
+
+        /**
+         * Cached results of the version history query, as lists of version IDs.
+         */
+        private Region versionHistoryQueries = new Region(20_000, Duration.ofMinutes(10));
+
+        /**
+         * Cached results of other cacheable queries.
+         */
+        private Region defaultQueries = new Region(1_000, Duration.ofMinutes(10));
+    }
+
+    /**
+     * Size and lifetime limit of a cache region.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Region {
+
+        /**
+         * Maximum number of entries; the least valuable ones are evicted beyond it.
+         */
+        private long maximumSize;
+
+        /**
+         * Time after which an entry is read from the database again.
+         */
+        private Duration ttl;
+    }
+}
@@ -0,0 +1,48 @@
+package turing.example.documentmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the full-text search index.
+ * <p>
+ * Bound from the {@code document-management.search} prefix in {@code application.yml}.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "document-management.search")
+public class SearchProperties {
+
+    /**
+     * Whether stored versions are added to the search index.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Directory holding the index files.
+     */
+    private String indexDir = "index/";
+
+    /**
+     * Only this many bytes from the start of a document are indexed.
+     */
+    private DataSize maxIndexedSize = DataSize.ofMegabytes(10);
+
+    /**
+     * How often indexed documents are made durable with a Lucene commit.
+     */
+    private Duration commitInterval = Duration.ofSeconds(5);
+
+    /**
+     * Number of latest versions read per page when the index catches up at startup.
+     */
+    private int catchUpPageSize = 500;
+
+    /**
+     * Largest number of results a search may return.
+     */
+    private int maxResults = 100;
+}
@@ -0,0 +1,104 @@
+package turing.example.documentmanagement.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * Configuration of the Hibernate second-level cache.
+ * <p>
+ * The regions are Caffeine caches created through JCache with the limits configured under
+ * {@code document-management.cache.second-level}, and handed to Hibernate as a ready
+ * {@link CacheManager}. Hibernate is configured to fail on a region that does not exist here
+ * instead of creating an unbounded one.
+ * </p>
+ *
+ * <p>
+ * Cached entries are Hibernate's immutable, disassembled entity states, so they are stored by
+ * reference rather than copied on every access. Bulk updates of an entity, such as delta compaction
+ * or storage migration of versions, evict its whole region.
+ * </p>
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    /**
+     * Region of the {@code Document} entities.
+     */
+    public static final String DOCUMENTS_REGION = "documents";
+
+    /**
+     * Region of the {@code DocumentVersion} entities.
+     */
+    public static final String DOCUMENT_VERSIONS_REGION = "document-versions";
+
+    /**
+     * Region of the {@code Document.versions} collections.
+     */
+    public static final String DOCUMENT_VERSION_COLLECTIONS_REGION = "document-version-collections";
+
+    /**
+     * Region of the version history query results.
+     */
+    public static final String VERSION_HISTORY_QUERIES_REGION = "version-history-queries";
+
+    // Hibernate's own regions for query results without a region and for the table update timestamps
+    private static final String DEFAULT_QUERIES_REGION = "default-query-results-region";
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    /**
+     * Creates the cache regions.
+     * <p>
+     * Each application context gets a cache manager of its own, so contexts sharing a JVM, as in
+     * tests, never see each other's entries.
+     * </p>
+     *
+     * @param properties Cache configuration providing the region limits.
+     * @return The cache manager holding all regions.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(MetadataCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate-" + UUID.randomUUID()), getClass().getClassLoader(),
+                        new Properties());
+        MetadataCacheProperties.SecondLevel regions = properties.getSecondLevel();
+        createRegion(cacheManager, DOCUMENTS_REGION, regions.getDocuments());
+        createRegion(cacheManager, DOCUMENT_VERSIONS_REGION, regions.getDocumentVersions());
+        createRegion(cacheManager, DOCUMENT_VERSION_COLLECTIONS_REGION, regions.getDocumentVersionCollections());
+        createRegion(cacheManager, VERSION_HISTORY_QUERIES_REGION, regions.getVersionHistoryQueries());
+        createRegion(cacheManager, DEFAULT_QUERIES_REGION, regions.getDefaultQueries());
+        createRegion(cacheManager, UPDATE_TIMESTAMPS_REGION, null);
+        return cacheManager;
+    }
+
+    /**
+     * Makes Hibernate use the prepared cache manager.
+     *
+     * @param secondLevelCacheManager The cache manager holding all regions.
+     * @return The customizer adding the cache manager to the Hibernate properties.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, MetadataCacheProperties.Region limits) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        if (limits != null) {
+            configuration.setMaximumSize(OptionalLong.of(limits.getMaximumSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(limits.getTtl().toNanos()));
+        }
+        cacheManager.createCache(name, configuration);
+    }
+}
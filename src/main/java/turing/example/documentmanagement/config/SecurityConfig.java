@@ -2,6 +2,10 @@ package turing.example.documentmanagement.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -9,10 +13,22 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import turing.example.documentmanagement.security.CachingAuthenticationProvider;
+import turing.example.documentmanagement.security.TokenAuthenticationFilter;
+import turing.example.documentmanagement.security.TokenService;
 
 /**
  * Security configuration class for the Document Management System.
  * This class sets up basic authentication using Spring Security.
+ * <p>
+ * Clients exchange their user name and password for a short-lived access token at
+ * {@code POST /auth/token} and send it as {@code Authorization: Bearer} header, which is
+ * verified with an HMAC instead of a BCrypt password check. Clients that keep sending a user
+ * name and password are served from a cache of verified credentials.
+ * </p>
  */
 @Configuration
 @EnableWebSecurity
@@ -45,4 +61,52 @@ public class SecurityConfig {
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
     }
+
+    /**
+     * Defines the provider checking user names and passwords.
+     * <p>
+     * BCrypt verification is wrapped by a cache of verified credentials unless it is disabled.
+     * </p>
+     *
+     * @param userDetailsService Service loading the users.
+     * @param passwordEncoder    Encoder verifying the passwords.
+     * @param properties         Authentication configuration.
+     * @return AuthenticationProvider - Provider used by HTTP Basic and form login.
+     */
+    @Bean
+    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+                                                         PasswordEncoder passwordEncoder, AuthProperties properties) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder);
+        if (!properties.isCredentialCacheEnabled()) {
+            return provider;
+        }
+        return new CachingAuthenticationProvider(provider, properties.getCredentialCacheMaximumSize(),
+                properties.getCredentialCacheTtl());
+    }
+
+    /**
+     * Defines the filter chain: every request has to be authenticated, by access token, HTTP Basic
+     * or form login.
+     * <p>
+     * Requests authenticated by access token are exempt from CSRF protection, as browsers never
+     * attach such a header on their own, and so is the token endpoint itself.
+     * </p>
+     *
+     * @param http         The builder of the filter chain.
+     * @param tokenService Service verifying access tokens.
+     * @return SecurityFilterChain - The configured filter chain.
+     * @throws Exception If the filter chain cannot be built.
+     */
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, TokenService tokenService) throws Exception {
+        http.authorizeHttpRequests(requests -> requests.anyRequest().authenticated())
+                .formLogin(Customizer.withDefaults())
+                .httpBasic(Customizer.withDefaults())
+                .csrf(csrf -> csrf.ignoringRequestMatchers(TokenAuthenticationFilter::hasToken,
+                        new AntPathRequestMatcher("/auth/token")))
+                .addFilterBefore(new TokenAuthenticationFilter(tokenService), BasicAuthenticationFilter.class);
+        return http.build();
+    }
 }
@@ -0,0 +1,29 @@
+package turing.example.documentmanagement.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import turing.example.documentmanagement.storage.FlatStorageLayout;
+import turing.example.documentmanagement.storage.ShardedStorageLayout;
+import turing.example.documentmanagement.storage.StorageLayout;
+
+/**
+ * Configuration of the blob storage.
+ */
+@Configuration
+public class StorageConfig {
+
+    /**
+     * Provides the layout new blobs are stored in, as configured by
+     * {@code document-management.storage.layout}.
+     *
+     * @param properties Storage configuration.
+     * @return The storage layout.
+     */
+    @Bean
+    public StorageLayout storageLayout(StorageProperties properties) {
+        return switch (properties.getLayout()) {
+            case FLAT -> new FlatStorageLayout();
+            case SHARDED -> new ShardedStorageLayout(properties.getShardLevels());
+        };
+    }
+}
@@ -0,0 +1,327 @@
+package turing.example.documentmanagement.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration properties for the on-disk document storage.
+ * <p>
+ * Bound from the {@code document-management.storage} prefix in {@code application.yml}.
+ * </p>
+ */
+@Data
+@ConfigurationProperties(prefix = "document-management.storage")
+public class StorageProperties {
+
+    /**
+     * Root directory under which document contents are stored.
+     */
+    private String root = "uploads/";
+
+    /**
+     * Chunk size used by resumable upload sessions unless the client asks for another one.
+     */
+    private DataSize chunkSize = DataSize.ofMegabytes(8);
+
+    /**
+     * Largest chunk size a client may request for a resumable upload session.
+     */
+    private DataSize maxChunkSize = DataSize.ofMegabytes(64);
+
+    /**
+     * Time after which an uncommitted upload session is discarded.
+     */
+    private Duration uploadSessionExpiry = Duration.ofDays(1);
+
+    /**
+     * Number of files of a batch upload that are written to storage in parallel.
+     */
+    private int uploadThreads = 8;
+
+    /**
+     * Directory layout of new blobs under the root.
+     */
+    private Layout layout = Layout.SHARDED;
+
+    /**
+     * Number of directory levels of the sharded layout; each level has 256 directories.
+     */
+    private int shardLevels = 2;
+
+    /**
+     * Number of blobs moved per transaction when migrating to the configured layout.
+     */
+    private int migrationBatchSize = 200;
+
+    /**
+     * Settings for storing older document versions as deltas.
+     */
+    private Delta delta = new Delta();
+
+    /**
+     * Settings for compressing blobs at rest.
+     */
+    private Compression compression = new Compression();
+
+    /**
+     * Settings for ZIP exports of documents.
+     */
+    private Export export = new Export();
+
+    /**
+     * Settings for removing old document versions.
+     */
+    private Retention retention = new Retention();
+
+    /**
+     * Settings for the background verification of stored blobs.
+     */
+    private Scrub scrub = new Scrub();
+
+    /**
+     * Directory layouts of the blob store.
+     */
+    public enum Layout {
+
+        /**
+         * Every blob directly in the root directory.
+         */
+        FLAT,
+
+        /**
+         * Blobs in nested sub-directories named after the leading digits of their hash.
+         */
+        SHARDED
+    }
+
+    /**
+     * Configuration of the compression of blobs at rest.
+     * <p>
+     * Content of a compressible type is always compressed, content of an already compressed
+     * type never is. For all other content a sample from the start of the file is compressed
+     * and the whole file only if the sample shrinks enough.
+     * </p>
+     */
+    @Data
+    public static class Compression {
+
+        /**
+         * Whether new blobs are compressed.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Deflate level from 1 (fastest) to 9 (smallest).
+         */
+        private int level = 6;
+
+        /**
+         * Content smaller than this is stored uncompressed.
+         */
+        private DataSize minSize = DataSize.ofKilobytes(4);
+
+        /**
+         * Number of leading bytes compressed to judge content of an unlisted type.
+         */
+        private DataSize sampleSize = DataSize.ofKilobytes(64);
+
+        /**
+         * Content of an unlisted type is compressed if its sample shrinks to at most this fraction.
+         */
+        private double maxSampleRatio = 0.9;
+
+        /**
+         * Media types that are always compressed; wildcards such as {@code text/*} are allowed.
+         */
+        private List<MediaType> compressibleTypes = new ArrayList<>(MediaType.parseMediaTypes(List.of(
+                "text/*", "application/json", "application/*+json", "application/xml", "application/*+xml",
+                "application/javascript", "application/x-ndjson", "application/sql", "application/rtf",
+                "application/x-sh", "image/svg+xml", "image/bmp")));
+
+        /**
+         * Media types that are never compressed, as their content is compressed already.
+         */
+        private List<MediaType> incompressibleTypes = new ArrayList<>(MediaType.parseMediaTypes(List.of(
+                "image/*", "video/*", "audio/*", "application/zip", "application/gzip", "application/x-gzip",
+                "application/x-bzip2", "application/x-xz", "application/x-7z-compressed",
+                "application/x-rar-compressed", "application/zstd", "application/java-archive", "application/pdf",
+                "application/vnd.openxmlformats-officedocument.wordprocessingml.document",
+                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet",
+                "application/vnd.openxmlformats-officedocument.presentationml.presentation",
+                "application/vnd.oasis.opendocument.text", "application/epub+zip")));
+    }
+
+    /**
+     * Configuration of the delta-compressed version chains.
+     * <p>
+     * When enabled, the newest version of a document is always stored in full and the
+     * previous version is replaced by a reverse delta against it.
+     * </p>
+     */
+    @Data
+    public static class Delta {
+
+        /**
+         * Whether older versions are converted to deltas.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of deltas that have to be applied to reconstruct any version;
+         * a full snapshot is kept whenever a chain would grow beyond this length.
+         */
+        private int maxChainLength = 8;
+
+        /**
+         * Versions larger than this are always stored in full.
+         */
+        private DataSize maxFileSize = DataSize.ofMegabytes(64);
+
+        /**
+         * A delta is only kept if it is smaller than this fraction of the full version.
+         */
+        private double maxDeltaRatio = 0.5;
+    }
+
+    /**
+     * Configuration of the streamed ZIP exports.
+     */
+    @Data
+    public static class Export {
+
+        /**
+         * Number of documents whose versions are read from the database at a time.
+         */
+        private int pageSize = 100;
+
+        /**
+         * Already compressed files up to this size are stored in the archive as they are, which
+         * requires reading them twice to compute their checksum. Larger ones are wrapped in
+         * uncompressed deflate blocks, which costs a few bytes per block but only one read.
+         */
+        private DataSize storedMaxSize = DataSize.ofMegabytes(64);
+    }
+
+    /**
+     * Configuration of the version retention.
+     * <p>
+     * A version is kept if any rule keeps it: it is one of the {@code keep-last} newest versions,
+     * it was uploaded within {@code keep-for}, or it is the newest version of its day or week
+     * under {@code thinning}. All other versions are removed by a background collector, whose
+     * deletions and file I/O are rate-limited.
+     * </p>
+     */
+    @Data
+    public static class Retention {
+
+        /**
+         * Whether old versions are removed at all.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of newest versions of every document that are always kept; at least 1.
+         */
+        private int keepLast = 10;
+
+        /**
+         * Versions uploaded within this period are kept.
+         */
+        private Duration keepFor = Duration.ofDays(30);
+
+        /**
+         * Older versions that are thinned out instead of removed.
+         */
+        private Thinning thinning = Thinning.NONE;
+
+        /**
+         * Number of versions deleted per transaction.
+         */
+        private int batchSize = 100;
+
+        /**
+         * Largest number of blob references released per second, each of which may delete a file.
+         */
+        private int maxReleasesPerSecond = 50;
+
+        /**
+         * Largest number of bytes per second read and written to store a kept version in full
+         * when the version its delta is based on is removed.
+         */
+        private DataSize maxBytesPerSecond = DataSize.ofMegabytes(8);
+
+        /**
+         * How often the collector runs.
+         */
+        private Duration interval = Duration.ofHours(1);
+    }
+
+    /**
+     * Configuration of the storage scrubber.
+     * <p>
+     * The scrubber re-reads every blob file in the background and compares it with the recorded
+     * size and SHA-256 digest, so bit rot and lost files are found before anyone downloads them.
+     * Its reads are rate-limited, and its progress is saved so a restart continues the current pass.
+     * </p>
+     */
+    @Data
+    public static class Scrub {
+
+        /**
+         * Whether blobs are verified in the background at all.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Largest number of bytes per second read from storage.
+         */
+        private DataSize maxBytesPerSecond = DataSize.ofMegabytes(16);
+
+        /**
+         * Size of each sequential read.
+         */
+        private DataSize readSize = DataSize.ofMegabytes(1);
+
+        /**
+         * Time between the starts of two passes over all blobs.
+         */
+        private Duration passInterval = Duration.ofDays(7);
+
+        /**
+         * Number of blob records loaded per query.
+         */
+        private int pageSize = 100;
+
+        /**
+         * How often the progress of a pass is saved.
+         */
+        private Duration checkpointInterval = Duration.ofSeconds(30);
+    }
+
+    /**
+     * Thinning of versions outside the retention period.
+     */
+    public enum Thinning {
+
+        /**
+         * Remove them.
+         */
+        NONE,
+
+        /**
+         * Keep the newest version of every day.
+         */
+        DAILY,
+
+        /**
+         * Keep the newest version of every week, starting on Monday.
+         */
+        WEEKLY
+    }
+}
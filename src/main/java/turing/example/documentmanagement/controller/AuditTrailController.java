@@ -0,0 +1,109 @@
+package turing.example.documentmanagement.controller;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import turing.example.documentmanagement.dto.AuditPage;
+import turing.example.documentmanagement.service.AuditTrailService;
+
+import java.time.LocalDateTime;
+
+/**
+ * Controller for reading the audit trail.
+ * <p>
+ * Every listing is paged with a cursor and can be restricted to a time range with the ISO
+ * date-time parameters {@code from} (inclusive) and {@code to} (exclusive), e.g.
+ * {@code /admin/audit/users/alice?from=2024-03-01T00:00:00&to=2024-04-01T00:00:00}.
+ * </p>
+ */
+@RestController
+@RequestMapping("/admin/audit")
+public class AuditTrailController {
+
+    private final AuditTrailService auditTrailService;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param auditTrailService Service reading the audit trail.
+     */
+    public AuditTrailController(AuditTrailService auditTrailService) {
+        this.auditTrailService = auditTrailService;
+    }
+
+    /**
+     * Endpoint to list the entries of all users, newest first.
+     *
+     * @param from   The inclusive start of the time range.
+     * @param to     The exclusive end of the time range.
+     * @param cursor The cursor of the previous page, or absent for the first page.
+     * @param size   The maximum number of entries on the page.
+     * @return {@link ResponseEntity} containing the page of entries.
+     */
+    @GetMapping
+    public ResponseEntity<AuditPage> listEntries(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "50") int size) {
+        return ResponseEntity.ok(auditTrailService.findInRange(from, to, cursor, size));
+    }
+
+    /**
+     * Endpoint to list the entries of a document, newest first.
+     *
+     * @param id     The ID of the document.
+     * @param from   The inclusive start of the time range.
+     * @param to     The exclusive end of the time range.
+     * @param cursor The cursor of the previous page, or absent for the first page.
+     * @param size   The maximum number of entries on the page.
+     * @return {@link ResponseEntity} containing the page of entries.
+     */
+    @GetMapping("/documents/{id}")
+    public ResponseEntity<AuditPage> listDocumentEntries(
+            @PathVariable("id") Long id,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "50") int size) {
+        return ResponseEntity.ok(auditTrailService.findByDocument(id, from, to, cursor, size));
+    }
+
+    /**
+     * Endpoint to list the entries of a user, newest first.
+     *
+     * @param user   The user who performed the actions.
+     * @param from   The inclusive start of the time range.
+     * @param to     The exclusive end of the time range.
+     * @param cursor The cursor of the previous page, or absent for the first page.
+     * @param size   The maximum number of entries on the page.
+     * @return {@link ResponseEntity} containing the page of entries.
+     */
+    @GetMapping("/users/{user}")
+    public ResponseEntity<AuditPage> listUserEntries(
+            @PathVariable("user") String user,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "50") int size) {
+        return ResponseEntity.ok(auditTrailService.findByUser(user, from, to, cursor, size));
+    }
+
+    /**
+     * Translates invalid request parameters, such as a malformed cursor or an empty time range,
+     * into an HTTP 400 response.
+     *
+     * @param e The exception raised by the service layer.
+     * @return {@link ResponseEntity} with the exception message.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+}
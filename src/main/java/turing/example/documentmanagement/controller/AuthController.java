@@ -0,0 +1,57 @@
+package turing.example.documentmanagement.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import turing.example.documentmanagement.dto.TokenResponse;
+import turing.example.documentmanagement.security.TokenAuthenticationFilter;
+import turing.example.documentmanagement.security.TokenService;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Controller issuing access tokens.
+ */
+@RestController
+@RequestMapping("/auth")
+public class AuthController {
+
+    private static final String TOKEN_TYPE = "Bearer";
+
+    private final TokenService tokenService;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param tokenService Service issuing the tokens.
+     */
+    public AuthController(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    /**
+     * Endpoint to exchange a user name and password, sent with HTTP Basic, for an access token.
+     * <p>
+     * Requests authenticated with a token get no new one, so a token cannot be renewed
+     * indefinitely without the password.
+     * </p>
+     *
+     * @param authentication The authentication of the current request.
+     * @param request        The current request.
+     * @return {@link ResponseEntity} containing the token, or HTTP 403 for token-authenticated requests.
+     */
+    @PostMapping("/token")
+    public ResponseEntity<TokenResponse> issueToken(Authentication authentication, HttpServletRequest request) {
+        if (TokenAuthenticationFilter.hasToken(request)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        TokenService.IssuedToken token = tokenService.issue(authentication);
+        long expiresIn = Duration.between(Instant.now(), token.expiresAt()).toSeconds();
+        return ResponseEntity.ok(new TokenResponse(token.token(), TOKEN_TYPE, expiresIn));
+    }
+}
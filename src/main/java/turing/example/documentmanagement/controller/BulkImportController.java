@@ -0,0 +1,111 @@
+package turing.example.documentmanagement.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import turing.example.documentmanagement.dto.ImportProgress;
+import turing.example.documentmanagement.exception.ImportJobNotFoundException;
+import turing.example.documentmanagement.service.BulkImportService;
+
+/**
+ * Controller for bulk imports of local directory trees and ZIP archives.
+ * <p>
+ * Imports run in the background; their progress, including the current throughput, is polled
+ * with {@code GET /admin/imports/{id}}. A failed or interrupted import is continued with
+ * {@code POST /admin/imports/{id}/resume}.
+ * </p>
+ */
+@RestController
+@RequestMapping("/admin/imports")
+public class BulkImportController {
+
+    private final BulkImportService importService;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param importService Service running the imports.
+     */
+    public BulkImportController(BulkImportService importService) {
+        this.importService = importService;
+    }
+
+    /**
+     * Endpoint to start an import in the background.
+     *
+     * @param source  The directory or ZIP archive, relative to the configured import root.
+     * @param owner   The owner of the documents that have to be created.
+     * @param request The current request, whose authenticated user is recorded as the uploader.
+     * @return {@link ResponseEntity} with HTTP 202 and the progress of the started import.
+     */
+    @PostMapping
+    public ResponseEntity<ImportProgress> start(@RequestParam("source") String source,
+                                                @RequestParam("owner") String owner,
+                                                HttpServletRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(importService.start(source, owner, CurrentUser.of(request)));
+    }
+
+    /**
+     * Endpoint to resume a failed or interrupted import after its last checkpoint.
+     *
+     * @param id      The ID of the import.
+     * @param request The current request, whose authenticated user is recorded as the uploader.
+     * @return {@link ResponseEntity} with HTTP 202 and the progress of the resumed import.
+     */
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<ImportProgress> resume(@PathVariable("id") String id, HttpServletRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(importService.resume(id, CurrentUser.of(request)));
+    }
+
+    /**
+     * Endpoint to retrieve the progress of an import.
+     *
+     * @param id The ID of the import.
+     * @return {@link ResponseEntity} containing the import's progress.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ImportProgress> getProgress(@PathVariable("id") String id) {
+        return ResponseEntity.ok(importService.getProgress(id));
+    }
+
+    /**
+     * Translates an unknown import into an HTTP 404 response.
+     *
+     * @param e The exception raised by the service layer.
+     * @return {@link ResponseEntity} with the exception message.
+     */
+    @ExceptionHandler(ImportJobNotFoundException.class)
+    public ResponseEntity<String> handleNotFound(ImportJobNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    }
+
+    /**
+     * Translates an invalid import source into an HTTP 400 response.
+     *
+     * @param e The exception raised by the service layer.
+     * @return {@link ResponseEntity} with the exception message.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    /**
+     * Translates a start or resume request that conflicts with the state of the imports into an HTTP 409 response.
+     *
+     * @param e The exception raised by the service layer.
+     * @return {@link ResponseEntity} with the exception message.
+     */
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleConflict(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+}
@@ -0,0 +1,64 @@
+package turing.example.documentmanagement.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import turing.example.documentmanagement.cache.DocumentNameCache;
+import turing.example.documentmanagement.cache.DocumentNameFilter;
+import turing.example.documentmanagement.cache.ScalableBloomFilter;
+import turing.example.documentmanagement.dto.CacheStatistics;
+import turing.example.documentmanagement.dto.NameFilterStatistics;
+
+import java.util.List;
+
+/**
+ * Controller reporting the statistics of the in-process metadata caches and filters.
+ */
+@RestController
+@RequestMapping("/admin/caches")
+public class CacheController {
+
+    private final DocumentNameCache nameCache;
+    private final DocumentNameFilter nameFilter;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param nameCache  Cache resolving document names to document IDs.
+     * @param nameFilter Filter ruling out names that belong to no document.
+     */
+    public CacheController(DocumentNameCache nameCache, DocumentNameFilter nameFilter) {
+        this.nameCache = nameCache;
+        this.nameFilter = nameFilter;
+    }
+
+    /**
+     * Endpoint to retrieve the hit, miss and eviction counts of every cache.
+     *
+     * @return {@link ResponseEntity} containing one entry per cache.
+     */
+    @GetMapping
+    public ResponseEntity<List<CacheStatistics>> getStatistics() {
+        CacheStats stats = nameCache.stats();
+        return ResponseEntity.ok(List.of(new CacheStatistics(DocumentNameCache.NAME, nameCache.estimatedSize(),
+                stats.hitCount(), stats.missCount(), stats.hitRate(), stats.evictionCount())));
+    }
+
+    /**
+     * Endpoint to retrieve the size, memory use and false-positive rate of the name filter.
+     *
+     * @return {@link ResponseEntity} containing the filter statistics.
+     */
+    @GetMapping("/name-filter")
+    public ResponseEntity<NameFilterStatistics> getNameFilterStatistics() {
+        ScalableBloomFilter filter = nameFilter.currentFilter();
+        if (filter == null) {
+            return ResponseEntity.ok(new NameFilterStatistics(false, 0, nameFilter.removedNames(), 0, 0, 0, 0));
+        }
+        return ResponseEntity.ok(new NameFilterStatistics(true, filter.size(), nameFilter.removedNames(),
+                filter.stageCount(), filter.memoryBytes(), filter.falsePositiveRate(),
+                filter.estimatedFalsePositiveRate()));
+    }
+}
@@ -0,0 +1,159 @@
+package turing.example.documentmanagement.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import turing.example.documentmanagement.dto.DocumentResponse;
+import turing.example.documentmanagement.dto.UploadSessionStatus;
+import turing.example.documentmanagement.entity.Document;
+import turing.example.documentmanagement.exception.UploadSessionNotFoundException;
+import turing.example.documentmanagement.service.ChunkedUploadService;
+import turing.example.documentmanagement.service.DocumentService;
+
+import java.io.IOException;
+
+/**
+ * Controller exposing the resumable, chunked upload API for large documents.
+ * <p>
+ * An upload consists of the following steps:
+ * <ul>
+ *     <li>{@code POST /documents/uploads} starts a session and returns the chunk layout.</li>
+ *     <li>{@code PUT /documents/uploads/{sessionId}/chunks/{index}} sends one chunk as the raw
+ *     request body; chunks may be sent in any order and in parallel.</li>
+ *     <li>{@code GET /documents/uploads/{sessionId}} reports the missing chunks, for resuming.</li>
+ *     <li>{@code POST /documents/uploads/{sessionId}/commit} creates the document version.</li>
+ * </ul>
+ * </p>
+ *
+ * This controller interacts with the {@link ChunkedUploadService} to process the uploads.
+ */
+@RestController
+@RequestMapping("/documents/uploads")
+public class ChunkedUploadController {
+
+    private final ChunkedUploadService chunkedUploadService;
+    private final DocumentService documentService;
+
+    /**
+     * Constructor-based dependency injection for ChunkedUploadService.
+     *
+     * @param chunkedUploadService Service layer handling the upload sessions.
+     * @param documentService      Service resolving the metadata of committed documents.
+     */
+    public ChunkedUploadController(ChunkedUploadService chunkedUploadService, DocumentService documentService) {
+        this.chunkedUploadService = chunkedUploadService;
+        this.documentService = documentService;
+    }
+
+    /**
+     * Endpoint to start a resumable upload session.
+     *
+     * @param fileName  The name of the document being uploaded.
+     * @param owner     The owner of the document.
+     * @param totalSize The total size of the file in bytes.
+     * @param chunkSize Optional chunk size in bytes; the configured default is used if omitted.
+     * @return {@link ResponseEntity} containing the new session's status.
+     * @throws IOException If the part file cannot be allocated.
+     */
+    @PostMapping
+    public ResponseEntity<UploadSessionStatus> startSession(@RequestParam("fileName") String fileName,
+                                                            @RequestParam("owner") String owner,
+                                                            @RequestParam("totalSize") long totalSize,
+                                                            @RequestParam(value = "chunkSize", required = false) Long chunkSize)
+            throws IOException {
+        UploadSessionStatus status = chunkedUploadService.startSession(fileName, owner, totalSize, chunkSize);
+        return ResponseEntity.status(HttpStatus.CREATED).body(status);
+    }
+
+    /**
+     * Endpoint to upload one chunk; the chunk content is the raw request body.
+     *
+     * @param sessionId The ID of the upload session.
+     * @param index     The zero-based index of the chunk.
+     * @param request   The current request, whose body is streamed into the part file.
+     * @return An empty {@link ResponseEntity} with HTTP 204 once the chunk is stored.
+     * @throws IOException If the chunk cannot be read or written completely.
+     */
+    @PutMapping("/{sessionId}/chunks/{index}")
+    public ResponseEntity<Void> uploadChunk(@PathVariable("sessionId") String sessionId,
+                                            @PathVariable("index") int index,
+                                            HttpServletRequest request) throws IOException {
+        chunkedUploadService.writeChunk(sessionId, index, request.getInputStream(), request.getContentLengthLong());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Endpoint to retrieve the status of a session, including the chunks still missing.
+     *
+     * @param sessionId The ID of the upload session.
+     * @return {@link ResponseEntity} containing the session status.
+     */
+    @GetMapping("/{sessionId}")
+    public ResponseEntity<UploadSessionStatus> getStatus(@PathVariable("sessionId") String sessionId) {
+        return ResponseEntity.ok(chunkedUploadService.getStatus(sessionId));
+    }
+
+    /**
+     * Endpoint to commit a complete session as a new document version.
+     *
+     * @param sessionId The ID of the upload session.
+     * @param request   The current request, whose authenticated user is recorded as the uploader.
+     * @return {@link ResponseEntity} containing the metadata of the document the version was added to.
+     * @throws IOException If the assembled file cannot be stored.
+     */
+    @PostMapping("/{sessionId}/commit")
+    public ResponseEntity<DocumentResponse> commit(@PathVariable("sessionId") String sessionId,
+                                                   HttpServletRequest request) throws IOException {
+        Document document = chunkedUploadService.commit(sessionId, CurrentUser.of(request));
+        // The entity is not serialised: its versions refer back to it
+        return ResponseEntity.status(HttpStatus.CREATED).body(documentService.getDocument(document.getId()));
+    }
+
+    /**
+     * Endpoint to abort a session and discard the uploaded chunks.
+     *
+     * @param sessionId The ID of the upload session.
+     * @return An empty {@link ResponseEntity} with HTTP 204.
+     * @throws IOException If the part file cannot be deleted.
+     */
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<Void> abort(@PathVariable("sessionId") String sessionId) throws IOException {
+        chunkedUploadService.abort(sessionId);
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Translates an unknown session into an HTTP 404 response.
+     *
+     * @param e The exception raised by the service layer.
+     * @return {@link ResponseEntity} with the exception message.
+     */
+    @ExceptionHandler(UploadSessionNotFoundException.class)
+    public ResponseEntity<String> handleSessionNotFound(UploadSessionNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    }
+
+    /**
+     * Translates invalid session or chunk parameters into an HTTP 400 response.
+     *
+     * @param e The exception raised by the service layer.
+     * @return {@link ResponseEntity} with the exception message.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    /**
+     * Translates a commit of an incomplete session, or a request for a session that is being
+     * committed, into an HTTP 409 response.
+     *
+     * @param e The exception raised by the service layer.
+     * @return {@link ResponseEntity} with the exception message.
+     */
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleIncompleteUpload(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+}
@@ -0,0 +1,23 @@
+package turing.example.documentmanagement.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import turing.example.documentmanagement.service.AuditTrailWriter;
+
+/**
+ * Names the user of a request for the audit trail.
+ */
+final class CurrentUser {
+
+    private CurrentUser() {
+    }
+
+    /**
+     * Returns the authenticated user of a request.
+     *
+     * @param request The current request.
+     * @return The name of the authenticated user, or {@link AuditTrailWriter#ANONYMOUS} without one.
+     */
+    static String of(HttpServletRequest request) {
+        return request.getRemoteUser() != null ? request.getRemoteUser() : AuditTrailWriter.ANONYMOUS;
+    }
+}
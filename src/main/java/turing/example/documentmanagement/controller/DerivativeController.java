@@ -0,0 +1,133 @@
+package turing.example.documentmanagement.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import turing.example.documentmanagement.entity.DerivativeJob;
+import turing.example.documentmanagement.entity.DerivativeKind;
+import turing.example.documentmanagement.entity.DocumentVersion;
+import turing.example.documentmanagement.exception.DocumentNotFoundException;
+import turing.example.documentmanagement.service.DerivativeService;
+import turing.example.documentmanagement.service.DocumentService;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Controller serving the generated derivatives of document versions, such as thumbnails.
+ * <p>
+ * Derivatives are generated in the background after an upload. Until a derivative is ready,
+ * its endpoint answers HTTP 202 with a {@code Retry-After} header. Ready derivatives never
+ * change, so they are served with a strong ETag and a long cache lifetime.
+ * </p>
+ */
+@RestController
+@RequestMapping("/documents")
+public class DerivativeController {
+
+    // Seconds a client should wait before asking again for a derivative in progress
+    private static final String RETRY_AFTER_SECONDS = "5";
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(7)).cachePrivate();
+
+    private final DocumentService documentService;
+    private final DerivativeService derivativeService;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param documentService   Service resolving documents and versions.
+     * @param derivativeService Service holding the generated derivatives.
+     */
+    public DerivativeController(DocumentService documentService, DerivativeService derivativeService) {
+        this.documentService = documentService;
+        this.derivativeService = derivativeService;
+    }
+
+    /**
+     * Endpoint to retrieve a derivative of the latest version of a document.
+     *
+     * @param id   The ID of the document.
+     * @param kind The kind of derivative, e.g. {@code thumbnail} or {@code preview}.
+     * @return {@link ResponseEntity} containing the derivative, or HTTP 202 while it is being generated.
+     * @throws IOException If the derivative cannot be read.
+     */
+    @GetMapping("/{id}/derivatives/{kind}")
+    public ResponseEntity<?> getLatestDerivative(@PathVariable("id") Long id, @PathVariable("kind") String kind)
+            throws IOException {
+        return serve(documentService.getLatestVersion(id), kind);
+    }
+
+    /**
+     * Endpoint to retrieve a derivative of a specific version of a document.
+     *
+     * @param id      The ID of the document.
+     * @param version The version number.
+     * @param kind    The kind of derivative, e.g. {@code thumbnail} or {@code preview}.
+     * @return {@link ResponseEntity} containing the derivative, or HTTP 202 while it is being generated.
+     * @throws IOException If the derivative cannot be read.
+     */
+    @GetMapping("/{id}/versions/{version}/derivatives/{kind}")
+    public ResponseEntity<?> getDerivative(@PathVariable("id") Long id, @PathVariable("version") int version,
+                                           @PathVariable("kind") String kind) throws IOException {
+        return serve(documentService.getVersion(id, version), kind);
+    }
+
+    /**
+     * Translates a missing document, version or derivative into an HTTP 404 response.
+     *
+     * @param e The exception raised by the service layer.
+     * @return {@link ResponseEntity} with the exception message.
+     */
+    @ExceptionHandler(DocumentNotFoundException.class)
+    public ResponseEntity<String> handleNotFound(DocumentNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    }
+
+    /**
+     * Translates an unknown derivative kind into an HTTP 400 response.
+     *
+     * @param e The exception raised while parsing the kind.
+     * @return {@link ResponseEntity} with the exception message.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+
+    private ResponseEntity<?> serve(DocumentVersion version, String kindName) throws IOException {
+        DerivativeKind kind = parseKind(kindName);
+        DerivativeJob job = derivativeService.findDerivative(version.getId(), kind)
+                .orElseThrow(() -> new DocumentNotFoundException("No " + kindName + " is generated for version "
+                        + version.getVersion() + " of document with ID " + version.getDocument().getId()));
+        return switch (job.getStatus()) {
+            case PENDING, RUNNING -> ResponseEntity.accepted()
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .build();
+            case FAILED -> throw new DocumentNotFoundException("The " + kindName + " of version "
+                    + version.getVersion() + " of document with ID " + version.getDocument().getId()
+                    + " could not be generated");
+            case DONE -> ResponseEntity.ok()
+                    .contentType(MediaType.parseMediaType(job.getContentType()))
+                    .eTag("\"" + job.getBlobKey() + "\"")
+                    .cacheControl(CACHE_CONTROL)
+                    .body(derivativeService.readDerivative(job));
+        };
+    }
+
+    private static DerivativeKind parseKind(String kind) {
+        try {
+            return DerivativeKind.valueOf(kind.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown derivative '" + kind + "'");
+        }
+    }
+}
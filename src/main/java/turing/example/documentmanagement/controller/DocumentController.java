@@ -1,19 +1,35 @@
 package turing.example.documentmanagement.controller;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import turing.example.documentmanagement.dto.BatchUploadResult;
+import turing.example.documentmanagement.dto.DocumentPage;
+import turing.example.documentmanagement.dto.DocumentResponse;
+import turing.example.documentmanagement.dto.SearchResult;
+import turing.example.documentmanagement.entity.AuditAction;
 import turing.example.documentmanagement.entity.Document;
+import turing.example.documentmanagement.exception.DocumentNotFoundException;
+import turing.example.documentmanagement.service.AuditTrailWriter;
+import turing.example.documentmanagement.service.BatchUploadService;
+import turing.example.documentmanagement.service.DocumentSearchService;
 import turing.example.documentmanagement.service.DocumentService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.util.List;
+
 /**
  * Controller for handling document-related operations in the Document Management System.
  * <p>
  * Provides RESTful endpoints for document management, including:
  * <ul>
- *     <li>Uploading documents</li>
- *     <li>Retrieving documents (can be added later)</li>
+ *     <li>Uploading documents, one at a time or in batches</li>
+ *     <li>Listing and retrieving document metadata</li>
+ *     <li>Searching documents by name and content</li>
+ *     <li>Downloading the latest or a specific version of a document</li>
  *     <li>Deleting documents (can be added later)</li>
  * </ul>
  * </p>
@@ -25,14 +41,28 @@ import org.springframework.web.multipart.MultipartFile;
 public class DocumentController {
 
     private final DocumentService documentService;
+    private final BatchUploadService batchUploadService;
+    private final DocumentDownloadWriter downloadWriter;
+    private final AuditTrailWriter auditTrailWriter;
+    private final DocumentSearchService searchService;
 
     /**
      * Constructor-based dependency injection for DocumentService.
      *
-     * @param documentService Service layer for handling document operations.
+     * @param documentService    Service layer for handling document operations.
+     * @param batchUploadService Service handling multi-file uploads.
+     * @param downloadWriter     Writer streaming document content to HTTP responses.
+     * @param auditTrailWriter   Writer recording downloads in the audit trail.
+     * @param searchService      Service answering full-text searches.
      */
-    public DocumentController(DocumentService documentService) {
+    public DocumentController(DocumentService documentService, BatchUploadService batchUploadService,
+                              DocumentDownloadWriter downloadWriter, AuditTrailWriter auditTrailWriter,
+                              DocumentSearchService searchService) {
         this.documentService = documentService;
+        this.batchUploadService = batchUploadService;
+        this.downloadWriter = downloadWriter;
+        this.auditTrailWriter = auditTrailWriter;
+        this.searchService = searchService;
     }
 
     /**
@@ -41,14 +71,16 @@ public class DocumentController {
      * <p>This method accepts a multipart file and the owner's name,
      * processes the document via {@link DocumentService}, and returns a response.</p>
      *
-     * @param file  The document file to be uploaded.
-     * @param owner The name of the owner of the document.
-     * @return {@link ResponseEntity} containing the saved document details if successful,
-     *         or an error response if the upload fails.
+     * @param file    The document file to be uploaded.
+     * @param owner   The name of the owner of the document.
+     * @param request The current request, whose authenticated user is recorded as the uploader.
+     * @return {@link ResponseEntity} containing the document's metadata, including its new latest
+     *         version, if successful, or an error response if the upload fails.
      */
     @PostMapping("/upload")
     public ResponseEntity<?> uploadDocument(@RequestParam("file") MultipartFile file,
-                                            @RequestParam("owner") String owner) {
+                                            @RequestParam("owner") String owner,
+                                            HttpServletRequest request) {
         try {
             // Validate if the file is empty before processing
             if (file.isEmpty()) {
@@ -57,8 +89,9 @@ public class DocumentController {
             }
 
             // Call the service layer to handle document processing
-            Document document = documentService.uploadDocument(file, owner);
-            return ResponseEntity.status(HttpStatus.CREATED).body(document);
+            Document document = documentService.uploadDocument(file, owner, CurrentUser.of(request));
+            // The entity is not serialised: its versions refer back to it
+            return ResponseEntity.status(HttpStatus.CREATED).body(documentService.getDocument(document.getId()));
 
         } catch (Exception e) {
             // Log the exception for debugging (not included here, but should be in real-world apps)
@@ -66,4 +99,152 @@ public class DocumentController {
                     .body("An error occurred while uploading the document: " + e.getMessage());
         }
     }
+
+    /**
+     * Endpoint to upload many documents in one request.
+     *
+     * <p>The files are stored in parallel and their metadata is saved in a single batched
+     * transaction. The response lists one result per file, in request order; failed files
+     * are reported individually and can be sent again.</p>
+     *
+     * @param files   The document files to be uploaded, as repeated {@code files} parts.
+     * @param owner   The name of the owner of the documents.
+     * @param request The current request, whose authenticated user is recorded as the uploader.
+     * @return {@link ResponseEntity} containing the per-file results.
+     * @throws InterruptedException If the request thread is interrupted while the files are stored.
+     */
+    @PostMapping("/upload/batch")
+    public ResponseEntity<List<BatchUploadResult>> uploadDocuments(@RequestParam("files") List<MultipartFile> files,
+                                                                   @RequestParam("owner") String owner,
+                                                                   HttpServletRequest request)
+            throws InterruptedException {
+        return ResponseEntity.ok(batchUploadService.uploadDocuments(files, owner, CurrentUser.of(request)));
+    }
+
+    /**
+     * Endpoint to list an owner's documents, newest first.
+     *
+     * <p>Pages are linked by cursors: the first page is requested without a cursor, and each
+     * response carries the {@code nextCursor} for the following page.</p>
+     *
+     * @param owner  The owner whose documents are listed.
+     * @param cursor The cursor of the page to retrieve, taken from the previous response.
+     * @param size   The maximum number of documents on the page.
+     * @return {@link ResponseEntity} containing the page of documents.
+     */
+    @GetMapping
+    public ResponseEntity<DocumentPage> listDocuments(@RequestParam("owner") String owner,
+                                                      @RequestParam(value = "cursor", required = false) String cursor,
+                                                      @RequestParam(value = "size", defaultValue = "50") int size) {
+        return ResponseEntity.ok(documentService.listDocuments(owner, cursor, size));
+    }
+
+    /**
+     * Endpoint to search documents by name and content.
+     *
+     * <p>The query uses Lucene's classic syntax, e.g. {@code invoice AND 2024} or
+     * {@code "annual report"}. Newly uploaded versions become searchable shortly after
+     * the upload, once they have been indexed in the background.</p>
+     *
+     * @param query The search query.
+     * @param size  The maximum number of results.
+     * @return {@link ResponseEntity} containing the matching documents, best match first.
+     * @throws IOException If the search index cannot be read.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<SearchResult>> searchDocuments(@RequestParam("q") String query,
+                                                              @RequestParam(value = "size", defaultValue = "20") int size)
+            throws IOException {
+        return ResponseEntity.ok(searchService.search(query, size));
+    }
+
+    /**
+     * Endpoint to check whether a document with the given name exists.
+     *
+     * @param name The document name.
+     * @return {@link ResponseEntity} containing {@code true} if the document exists.
+     */
+    @GetMapping("/exists")
+    public ResponseEntity<Boolean> documentExists(@RequestParam("name") String name) {
+        return ResponseEntity.ok(documentService.documentExists(name));
+    }
+
+    /**
+     * Endpoint to retrieve the metadata of a document.
+     *
+     * @param id The ID of the document.
+     * @return {@link ResponseEntity} containing the document metadata, including its latest version.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<DocumentResponse> getDocument(@PathVariable("id") Long id) {
+        return ResponseEntity.ok(documentService.getDocument(id));
+    }
+
+    /**
+     * Endpoint to download the latest version of a document.
+     *
+     * <p>Supports {@code Range} requests and conditional requests based on the content's ETag;
+     * see {@link DocumentDownloadWriter}.</p>
+     *
+     * @param id       The ID of the document.
+     * @param request  The current request.
+     * @param response The response the content is written to.
+     * @throws IOException If the content cannot be read or written.
+     */
+    @GetMapping("/{id}/content")
+    public void downloadLatestVersion(@PathVariable("id") Long id,
+                                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        downloadWriter.write(documentService.getLatestVersion(id), request, response);
+        recordDownload(id, request, response);
+    }
+
+    /**
+     * Endpoint to download a specific version of a document.
+     *
+     * <p>Supports {@code Range} requests and conditional requests based on the content's ETag;
+     * see {@link DocumentDownloadWriter}.</p>
+     *
+     * @param id       The ID of the document.
+     * @param version  The version number to download.
+     * @param request  The current request.
+     * @param response The response the content is written to.
+     * @throws IOException If the content cannot be read or written.
+     */
+    @GetMapping("/{id}/versions/{version}/content")
+    public void downloadVersion(@PathVariable("id") Long id, @PathVariable("version") int version,
+                                HttpServletRequest request, HttpServletResponse response) throws IOException {
+        downloadWriter.write(documentService.getVersion(id, version), request, response);
+        recordDownload(id, request, response);
+    }
+
+    /**
+     * Records a download in the audit trail if content was actually sent.
+     */
+    private void recordDownload(Long id, HttpServletRequest request, HttpServletResponse response) {
+        if (response.getStatus() < HttpStatus.MULTIPLE_CHOICES.value() && !"HEAD".equals(request.getMethod())) {
+            auditTrailWriter.record(AuditAction.DOWNLOAD, id, CurrentUser.of(request));
+        }
+    }
+
+    /**
+     * Translates a missing document or version into an HTTP 404 response.
+     *
+     * @param e The exception raised by the service layer.
+     * @return {@link ResponseEntity} with the exception message.
+     */
+    @ExceptionHandler(DocumentNotFoundException.class)
+    public ResponseEntity<String> handleDocumentNotFound(DocumentNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    }
+
+    /**
+     * Translates invalid request parameters, such as a malformed cursor, into an HTTP 400 response.
+     *
+     * @param e The exception raised by the service layer.
+     * @return {@link ResponseEntity} with the exception message.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
 }
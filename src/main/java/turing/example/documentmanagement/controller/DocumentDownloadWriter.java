@@ -0,0 +1,254 @@
+package turing.example.documentmanagement.controller;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import turing.example.documentmanagement.entity.DocumentVersion;
+import turing.example.documentmanagement.storage.VersionContentReader;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Writes the content of a {@link DocumentVersion} to an HTTP response.
+ * <p>
+ * Supports conditional requests through strong ETags derived from the content hash
+ * ({@code If-None-Match}, {@code If-Modified-Since}, {@code If-Match} and
+ * {@code If-Unmodified-Since}) as well as single and multiple byte {@code Range} requests,
+ * honouring {@code If-Range}.
+ * </p>
+ *
+ * <p>
+ * Content stored as a plain file never passes through the heap: when the servlet container
+ * supports sendfile (Tomcat's NIO connector does), the file region is handed to the container,
+ * which streams it to the socket after the handler returns. Otherwise the region is copied with
+ * {@link FileChannel#transferTo}. Versions that have to be reconstructed are streamed from
+ * {@link VersionContentReader}.
+ * </p>
+ */
+@Component
+public class DocumentDownloadWriter {
+
+    // Request attributes understood by Tomcat's sendfile support
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    // Below this size a plain transfer is cheaper than setting up sendfile
+    private static final long SENDFILE_THRESHOLD = 48 * 1024;
+
+    // Buffer size used when streaming reconstructed content
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    private final VersionContentReader contentReader;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param contentReader Reader resolving where, and how, version contents are stored.
+     */
+    public DocumentDownloadWriter(VersionContentReader contentReader) {
+        this.contentReader = contentReader;
+    }
+
+    /**
+     * Writes the version's content, or the requested ranges of it, to the response.
+     *
+     * @param version  The document version to serve.
+     * @param request  The current request.
+     * @param response The response to write to.
+     * @throws IOException If the file cannot be read or the response cannot be written.
+     */
+    public void write(DocumentVersion version, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        Path file = contentReader.directPath(version);
+        if (file != null && !Files.exists(file)) {
+            // The version may have been converted to a delta since it was loaded
+            version = contentReader.reload(version);
+            file = contentReader.directPath(version);
+        }
+        long length = version.getSize();
+        String etag = "\"" + version.getContentHash() + "\"";
+        long lastModified = version.getUploadedAt().truncatedTo(ChronoUnit.SECONDS)
+                .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+
+        // Sets ETag and Last-Modified, and answers 304/412 when the preconditions say so
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        MediaType contentType = MediaTypeFactory.getMediaType(version.getDocument().getName())
+                .orElse(MediaType.APPLICATION_OCTET_STREAM);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(version.getDocument().getName(), StandardCharsets.UTF_8)
+                .build().toString());
+
+        List<HttpRange> ranges;
+        try {
+            ranges = rangesToServe(request, etag, lastModified, length);
+        } catch (IllegalArgumentException e) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            return;
+        }
+        boolean headRequest = "HEAD".equals(request.getMethod());
+
+        if (ranges.isEmpty()) {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(contentType.toString());
+            response.setContentLengthLong(length);
+            if (!headRequest) {
+                transfer(version, file, 0, length, request, response);
+            }
+            return;
+        }
+
+        response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+        if (ranges.size() == 1) {
+            long start = ranges.get(0).getRangeStart(length);
+            long end = ranges.get(0).getRangeEnd(length);
+            response.setContentType(contentType.toString());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            response.setContentLengthLong(end - start + 1);
+            if (!headRequest) {
+                transfer(version, file, start, end - start + 1, request, response);
+            }
+            return;
+        }
+
+        String boundary = MimeTypeUtils.generateMultipartBoundaryString();
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        if (headRequest) {
+            return;
+        }
+        ServletOutputStream out = response.getOutputStream();
+        for (HttpRange range : ranges) {
+            long start = range.getRangeStart(length);
+            long end = range.getRangeEnd(length);
+            out.print("\r\n--" + boundary + "\r\n");
+            out.print(HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n");
+            out.print(HttpHeaders.CONTENT_RANGE + ": bytes " + start + "-" + end + "/" + length + "\r\n\r\n");
+            copy(version, file, start, end - start + 1, out);
+        }
+        out.print("\r\n--" + boundary + "--\r\n");
+    }
+
+    /**
+     * Determines the ranges to serve, or an empty list when the full content should be returned.
+     *
+     * @throws IllegalArgumentException If the Range header is malformed or not satisfiable.
+     */
+    private List<HttpRange> rangesToServe(HttpServletRequest request, String etag, long lastModified, long length) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null || !rangeMatchesIfRange(request.getHeader(HttpHeaders.IF_RANGE), etag, lastModified)) {
+            return List.of();
+        }
+        List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+        for (HttpRange range : ranges) {
+            // A range starting beyond the end of the content cannot be satisfied
+            if (range.getRangeStart(length) > range.getRangeEnd(length)) {
+                throw new IllegalArgumentException("Range '" + range + "' is not satisfiable");
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Evaluates an {@code If-Range} header, which requires a strong ETag or an exact date match.
+     */
+    private boolean rangeMatchesIfRange(String ifRange, String etag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.IF_RANGE, ifRange);
+            return headers.getFirstDate(HttpHeaders.IF_RANGE) == lastModified;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Sends a region of the content, preferring the container's sendfile support.
+     */
+    private void transfer(DocumentVersion version, Path file, long start, long count,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (file != null && count >= SENDFILE_THRESHOLD
+                && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, start + count);
+            return;
+        }
+        copy(version, file, start, count, response.getOutputStream());
+    }
+
+    /**
+     * Copies a region of the content to the output stream, zero-copy when it is stored as a plain file.
+     */
+    private void copy(DocumentVersion version, Path file, long start, long count, ServletOutputStream out)
+            throws IOException {
+        if (file != null) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                transferTo(channel, start, count, out);
+            }
+            return;
+        }
+        try (InputStream in = contentReader.open(version)) {
+            in.skipNBytes(start);
+            byte[] buffer = new byte[STREAM_BUFFER_SIZE];
+            long remaining = count;
+            while (remaining > 0) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+                if (read == -1) {
+                    throw new EOFException("Stored content is shorter than its recorded size");
+                }
+                out.write(buffer, 0, read);
+                remaining -= read;
+            }
+        }
+    }
+
+    /**
+     * Copies a region of the channel to the output stream without closing the stream.
+     */
+    private static void transferTo(FileChannel channel, long start, long count, ServletOutputStream out)
+            throws IOException {
+        WritableByteChannel target = Channels.newChannel(out);
+        long position = start;
+        long end = start + count;
+        while (position < end) {
+            long transferred = channel.transferTo(position, end - position, target);
+            if (transferred <= 0) {
+                throw new EOFException("Stored file is shorter than its recorded size");
+            }
+            position += transferred;
+        }
+    }
+}
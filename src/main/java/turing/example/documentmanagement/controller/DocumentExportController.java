@@ -0,0 +1,98 @@
+package turing.example.documentmanagement.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import turing.example.documentmanagement.exception.DocumentNotFoundException;
+import turing.example.documentmanagement.service.DocumentExportService;
+import turing.example.documentmanagement.service.DocumentService;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Controller exposing bulk exports of documents as ZIP archives.
+ * <p>
+ * Archives are streamed to the client while they are being written, without a
+ * {@code Content-Length}. A failure after the first bytes have been sent can no longer change
+ * the status code; the connection is aborted instead and the client is left with a truncated
+ * archive, which fails to open.
+ * </p>
+ */
+@RestController
+@RequestMapping("/documents")
+public class DocumentExportController {
+
+    private static final String APPLICATION_ZIP = "application/zip";
+
+    private final DocumentService documentService;
+    private final DocumentExportService exportService;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param documentService Service resolving documents.
+     * @param exportService   Service writing the archives.
+     */
+    public DocumentExportController(DocumentService documentService, DocumentExportService exportService) {
+        this.documentService = documentService;
+        this.exportService = exportService;
+    }
+
+    /**
+     * Endpoint to export the documents of an owner.
+     *
+     * @param owner       The owner whose documents are exported.
+     * @param allVersions Whether all versions are exported instead of only the latest ones.
+     * @param response    The response the archive is written to.
+     * @throws IOException If a document cannot be read or the response cannot be written.
+     */
+    @GetMapping("/export")
+    public void exportOwner(@RequestParam("owner") String owner,
+                            @RequestParam(value = "allVersions", defaultValue = "false") boolean allVersions,
+                            HttpServletResponse response) throws IOException {
+        prepare(response, "documents-" + owner + ".zip");
+        exportService.exportOwner(owner, allVersions, response.getOutputStream());
+    }
+
+    /**
+     * Endpoint to export all versions of a document.
+     *
+     * @param id       The ID of the document.
+     * @param response The response the archive is written to.
+     * @throws IOException If a version cannot be read or the response cannot be written.
+     */
+    @GetMapping("/{id}/export")
+    public void exportDocument(@PathVariable("id") Long id, HttpServletResponse response) throws IOException {
+        // Resolved before the response is committed, so an unknown document still gets a 404
+        String name = documentService.getDocument(id).getName();
+        prepare(response, name + "-versions.zip");
+        exportService.exportDocument(id, response.getOutputStream());
+    }
+
+    /**
+     * Translates an unknown document into an HTTP 404 response.
+     *
+     * @param e The exception raised by the service layer.
+     * @return {@link ResponseEntity} with the exception message.
+     */
+    @ExceptionHandler(DocumentNotFoundException.class)
+    public ResponseEntity<String> handleNotFound(DocumentNotFoundException e) {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+    }
+
+    private static void prepare(HttpServletResponse response, String fileName) {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(APPLICATION_ZIP);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(fileName, StandardCharsets.UTF_8).build().toString());
+    }
+}
@@ -0,0 +1,61 @@
+package turing.example.documentmanagement.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import turing.example.documentmanagement.dto.StorageMigrationStatus;
+import turing.example.documentmanagement.service.StorageMigrationService;
+
+/**
+ * Controller for moving the stored blobs to the configured storage layout.
+ */
+@RestController
+@RequestMapping("/admin/storage/migration")
+public class StorageMigrationController {
+
+    private final StorageMigrationService migrationService;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param migrationService Service moving the blobs.
+     */
+    public StorageMigrationController(StorageMigrationService migrationService) {
+        this.migrationService = migrationService;
+    }
+
+    /**
+     * Endpoint to start a migration in the background.
+     *
+     * @return {@link ResponseEntity} with HTTP 202 and the status of the started migration.
+     */
+    @PostMapping
+    public ResponseEntity<StorageMigrationStatus> start() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(migrationService.start());
+    }
+
+    /**
+     * Endpoint to retrieve the progress of the running or last migration.
+     *
+     * @return {@link ResponseEntity} containing the migration status.
+     */
+    @GetMapping
+    public ResponseEntity<StorageMigrationStatus> getStatus() {
+        return ResponseEntity.ok(migrationService.getStatus());
+    }
+
+    /**
+     * Translates a start request during a running migration into an HTTP 409 response.
+     *
+     * @param e The exception raised by the service layer.
+     * @return {@link ResponseEntity} with the exception message.
+     */
+    @ExceptionHandler(IllegalStateException.class)
+    public ResponseEntity<String> handleAlreadyRunning(IllegalStateException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+    }
+}
@@ -0,0 +1,67 @@
+package turing.example.documentmanagement.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import turing.example.documentmanagement.dto.ScrubStatus;
+import turing.example.documentmanagement.entity.ScrubFinding;
+import turing.example.documentmanagement.service.StorageScrubService;
+
+import java.util.List;
+
+/**
+ * Controller reporting the progress and findings of the background storage scrubber.
+ */
+@RestController
+@RequestMapping("/admin/storage/scrub")
+public class StorageScrubController {
+
+    private final StorageScrubService scrubService;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param scrubService Service verifying the blobs.
+     */
+    public StorageScrubController(StorageScrubService scrubService) {
+        this.scrubService = scrubService;
+    }
+
+    /**
+     * Endpoint to retrieve the progress of the current or last pass, including the scan rate.
+     *
+     * @return {@link ResponseEntity} containing the scrubber status.
+     */
+    @GetMapping
+    public ResponseEntity<ScrubStatus> getStatus() {
+        return ResponseEntity.ok(scrubService.getStatus());
+    }
+
+    /**
+     * Endpoint to list the blobs found damaged, page by page.
+     *
+     * @param after The last ID of the previous page; {@code 0} for the first page.
+     * @param size  The maximum number of findings.
+     * @return {@link ResponseEntity} containing the findings following {@code after}.
+     */
+    @GetMapping("/findings")
+    public ResponseEntity<List<ScrubFinding>> getFindings(@RequestParam(value = "after", defaultValue = "0") long after,
+                                                          @RequestParam(value = "size", defaultValue = "100") int size) {
+        return ResponseEntity.ok(scrubService.getFindings(after, size));
+    }
+
+    /**
+     * Translates an invalid page size into an HTTP 400 response.
+     *
+     * @param e The exception raised by the service layer.
+     * @return {@link ResponseEntity} with the exception message.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleInvalidRequest(IllegalArgumentException e) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+    }
+}
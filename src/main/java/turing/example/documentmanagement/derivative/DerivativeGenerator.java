@@ -0,0 +1,42 @@
+package turing.example.documentmanagement.derivative;
+
+import org.springframework.http.MediaType;
+import turing.example.documentmanagement.entity.DerivativeKind;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Generates one kind of derivative from the content of a document version.
+ * <p>
+ * Implementations are Spring beans; every bean is offered every new version, and a job is
+ * queued for each generator that {@link #supports supports} the version's media type.
+ * Generators run on the derivative worker threads and must be thread-safe.
+ * </p>
+ */
+public interface DerivativeGenerator {
+
+    /**
+     * The kind of derivative this generator produces.
+     *
+     * @return The derivative kind.
+     */
+    DerivativeKind kind();
+
+    /**
+     * Tells whether this generator can process content of the given media type.
+     *
+     * @param mediaType The media type derived from the document name.
+     * @return {@code true} if a derivative should be generated.
+     */
+    boolean supports(MediaType mediaType);
+
+    /**
+     * Generates the derivative.
+     *
+     * @param content Stream over the complete content of the version; closed by the caller.
+     * @return The generated derivative.
+     * @throws IOException If the content cannot be read or is not valid for its media type.
+     */
+    GeneratedDerivative generate(InputStream content) throws IOException;
+}
@@ -0,0 +1,11 @@
+package turing.example.documentmanagement.derivative;
+
+/**
+ * The output of a {@link DerivativeGenerator}.
+ *
+ * @param content     The bytes of the derivative.
+ * @param contentType The media type of the derivative.
+ * @param fileName    A file name for the derivative, used to choose its storage compression.
+ */
+public record GeneratedDerivative(byte[] content, String contentType, String fileName) {
+}
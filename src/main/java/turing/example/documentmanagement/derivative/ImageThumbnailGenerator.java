@@ -0,0 +1,95 @@
+package turing.example.documentmanagement.derivative;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import turing.example.documentmanagement.config.DerivativeProperties;
+import turing.example.documentmanagement.entity.DerivativeKind;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+
+/**
+ * Renders PNG thumbnails of the image formats the JDK can decode (PNG, JPEG, GIF, BMP, WBMP, TIFF).
+ * <p>
+ * The image dimensions are read from the header first, so oversized images are rejected before
+ * their pixels are decoded. Thumbnails keep the aspect ratio and fit into a square of the
+ * configured size; smaller images are not scaled up.
+ * </p>
+ */
+@Component
+public class ImageThumbnailGenerator implements DerivativeGenerator {
+
+    private final DerivativeProperties properties;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param properties Derivative configuration providing the thumbnail size.
+     */
+    public ImageThumbnailGenerator(DerivativeProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public DerivativeKind kind() {
+        return DerivativeKind.THUMBNAIL;
+    }
+
+    @Override
+    public boolean supports(MediaType mediaType) {
+        return "image".equals(mediaType.getType())
+                && ImageIO.getImageReadersByMIMEType(mediaType.getType() + "/" + mediaType.getSubtype()).hasNext();
+    }
+
+    @Override
+    public GeneratedDerivative generate(InputStream content) throws IOException {
+        BufferedImage source = read(content);
+        int size = properties.getThumbnailSize();
+        double scale = Math.min(1.0, (double) size / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * scale));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * scale));
+
+        BufferedImage thumbnail = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = thumbnail.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(thumbnail, "png", out);
+        return new GeneratedDerivative(out.toByteArray(), MediaType.IMAGE_PNG_VALUE, "thumbnail.png");
+    }
+
+    private BufferedImage read(InputStream content) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(content)) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                throw new IOException("Unsupported image format");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > properties.getMaxImagePixels()) {
+                    throw new IOException("Image has " + pixels + " pixels, more than the limit of "
+                            + properties.getMaxImagePixels());
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
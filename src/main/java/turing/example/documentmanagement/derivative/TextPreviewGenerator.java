@@ -0,0 +1,70 @@
+package turing.example.documentmanagement.derivative;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import turing.example.documentmanagement.config.DerivativeProperties;
+import turing.example.documentmanagement.entity.DerivativeKind;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Extracts the first page of textual documents as a plain-text preview.
+ * <p>
+ * The preview ends at the last line break within the configured length, so it never cuts a
+ * line in half unless the first line alone is longer. Content is decoded as UTF-8.
+ * </p>
+ */
+@Component
+public class TextPreviewGenerator implements DerivativeGenerator {
+
+    private final DerivativeProperties properties;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param properties Derivative configuration providing the preview length.
+     */
+    public TextPreviewGenerator(DerivativeProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public DerivativeKind kind() {
+        return DerivativeKind.PREVIEW;
+    }
+
+    @Override
+    public boolean supports(MediaType mediaType) {
+        String subtype = mediaType.getSubtype();
+        return "text".equals(mediaType.getType())
+                || subtype.equals("json") || subtype.endsWith("+json")
+                || subtype.equals("xml") || subtype.endsWith("+xml")
+                || subtype.equals("javascript");
+    }
+
+    @Override
+    public GeneratedDerivative generate(InputStream content) throws IOException {
+        int length = properties.getPreviewLength();
+        char[] buffer = new char[length + 1];
+        int read = 0;
+        Reader reader = new InputStreamReader(content, StandardCharsets.UTF_8);
+        int count;
+        while (read < buffer.length && (count = reader.read(buffer, read, buffer.length - read)) != -1) {
+            read += count;
+        }
+
+        String preview = new String(buffer, 0, Math.min(read, length));
+        if (read > length) {
+            int lineEnd = preview.lastIndexOf('\n');
+            if (lineEnd > 0) {
+                preview = preview.substring(0, lineEnd + 1);
+            }
+        }
+        return new GeneratedDerivative(preview.getBytes(StandardCharsets.UTF_8),
+                MediaType.TEXT_PLAIN_VALUE + ";charset=UTF-8", "preview.txt");
+    }
+}
@@ -0,0 +1,45 @@
+package turing.example.documentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO (Data Transfer Object) representing one entry of the audit trail.
+ * <p>
+ * Carries the ID of the document instead of the document itself, so reading entries never
+ * loads documents, including ones that have been deleted since.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditEntry {
+
+    /**
+     * Unique identifier for the entry.
+     */
+    private Long id;
+
+    /**
+     * The action performed (e.g., "UPLOAD", "DOWNLOAD").
+     */
+    private String action;
+
+    /**
+     * The user who performed the action.
+     */
+    private String performedBy;
+
+    /**
+     * The timestamp when the action was performed.
+     */
+    private LocalDateTime timestamp;
+
+    /**
+     * The ID of the document the action was performed on.
+     */
+    private Long documentId;
+}
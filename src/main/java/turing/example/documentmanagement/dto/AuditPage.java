@@ -0,0 +1,31 @@
+package turing.example.documentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO (Data Transfer Object) holding one page of audit trail entries.
+ * <p>
+ * Pages are linked by an opaque cursor rather than page numbers: to fetch the next page,
+ * clients pass {@link #nextCursor} back as the {@code cursor} parameter, together with the
+ * same filter and time range.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditPage {
+
+    /**
+     * The entries on this page, newest first.
+     */
+    private List<AuditEntry> items;
+
+    /**
+     * Cursor of the next page; {@code null} if this is the last page.
+     */
+    private String nextCursor;
+}
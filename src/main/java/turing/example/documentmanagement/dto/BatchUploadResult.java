@@ -0,0 +1,44 @@
+package turing.example.documentmanagement.dto;
+
+import lombok.Data;
+
+/**
+ * DTO (Data Transfer Object) reporting the outcome for one file of a batch upload.
+ * <p>
+ * A batch upload returns one result per file, in the order the files were sent, so
+ * clients can retry exactly the files that failed.
+ * </p>
+ */
+@Data
+public class BatchUploadResult {
+
+    /**
+     * Name of the uploaded file.
+     */
+    private String fileName;
+
+    /**
+     * Whether the file was stored and recorded as a new document version.
+     */
+    private boolean success;
+
+    /**
+     * ID of the document the version was added to; {@code null} if the upload failed.
+     */
+    private Long documentId;
+
+    /**
+     * Version number of the new document version; {@code null} if the upload failed.
+     */
+    private Integer version;
+
+    /**
+     * Hex-encoded SHA-256 digest of the stored content; {@code null} if the upload failed.
+     */
+    private String contentHash;
+
+    /**
+     * Reason the upload failed; {@code null} if it succeeded.
+     */
+    private String error;
+}
@@ -0,0 +1,47 @@
+package turing.example.documentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO (Data Transfer Object) reporting the usage of an in-process cache.
+ * <p>
+ * The counters accumulate from application start.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheStatistics {
+
+    /**
+     * The name of the cache.
+     */
+    private String name;
+
+    /**
+     * The approximate number of cached entries.
+     */
+    private long size;
+
+    /**
+     * The number of lookups answered from the cache.
+     */
+    private long hitCount;
+
+    /**
+     * The number of lookups that had to load the entry.
+     */
+    private long missCount;
+
+    /**
+     * The fraction of lookups answered from the cache.
+     */
+    private double hitRate;
+
+    /**
+     * The number of entries removed because of the size bound or their expiry.
+     */
+    private long evictionCount;
+}
@@ -1,6 +1,8 @@
 package turing.example.documentmanagement.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 /**
@@ -12,6 +14,8 @@ import java.time.LocalDateTime;
  * </p>
  */
 @Data
+@NoArgsConstructor
+@AllArgsConstructor
 public class DocumentResponse {
 
     /**
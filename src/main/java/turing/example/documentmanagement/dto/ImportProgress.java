@@ -0,0 +1,87 @@
+package turing.example.documentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import turing.example.documentmanagement.entity.ImportJobStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO (Data Transfer Object) reporting the progress of a bulk import.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportProgress {
+
+    /**
+     * The ID of the import, used to query and resume it.
+     */
+    private String id;
+
+    /**
+     * Path of the imported directory or ZIP archive.
+     */
+    private String source;
+
+    /**
+     * Owner of the documents created by the import.
+     */
+    private String owner;
+
+    /**
+     * The processing state of the import.
+     */
+    private ImportJobStatus status;
+
+    /**
+     * Number of files of the source dealt with up to the last checkpoint.
+     */
+    private long position;
+
+    /**
+     * Number of files recorded as document versions.
+     */
+    private long imported;
+
+    /**
+     * Number of empty files, which are not imported.
+     */
+    private long skipped;
+
+    /**
+     * Number of files that could not be read or stored.
+     */
+    private long failed;
+
+    /**
+     * Total size of the imported files in bytes.
+     */
+    private long bytes;
+
+    /**
+     * Files dealt with per second since the import was last started or resumed; {@code 0} when not running.
+     */
+    private double filesPerSecond;
+
+    /**
+     * Bytes imported per second since the import was last started or resumed; {@code 0} when not running.
+     */
+    private double bytesPerSecond;
+
+    /**
+     * Message of the last failure, if any.
+     */
+    private String lastError;
+
+    /**
+     * When the import was first started.
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * When the import last recorded a checkpoint or changed its state.
+     */
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,49 @@
+package turing.example.documentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO (Data Transfer Object) reporting the state of the document name filter.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NameFilterStatistics {
+
+    /**
+     * Whether the filter has been built; until then every name is looked up in the database.
+     */
+    private boolean ready;
+
+    /**
+     * The number of names in the filter.
+     */
+    private long names;
+
+    /**
+     * The number of deleted names still in the filter.
+     */
+    private long removedNames;
+
+    /**
+     * The number of stages the filter has grown to.
+     */
+    private int stages;
+
+    /**
+     * The memory used by the filter's bit arrays, in bytes.
+     */
+    private long memoryBytes;
+
+    /**
+     * The configured bound on the false-positive rate.
+     */
+    private double falsePositiveRate;
+
+    /**
+     * The false-positive rate estimated from the current fill of the filter.
+     */
+    private double estimatedFalsePositiveRate;
+}
@@ -0,0 +1,66 @@
+package turing.example.documentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO (Data Transfer Object) reporting the progress of the storage scrubber.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScrubStatus {
+
+    /**
+     * Whether a pass is currently in progress.
+     */
+    private boolean running;
+
+    /**
+     * Number of the current or last pass; {@code 0} before the first pass.
+     */
+    private long pass;
+
+    /**
+     * Hash of the last blob checked in the current pass, or {@code null} if none has been checked yet.
+     */
+    private String position;
+
+    /**
+     * When the current or last pass started.
+     */
+    private LocalDateTime passStartedAt;
+
+    /**
+     * When the last pass completed, or {@code null} while a pass is in progress.
+     */
+    private LocalDateTime passCompletedAt;
+
+    /**
+     * Number of blobs checked in the current or last pass.
+     */
+    private long scannedBlobs;
+
+    /**
+     * Number of bytes read in the current or last pass.
+     */
+    private long scannedBytes;
+
+    /**
+     * Bytes read per second since this instance started scrubbing.
+     */
+    private double bytesPerSecond;
+
+    /**
+     * Blobs checked per second since this instance started scrubbing.
+     */
+    private double blobsPerSecond;
+
+    /**
+     * Number of blobs currently known to be damaged.
+     */
+    private long findings;
+}
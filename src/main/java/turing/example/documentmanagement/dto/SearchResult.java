@@ -0,0 +1,28 @@
+package turing.example.documentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO (Data Transfer Object) representing one hit of a full-text search.
+ * <p>
+ * Search results are returned best match first; the score is only meaningful relative
+ * to the other results of the same search.
+ * </p>
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResult {
+
+    /**
+     * The metadata of the matching document.
+     */
+    private DocumentResponse document;
+
+    /**
+     * The relevance score of the match; higher is better.
+     */
+    private float score;
+}
@@ -0,0 +1,51 @@
+package turing.example.documentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO (Data Transfer Object) reporting the progress of a storage layout migration.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StorageMigrationStatus {
+
+    /**
+     * Whether a migration is currently running.
+     */
+    private boolean running;
+
+    /**
+     * The layout blobs are being moved to.
+     */
+    private String layout;
+
+    /**
+     * The number of blobs moved to the layout.
+     */
+    private long migrated;
+
+    /**
+     * The number of blobs that were already in place or were released while being moved.
+     */
+    private long skipped;
+
+    /**
+     * The number of blobs that could not be moved; they stay readable at their old path.
+     */
+    private long failed;
+
+    /**
+     * When the last migration started, or {@code null} if none has run.
+     */
+    private LocalDateTime startedAt;
+
+    /**
+     * When the last migration finished, or {@code null} if it is still running.
+     */
+    private LocalDateTime finishedAt;
+}
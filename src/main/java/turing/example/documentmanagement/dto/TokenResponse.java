@@ -0,0 +1,29 @@
+package turing.example.documentmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO (Data Transfer Object) carrying a newly issued access token.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenResponse {
+
+    /**
+     * The token, sent as {@code Authorization: Bearer <token>} header.
+     */
+    private String accessToken;
+
+    /**
+     * The type of the token, always {@code Bearer}.
+     */
+    private String tokenType;
+
+    /**
+     * The number of seconds the token is valid for.
+     */
+    private long expiresIn;
+}
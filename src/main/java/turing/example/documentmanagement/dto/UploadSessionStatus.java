@@ -0,0 +1,50 @@
+package turing.example.documentmanagement.dto;
+
+import lombok.Data;
+import java.util.List;
+
+/**
+ * DTO (Data Transfer Object) describing the state of a resumable upload session.
+ * <p>
+ * Clients use it to learn the chunk layout after starting a session and to find out
+ * which chunks still have to be sent when resuming an interrupted upload.
+ * </p>
+ */
+@Data
+public class UploadSessionStatus {
+
+    /**
+     * Identifier of the upload session.
+     */
+    private String sessionId;
+
+    /**
+     * Name of the document being uploaded.
+     */
+    private String fileName;
+
+    /**
+     * Total size of the file in bytes.
+     */
+    private long totalSize;
+
+    /**
+     * Size of every chunk in bytes; only the last chunk may be shorter.
+     */
+    private long chunkSize;
+
+    /**
+     * Number of chunks making up the file.
+     */
+    private int chunkCount;
+
+    /**
+     * Indexes of the chunks that have been received, in ascending order.
+     */
+    private List<Integer> receivedChunks;
+
+    /**
+     * Indexes of the chunks that are still missing, in ascending order.
+     */
+    private List<Integer> missingChunks;
+}
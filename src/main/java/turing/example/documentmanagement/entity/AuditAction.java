@@ -0,0 +1,22 @@
+package turing.example.documentmanagement.entity;
+
+/**
+ * Actions recorded in the {@link AuditTrail}.
+ */
+public enum AuditAction {
+
+    /**
+     * A new version of a document was uploaded.
+     */
+    UPLOAD,
+
+    /**
+     * The content of a document version was downloaded.
+     */
+    DOWNLOAD,
+
+    /**
+     * A document or one of its versions was deleted.
+     */
+    DELETE
+}
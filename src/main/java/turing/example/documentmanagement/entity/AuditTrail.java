@@ -11,20 +11,35 @@ import java.time.LocalDateTime;
  * It records details such as the action performed, the user responsible, the timestamp,
  * and the associated document.
  * </p>
+ *
+ * <p>
+ * The table is read by document, by user and by time range, newest first, through one index
+ * for each. On MySQL it is partitioned by month of {@link #timestamp}, see
+ * {@link turing.example.documentmanagement.audit.AuditPartitioning}.
+ * </p>
  */
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_audit_trail_document_timestamp", columnList = "document_id, timestamp, id"),
+        @Index(name = "idx_audit_trail_user_timestamp", columnList = "performedBy, timestamp, id"),
+        @Index(name = "idx_audit_trail_timestamp", columnList = "timestamp, id")
+})
 @Data
 public class AuditTrail {
 
     /**
      * Unique identifier for the audit trail entry.
+     * <p>
+     * Drawn from a pooled sequence so that batches of entries can be inserted with JDBC batching.
+     * </p>
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "audit_trail_seq")
+    @SequenceGenerator(name = "audit_trail_seq", sequenceName = "audit_trail_seq", allocationSize = 50)
     private Long id;
 
     /**
-     * The action performed (e.g., "Created", "Updated", "Deleted").
+     * The action performed; the name of an {@link AuditAction} (e.g., "UPLOAD", "DOWNLOAD", "DELETE").
      */
     private String action;
 
@@ -35,17 +50,22 @@ public class AuditTrail {
 
     /**
      * The timestamp when the action was performed.
+     * <p>
+     * The partitioning column on MySQL, where it is therefore also part of the primary key.
+     * </p>
      */
+    @Column(nullable = false)
     private LocalDateTime timestamp;
 
     /**
      * The document associated with this audit trail entry.
      * <p>
      * This establishes a many-to-one relationship, meaning multiple audit trail entries
-     * can be linked to a single document.
+     * can be linked to a single document. No foreign key constraint is declared, so the
+     * entries of a document outlive its deletion, and so that the table can be partitioned.
      * </p>
      */
-    @ManyToOne
-    @JoinColumn(name = "document_id", nullable = false)
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "document_id", nullable = false, foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Document document;
 }
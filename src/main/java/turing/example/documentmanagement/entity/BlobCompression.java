@@ -0,0 +1,17 @@
+package turing.example.documentmanagement.entity;
+
+/**
+ * Describes how the bytes of a {@link ContentBlob} are encoded in its file.
+ */
+public enum BlobCompression {
+
+    /**
+     * The file holds the content as is.
+     */
+    NONE,
+
+    /**
+     * The file holds the content as a zlib-wrapped deflate stream.
+     */
+    DEFLATE
+}
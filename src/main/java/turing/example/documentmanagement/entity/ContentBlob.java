@@ -0,0 +1,57 @@
+package turing.example.documentmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Represents a unique piece of stored content in the content-addressed blob store.
+ * <p>
+ * Blobs are keyed by the SHA-256 digest of their content, so identical files are stored
+ * only once no matter how many {@link DocumentVersion}s refer to them. The reference count
+ * tracks how many versions currently point at the blob.
+ * </p>
+ */
+@Entity
+@Data
+public class ContentBlob {
+
+    /**
+     * Hex-encoded SHA-256 digest of the blob content.
+     */
+    @Id
+    @Column(length = 64)
+    private String hash;
+
+    /**
+     * Size of the content in bytes.
+     */
+    private long size;
+
+    /**
+     * How the content is encoded in the blob's file; {@code null} for blobs stored before
+     * compression was introduced, which are uncompressed.
+     */
+    @Enumerated(EnumType.STRING)
+    private BlobCompression compression;
+
+    /**
+     * Size of the blob's file in bytes, which is smaller than {@link #size} for compressed blobs.
+     */
+    private Long storedSize;
+
+    /**
+     * Number of document versions referencing this blob.
+     */
+    private long refCount;
+
+    /**
+     * The file path where the blob content is stored.
+     */
+    private String path;
+
+    /**
+     * Timestamp indicating when the blob was first stored.
+     */
+    private LocalDateTime createdAt;
+}
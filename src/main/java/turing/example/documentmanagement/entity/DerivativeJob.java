@@ -0,0 +1,90 @@
+package turing.example.documentmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * A derivative of a document version, such as a thumbnail, together with the job generating it.
+ * <p>
+ * The table doubles as the persistent job queue: rows are inserted as {@link DerivativeStatus#PENDING}
+ * in the transaction that creates the version, so no job is lost if the application stops before
+ * it runs, and the unique key on version and kind makes every derivative a single job. Once done,
+ * the row points to the blob holding the generated bytes; the blob's path is looked up when the
+ * derivative is served, so moving blobs does not have to touch this table.
+ * </p>
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"versionId", "kind"}),
+        indexes = @Index(name = "idx_derivative_job_status", columnList = "status, id"))
+@Data
+public class DerivativeJob {
+
+    /**
+     * Unique identifier for the job.
+     * <p>
+     * Drawn from a pooled sequence so that the jobs of a batch upload can be inserted with JDBC batching.
+     * </p>
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "derivative_job_seq")
+    @SequenceGenerator(name = "derivative_job_seq", sequenceName = "derivative_job_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * The ID of the {@link DocumentVersion} the derivative is generated from.
+     */
+    @Column(nullable = false)
+    private Long versionId;
+
+    /**
+     * The kind of derivative.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private DerivativeKind kind;
+
+    /**
+     * The processing state of the job.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private DerivativeStatus status = DerivativeStatus.PENDING;
+
+    /**
+     * Number of times generation has been attempted.
+     */
+    private int attempts;
+
+    /**
+     * Message of the last failure, if any.
+     */
+    @Column(length = 500)
+    private String lastError;
+
+    /**
+     * Key of the {@link ContentBlob} holding the generated derivative, once done.
+     */
+    @Column(length = 64)
+    private String blobKey;
+
+    /**
+     * Media type of the generated derivative.
+     */
+    private String contentType;
+
+    /**
+     * Size of the generated derivative in bytes.
+     */
+    private long size;
+
+    /**
+     * Timestamp indicating when the job was created.
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * Timestamp of the last state change; for running jobs, when they were claimed.
+     */
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,17 @@
+package turing.example.documentmanagement.entity;
+
+/**
+ * The kinds of derivatives generated from document versions.
+ */
+public enum DerivativeKind {
+
+    /**
+     * A small PNG rendering of an image, for listings.
+     */
+    THUMBNAIL,
+
+    /**
+     * The first page of a textual document as plain text.
+     */
+    PREVIEW
+}
@@ -0,0 +1,27 @@
+package turing.example.documentmanagement.entity;
+
+/**
+ * Processing state of a {@link DerivativeJob}.
+ */
+public enum DerivativeStatus {
+
+    /**
+     * Waiting for a worker, either for the first time or to be retried.
+     */
+    PENDING,
+
+    /**
+     * Claimed by a worker.
+     */
+    RUNNING,
+
+    /**
+     * The derivative has been generated and stored.
+     */
+    DONE,
+
+    /**
+     * Generation failed on every attempt.
+     */
+    FAILED
+}
@@ -2,6 +2,9 @@ package turing.example.documentmanagement.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import turing.example.documentmanagement.config.SecondLevelCacheConfig;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -11,19 +14,37 @@ import java.util.List;
  * This entity stores essential metadata about a document, such as its name,
  * owner, creation timestamp, and associated versions.
  * </p>
+ *
+ * <p>
+ * Documents are kept in the second-level cache, so repeated reads by ID do not reach the database.
+ * The locking lookups used to add versions always read the current row.
+ * </p>
+ *
+ * <p>
+ * Names are unique, so concurrent first uploads of a name cannot create two documents; the upload
+ * that loses the race is retried against the document the other one created. The unique index also
+ * serves the lookups by name. A database holding duplicate names from before the constraint must
+ * have them merged or renamed before the constraint can be created.
+ * </p>
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.DOCUMENTS_REGION)
+@Table(indexes = @Index(name = "idx_document_owner_created", columnList = "owner, createdAt, id"),
+        uniqueConstraints = @UniqueConstraint(name = "uk_document_name", columnNames = "name"))
 @Data
 public class Document {
 
     /**
      * Unique identifier for the document.
      * <p>
-     * Auto-generated by the database using identity strategy.
+     * Drawn from a pooled sequence, which hands out blocks of IDs so that Hibernate can
+     * assign them without a round trip per row and batch the inserts.
      * </p>
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "document_seq")
+    @SequenceGenerator(name = "document_seq", sequenceName = "document_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -41,6 +62,23 @@ public class Document {
      */
     private LocalDateTime createdAt;
 
+    /**
+     * Version number of the newest version of this document.
+     * <p>
+     * Maintained in the same transaction that creates a version, so the latest version can be
+     * found without reading the version history. {@code 0} while the document has no versions.
+     * </p>
+     */
+    private int latestVersion;
+
+    /**
+     * ID of the newest {@link DocumentVersion} of this document.
+     * <p>
+     * Updated together with {@link #latestVersion}; {@code null} while the document has no versions.
+     * </p>
+     */
+    private Long latestVersionId;
+
     /**
      * List of document versions associated with this document.
      * <p>
@@ -48,7 +86,15 @@ public class Document {
      * CascadeType.ALL ensures that all associated versions are persisted or deleted
      * along with the document.
      * </p>
+     *
+     * <p>
+     * Cached as a list of version IDs. Versions are saved without being added to this list, so the
+     * cached list is evicted whenever a version of the document is written
+     * ({@code hibernate.cache.auto_evict_collection_cache}).
+     * </p>
      */
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE,
+            region = SecondLevelCacheConfig.DOCUMENT_VERSION_COLLECTIONS_REGION)
     @OneToMany(mappedBy = "document", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<DocumentVersion> versions;
 }
@@ -2,6 +2,9 @@ package turing.example.documentmanagement.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import turing.example.documentmanagement.config.SecondLevelCacheConfig;
 import java.time.LocalDateTime;
 
 /**
@@ -10,19 +13,30 @@ import java.time.LocalDateTime;
  * Each document can have multiple versions, and this entity stores information
  * about individual versions, such as the file path, version number, and upload timestamp.
  * </p>
+ *
+ * <p>
+ * Versions are kept in the second-level cache. Bulk updates, such as delta compaction or
+ * storage migration, evict all cached versions.
+ * </p>
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.DOCUMENT_VERSIONS_REGION)
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"document_id", "version"}),
+        indexes = @Index(name = "idx_document_version_file_path", columnList = "filePath"))
 @Data
 public class DocumentVersion {
 
     /**
      * Unique identifier for the document version.
      * <p>
-     * Auto-generated by the database using identity strategy.
+     * Drawn from a pooled sequence, which hands out blocks of IDs so that Hibernate can
+     * assign them without a round trip per row and batch the inserts.
      * </p>
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "document_version_seq")
+    @SequenceGenerator(name = "document_version_seq", sequenceName = "document_version_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -30,6 +44,57 @@ public class DocumentVersion {
      */
     private String filePath;
 
+    /**
+     * Hex-encoded SHA-256 digest of the version's content.
+     * <p>
+     * Identifies the {@link ContentBlob} holding the bytes of this version.
+     * </p>
+     */
+    @Column(length = 64)
+    private String contentHash;
+
+    /**
+     * Size of the version's content in bytes.
+     */
+    private long size;
+
+    /**
+     * Size of the stored file in bytes, after compression; {@code null} for versions stored
+     * before compression was introduced, whose file is exactly {@link #size} bytes long.
+     * For delta versions it is the stored size of the delta.
+     */
+    private Long storedSize;
+
+    /**
+     * How the stored file is encoded; {@code null} is treated as {@link BlobCompression#NONE}.
+     */
+    @Enumerated(EnumType.STRING)
+    private BlobCompression compression;
+
+    /**
+     * Key of the {@link ContentBlob} holding the stored bytes of this version.
+     * <p>
+     * Equals {@link #contentHash} for versions stored in full; for delta versions it is
+     * the hash of the delta.
+     * </p>
+     */
+    @Column(length = 64)
+    private String blobKey;
+
+    /**
+     * How the content of this version is stored.
+     */
+    @Enumerated(EnumType.STRING)
+    private VersionStorageMode storageMode = VersionStorageMode.FULL;
+
+    /**
+     * Version number whose content the delta of this version applies to.
+     * <p>
+     * Only set when {@link #storageMode} is {@link VersionStorageMode#DELTA}.
+     * </p>
+     */
+    private Integer deltaBaseVersion;
+
     /**
      * Version number of the document.
      * <p>
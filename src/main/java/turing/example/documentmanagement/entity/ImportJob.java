@@ -0,0 +1,91 @@
+package turing.example.documentmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * A bulk import of the files of a local directory tree or ZIP archive.
+ * <p>
+ * The files of a source are imported in a fixed order, and {@link #position} counts the files
+ * already dealt with. It is advanced in the same transaction that records the imported files as
+ * document versions, so an interrupted import resumes exactly after the last recorded file,
+ * without importing any file twice.
+ * </p>
+ */
+@Entity
+@Data
+public class ImportJob {
+
+    /**
+     * Unique, randomly generated identifier of the import.
+     */
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    /**
+     * Path of the imported directory or ZIP archive.
+     */
+    @Column(nullable = false, length = 1024)
+    private String source;
+
+    /**
+     * Owner of the documents created by the import.
+     */
+    @Column(nullable = false)
+    private String owner;
+
+    /**
+     * The user who started the import, or resumed it last; recorded as the uploader of its files.
+     */
+    private String requestedBy;
+
+    /**
+     * The processing state of the import.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private ImportJobStatus status;
+
+    /**
+     * Number of files of the source already dealt with, in import order.
+     */
+    private long position;
+
+    /**
+     * Number of files recorded as document versions.
+     */
+    private long imported;
+
+    /**
+     * Number of empty files, which are not imported.
+     */
+    private long skipped;
+
+    /**
+     * Number of files that could not be read or stored.
+     */
+    private long failed;
+
+    /**
+     * Total size of the imported files in bytes.
+     */
+    private long bytes;
+
+    /**
+     * Message of the last failure, if any.
+     */
+    @Column(length = 500)
+    private String lastError;
+
+    /**
+     * Timestamp indicating when the import was first started.
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * Timestamp of the last checkpoint or state change.
+     */
+    private LocalDateTime updatedAt;
+}
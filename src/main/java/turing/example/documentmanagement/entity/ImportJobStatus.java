@@ -0,0 +1,27 @@
+package turing.example.documentmanagement.entity;
+
+/**
+ * Processing state of an {@link ImportJob}.
+ */
+public enum ImportJobStatus {
+
+    /**
+     * Files are being imported.
+     */
+    RUNNING,
+
+    /**
+     * Every file of the source has been processed.
+     */
+    COMPLETED,
+
+    /**
+     * The import stopped because of an error; it can be resumed from its checkpoint.
+     */
+    FAILED,
+
+    /**
+     * The import was stopped by a shutdown; it can be resumed from its checkpoint.
+     */
+    INTERRUPTED
+}
@@ -0,0 +1,60 @@
+package turing.example.documentmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Progress of the storage scrubber, saved periodically so a restart continues the current pass
+ * instead of starting over.
+ * <p>
+ * A pass checks every blob in hash order; {@link #position} is the hash of the last blob checked.
+ * </p>
+ */
+@Entity
+@Data
+public class ScrubCheckpoint {
+
+    /**
+     * Name of the scan the checkpoint belongs to.
+     */
+    @Id
+    @Column(length = 32)
+    private String id;
+
+    /**
+     * Number of the current or last pass; {@code 0} before the first pass.
+     */
+    private long pass;
+
+    /**
+     * Hash of the last blob checked in the current pass, or {@code null} if none has been checked yet.
+     */
+    @Column(length = 64)
+    private String position;
+
+    /**
+     * When the current or last pass started.
+     */
+    private LocalDateTime passStartedAt;
+
+    /**
+     * When the last pass completed, or {@code null} while a pass is in progress.
+     */
+    private LocalDateTime passCompletedAt;
+
+    /**
+     * Number of blobs checked in the current or last pass.
+     */
+    private long scannedBlobs;
+
+    /**
+     * Number of bytes read in the current or last pass.
+     */
+    private long scannedBytes;
+
+    /**
+     * When the checkpoint was last saved.
+     */
+    private LocalDateTime updatedAt;
+}
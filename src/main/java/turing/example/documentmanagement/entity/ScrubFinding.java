@@ -0,0 +1,60 @@
+package turing.example.documentmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * A damaged blob file found by the storage scrubber.
+ * <p>
+ * There is at most one finding per blob. It is refreshed every time the scrubber finds the blob
+ * damaged again and removed once the blob verifies, e.g. after its file has been restored.
+ * </p>
+ */
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_scrub_finding_blob_hash", columnNames = "blobHash"))
+@Data
+public class ScrubFinding {
+
+    /**
+     * Unique identifier of the finding, in the order the findings were first made.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "scrub_finding_seq")
+    @SequenceGenerator(name = "scrub_finding_seq", sequenceName = "scrub_finding_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Hash of the damaged blob.
+     */
+    @Column(nullable = false, length = 64)
+    private String blobHash;
+
+    /**
+     * Path of the blob's file when it was checked.
+     */
+    private String path;
+
+    /**
+     * What is wrong with the file.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ScrubProblem problem;
+
+    /**
+     * Human-readable description of the damage, e.g. the expected and actual sizes.
+     */
+    @Column(length = 500)
+    private String detail;
+
+    /**
+     * When the damage was first found.
+     */
+    private LocalDateTime firstDetectedAt;
+
+    /**
+     * When the damage was last confirmed.
+     */
+    private LocalDateTime lastDetectedAt;
+}
@@ -0,0 +1,27 @@
+package turing.example.documentmanagement.entity;
+
+/**
+ * Kind of damage the storage scrubber found in a {@link ContentBlob}'s file.
+ */
+public enum ScrubProblem {
+
+    /**
+     * The file does not exist.
+     */
+    MISSING,
+
+    /**
+     * The file, or the content decoded from it, does not have the recorded size.
+     */
+    SIZE_MISMATCH,
+
+    /**
+     * The content does not hash to the blob's SHA-256 digest, or a compressed file cannot be decoded.
+     */
+    CHECKSUM_MISMATCH,
+
+    /**
+     * The file exists but cannot be read.
+     */
+    UNREADABLE
+}
@@ -0,0 +1,35 @@
+package turing.example.documentmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Records that a chunk of an {@link UploadSession} has been written completely.
+ * <p>
+ * Each chunk is its own row, so parallel chunk uploads never contend on a shared record.
+ * </p>
+ */
+@Entity
+@Data
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"session_id", "chunk_index"}))
+public class UploadChunk {
+
+    /**
+     * Unique identifier for the chunk record.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Identifier of the upload session the chunk belongs to.
+     */
+    @Column(name = "session_id", length = 36, nullable = false)
+    private String sessionId;
+
+    /**
+     * Zero-based index of the chunk within the file.
+     */
+    @Column(name = "chunk_index", nullable = false)
+    private int chunkIndex;
+}
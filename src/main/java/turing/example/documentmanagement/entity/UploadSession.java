@@ -0,0 +1,68 @@
+package turing.example.documentmanagement.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Represents a resumable, chunked upload that has been started but not yet committed.
+ * <p>
+ * The file is assembled in a pre-allocated part file; clients upload fixed-size chunks
+ * in any order and in parallel, and commit the session once every chunk has arrived.
+ * Received chunks are tracked as {@link UploadChunk} rows.
+ * </p>
+ *
+ * <p>
+ * A commit claims the session by moving it to {@link UploadSessionState#COMMITTING}. The session
+ * is deleted once the document version is recorded, and reopened if the commit fails, so the
+ * upload can be committed again.
+ * </p>
+ */
+@Entity
+@Data
+public class UploadSession {
+
+    /**
+     * Unique, randomly generated identifier of the session.
+     */
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    /**
+     * Name of the document being uploaded.
+     */
+    private String fileName;
+
+    /**
+     * Owner of the document being uploaded.
+     */
+    private String owner;
+
+    /**
+     * Total size of the file in bytes.
+     */
+    private long totalSize;
+
+    /**
+     * Size of every chunk in bytes; only the last chunk may be shorter.
+     */
+    private long chunkSize;
+
+    /**
+     * Number of chunks making up the file.
+     */
+    private int chunkCount;
+
+    /**
+     * Timestamp indicating when the session was started.
+     */
+    private LocalDateTime createdAt;
+
+    /**
+     * State of the session; sessions started before the state was recorded have none and count as open.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private UploadSessionState state = UploadSessionState.OPEN;
+}
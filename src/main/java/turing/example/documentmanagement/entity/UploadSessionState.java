@@ -0,0 +1,17 @@
+package turing.example.documentmanagement.entity;
+
+/**
+ * State of an {@link UploadSession}.
+ */
+public enum UploadSessionState {
+
+    /**
+     * Accepting chunks and waiting to be committed.
+     */
+    OPEN,
+
+    /**
+     * Claimed by a commit that is storing and registering the assembled file.
+     */
+    COMMITTING
+}
@@ -0,0 +1,17 @@
+package turing.example.documentmanagement.entity;
+
+/**
+ * Describes how the content of a {@link DocumentVersion} is kept on disk.
+ */
+public enum VersionStorageMode {
+
+    /**
+     * The stored blob is the complete content of the version.
+     */
+    FULL,
+
+    /**
+     * The stored blob is a delta that reproduces the version from a newer version of the same document.
+     */
+    DELTA
+}
@@ -0,0 +1,20 @@
+package turing.example.documentmanagement.exception;
+
+/**
+ * Custom exception thrown when a bulk import with the requested ID does not exist.
+ * <p>
+ * This exception extends {@link RuntimeException}, allowing it to be used
+ * as an unchecked exception in service and controller layers.
+ * </p>
+ */
+public class ImportJobNotFoundException extends RuntimeException {
+
+    /**
+     * Constructs a new {@code ImportJobNotFoundException} with a detailed message.
+     *
+     * @param message A descriptive message explaining why the exception occurred.
+     */
+    public ImportJobNotFoundException(String message) {
+        super(message);
+    }
+}
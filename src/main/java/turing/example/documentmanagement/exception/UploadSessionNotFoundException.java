@@ -0,0 +1,21 @@
+package turing.example.documentmanagement.exception;
+
+/**
+ * Custom exception thrown when a resumable upload session does not exist,
+ * for example because it was already committed or has expired.
+ * <p>
+ * This exception extends {@link RuntimeException}, allowing it to be used
+ * as an unchecked exception in service and controller layers.
+ * </p>
+ */
+public class UploadSessionNotFoundException extends RuntimeException {
+
+    /**
+     * Constructs a new {@code UploadSessionNotFoundException} with a detailed message.
+     *
+     * @param message A descriptive message explaining why the exception occurred.
+     */
+    public UploadSessionNotFoundException(String message) {
+        super(message);
+    }
+}
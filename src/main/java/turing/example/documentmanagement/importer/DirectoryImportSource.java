@@ -0,0 +1,94 @@
+package turing.example.documentmanagement.importer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Enumerates the regular files of a directory tree, depth first with every directory sorted by name.
+ * <p>
+ * Only one directory listing per level of the current path is held in memory. Symbolic links
+ * are not followed, so an import never leaves the tree it was pointed at.
+ * </p>
+ */
+public class DirectoryImportSource implements ImportSource {
+
+    private final Path root;
+    private final Deque<Iterator<Path>> stack = new ArrayDeque<>();
+    private ImportEntry next;
+
+    /**
+     * Opens a directory tree.
+     *
+     * @param root The root directory of the tree.
+     * @throws IOException If the root directory cannot be listed.
+     */
+    public DirectoryImportSource(Path root) throws IOException {
+        this.root = root;
+        stack.push(list(root));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        try {
+            while (!stack.isEmpty()) {
+                Iterator<Path> current = stack.peek();
+                if (!current.hasNext()) {
+                    stack.pop();
+                    continue;
+                }
+                Path path = current.next();
+                if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+                    stack.push(list(path));
+                } else if (Files.isRegularFile(path, LinkOption.NOFOLLOW_LINKS)) {
+                    next = new ImportEntry(nameOf(path), Files.size(path), () -> Files.newInputStream(path));
+                    return true;
+                }
+            }
+            return false;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public ImportEntry next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ImportEntry entry = next;
+        next = null;
+        return entry;
+    }
+
+    @Override
+    public void close() {
+        stack.clear();
+    }
+
+    private String nameOf(Path path) {
+        return root.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/");
+    }
+
+    private static Iterator<Path> list(Path directory) throws IOException {
+        List<Path> children = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            stream.forEach(children::add);
+        }
+        children.sort(Comparator.comparing(child -> child.getFileName().toString()));
+        return children.iterator();
+    }
+}
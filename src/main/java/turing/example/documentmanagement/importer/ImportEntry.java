@@ -0,0 +1,14 @@
+package turing.example.documentmanagement.importer;
+
+import org.springframework.core.io.InputStreamSource;
+
+/**
+ * A file found in an {@link ImportSource}.
+ *
+ * @param name    The document name, i.e. the path of the file relative to the source root with
+ *                {@code /} as separator.
+ * @param size    The size of the file in bytes.
+ * @param content Source of the file's content, which may be opened several times.
+ */
+public record ImportEntry(String name, long size, InputStreamSource content) {
+}
@@ -0,0 +1,46 @@
+package turing.example.documentmanagement.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+
+/**
+ * A tree of files to import, enumerated in an order that is the same on every run.
+ * <p>
+ * The stable order is what makes imports resumable: a checkpoint is simply the number of
+ * entries already dealt with.
+ * </p>
+ */
+public interface ImportSource extends Closeable, Iterator<ImportEntry> {
+
+    /**
+     * Opens a directory tree or a ZIP archive as an import source.
+     *
+     * @param path The directory or ZIP archive.
+     * @return The source enumerating the regular files of the tree or archive.
+     * @throws IOException If the path is neither a directory nor a readable ZIP archive.
+     */
+    static ImportSource open(Path path) throws IOException {
+        if (Files.isDirectory(path)) {
+            return new DirectoryImportSource(path);
+        }
+        return new ZipImportSource(path);
+    }
+
+    /**
+     * Skips entries without opening them, to continue after a checkpoint.
+     *
+     * @param count The number of entries to skip.
+     * @return The number of entries actually skipped, less than {@code count} if the source ended.
+     */
+    default long skip(long count) {
+        long skipped = 0;
+        while (skipped < count && hasNext()) {
+            next();
+            skipped++;
+        }
+        return skipped;
+    }
+}
@@ -0,0 +1,59 @@
+package turing.example.documentmanagement.importer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Enumerates the files of a ZIP archive in the order of its central directory.
+ * <p>
+ * Entries are read straight from the archive; nothing is extracted to disk first. Several
+ * entries may be read concurrently.
+ * </p>
+ */
+public class ZipImportSource implements ImportSource {
+
+    private final ZipFile zipFile;
+    private final Iterator<? extends ZipEntry> entries;
+    private ImportEntry next;
+
+    /**
+     * Opens a ZIP archive.
+     *
+     * @param archive The archive file.
+     * @throws IOException If the file is not a readable ZIP archive.
+     */
+    public ZipImportSource(Path archive) throws IOException {
+        this.zipFile = new ZipFile(archive.toFile());
+        this.entries = zipFile.stream().iterator();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null && entries.hasNext()) {
+            ZipEntry entry = entries.next();
+            if (!entry.isDirectory()) {
+                next = new ImportEntry(entry.getName(), entry.getSize(), () -> zipFile.getInputStream(entry));
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public ImportEntry next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        ImportEntry entry = next;
+        next = null;
+        return entry;
+    }
+
+    @Override
+    public void close() throws IOException {
+        zipFile.close();
+    }
+}
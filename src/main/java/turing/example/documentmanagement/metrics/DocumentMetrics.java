@@ -0,0 +1,178 @@
+package turing.example.documentmanagement.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Micrometer instrumentation of document uploads.
+ * <p>
+ * Records, per upload source ({@code single}, {@code batch} or {@code chunked}):
+ * <ul>
+ *     <li>{@code documents.upload}: end-to-end upload latency, with percentiles and a histogram,
+ *     tagged with the outcome.</li>
+ *     <li>{@code documents.upload.storage} and {@code documents.upload.metadata}: the time spent
+ *     writing content to disk and recording metadata in the database.</li>
+ *     <li>{@code documents.upload.size}: the distribution of stored file sizes.</li>
+ *     <li>{@code documents.ingested}: the bytes stored; its rate is the ingest throughput.</li>
+ *     <li>{@code documents.upload.errors}: failed uploads, tagged with the cause.</li>
+ * </ul>
+ * The gauge {@code documents.uploads.in.flight} reports the uploads currently being processed.
+ * </p>
+ */
+@Component
+public class DocumentMetrics {
+
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.95, 0.99};
+
+    private final MeterRegistry registry;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param registry Registry the meters are registered with.
+     */
+    public DocumentMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        registry.gauge("documents.uploads.in.flight", inFlight);
+    }
+
+    /**
+     * Marks the start of an upload.
+     *
+     * @return The sample to pass to {@link #uploadFinished} once the upload has ended.
+     */
+    public Timer.Sample uploadStarted() {
+        inFlight.incrementAndGet();
+        return Timer.start(registry);
+    }
+
+    /**
+     * Marks the end of an upload and records its latency.
+     *
+     * @param sample The sample returned by {@link #uploadStarted()}.
+     * @param source The kind of upload.
+     * @param error  The error the upload failed with, or {@code null} if it succeeded.
+     */
+    public void uploadFinished(Timer.Sample sample, String source, Throwable error) {
+        inFlight.decrementAndGet();
+        sample.stop(Timer.builder("documents.upload")
+                .description("Time to store and record an upload")
+                .tag("source", source)
+                .tag("outcome", error == null ? "success" : "error")
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .register(registry));
+        if (error != null) {
+            recordError(source, error);
+        }
+    }
+
+    /**
+     * Records the size of a successfully stored file.
+     *
+     * @param source The kind of upload.
+     * @param bytes  The size of the file in bytes.
+     */
+    public void recordIngested(String source, long bytes) {
+        DistributionSummary.builder("documents.upload.size")
+                .description("Size of uploaded files")
+                .baseUnit("bytes")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(bytes);
+        Counter.builder("documents.ingested")
+                .description("Bytes of uploaded content")
+                .baseUnit("bytes")
+                .tag("source", source)
+                .register(registry)
+                .increment(bytes);
+    }
+
+    /**
+     * Counts a failed upload, or a failed file of a batch upload.
+     *
+     * @param source The kind of upload.
+     * @param error  The error the upload failed with.
+     */
+    public void recordError(String source, Throwable error) {
+        Counter.builder("documents.upload.errors")
+                .description("Failed uploads")
+                .tag("source", source)
+                .tag("cause", causeOf(error))
+                .register(registry)
+                .increment();
+    }
+
+    /**
+     * Runs and times the storage step of an upload.
+     *
+     * @param source  The kind of upload.
+     * @param storage The step writing the content to disk.
+     * @return The result of the step.
+     * @throws IOException If the step fails.
+     */
+    public <T> T timeStorage(String source, StorageStep<T> storage) throws IOException {
+        long started = System.nanoTime();
+        try {
+            return storage.run();
+        } finally {
+            phaseTimer("documents.upload.storage", "Time spent writing uploaded content", source)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Runs and times the metadata step of an upload.
+     *
+     * @param source   The kind of upload.
+     * @param metadata The step recording the upload in the database.
+     * @return The result of the step.
+     */
+    public <T> T timeMetadata(String source, Supplier<T> metadata) {
+        return phaseTimer("documents.upload.metadata", "Time spent recording upload metadata", source)
+                .record(metadata);
+    }
+
+    private Timer phaseTimer(String name, String description, String source) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("source", source)
+                .publishPercentiles(PERCENTILES)
+                .register(registry);
+    }
+
+    /**
+     * Names the cause of an error by its exception type, looking through wrapper exceptions.
+     */
+    private static String causeOf(Throwable error) {
+        Throwable cause = error;
+        while ((cause instanceof ExecutionException || cause instanceof CompletionException)
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause.getClass().getSimpleName();
+    }
+
+    /**
+     * A storage step of an upload.
+     *
+     * @param <T> The result of the step.
+     */
+    @FunctionalInterface
+    public interface StorageStep<T> {
+
+        T run() throws IOException;
+    }
+}
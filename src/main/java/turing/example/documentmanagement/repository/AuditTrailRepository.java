@@ -1,8 +1,15 @@
 package turing.example.documentmanagement.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import turing.example.documentmanagement.dto.AuditEntry;
 import turing.example.documentmanagement.entity.AuditTrail;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Repository interface for managing {@link AuditTrail} entities.
  * <p>
@@ -11,10 +18,86 @@ import turing.example.documentmanagement.entity.AuditTrail;
  * </p>
  *
  * <p>
- * Spring Data JPA will automatically generate the implementation for this repository,
- * allowing easy interaction with the database.
+ * The table grows without bound, so it is only ever read a page at a time. The page queries use
+ * keyset pagination, newest first: each page continues below the position ({@code timestamp},
+ * {@code id}) of the last entry of the previous one. For the first page, pass the exclusive end
+ * of the time range as the timestamp and {@link Long#MIN_VALUE} as the ID.
  * </p>
  */
 public interface AuditTrailRepository extends JpaRepository<AuditTrail, Long> {
-    // Additional custom query methods can be defined here if needed
+
+    /**
+     * Retrieves a page of the entries of a document within a time range.
+     * <p>
+     * Served by the {@code (document_id, timestamp, id)} index.
+     * </p>
+     *
+     * @param documentId the ID of the document
+     * @param from       the inclusive start of the time range
+     * @param timestamp  the timestamp of the last entry of the previous page
+     * @param id         the ID of the last entry of the previous page
+     * @param pageable   the page size
+     * @return the entries following the given position
+     */
+    @Query("select new turing.example.documentmanagement.dto.AuditEntry("
+            + "a.id, a.action, a.performedBy, a.timestamp, a.document.id) from AuditTrail a "
+            + "where a.document.id = :documentId and a.timestamp >= :from "
+            + "and (a.timestamp < :timestamp or (a.timestamp = :timestamp and a.id < :id)) "
+            + "order by a.timestamp desc, a.id desc")
+    List<AuditEntry> findPageByDocument(@Param("documentId") Long documentId, @Param("from") LocalDateTime from,
+                                        @Param("timestamp") LocalDateTime timestamp, @Param("id") Long id,
+                                        Pageable pageable);
+
+    /**
+     * Retrieves a page of the entries of a user within a time range.
+     * <p>
+     * Served by the {@code (performed_by, timestamp, id)} index.
+     * </p>
+     *
+     * @param performedBy the user who performed the actions
+     * @param from        the inclusive start of the time range
+     * @param timestamp   the timestamp of the last entry of the previous page
+     * @param id          the ID of the last entry of the previous page
+     * @param pageable    the page size
+     * @return the entries following the given position
+     */
+    @Query("select new turing.example.documentmanagement.dto.AuditEntry("
+            + "a.id, a.action, a.performedBy, a.timestamp, a.document.id) from AuditTrail a "
+            + "where a.performedBy = :performedBy and a.timestamp >= :from "
+            + "and (a.timestamp < :timestamp or (a.timestamp = :timestamp and a.id < :id)) "
+            + "order by a.timestamp desc, a.id desc")
+    List<AuditEntry> findPageByUser(@Param("performedBy") String performedBy, @Param("from") LocalDateTime from,
+                                    @Param("timestamp") LocalDateTime timestamp, @Param("id") Long id,
+                                    Pageable pageable);
+
+    /**
+     * Retrieves a page of all entries within a time range.
+     * <p>
+     * Served by the {@code (timestamp, id)} index; on a partitioned table only the partitions
+     * of the months in the range are read.
+     * </p>
+     *
+     * @param from      the inclusive start of the time range
+     * @param timestamp the timestamp of the last entry of the previous page
+     * @param id        the ID of the last entry of the previous page
+     * @param pageable  the page size
+     * @return the entries following the given position
+     */
+    @Query("select new turing.example.documentmanagement.dto.AuditEntry("
+            + "a.id, a.action, a.performedBy, a.timestamp, a.document.id) from AuditTrail a "
+            + "where a.timestamp >= :from "
+            + "and (a.timestamp < :timestamp or (a.timestamp = :timestamp and a.id < :id)) "
+            + "order by a.timestamp desc, a.id desc")
+    List<AuditEntry> findPage(@Param("from") LocalDateTime from, @Param("timestamp") LocalDateTime timestamp,
+                              @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Finds the IDs of the oldest entries from before the given time, for deleting them in batches.
+     *
+     * @param before   the exclusive end of the time range
+     * @param pageable the number of IDs; the page number must be {@code 0}
+     * @return the IDs, oldest entries first
+     */
+    @Query("select a.id from AuditTrail a where a.timestamp < :before order by a.timestamp, a.id")
+    List<Long> findIdsBefore(@Param("before") LocalDateTime before, Pageable pageable);
 }
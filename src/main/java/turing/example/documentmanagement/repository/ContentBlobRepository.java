@@ -0,0 +1,76 @@
+package turing.example.documentmanagement.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import turing.example.documentmanagement.entity.ContentBlob;
+
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link ContentBlob} entities.
+ * <p>
+ * Besides the inherited CRUD operations, it offers atomic reference count updates
+ * that are executed directly in the database, so concurrent uploads of the same
+ * content never lose an increment.
+ * </p>
+ */
+public interface ContentBlobRepository extends JpaRepository<ContentBlob, String> {
+
+    /**
+     * Atomically increments the reference count of a blob.
+     *
+     * @param hash the content hash of the blob
+     * @return the number of updated rows; {@code 0} if the blob does not exist
+     */
+    @Modifying
+    @Query("update ContentBlob b set b.refCount = b.refCount + 1 where b.hash = :hash")
+    int incrementRefCount(@Param("hash") String hash);
+
+    /**
+     * Atomically decrements the reference count of a blob.
+     *
+     * @param hash the content hash of the blob
+     * @return the number of updated rows; {@code 0} if the blob does not exist
+     */
+    @Modifying
+    @Query("update ContentBlob b set b.refCount = b.refCount - 1 where b.hash = :hash and b.refCount > 0")
+    int decrementRefCount(@Param("hash") String hash);
+
+    /**
+     * Deletes a blob record if, and only if, no version references it anymore.
+     *
+     * @param hash the content hash of the blob
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query("delete from ContentBlob b where b.hash = :hash and b.refCount = 0")
+    int deleteIfUnreferenced(@Param("hash") String hash);
+
+    /**
+     * Moves a blob record to a new path, unless it has been moved or deleted in the meantime.
+     *
+     * @param hash    the content hash of the blob
+     * @param oldPath the path the blob was read with
+     * @param newPath the new path of the blob
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("update ContentBlob b set b.path = :newPath where b.hash = :hash and b.path = :oldPath")
+    int relocate(@Param("hash") String hash, @Param("oldPath") String oldPath, @Param("newPath") String newPath);
+
+    /**
+     * Retrieves the next page of blobs in hash order, seeking past the given hash.
+     * <p>
+     * Seeking on the primary key keeps every page equally cheap, however far a scan has progressed.
+     * </p>
+     *
+     * @param after    the last hash of the previous page; the empty string for the first page
+     * @param pageable the page size
+     * @return the blobs following {@code after}
+     */
+    @Query("select b from ContentBlob b where b.hash > :after order by b.hash")
+    List<ContentBlob> findPageAfter(@Param("after") String after, Pageable pageable);
+}
@@ -0,0 +1,119 @@
+package turing.example.documentmanagement.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import turing.example.documentmanagement.entity.DerivativeJob;
+import turing.example.documentmanagement.entity.DerivativeKind;
+import turing.example.documentmanagement.entity.DerivativeStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for managing {@link DerivativeJob} entities.
+ * <p>
+ * Jobs are claimed with a conditional update, so a job is only ever run by one worker,
+ * even if several application instances share the database.
+ * </p>
+ */
+public interface DerivativeJobRepository extends JpaRepository<DerivativeJob, Long> {
+
+    /**
+     * Retrieves the derivative of a given kind for a version.
+     *
+     * @param versionId the ID of the document version
+     * @param kind      the kind of derivative
+     * @return an {@link Optional} containing the job, if one was created for the version
+     */
+    Optional<DerivativeJob> findByVersionIdAndKind(Long versionId, DerivativeKind kind);
+
+    /**
+     * Retrieves the jobs of several versions.
+     *
+     * @param versionIds the IDs of the document versions
+     * @return the jobs of the versions, in no particular order
+     */
+    List<DerivativeJob> findByVersionIdIn(Collection<Long> versionIds);
+
+    /**
+     * Deletes the jobs of several versions with a single statement.
+     *
+     * @param versionIds the IDs of the document versions
+     * @return the number of deleted jobs
+     */
+    @Modifying
+    @Query("delete from DerivativeJob j where j.versionId in :versionIds")
+    int deleteByVersionIdIn(@Param("versionIds") Collection<Long> versionIds);
+
+    /**
+     * Retrieves the IDs of the oldest jobs in a given state.
+     *
+     * @param status   the job state, usually {@link DerivativeStatus#PENDING}
+     * @param pageable the maximum number of IDs
+     * @return the job IDs in creation order
+     */
+    @Query("select j.id from DerivativeJob j where j.status = :status order by j.id")
+    List<Long> findIdsByStatus(@Param("status") DerivativeStatus status, Pageable pageable);
+
+    /**
+     * Moves a job from one state to another, unless another worker changed it first.
+     *
+     * @param id   the ID of the job
+     * @param from the expected current state
+     * @param to   the new state
+     * @param now  the time of the change
+     * @return the number of updated rows; {@code 1} if the transition was made
+     */
+    @Modifying
+    @Query("update DerivativeJob j set j.status = :to, j.updatedAt = :now where j.id = :id and j.status = :from")
+    int transition(@Param("id") Long id, @Param("from") DerivativeStatus from, @Param("to") DerivativeStatus to,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Records the outcome of a running job, unless it is no longer running.
+     * <p>
+     * A job taking longer than the stale time is returned to the queue and may be claimed by
+     * another worker; only the first outcome of a claim that is still running is recorded.
+     * </p>
+     *
+     * @param id          the ID of the job
+     * @param running     {@link DerivativeStatus#RUNNING}
+     * @param status      the new state
+     * @param attempts    the number of attempts made so far
+     * @param lastError   the message of the last failure, or {@code null}
+     * @param blobKey     the key of the blob holding the derivative, or {@code null}
+     * @param contentType the media type of the derivative, or {@code null}
+     * @param size        the size of the derivative in bytes
+     * @param now         the time of the change
+     * @return the number of updated rows; {@code 1} if the outcome was recorded
+     */
+    @Modifying
+    @Query("update DerivativeJob j set j.status = :status, j.attempts = :attempts, j.lastError = :lastError, "
+            + "j.blobKey = :blobKey, j.contentType = :contentType, j.size = :size, j.updatedAt = :now "
+            + "where j.id = :id and j.status = :running")
+    int complete(@Param("id") Long id, @Param("running") DerivativeStatus running,
+                 @Param("status") DerivativeStatus status, @Param("attempts") int attempts,
+                 @Param("lastError") String lastError, @Param("blobKey") String blobKey,
+                 @Param("contentType") String contentType, @Param("size") long size,
+                 @Param("now") LocalDateTime now);
+
+    /**
+     * Returns running jobs claimed before the given time to the queue, e.g. after a crash.
+     *
+     * @param running {@link DerivativeStatus#RUNNING}
+     * @param pending {@link DerivativeStatus#PENDING}
+     * @param before  jobs claimed before this time are considered abandoned
+     * @param now     the time of the change
+     * @return the number of requeued jobs
+     */
+    @Modifying
+    @Query("update DerivativeJob j set j.status = :pending, j.updatedAt = :now "
+            + "where j.status = :running and j.updatedAt < :before")
+    int requeueStale(@Param("running") DerivativeStatus running, @Param("pending") DerivativeStatus pending,
+                     @Param("before") LocalDateTime before, @Param("now") LocalDateTime now);
+}
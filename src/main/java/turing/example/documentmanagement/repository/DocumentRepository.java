@@ -1,8 +1,18 @@
 package turing.example.documentmanagement.repository;
 
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import turing.example.documentmanagement.dto.DocumentResponse;
 import turing.example.documentmanagement.entity.Document;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -27,6 +37,166 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
      */
     Optional<Document> findByName(String name);
 
+    /**
+     * Finds the ID of the document with the given name.
+     *
+     * @param name the name of the document
+     * @return an {@link Optional} containing the document ID, if such a document exists
+     */
+    @Query("select d.id from Document d where d.name = :name")
+    Optional<Long> findIdByName(@Param("name") String name);
+
+    /**
+     * Finds a document by its ID and locks it for the rest of the transaction.
+     *
+     * @param id the ID of the document
+     * @return an {@link Optional} containing the locked document, if it exists
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from Document d where d.id = :id")
+    Optional<Document> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Finds a document by its name and locks it for the rest of the transaction.
+     * <p>
+     * Used when adding a version, so that concurrent uploads to the same document
+     * number their versions one after the other. Served by the unique index on the name, so only
+     * the matching index entry and row are locked instead of every row a table scan passes.
+     * </p>
+     *
+     * @param name the name of the document
+     * @return an {@link Optional} containing the locked document, if any
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from Document d where d.name = :name")
+    Optional<Document> findByNameForUpdate(@Param("name") String name);
+
+    /**
+     * Finds all documents with one of the given names and locks them for the rest of the transaction.
+     * <p>
+     * Served by the unique index on the name, like {@link #findByNameForUpdate(String)}.
+     * </p>
+     *
+     * @param names the names of the documents
+     * @return the locked documents, in no particular order
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select d from Document d where d.name in :names order by d.id")
+    List<Document> findByNameInForUpdate(@Param("names") Collection<String> names);
+
+    /**
+     * Retrieves the metadata of a document together with the path of its latest version.
+     * <p>
+     * The latest version is joined through its primary key, so the cost does not depend on
+     * the number of versions.
+     * </p>
+     *
+     * @param id the ID of the document
+     * @return an {@link Optional} containing the document metadata, if the document exists
+     */
+    @Query("select new turing.example.documentmanagement.dto.DocumentResponse("
+            + "d.id, d.name, d.owner, d.createdAt, d.latestVersion, v.filePath) "
+            + "from Document d left join DocumentVersion v on v.id = d.latestVersionId where d.id = :id")
+    Optional<DocumentResponse> findResponseById(@Param("id") Long id);
+
+    /**
+     * Retrieves the metadata of several documents together with the paths of their latest versions.
+     *
+     * @param ids the IDs of the documents
+     * @return the metadata of the documents that exist, in no particular order
+     */
+    @Query("select new turing.example.documentmanagement.dto.DocumentResponse("
+            + "d.id, d.name, d.owner, d.createdAt, d.latestVersion, v.filePath) "
+            + "from Document d left join DocumentVersion v on v.id = d.latestVersionId where d.id in :ids")
+    List<DocumentResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Retrieves the first page of an owner's documents, newest first.
+     * <p>
+     * Served by the {@code (owner, created_at, id)} index; the page size is taken from the
+     * {@link Pageable}, whose page number must be {@code 0}.
+     * </p>
+     *
+     * @param owner    the owner of the documents
+     * @param pageable the page size
+     * @return the newest documents of the owner
+     */
+    @Query("select new turing.example.documentmanagement.dto.DocumentResponse("
+            + "d.id, d.name, d.owner, d.createdAt, d.latestVersion, v.filePath) "
+            + "from Document d left join DocumentVersion v on v.id = d.latestVersionId "
+            + "where d.owner = :owner order by d.createdAt desc, d.id desc")
+    List<DocumentResponse> findPageByOwner(@Param("owner") String owner, Pageable pageable);
+
+    /**
+     * Retrieves the page of an owner's documents following a given position, newest first.
+     * <p>
+     * Keyset pagination: instead of skipping rows with an offset, the query seeks directly to
+     * the position of the last document of the previous page in the
+     * {@code (owner, created_at, id)} index, so every page costs the same no matter how deep it is.
+     * </p>
+     *
+     * @param owner     the owner of the documents
+     * @param createdAt the creation time of the last document of the previous page
+     * @param id        the ID of the last document of the previous page
+     * @param pageable  the page size
+     * @return the documents following the given position
+     */
+    @Query("select new turing.example.documentmanagement.dto.DocumentResponse("
+            + "d.id, d.name, d.owner, d.createdAt, d.latestVersion, v.filePath) "
+            + "from Document d left join DocumentVersion v on v.id = d.latestVersionId "
+            + "where d.owner = :owner and (d.createdAt < :createdAt or (d.createdAt = :createdAt and d.id < :id)) "
+            + "order by d.createdAt desc, d.id desc")
+    List<DocumentResponse> findPageByOwnerAfter(@Param("owner") String owner,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Initialises the latest-version pointer of documents created before it was maintained.
+     *
+     * @return the number of updated documents
+     */
+    @Modifying
+    @Query("update Document d set "
+            + "d.latestVersion = (select max(v.version) from DocumentVersion v where v.document = d), "
+            + "d.latestVersionId = (select v.id from DocumentVersion v where v.document = d and v.version = "
+            + "(select max(w.version) from DocumentVersion w where w.document = d)) "
+            + "where d.latestVersionId is null and exists (select 1 from DocumentVersion v where v.document = d)")
+    int backfillLatestVersions();
+
+    /**
+     * Reads the next page of document names in ID order, for scanning the whole table.
+     *
+     * @param afterId  the ID of the last document of the previous page, or {@code 0} to start
+     * @param pageable the page size; the page number is ignored in favour of {@code afterId}
+     * @return the IDs and names of the following documents
+     */
+    @Query("select d.id as id, d.name as name from Document d where d.id > :afterId order by d.id")
+    List<DocumentName> findNamesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Reads the names of the documents created at or after the given time.
+     *
+     * @param since the earliest creation time
+     * @return the names of the documents created since then
+     */
+    @Query("select d.name from Document d where d.createdAt >= :since")
+    List<String> findNamesCreatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * Reads the next page of IDs of documents that have had more than the given number of versions.
+     * <p>
+     * Documents with fewer versions are skipped without looking at their versions.
+     * </p>
+     *
+     * @param afterId     the ID of the last document of the previous page, or {@code 0} to start
+     * @param minVersions the number of versions a document must have exceeded
+     * @param pageable    the page size; the page number is ignored in favour of {@code afterId}
+     * @return the IDs of the following documents, in ascending order
+     */
+    @Query("select d.id from Document d where d.id > :afterId and d.latestVersion > :minVersions order by d.id")
+    List<Long> findIdsWithMoreVersionsAfter(@Param("afterId") Long afterId, @Param("minVersions") int minVersions,
+                                            Pageable pageable);
+
     /**
      * Checks if a document with the given name exists.
      *
@@ -34,4 +204,14 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
      * @return {@code true} if a document with the given name exists, otherwise {@code false}
      */
     boolean existsByName(String name);
+
+    /**
+     * Projection of a document onto its ID and name.
+     */
+    interface DocumentName {
+
+        Long getId();
+
+        String getName();
+    }
 }
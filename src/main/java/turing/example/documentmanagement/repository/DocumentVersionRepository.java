@@ -1,9 +1,23 @@
 package turing.example.documentmanagement.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import turing.example.documentmanagement.config.SecondLevelCacheConfig;
+import turing.example.documentmanagement.entity.BlobCompression;
 import turing.example.documentmanagement.entity.DocumentVersion;
+import turing.example.documentmanagement.entity.VersionStorageMode;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Repository interface for managing {@link DocumentVersion} entities.
@@ -26,8 +40,208 @@ public interface DocumentVersionRepository extends JpaRepository<DocumentVersion
      * version tracking and document retrieval purposes.
      * </p>
      *
+     * <p>
+     * The result is kept in the query cache as a list of version IDs, whose versions come from the
+     * entity cache. Any write to the version table invalidates all cached histories.
+     * </p>
+     *
      * @param documentId the ID of the document
      * @return a list of {@link DocumentVersion} sorted by version in descending order
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = SecondLevelCacheConfig.VERSION_HISTORY_QUERIES_REGION)
+    })
     List<DocumentVersion> findByDocumentIdOrderByVersionDesc(Long documentId);
+
+    /**
+     * Retrieves the latest version of a document through the document's latest-version pointer.
+     * <p>
+     * Only the document row and the version's primary key are read; the version history is
+     * never scanned.
+     * </p>
+     *
+     * @param documentId the ID of the document
+     * @return an {@link Optional} containing the latest version, if the document has any
+     */
+    @Query("select v from DocumentVersion v where v.id = "
+            + "(select d.latestVersionId from Document d where d.id = :documentId)")
+    Optional<DocumentVersion> findLatestByDocumentId(@Param("documentId") Long documentId);
+
+    /**
+     * Retrieves a specific version of a document.
+     *
+     * @param documentId the ID of the document
+     * @param version    the version number
+     * @return an {@link Optional} containing the requested version, if it exists
+     */
+    Optional<DocumentVersion> findByDocumentIdAndVersion(Long documentId, int version);
+
+    /**
+     * Retrieves a range of versions of a document, newest first.
+     *
+     * @param documentId the ID of the document
+     * @param from       the lowest version number, inclusive
+     * @param to         the highest version number, inclusive
+     * @return the versions in the range sorted by version in descending order
+     */
+    List<DocumentVersion> findByDocumentIdAndVersionBetweenOrderByVersionDesc(Long documentId, int from, int to);
+
+    /**
+     * Retrieves a page of a document's versions following a given version number, oldest first.
+     * <p>
+     * Served by the {@code (document_id, version)} unique index; the page size is taken from the
+     * {@link Pageable}, whose page number must be {@code 0}.
+     * </p>
+     *
+     * @param documentId the ID of the document
+     * @param version    the version number of the last version of the previous page, or {@code 0}
+     * @param pageable   the page size
+     * @return the versions following the given version number
+     */
+    List<DocumentVersion> findByDocumentIdAndVersionGreaterThanOrderByVersionAsc(Long documentId, int version,
+                                                                                  Pageable pageable);
+
+    /**
+     * Retrieves the latest versions of the given documents, together with their documents.
+     *
+     * @param documentIds the IDs of the documents
+     * @return the latest version of every given document that has one
+     */
+    @Query("select v from DocumentVersion v join fetch v.document d "
+            + "where d.id in :documentIds and v.id = d.latestVersionId")
+    List<DocumentVersion> findLatestByDocumentIdIn(@Param("documentIds") Collection<Long> documentIds);
+
+    /**
+     * Retrieves the page of latest versions following a given version ID, together with their documents.
+     * <p>
+     * Seeks past the last version of the previous page, so walking all documents costs the same
+     * for every page.
+     * </p>
+     *
+     * @param afterVersionId the ID of the last version of the previous page, or {@code 0} to start
+     * @param pageable       the page size; the page number is ignored in favour of the position
+     * @return the following latest versions sorted by ID
+     */
+    @Query("select v from DocumentVersion v join fetch v.document d "
+            + "where v.id = d.latestVersionId and v.id > :afterVersionId order by v.id")
+    List<DocumentVersion> findLatestPageAfter(@Param("afterVersionId") Long afterVersionId, Pageable pageable);
+
+    /**
+     * Retrieves the page of versions of the given documents following a given position, together
+     * with their documents.
+     * <p>
+     * Keyset pagination over the {@code (document_id, version)} index: the query seeks directly to
+     * the last version of the previous page, so the versions of documents with long histories are
+     * read a page at a time.
+     * </p>
+     *
+     * @param documentIds     the IDs of the documents
+     * @param afterDocumentId the document ID of the last version of the previous page, or {@code 0} to start
+     * @param afterVersion    the number of the last version of the previous page, or {@code 0} to start
+     * @param pageable        the page size; the page number is ignored in favour of the position
+     * @return the following versions of the given documents sorted by document and version
+     */
+    @Query("select v from DocumentVersion v join fetch v.document d "
+            + "where d.id in :documentIds "
+            + "and (d.id > :afterDocumentId or (d.id = :afterDocumentId and v.version > :afterVersion)) "
+            + "order by d.id, v.version")
+    List<DocumentVersion> findPageByDocumentIdInAfter(@Param("documentIds") Collection<Long> documentIds,
+                                                      @Param("afterDocumentId") Long afterDocumentId,
+                                                      @Param("afterVersion") int afterVersion, Pageable pageable);
+
+    /**
+     * Switches a version from full storage to a delta, unless it has been converted already.
+     *
+     * @param id          the ID of the version
+     * @param blobKey     the hash of the blob holding the delta
+     * @param filePath    the path of the blob holding the delta
+     * @param compression the compression of the blob holding the delta
+     * @param storedSize  the stored size of the blob holding the delta
+     * @param baseVersion the version number the delta applies to
+     * @param delta       {@link VersionStorageMode#DELTA}
+     * @param full        {@link VersionStorageMode#FULL}
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("update DocumentVersion v set v.storageMode = :delta, v.blobKey = :blobKey, v.filePath = :filePath, "
+            + "v.compression = :compression, v.storedSize = :storedSize, v.deltaBaseVersion = :baseVersion "
+            + "where v.id = :id and (v.storageMode is null or v.storageMode = :full)")
+    int convertToDelta(@Param("id") Long id, @Param("blobKey") String blobKey, @Param("filePath") String filePath,
+                       @Param("compression") BlobCompression compression, @Param("storedSize") Long storedSize,
+                       @Param("baseVersion") int baseVersion, @Param("delta") VersionStorageMode delta,
+                       @Param("full") VersionStorageMode full);
+
+    /**
+     * Switches a version from a delta back to full storage, unless it has changed in the meantime.
+     *
+     * @param id          the ID of the version
+     * @param oldBlobKey  the hash of the blob holding the delta
+     * @param blobKey     the hash of the blob holding the full content
+     * @param filePath    the path of the blob holding the full content
+     * @param compression the compression of the blob holding the full content
+     * @param storedSize  the stored size of the blob holding the full content
+     * @param full        {@link VersionStorageMode#FULL}
+     * @param delta       {@link VersionStorageMode#DELTA}
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("update DocumentVersion v set v.storageMode = :full, v.blobKey = :blobKey, v.filePath = :filePath, "
+            + "v.compression = :compression, v.storedSize = :storedSize, v.deltaBaseVersion = null "
+            + "where v.id = :id and v.storageMode = :delta and v.blobKey = :oldBlobKey")
+    int convertToFull(@Param("id") Long id, @Param("oldBlobKey") String oldBlobKey, @Param("blobKey") String blobKey,
+                      @Param("filePath") String filePath, @Param("compression") BlobCompression compression,
+                      @Param("storedSize") Long storedSize, @Param("full") VersionStorageMode full,
+                      @Param("delta") VersionStorageMode delta);
+
+    /**
+     * Finds versions by their IDs and locks them for the rest of the transaction.
+     * <p>
+     * Used before deleting versions, so that a concurrent conversion to a delta either
+     * completes first or finds the version gone.
+     * </p>
+     *
+     * @param ids the IDs of the versions
+     * @return the locked versions that still exist
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select v from DocumentVersion v where v.id in :ids order by v.id")
+    List<DocumentVersion> findByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes versions with a single statement, without loading them or their document's
+     * version collection.
+     *
+     * @param ids the IDs of the versions
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query("delete from DocumentVersion v where v.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Points all versions stored at a moved blob path to the blob's new path.
+     *
+     * @param oldPath the previous path of the blob
+     * @param newPath the new path of the blob
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("update DocumentVersion v set v.filePath = :newPath where v.filePath = :oldPath")
+    int relocateFilePath(@Param("oldPath") String oldPath, @Param("newPath") String newPath);
+
+    /**
+     * Re-synchronizes file paths that still point to where their blob was stored before it moved.
+     * <p>
+     * Catches versions registered with a blob's old path while the blob was being moved.
+     * </p>
+     *
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("update DocumentVersion v set v.filePath = "
+            + "(select b.path from ContentBlob b where b.hash = coalesce(v.blobKey, v.contentHash)) "
+            + "where exists (select b from ContentBlob b "
+            + "where b.hash = coalesce(v.blobKey, v.contentHash) and b.path <> v.filePath)")
+    int relocateStaleFilePaths();
 }
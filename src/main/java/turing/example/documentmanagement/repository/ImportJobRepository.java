@@ -0,0 +1,49 @@
+package turing.example.documentmanagement.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import turing.example.documentmanagement.entity.ImportJob;
+import turing.example.documentmanagement.entity.ImportJobStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository interface for managing {@link ImportJob} entities.
+ */
+public interface ImportJobRepository extends JpaRepository<ImportJob, String> {
+
+    /**
+     * Advances the checkpoint of an import and adds to its counters.
+     *
+     * @param id       the ID of the import
+     * @param position the number of files dealt with, including those being recorded
+     * @param imported the number of files recorded since the last checkpoint
+     * @param skipped  the number of files skipped since the last checkpoint
+     * @param failed   the number of files that failed since the last checkpoint
+     * @param bytes    the size of the files recorded since the last checkpoint
+     * @param now      the time of the checkpoint
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("update ImportJob j set j.position = :position, j.imported = j.imported + :imported, "
+            + "j.skipped = j.skipped + :skipped, j.failed = j.failed + :failed, j.bytes = j.bytes + :bytes, "
+            + "j.updatedAt = :now where j.id = :id")
+    int checkpoint(@Param("id") String id, @Param("position") long position, @Param("imported") long imported,
+                   @Param("skipped") long skipped, @Param("failed") long failed, @Param("bytes") long bytes,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Moves all imports in one state to another, e.g. imports left running by a previous shutdown.
+     *
+     * @param from the current state
+     * @param to   the new state
+     * @param now  the time of the change
+     * @return the number of updated rows
+     */
+    @Modifying
+    @Query("update ImportJob j set j.status = :to, j.updatedAt = :now where j.status = :from")
+    int transitionAll(@Param("from") ImportJobStatus from, @Param("to") ImportJobStatus to,
+                      @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,10 @@
+package turing.example.documentmanagement.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import turing.example.documentmanagement.entity.ScrubCheckpoint;
+
+/**
+ * Repository interface for managing {@link ScrubCheckpoint} entities.
+ */
+public interface ScrubCheckpointRepository extends JpaRepository<ScrubCheckpoint, String> {
+}
@@ -0,0 +1,31 @@
+package turing.example.documentmanagement.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import turing.example.documentmanagement.entity.ScrubFinding;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for managing {@link ScrubFinding} entities.
+ */
+public interface ScrubFindingRepository extends JpaRepository<ScrubFinding, Long> {
+
+    /**
+     * Retrieves the finding recorded for a blob.
+     *
+     * @param blobHash the hash of the blob
+     * @return the finding, if the blob is known to be damaged
+     */
+    Optional<ScrubFinding> findByBlobHash(String blobHash);
+
+    /**
+     * Retrieves the next page of findings in the order they were first made.
+     *
+     * @param afterId  the last ID of the previous page; {@code 0} for the first page
+     * @param pageable the page size
+     * @return the findings following {@code afterId}
+     */
+    List<ScrubFinding> findByIdGreaterThanOrderByIdAsc(long afterId, Pageable pageable);
+}
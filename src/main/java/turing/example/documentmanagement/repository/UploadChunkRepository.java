@@ -0,0 +1,55 @@
+package turing.example.documentmanagement.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import turing.example.documentmanagement.entity.UploadChunk;
+
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link UploadChunk} entities.
+ * <p>
+ * This interface extends {@link JpaRepository}, providing built-in methods for
+ * performing CRUD operations on the `upload_chunk` table in the database.
+ * </p>
+ */
+public interface UploadChunkRepository extends JpaRepository<UploadChunk, Long> {
+
+    /**
+     * Retrieves the indexes of all chunks received for a session, in ascending order.
+     *
+     * @param sessionId the ID of the upload session
+     * @return the received chunk indexes
+     */
+    @Query("select c.chunkIndex from UploadChunk c where c.sessionId = :sessionId order by c.chunkIndex")
+    List<Integer> findChunkIndexesBySessionId(@Param("sessionId") String sessionId);
+
+    /**
+     * Counts the chunks received for a session.
+     *
+     * @param sessionId the ID of the upload session
+     * @return the number of received chunks
+     */
+    long countBySessionId(String sessionId);
+
+    /**
+     * Checks if a chunk of a session has been received.
+     *
+     * @param sessionId  the ID of the upload session
+     * @param chunkIndex the index of the chunk
+     * @return {@code true} if the chunk has been received, otherwise {@code false}
+     */
+    boolean existsBySessionIdAndChunkIndex(String sessionId, int chunkIndex);
+
+    /**
+     * Deletes all chunk records of a session.
+     *
+     * @param sessionId the ID of the upload session
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query("delete from UploadChunk c where c.sessionId = :sessionId")
+    int deleteBySessionId(@Param("sessionId") String sessionId);
+}
@@ -0,0 +1,75 @@
+package turing.example.documentmanagement.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import turing.example.documentmanagement.entity.UploadSession;
+import turing.example.documentmanagement.entity.UploadSessionState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository interface for managing {@link UploadSession} entities.
+ * <p>
+ * This interface extends {@link JpaRepository}, providing built-in methods for
+ * performing CRUD operations on the `upload_session` table in the database.
+ * </p>
+ */
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    /**
+     * Finds sessions started before the given point in time.
+     *
+     * @param cutoff the point in time
+     * @return the sessions created before {@code cutoff}
+     */
+    List<UploadSession> findByCreatedAtBefore(LocalDateTime cutoff);
+
+    /**
+     * Deletes a session, reporting whether it still existed.
+     *
+     * @param id the ID of the session
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query("delete from UploadSession s where s.id = :id")
+    int deleteSession(@Param("id") String id);
+
+    /**
+     * Deletes a session unless a commit has claimed it.
+     *
+     * @param id         the ID of the session
+     * @param committing {@link UploadSessionState#COMMITTING}
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query("delete from UploadSession s where s.id = :id and (s.state is null or s.state <> :committing)")
+    int deleteUnlessCommitting(@Param("id") String id, @Param("committing") UploadSessionState committing);
+
+    /**
+     * Claims a session for a commit, unless another commit claimed it first.
+     *
+     * @param id         the ID of the session
+     * @param committing {@link UploadSessionState#COMMITTING}
+     * @return the number of updated rows; {@code 1} if the session was claimed
+     */
+    @Modifying
+    @Query("update UploadSession s set s.state = :committing "
+            + "where s.id = :id and (s.state is null or s.state <> :committing)")
+    int claimForCommit(@Param("id") String id, @Param("committing") UploadSessionState committing);
+
+    /**
+     * Moves a session from one state to another, unless it was changed first.
+     *
+     * @param id   the ID of the session
+     * @param from the expected current state
+     * @param to   the new state
+     * @return the number of updated rows; {@code 1} if the transition was made
+     */
+    @Modifying
+    @Query("update UploadSession s set s.state = :to where s.id = :id and s.state = :from")
+    int updateState(@Param("id") String id, @Param("from") UploadSessionState from,
+                    @Param("to") UploadSessionState to);
+}
@@ -0,0 +1,375 @@
+package turing.example.documentmanagement.search;
+
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.index.TieredMergePolicy;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import turing.example.documentmanagement.config.SearchProperties;
+import turing.example.documentmanagement.entity.DocumentVersion;
+import turing.example.documentmanagement.repository.DocumentVersionRepository;
+import turing.example.documentmanagement.service.DocumentVersionStoredEvent;
+import turing.example.documentmanagement.storage.VersionContentReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Embedded Lucene index over the names and contents of documents.
+ * <p>
+ * The index holds one entry per document, describing its latest version. It is fed from
+ * {@link DocumentVersionStoredEvent}s on a single background thread, so indexing never runs on
+ * an upload request thread. Searches use near-real-time readers that are refreshed after every
+ * update, while index commits (which make the changes durable) happen periodically. Lucene's
+ * concurrent merge scheduler merges segments in the background.
+ * </p>
+ *
+ * <p>
+ * At startup, the same thread first walks the latest versions of all documents and indexes those
+ * missing from the index or indexed at an older version. This adds documents stored before the
+ * index existed, and recovers updates that were lost because the application stopped before they
+ * were indexed and committed.
+ * </p>
+ *
+ * <p>
+ * Only the textual part of a document is indexed: contents with a textual media type, or of
+ * unknown type but without binary bytes, limited to the configured size. All other documents
+ * can still be found by name.
+ * </p>
+ */
+@Component
+public class DocumentIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentIndex.class);
+
+    // Index field names
+    static final String FIELD_ID = "id";
+    static final String FIELD_VERSION = "version";
+    static final String FIELD_NAME = "name";
+    static final String FIELD_CONTENT = "content";
+
+    // Characters separating the words of a file name
+    private static final Pattern NAME_SEPARATORS = Pattern.compile("[._\\-]+");
+
+    // Number of leading bytes inspected to decide whether content of unknown type is text
+    private static final int SNIFF_LENGTH = 8 * 1024;
+
+    // Matches in the name weigh more than matches in the content
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(FIELD_NAME, 2.0f, FIELD_CONTENT, 1.0f);
+
+    private final SearchProperties properties;
+    private final DocumentVersionRepository versionRepository;
+    private final VersionContentReader contentReader;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Directory directory;
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "document-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Opens the index, creating it if it does not exist yet.
+     *
+     * @param properties        Search configuration.
+     * @param versionRepository Repository used to load the versions to index.
+     * @param contentReader     Reader providing the content of the versions.
+     * @throws IOException If the index cannot be opened.
+     */
+    public DocumentIndex(SearchProperties properties, DocumentVersionRepository versionRepository,
+                         VersionContentReader contentReader) throws IOException {
+        this.properties = properties;
+        this.versionRepository = versionRepository;
+        this.contentReader = contentReader;
+
+        Path indexDir = Paths.get(properties.getIndexDir());
+        Files.createDirectories(indexDir);
+        this.directory = FSDirectory.open(indexDir);
+
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        config.setMergePolicy(new TieredMergePolicy());
+        this.writer = new IndexWriter(directory, config);
+        this.searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * Schedules the indexing of a newly stored version.
+     *
+     * @param event The event describing the stored version.
+     */
+    @EventListener
+    public void onVersionStored(DocumentVersionStoredEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                versionRepository.findById(event.versionId()).ifPresent(version -> {
+                    try {
+                        index(version);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+            } catch (RuntimeException e) {
+                log.warn("Could not index version {} of document {}", event.version(), event.documentId(), e);
+            }
+        });
+    }
+
+    /**
+     * Brings the index up to date with the latest versions on the indexing thread.
+     * <p>
+     * Versions stored in the meantime are indexed after the catch-up has finished.
+     * </p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void catchUp() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                int indexed = indexMissingVersions();
+                if (indexed > 0) {
+                    log.info("Indexed {} documents missing from the search index", indexed);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not bring the search index up to date", e);
+            }
+        });
+    }
+
+    /**
+     * Indexes every latest version that is missing from the index or newer than the one indexed,
+     * then commits the index.
+     * <p>
+     * A version that cannot be indexed is logged and skipped. The walk stops early when the
+     * index is being closed.
+     * </p>
+     *
+     * @return The number of indexed versions.
+     * @throws IOException If the index cannot be read or committed.
+     */
+    int indexMissingVersions() throws IOException {
+        PageRequest page = PageRequest.of(0, properties.getCatchUpPageSize());
+        long afterVersionId = 0;
+        int indexed = 0;
+        while (!executor.isShutdown()) {
+            List<DocumentVersion> versions = versionRepository.findLatestPageAfter(afterVersionId, page);
+            for (DocumentVersion version : versions) {
+                Optional<Integer> current = indexedVersion(String.valueOf(version.getDocument().getId()));
+                if (current.isPresent() && current.get() >= version.getVersion()) {
+                    continue;
+                }
+                try {
+                    index(version);
+                    indexed++;
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Could not index version {} of document {}", version.getVersion(),
+                            version.getDocument().getId(), e);
+                }
+            }
+
+            if (versions.size() < page.getPageSize()) {
+                break;
+            }
+            afterVersionId = versions.get(versions.size() - 1).getId();
+        }
+        commit();
+        return indexed;
+    }
+
+    /**
+     * Adds a version to the index, replacing the entry of an older version of the same document.
+     * <p>
+     * Versions older than the one already indexed for their document are ignored, so
+     * out-of-order events cannot roll the index back.
+     * </p>
+     *
+     * @param version The version to index.
+     * @throws IOException If the content cannot be read or the index cannot be updated.
+     */
+    public void index(DocumentVersion version) throws IOException {
+        String id = String.valueOf(version.getDocument().getId());
+        Optional<Integer> indexed = indexedVersion(id);
+        if (indexed.isPresent() && indexed.get() > version.getVersion()) {
+            return;
+        }
+
+        Document entry = new Document();
+        entry.add(new StringField(FIELD_ID, id, Field.Store.YES));
+        entry.add(new StoredField(FIELD_VERSION, version.getVersion()));
+        // Index the name as a whole and split at punctuation, so "q3_report.pdf" matches "report"
+        String name = version.getDocument().getName();
+        entry.add(new TextField(FIELD_NAME, name, Field.Store.NO));
+        entry.add(new TextField(FIELD_NAME, NAME_SEPARATORS.matcher(name).replaceAll(" "), Field.Store.NO));
+        String content = readText(version);
+        if (content != null) {
+            entry.add(new TextField(FIELD_CONTENT, content, Field.Store.NO));
+        }
+
+        writer.updateDocument(new Term(FIELD_ID, id), entry);
+        searcherManager.maybeRefresh();
+    }
+
+    /**
+     * Searches names and contents, best matches first.
+     *
+     * @param queryText The query, in Lucene's classic query syntax.
+     * @param limit     The maximum number of hits.
+     * @return The matching documents with their scores.
+     * @throws IllegalArgumentException If the query cannot be parsed.
+     * @throws IOException If the index cannot be read.
+     */
+    public List<Hit> search(String queryText, int limit) throws IOException {
+        Query query;
+        try {
+            MultiFieldQueryParser parser = new MultiFieldQueryParser(
+                    new String[]{FIELD_NAME, FIELD_CONTENT}, analyzer, FIELD_BOOSTS);
+            query = parser.parse(queryText);
+        } catch (ParseException e) {
+            throw new IllegalArgumentException("Invalid search query: " + e.getMessage(), e);
+        }
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(query, Math.min(limit, properties.getMaxResults()));
+            List<Hit> hits = new ArrayList<>(topDocs.scoreDocs.length);
+            for (ScoreDoc scoreDoc : topDocs.scoreDocs) {
+                String id = searcher.storedFields().document(scoreDoc.doc).get(FIELD_ID);
+                hits.add(new Hit(Long.valueOf(id), scoreDoc.score));
+            }
+            return hits;
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * Periodically commits the index so that indexed documents survive a restart.
+     */
+    @Scheduled(fixedDelayString = "${document-management.search.commit-interval:PT5S}")
+    public void commit() throws IOException {
+        if (writer.hasUncommittedChanges()) {
+            writer.commit();
+        }
+    }
+
+    /**
+     * Finishes pending indexing work, commits and closes the index.
+     */
+    @PreDestroy
+    public void close() throws IOException, InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    /**
+     * Reads the version number currently indexed for a document.
+     */
+    private Optional<Integer> indexedVersion(String id) throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs topDocs = searcher.search(new TermQuery(new Term(FIELD_ID, id)), 1);
+            if (topDocs.scoreDocs.length == 0) {
+                return Optional.empty();
+            }
+            Document entry = searcher.storedFields().document(topDocs.scoreDocs[0].doc);
+            return Optional.of(entry.getField(FIELD_VERSION).numericValue().intValue());
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * Reads the indexable text of a version, or {@code null} if its content is not textual.
+     * <p>
+     * Content whose type cannot be derived from the name is treated as text unless its first
+     * bytes contain a NUL byte, which practically never occurs in text.
+     * </p>
+     */
+    private String readText(DocumentVersion version) throws IOException {
+        Optional<MediaType> mediaType = MediaTypeFactory.getMediaType(version.getDocument().getName());
+        if (mediaType.isPresent() && !isTextual(mediaType.get())) {
+            return null;
+        }
+        try (InputStream in = contentReader.open(version)) {
+            byte[] bytes = in.readNBytes((int) Math.min(Integer.MAX_VALUE - 8, properties.getMaxIndexedSize().toBytes()));
+            if (mediaType.isEmpty() && containsNul(bytes, SNIFF_LENGTH)) {
+                return null;
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static boolean containsNul(byte[] bytes, int length) {
+        for (int i = 0; i < Math.min(bytes.length, length); i++) {
+            if (bytes[i] == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTextual(MediaType mediaType) {
+        String subtype = mediaType.getSubtype();
+        return "text".equals(mediaType.getType())
+                || subtype.equals("json") || subtype.endsWith("+json")
+                || subtype.equals("xml") || subtype.endsWith("+xml")
+                || subtype.equals("javascript");
+    }
+
+    /**
+     * A document matching a search, with its relevance score.
+     *
+     * @param documentId The ID of the matching document.
+     * @param score      The relevance score; higher is better.
+     */
+    public record Hit(Long documentId, float score) {
+    }
+}
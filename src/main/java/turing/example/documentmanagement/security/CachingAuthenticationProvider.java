@@ -0,0 +1,100 @@
+package turing.example.documentmanagement.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * Remembers successfully verified user name and password pairs for a short time.
+ * <p>
+ * Password hashes such as BCrypt are slow by design, which is right for a login but dominates
+ * the cost of API requests from clients that send their credentials with every request. This
+ * provider verifies a pair with the wrapped provider once and afterwards accepts the same pair by
+ * comparing an HMAC of it, keyed with a secret generated at startup, so the cache never holds a
+ * password or anything a password could be derived from offline. Wrong passwords always reach the
+ * wrapped provider.
+ * </p>
+ *
+ * <p>
+ * A changed password or a disabled account takes effect once the entry expires.
+ * </p>
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final Hmac hmac;
+    private final Cache<String, VerifiedCredentials> cache;
+
+    /**
+     * Creates the provider.
+     *
+     * @param delegate    Provider verifying credentials that are not remembered.
+     * @param maximumSize Maximum number of users whose credentials are remembered.
+     * @param ttl         Time after which credentials are verified by the delegate again.
+     */
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, long maximumSize, Duration ttl) {
+        this.delegate = delegate;
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        this.hmac = new Hmac(key);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication.getCredentials() instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+        String username = authentication.getName();
+        byte[] fingerprint = fingerprint(username, password);
+        VerifiedCredentials verified = cache.getIfPresent(username);
+        if (verified != null && MessageDigest.isEqual(verified.fingerprint(), fingerprint)) {
+            UsernamePasswordAuthenticationToken result = UsernamePasswordAuthenticationToken.authenticated(
+                    verified.principal(), null, verified.authorities());
+            result.setDetails(authentication.getDetails());
+            return result;
+        }
+
+        Authentication result = delegate.authenticate(authentication);
+        if (result != null && result.isAuthenticated()) {
+            cache.put(username, new VerifiedCredentials(fingerprint, result.getPrincipal(), result.getAuthorities()));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    /**
+     * Forgets all remembered credentials, e.g. after passwords have been changed.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private byte[] fingerprint(String username, String password) {
+        return hmac.sign((username + '\0' + password).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Credentials verified by the delegate, identified by their fingerprint.
+     */
+    private record VerifiedCredentials(byte[] fingerprint, Object principal,
+                                       Collection<? extends GrantedAuthority> authorities) {
+    }
+}
@@ -0,0 +1,38 @@
+package turing.example.documentmanagement.security;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+
+/**
+ * HMAC-SHA256 with a fixed key, usable from many threads at once.
+ * <p>
+ * Every call works on a clone of an initialised prototype, which skips the provider lookup
+ * and key setup of {@link Mac#getInstance}.
+ * </p>
+ */
+final class Hmac {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final Mac prototype;
+
+    Hmac(byte[] key) {
+        try {
+            prototype = Mac.getInstance(ALGORITHM);
+            prototype.init(new SecretKeySpec(key, ALGORITHM));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    byte[] sign(byte[] data) {
+        Mac mac;
+        try {
+            mac = (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException("HMAC-SHA256 implementation cannot be cloned", e);
+        }
+        return mac.doFinal(data);
+    }
+}
@@ -0,0 +1,197 @@
+package turing.example.documentmanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import turing.example.documentmanagement.audit.AuditPartitioning;
+import turing.example.documentmanagement.config.AuditProperties;
+import turing.example.documentmanagement.dto.AuditEntry;
+import turing.example.documentmanagement.dto.AuditPage;
+import turing.example.documentmanagement.repository.AuditTrailRepository;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Service class for reading the audit trail and keeping it within its retention period.
+ * <p>
+ * Entries are read a page at a time, by document, by user or for all users, always within a time
+ * range so that only the months in the range are touched. Without a range, the whole history is read.
+ * </p>
+ *
+ * <p>
+ * Every {@code maintenance-interval} the months ahead are partitioned and the months that lie
+ * completely outside the retention period are archived or dropped, as configured.
+ * </p>
+ */
+@Service
+public class AuditTrailService {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditTrailService.class);
+
+    // Largest page a client may request from the audit trail
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // Bounds of a time range left open by the client
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    private final AuditTrailRepository auditTrailRepository;
+    private final AuditPartitioning partitioning;
+    private final AuditProperties properties;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param auditTrailRepository Repository the entries are read from.
+     * @param partitioning         Strategy managing the monthly partitions.
+     * @param properties           Audit configuration.
+     */
+    public AuditTrailService(AuditTrailRepository auditTrailRepository, AuditPartitioning partitioning,
+                             AuditProperties properties) {
+        this.auditTrailRepository = auditTrailRepository;
+        this.partitioning = partitioning;
+        this.properties = properties;
+    }
+
+    /**
+     * Retrieves a page of the entries of a document.
+     *
+     * @param documentId The ID of the document.
+     * @param from       The inclusive start of the time range, or {@code null} for no lower bound.
+     * @param to         The exclusive end of the time range, or {@code null} for no upper bound.
+     * @param cursor     The {@link AuditPage#getNextCursor() cursor} of the previous page, or
+     *                   {@code null} for the first page.
+     * @param size       The maximum number of entries on the page.
+     * @return The page, newest entries first.
+     * @throws IllegalArgumentException If the range, cursor or page size is invalid.
+     */
+    public AuditPage findByDocument(Long documentId, LocalDateTime from, LocalDateTime to, String cursor, int size) {
+        return page(from, to, cursor, size, (start, timestamp, id, limit) ->
+                auditTrailRepository.findPageByDocument(documentId, start, timestamp, id, limit));
+    }
+
+    /**
+     * Retrieves a page of the entries of a user.
+     *
+     * @param performedBy The user who performed the actions.
+     * @param from        The inclusive start of the time range, or {@code null} for no lower bound.
+     * @param to          The exclusive end of the time range, or {@code null} for no upper bound.
+     * @param cursor      The cursor of the previous page, or {@code null} for the first page.
+     * @param size        The maximum number of entries on the page.
+     * @return The page, newest entries first.
+     * @throws IllegalArgumentException If the range, cursor or page size is invalid.
+     */
+    public AuditPage findByUser(String performedBy, LocalDateTime from, LocalDateTime to, String cursor, int size) {
+        return page(from, to, cursor, size, (start, timestamp, id, limit) ->
+                auditTrailRepository.findPageByUser(performedBy, start, timestamp, id, limit));
+    }
+
+    /**
+     * Retrieves a page of the entries of all users.
+     *
+     * @param from   The inclusive start of the time range, or {@code null} for no lower bound.
+     * @param to     The exclusive end of the time range, or {@code null} for no upper bound.
+     * @param cursor The cursor of the previous page, or {@code null} for the first page.
+     * @param size   The maximum number of entries on the page.
+     * @return The page, newest entries first.
+     * @throws IllegalArgumentException If the range, cursor or page size is invalid.
+     */
+    public AuditPage findInRange(LocalDateTime from, LocalDateTime to, String cursor, int size) {
+        return page(from, to, cursor, size, auditTrailRepository::findPage);
+    }
+
+    /**
+     * Partitions the months ahead and removes the expired months.
+     */
+    @Scheduled(fixedDelayString = "${document-management.audit.partitions.maintenance-interval:PT6H}")
+    public void maintainPartitions() {
+        try {
+            maintainPartitions(LocalDateTime.now());
+        } catch (RuntimeException e) {
+            log.warn("Audit trail partition maintenance failed", e);
+        }
+    }
+
+    void maintainPartitions(LocalDateTime now) {
+        AuditProperties.Partitions settings = properties.getPartitions();
+        YearMonth current = YearMonth.from(now);
+        partitioning.prepare(current, current.plusMonths(Math.max(0, settings.getPremadeMonths())));
+
+        Duration retention = settings.getRetention();
+        if (retention != null && !retention.isZero() && !retention.isNegative()) {
+            // Only months lying completely outside the retention period are expired
+            partitioning.expire(YearMonth.from(now.minus(retention)), settings.getExpiredPolicy());
+        }
+    }
+
+    private AuditPage page(LocalDateTime from, LocalDateTime to, String cursor, int size, PageQuery query) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("The page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        LocalDateTime start = from != null ? from : EARLIEST;
+        LocalDateTime end = to != null ? to : LATEST;
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("The start of the time range must be before its end.");
+        }
+
+        // Fetch one extra row to find out whether there is a next page
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<AuditEntry> items;
+        if (cursor == null || cursor.isBlank()) {
+            items = query.find(start, end, Long.MIN_VALUE, limit);
+        } else {
+            String[] position = decodeCursor(cursor);
+            items = query.find(start, LocalDateTime.parse(position[0]), Long.valueOf(position[1]), limit);
+        }
+
+        if (items.size() <= size) {
+            return new AuditPage(items, null);
+        }
+        items = new ArrayList<>(items.subList(0, size));
+        return new AuditPage(items, encodeCursor(items.get(size - 1)));
+    }
+
+    /**
+     * Encodes the position of the last entry of a page as an opaque cursor.
+     */
+    private static String encodeCursor(AuditEntry last) {
+        String position = last.getTimestamp() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor into the timestamp and ID it points after.
+     */
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            // Validate both parts before they reach the query
+            LocalDateTime.parse(position[0]);
+            Long.parseLong(position[1]);
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor.", e);
+        }
+    }
+
+    /**
+     * One of the keyset page queries of {@link AuditTrailRepository}, bound to its filter.
+     */
+    @FunctionalInterface
+    private interface PageQuery {
+
+        List<AuditEntry> find(LocalDateTime from, LocalDateTime timestamp, Long id, PageRequest limit);
+    }
+}
@@ -0,0 +1,267 @@
+package turing.example.documentmanagement.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import turing.example.documentmanagement.config.AuditProperties;
+import turing.example.documentmanagement.entity.AuditAction;
+import turing.example.documentmanagement.entity.AuditTrail;
+import turing.example.documentmanagement.repository.AuditTrailRepository;
+import turing.example.documentmanagement.repository.DocumentRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service class recording {@link AuditTrail} entries without slowing down requests.
+ * <p>
+ * {@link #record} only places an event in a bounded in-memory queue, which costs a single
+ * non-blocking {@code offer} on the request thread. A background thread drains the queue and
+ * writes the events in batches of up to {@code flush-size} entries per transaction, at the
+ * latest {@code flush-interval} after the oldest event of a batch arrived. What happens when
+ * the queue is full is decided by the configured {@link AuditProperties.OverflowPolicy}.
+ * </p>
+ *
+ * <p>
+ * On shutdown the queue is drained and every remaining event is written before the
+ * application context closes, so an orderly stop loses no audit entries.
+ * </p>
+ */
+@Service
+public class AuditTrailWriter {
+
+    /**
+     * Name recorded for actions of requests without an authenticated user.
+     */
+    public static final String ANONYMOUS = "anonymous";
+
+    /**
+     * Name recorded for actions the application performs on its own, such as removing expired versions.
+     */
+    public static final String SYSTEM = "system";
+
+    private static final Logger log = LoggerFactory.getLogger(AuditTrailWriter.class);
+
+    private final AuditTrailRepository auditTrailRepository;
+    private final DocumentRepository documentRepository;
+    private final AuditProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<AuditEvent> queue;
+    private final Thread flushThread;
+    private volatile boolean stopped;
+
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param auditTrailRepository Repository the entries are written to.
+     * @param documentRepository   Repository providing references to the audited documents.
+     * @param properties           Audit configuration.
+     * @param transactionManager   Transaction manager used for the batch writes.
+     */
+    public AuditTrailWriter(AuditTrailRepository auditTrailRepository, DocumentRepository documentRepository,
+                            AuditProperties properties, PlatformTransactionManager transactionManager) {
+        this.auditTrailRepository = auditTrailRepository;
+        this.documentRepository = documentRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+        this.flushThread = new Thread(this::flushLoop, "audit-writer");
+        this.flushThread.setDaemon(true);
+    }
+
+    /**
+     * Starts the background thread writing the queued events.
+     */
+    @PostConstruct
+    public void start() {
+        flushThread.start();
+    }
+
+    /**
+     * Records an action performed on a document.
+     *
+     * @param action      The action performed.
+     * @param documentId  The ID of the document the action was performed on.
+     * @param performedBy The user who performed the action.
+     */
+    public void record(AuditAction action, Long documentId, String performedBy) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        AuditEvent event = new AuditEvent(action, documentId, performedBy, LocalDateTime.now());
+        if (stopped) {
+            // Shutting down: the queue may already have been drained for the last time
+            write(List.of(event));
+            return;
+        }
+        if (queue.offer(event)) {
+            drainIfStopped();
+            return;
+        }
+
+        switch (properties.getOverflowPolicy()) {
+            case BLOCK -> {
+                try {
+                    if (queue.offer(event, properties.getBlockTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                        drainIfStopped();
+                    } else {
+                        droppedCount.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    droppedCount.incrementAndGet();
+                    Thread.currentThread().interrupt();
+                }
+            }
+            case CALLER_RUNS -> write(List.of(event));
+            default -> droppedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Returns the number of events written to the database.
+     */
+    public long getWrittenCount() {
+        return writtenCount.get();
+    }
+
+    /**
+     * Returns the number of events discarded because the queue was full.
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * Returns the number of events lost because their batch could not be written.
+     */
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    /**
+     * Returns the number of events waiting to be written.
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Stops the background thread and writes every event still in the queue.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopped = true;
+        flushThread.interrupt();
+        if (flushThread.isAlive()) {
+            flushThread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        drain();
+    }
+
+    /**
+     * Writes the queue out if the writer was shut down while an event was being offered.
+     *
+     * <p>The offer may succeed only after {@link #shutdown()} has drained the queue for the last
+     * time, so nothing else would ever write that event.
+     */
+    private void drainIfStopped() {
+        if (stopped) {
+            drain();
+        }
+    }
+
+    /**
+     * Writes every event in the queue in batches of the flush size.
+     */
+    private void drain() {
+        int flushSize = Math.max(1, properties.getFlushSize());
+        List<AuditEvent> remaining = new ArrayList<>(flushSize);
+        while (queue.drainTo(remaining, flushSize) > 0) {
+            write(remaining);
+            remaining.clear();
+        }
+    }
+
+    /**
+     * Collects batches from the queue and writes them until the writer is shut down.
+     */
+    private void flushLoop() {
+        long intervalNanos = properties.getFlushInterval().toNanos();
+        int flushSize = Math.max(1, properties.getFlushSize());
+        List<AuditEvent> batch = new ArrayList<>(flushSize);
+        while (!stopped) {
+            try {
+                AuditEvent first = queue.poll(intervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Fill the batch until it is full or the oldest event has waited long enough
+                long deadline = System.nanoTime() + intervalNanos;
+                while (batch.size() < flushSize) {
+                    queue.drainTo(batch, flushSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= flushSize || remaining <= 0) {
+                        break;
+                    }
+                    AuditEvent next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Interrupted by shutdown; the collected batch is still written below
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes a batch of events in one transaction.
+     */
+    private void write(List<AuditEvent> events) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<AuditTrail> entries = new ArrayList<>(events.size());
+                for (AuditEvent event : events) {
+                    AuditTrail entry = new AuditTrail();
+                    entry.setAction(event.action().name());
+                    entry.setPerformedBy(event.performedBy());
+                    entry.setTimestamp(event.timestamp());
+                    // A reference is enough for the foreign key; the document is not loaded
+                    entry.setDocument(documentRepository.getReferenceById(event.documentId()));
+                    entries.add(entry);
+                }
+                auditTrailRepository.saveAll(entries);
+            });
+            writtenCount.addAndGet(events.size());
+        } catch (RuntimeException e) {
+            failedCount.addAndGet(events.size());
+            log.warn("Could not write {} audit trail entries", events.size(), e);
+        }
+    }
+
+    /**
+     * An action waiting in the queue to be written.
+     */
+    private record AuditEvent(AuditAction action, Long documentId, String performedBy, LocalDateTime timestamp) {
+    }
+}
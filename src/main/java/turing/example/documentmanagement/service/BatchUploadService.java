@@ -0,0 +1,192 @@
+package turing.example.documentmanagement.service;
+
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import turing.example.documentmanagement.config.StorageProperties;
+import turing.example.documentmanagement.dto.BatchUploadResult;
+import turing.example.documentmanagement.entity.ContentBlob;
+import turing.example.documentmanagement.entity.DocumentVersion;
+import turing.example.documentmanagement.metrics.DocumentMetrics;
+import turing.example.documentmanagement.storage.BlobStore;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service class ingesting many documents in a single request.
+ * <p>
+ * The files are written to the {@link BlobStore} in parallel on a bounded pool of threads,
+ * shared by all batch requests so that concurrent batches cannot exhaust the disk or the
+ * JVM. The metadata of all stored files is then recorded in one transaction through
+ * {@link DocumentService#registerUploads}, which lets Hibernate send the inserts as JDBC
+ * batches instead of two single-row transactions per file.
+ * </p>
+ *
+ * <p>
+ * Every file gets its own {@link BatchUploadResult}; a file that cannot be stored does not
+ * prevent the others from being recorded.
+ * </p>
+ */
+@Service
+public class BatchUploadService {
+
+    // Upload source reported in the metrics
+    private static final String METRICS_SOURCE = "batch";
+
+    private final BlobStore blobStore;
+    private final DocumentService documentService;
+    private final DocumentMetrics metrics;
+    private final ExecutorService executor;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param blobStore       Store the file contents are written to.
+     * @param documentService Service recording the stored files as document versions.
+     * @param properties      Storage configuration defining the number of upload threads.
+     * @param metrics         Metrics recording upload latency, sizes and errors.
+     */
+    public BatchUploadService(BlobStore blobStore, DocumentService documentService, StorageProperties properties,
+                              DocumentMetrics metrics) {
+        this.blobStore = blobStore;
+        this.documentService = documentService;
+        this.metrics = metrics;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, properties.getUploadThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "batch-upload-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Stores a batch of files and records each of them as the next version of its document.
+     *
+     * @param files      The uploaded files; each file's original name is the document name.
+     * @param owner      The owner of documents that have to be created.
+     * @param uploadedBy The authenticated user uploading the files, recorded in the audit trail.
+     * @return One result per file, in the order of the given files.
+     * @throws InterruptedException If the calling thread is interrupted while waiting for the files to be stored.
+     */
+    public List<BatchUploadResult> uploadDocuments(List<MultipartFile> files, String owner, String uploadedBy)
+            throws InterruptedException {
+        Timer.Sample sample = metrics.uploadStarted();
+        Throwable error = null;
+        try {
+            return storeAndRegister(files, owner, uploadedBy);
+        } catch (InterruptedException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            metrics.uploadFinished(sample, METRICS_SOURCE, error);
+        }
+    }
+
+    private List<BatchUploadResult> storeAndRegister(List<MultipartFile> files, String owner, String uploadedBy)
+            throws InterruptedException {
+        List<BatchUploadResult> results = new ArrayList<>(files.size());
+        List<Future<ContentBlob>> pending = new ArrayList<>(files.size());
+        for (MultipartFile file : files) {
+            BatchUploadResult result = new BatchUploadResult();
+            result.setFileName(file.getOriginalFilename());
+            results.add(result);
+
+            if (file.getOriginalFilename() == null || file.getOriginalFilename().isBlank()) {
+                result.setError("The uploaded file has no name.");
+                pending.add(null);
+            } else if (file.isEmpty()) {
+                result.setError("File is empty.");
+                pending.add(null);
+            } else {
+                pending.add(executor.submit(
+                        () -> metrics.timeStorage(METRICS_SOURCE, () -> blobStore.store(file, file.getOriginalFilename()))));
+            }
+        }
+
+        // Collect the stored blobs; a failed file only fails its own result
+        List<Integer> storedIndexes = new ArrayList<>();
+        List<String> names = new ArrayList<>();
+        List<ContentBlob> blobs = new ArrayList<>();
+        for (int i = 0; i < pending.size(); i++) {
+            if (pending.get(i) == null) {
+                continue;
+            }
+            try {
+                blobs.add(pending.get(i).get());
+                names.add(results.get(i).getFileName());
+                storedIndexes.add(i);
+            } catch (ExecutionException e) {
+                metrics.recordError(METRICS_SOURCE, e);
+                results.get(i).setError("Could not store the file: " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                for (ContentBlob blob : blobs) {
+                    blobStore.release(blob.getHash());
+                }
+                releaseRemaining(pending.subList(i, pending.size()));
+                throw e;
+            }
+        }
+
+        List<DocumentVersion> versions;
+        try {
+            versions = metrics.timeMetadata(METRICS_SOURCE,
+                    () -> documentService.registerUploads(names, owner, uploadedBy, blobs));
+        } catch (RuntimeException e) {
+            metrics.recordError(METRICS_SOURCE, e);
+            for (int index : storedIndexes) {
+                results.get(index).setError("Could not save the document metadata: " + e.getMessage());
+            }
+            return results;
+        }
+
+        for (int i = 0; i < versions.size(); i++) {
+            DocumentVersion version = versions.get(i);
+            BatchUploadResult result = results.get(storedIndexes.get(i));
+            result.setSuccess(true);
+            result.setDocumentId(version.getDocument().getId());
+            result.setVersion(version.getVersion());
+            result.setContentHash(version.getContentHash());
+            metrics.recordIngested(METRICS_SOURCE, blobs.get(i).getSize());
+        }
+        return results;
+    }
+
+    /**
+     * Cancels writes that have not started and gives back the blobs of those that could not be cancelled.
+     */
+    private void releaseRemaining(List<Future<ContentBlob>> remaining) {
+        for (Future<ContentBlob> future : remaining) {
+            if (future == null || future.cancel(false)) {
+                continue;
+            }
+            // The write has already started; wait for it so its blob reference can be given back
+            while (true) {
+                try {
+                    blobStore.release(future.get().getHash());
+                    break;
+                } catch (InterruptedException e) {
+                    // Keep waiting so the reference is not leaked
+                } catch (ExecutionException e) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Stops the upload threads, letting running writes finish.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,463 @@
+package turing.example.documentmanagement.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import turing.example.documentmanagement.config.ImportProperties;
+import turing.example.documentmanagement.dto.ImportProgress;
+import turing.example.documentmanagement.entity.ContentBlob;
+import turing.example.documentmanagement.entity.ImportJob;
+import turing.example.documentmanagement.entity.ImportJobStatus;
+import turing.example.documentmanagement.exception.ImportJobNotFoundException;
+import turing.example.documentmanagement.importer.ImportEntry;
+import turing.example.documentmanagement.importer.ImportSource;
+import turing.example.documentmanagement.metrics.DocumentMetrics;
+import turing.example.documentmanagement.repository.ImportJobRepository;
+import turing.example.documentmanagement.storage.BlobStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service class importing the files of a local directory tree or ZIP archive as documents.
+ * <p>
+ * An import runs as a pipeline on a background thread: files are read from the source in a
+ * stable order and handed in batches of {@code document-management.imports.batch-size} to a
+ * bounded pool of threads, which hash and copy them into the {@link BlobStore}. While the pool
+ * works on one batch, the previous one is recorded through {@link DocumentService#registerUploads},
+ * which inserts the documents and versions of the whole batch as JDBC batches in one transaction.
+ * At most two batches are in flight, so memory use does not depend on the size of the source.
+ * </p>
+ *
+ * <p>
+ * The same transaction advances the import's checkpoint, so an import stopped by an error or a
+ * shutdown can be resumed after the last recorded batch without importing any file twice.
+ * Files that cannot be read are counted as failed and skipped; they are not retried on resume.
+ * Only one import runs at a time. Starting or resuming an import claims the running slot
+ * atomically before the import is recorded, so a concurrent request is refused at once instead of
+ * waiting for the database.
+ * </p>
+ */
+@Service
+public class BulkImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkImportService.class);
+
+    // Upload source reported in the metrics
+    private static final String METRICS_SOURCE = "import";
+
+    private final ImportJobRepository jobRepository;
+    private final DocumentService documentService;
+    private final BlobStore blobStore;
+    private final DocumentMetrics metrics;
+    private final ImportProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService coordinator = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "bulk-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService workers;
+
+    // Claimed before an import is recorded, and given back once it has stopped
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Run active;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param jobRepository      Repository holding the imports and their checkpoints.
+     * @param documentService    Service recording the imported files as document versions.
+     * @param blobStore          Store the file contents are copied to.
+     * @param metrics            Metrics recording storage latency, sizes and errors.
+     * @param properties         Import configuration.
+     * @param transactionManager Transaction manager used to record state changes of imports.
+     */
+    public BulkImportService(ImportJobRepository jobRepository, DocumentService documentService, BlobStore blobStore,
+                             DocumentMetrics metrics, ImportProperties properties,
+                             PlatformTransactionManager transactionManager) {
+        this.jobRepository = jobRepository;
+        this.documentService = documentService;
+        this.blobStore = blobStore;
+        this.metrics = metrics;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(Math.max(1, properties.getThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "bulk-import-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Marks imports left running by a previous shutdown as interrupted, so they can be resumed.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void interruptAbandonedImports() {
+        Integer abandoned = transactionTemplate.execute(status -> jobRepository.transitionAll(
+                ImportJobStatus.RUNNING, ImportJobStatus.INTERRUPTED, LocalDateTime.now()));
+        if (abandoned != null && abandoned > 0) {
+            log.info("Marked {} imports stopped by the last shutdown as interrupted", abandoned);
+        }
+    }
+
+    /**
+     * Starts importing a directory tree or ZIP archive on the background thread.
+     *
+     * @param source      The directory or archive, relative to the configured import root.
+     * @param owner       The owner of the documents that have to be created.
+     * @param requestedBy The authenticated user starting the import, recorded as the uploader of its files.
+     * @return The progress of the started import.
+     * @throws IllegalArgumentException If the source lies outside the import root or does not exist.
+     * @throws IllegalStateException    If an import is already running.
+     */
+    public ImportProgress start(String source, String owner, String requestedBy) {
+        Path root = Paths.get(properties.getRoot()).toAbsolutePath().normalize();
+        Path path = root.resolve(source).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("Import sources must lie within " + root);
+        }
+        if (!Files.exists(path)) {
+            throw new IllegalArgumentException("Import source " + source + " does not exist");
+        }
+        claim();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            ImportJob job = new ImportJob();
+            job.setId(UUID.randomUUID().toString());
+            job.setSource(path.toString());
+            job.setOwner(owner);
+            job.setRequestedBy(requestedBy);
+            job.setStatus(ImportJobStatus.RUNNING);
+            job.setCreatedAt(now);
+            job.setUpdatedAt(now);
+            jobRepository.save(job);
+            return launch(job);
+        } catch (RuntimeException e) {
+            release();
+            throw e;
+        }
+    }
+
+    /**
+     * Resumes a failed or interrupted import after its last checkpoint.
+     *
+     * @param id          The ID of the import.
+     * @param requestedBy The authenticated user resuming the import, recorded as the uploader of its files.
+     * @return The progress of the resumed import.
+     * @throws ImportJobNotFoundException If the import does not exist.
+     * @throws IllegalStateException      If the import has completed or an import is already running.
+     */
+    public ImportProgress resume(String id, String requestedBy) {
+        // Claimed before the import is read, so its state cannot be changed by a run finishing meanwhile
+        claim();
+        try {
+            ImportJob job = jobRepository.findById(id)
+                    .orElseThrow(() -> new ImportJobNotFoundException("Import " + id + " not found"));
+            if (job.getStatus() == ImportJobStatus.COMPLETED) {
+                throw new IllegalStateException("Import " + id + " has already completed");
+            }
+            job.setStatus(ImportJobStatus.RUNNING);
+            job.setRequestedBy(requestedBy);
+            job.setLastError(null);
+            job.setUpdatedAt(LocalDateTime.now());
+            jobRepository.save(job);
+            return launch(job);
+        } catch (RuntimeException e) {
+            release();
+            throw e;
+        }
+    }
+
+    /**
+     * Reports the progress of an import; the throughput is included while it is running.
+     *
+     * @param id The ID of the import.
+     * @return The progress of the import.
+     * @throws ImportJobNotFoundException If the import does not exist.
+     */
+    public ImportProgress getProgress(String id) {
+        Run run = active;
+        if (run != null && run.job.getId().equals(id)) {
+            return run.progress();
+        }
+        return jobRepository.findById(id)
+                .map(job -> progressOf(job, 0, 0))
+                .orElseThrow(() -> new ImportJobNotFoundException("Import " + id + " not found"));
+    }
+
+    /**
+     * Stops the import, which can be resumed after the next start from its last checkpoint.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        coordinator.shutdownNow();
+        coordinator.awaitTermination(30, TimeUnit.SECONDS);
+        workers.shutdown();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Claims the running slot, which is given back when the import stops or could not be launched.
+     *
+     * @throws IllegalStateException If an import is already running or being launched.
+     */
+    private void claim() {
+        if (!running.compareAndSet(false, true)) {
+            Run run = active;
+            throw new IllegalStateException(run != null
+                    ? "Import " + run.job.getId() + " is still running"
+                    : "Another import is being started");
+        }
+    }
+
+    private void release() {
+        active = null;
+        running.set(false);
+    }
+
+    private ImportProgress launch(ImportJob job) {
+        Run run = new Run(job);
+        active = run;
+        coordinator.execute(() -> runImport(run));
+        return run.progress();
+    }
+
+    private void runImport(Run run) {
+        ImportJob job = run.job;
+        log.info("Importing {} from position {}", job.getSource(), job.getPosition());
+        ImportJobStatus outcome;
+        try (ImportSource source = ImportSource.open(Paths.get(job.getSource()))) {
+            long position = job.getPosition();
+            if (source.skip(position) < position) {
+                log.warn("Import source {} has fewer files than the checkpoint of import {}", job.getSource(), job.getId());
+            }
+
+            // Record one batch while the workers store the next
+            Batch pending = null;
+            try {
+                while (true) {
+                    Batch next = Thread.currentThread().isInterrupted() ? null : submit(source, position);
+                    Batch current = pending;
+                    pending = next;
+                    if (current != null) {
+                        record(run, current);
+                    }
+                    if (next == null) {
+                        break;
+                    }
+                    position = next.end;
+                }
+            } catch (InterruptedException | RuntimeException e) {
+                discard(pending);
+                throw e;
+            }
+            outcome = Thread.currentThread().isInterrupted() ? ImportJobStatus.INTERRUPTED : ImportJobStatus.COMPLETED;
+        } catch (InterruptedException e) {
+            outcome = ImportJobStatus.INTERRUPTED;
+        } catch (IOException | RuntimeException e) {
+            log.error("Import {} of {} failed at position {}", job.getId(), job.getSource(), job.getPosition(), e);
+            job.setLastError(truncate(e.toString()));
+            outcome = ImportJobStatus.FAILED;
+        }
+
+        job.setStatus(outcome);
+        job.setUpdatedAt(LocalDateTime.now());
+        try {
+            jobRepository.save(job);
+        } catch (RuntimeException e) {
+            log.error("Could not record the state of import {}", job.getId(), e);
+        } finally {
+            release();
+        }
+        log.info("Import {} {}: {} files imported, {} skipped, {} failed", job.getId(),
+                outcome.name().toLowerCase(), job.getImported(), job.getSkipped(), job.getFailed());
+    }
+
+    /**
+     * Reads the next batch of files from the source and hands the non-empty ones to the workers.
+     *
+     * @return The batch, or {@code null} if the source is exhausted.
+     */
+    private Batch submit(ImportSource source, long position) {
+        List<ImportEntry> entries = new ArrayList<>(properties.getBatchSize());
+        List<Future<ContentBlob>> blobs = new ArrayList<>(properties.getBatchSize());
+        try {
+            while (entries.size() < properties.getBatchSize() && source.hasNext()) {
+                ImportEntry entry = source.next();
+                entries.add(entry);
+                blobs.add(entry.size() == 0 ? null : workers.submit(() -> metrics.timeStorage(METRICS_SOURCE,
+                        () -> blobStore.store(entry.content(), entry.name()))));
+            }
+        } catch (RuntimeException e) {
+            // The source could not be read further
+            releaseRemaining(blobs);
+            throw e;
+        }
+        return entries.isEmpty() ? null : new Batch(entries, blobs, position + entries.size());
+    }
+
+    /**
+     * Waits for the files of a batch to be stored, then records them together with the checkpoint.
+     */
+    private void record(Run run, Batch batch) throws InterruptedException {
+        ImportJob job = run.job;
+        List<String> names = new ArrayList<>();
+        List<ContentBlob> blobs = new ArrayList<>();
+        long skipped = 0;
+        long failed = 0;
+        for (int i = 0; i < batch.entries.size(); i++) {
+            ImportEntry entry = batch.entries.get(i);
+            Future<ContentBlob> future = batch.blobs.get(i);
+            if (future == null) {
+                skipped++;
+                continue;
+            }
+            try {
+                blobs.add(future.get());
+                names.add(entry.name());
+            } catch (ExecutionException e) {
+                failed++;
+                metrics.recordError(METRICS_SOURCE, e);
+                log.warn("Could not import {} from {}", entry.name(), job.getSource(), e.getCause());
+                job.setLastError(truncate(entry.name() + ": " + e.getCause()));
+            } catch (InterruptedException e) {
+                for (ContentBlob blob : blobs) {
+                    blobStore.release(blob.getHash());
+                }
+                releaseRemaining(batch.blobs.subList(i, batch.blobs.size()));
+                throw e;
+            }
+        }
+
+        long bytes = blobs.stream().mapToLong(ContentBlob::getSize).sum();
+        long imported = blobs.size();
+        long skippedFiles = skipped;
+        long failedFiles = failed;
+        metrics.timeMetadata(METRICS_SOURCE, () -> documentService.registerUploads(names, job.getOwner(),
+                job.getRequestedBy(), blobs, () -> jobRepository.checkpoint(job.getId(), batch.end, imported,
+                        skippedFiles, failedFiles, bytes, LocalDateTime.now())));
+        for (ContentBlob blob : blobs) {
+            metrics.recordIngested(METRICS_SOURCE, blob.getSize());
+        }
+
+        job.setPosition(batch.end);
+        job.setImported(job.getImported() + imported);
+        job.setSkipped(job.getSkipped() + skipped);
+        job.setFailed(job.getFailed() + failed);
+        job.setBytes(job.getBytes() + bytes);
+        job.setUpdatedAt(LocalDateTime.now());
+        run.checkpointed();
+    }
+
+    /**
+     * Gives back the blobs of a batch that will not be recorded.
+     */
+    private void discard(Batch batch) {
+        if (batch != null) {
+            releaseRemaining(batch.blobs);
+        }
+    }
+
+    /**
+     * Cancels writes that have not started and gives back the blobs of those that could not be cancelled.
+     */
+    private void releaseRemaining(List<Future<ContentBlob>> remaining) {
+        for (Future<ContentBlob> future : remaining) {
+            if (future == null || future.cancel(false)) {
+                continue;
+            }
+            // The write has already started; wait for it so its blob reference can be given back
+            while (true) {
+                try {
+                    blobStore.release(future.get().getHash());
+                    break;
+                } catch (InterruptedException e) {
+                    // Keep waiting so the reference is not leaked
+                } catch (ExecutionException e) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private static ImportProgress progressOf(ImportJob job, double filesPerSecond, double bytesPerSecond) {
+        return new ImportProgress(job.getId(), job.getSource(), job.getOwner(), job.getStatus(), job.getPosition(),
+                job.getImported(), job.getSkipped(), job.getFailed(), job.getBytes(), filesPerSecond, bytesPerSecond,
+                job.getLastError(), job.getCreatedAt(), job.getUpdatedAt());
+    }
+
+    private static String truncate(String message) {
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+
+    /**
+     * Files read from the source, with the pending writes of the non-empty ones.
+     *
+     * @param entries The files, in source order.
+     * @param blobs   The writes of the files, {@code null} for empty files.
+     * @param end     The position of the import once the batch has been recorded.
+     */
+    private record Batch(List<ImportEntry> entries, List<Future<ContentBlob>> blobs, long end) {
+    }
+
+    /**
+     * An import running in this process, with the measurements its throughput is derived from.
+     */
+    private final class Run {
+
+        private final ImportJob job;
+        private final long startNanos = System.nanoTime();
+        private final long startPosition;
+        private final long startBytes;
+        private volatile ImportProgress snapshot;
+        private long lastLogNanos = startNanos;
+
+        Run(ImportJob job) {
+            this.job = job;
+            this.startPosition = job.getPosition();
+            this.startBytes = job.getBytes();
+            this.snapshot = progressOf(job, 0, 0);
+        }
+
+        ImportProgress progress() {
+            return snapshot;
+        }
+
+        /**
+         * Publishes the progress after a checkpoint and logs it every progress interval.
+         */
+        void checkpointed() {
+            long now = System.nanoTime();
+            double seconds = Math.max(now - startNanos, 1) / 1e9;
+            double filesPerSecond = (job.getPosition() - startPosition) / seconds;
+            double bytesPerSecond = (job.getBytes() - startBytes) / seconds;
+            snapshot = progressOf(job, filesPerSecond, bytesPerSecond);
+            if (now - lastLogNanos >= properties.getProgressInterval().toNanos()) {
+                lastLogNanos = now;
+                log.info("Import {}: {} files done, {} imported, {} failed, {} files/s, {} MB/s", job.getId(),
+                        job.getPosition(), job.getImported(), job.getFailed(), Math.round(filesPerSecond),
+                        String.format("%.1f", bytesPerSecond / (1024 * 1024)));
+            }
+        }
+    }
+}
@@ -0,0 +1,415 @@
+package turing.example.documentmanagement.service;
+
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import turing.example.documentmanagement.config.StorageProperties;
+import turing.example.documentmanagement.dto.UploadSessionStatus;
+import turing.example.documentmanagement.entity.ContentBlob;
+import turing.example.documentmanagement.entity.Document;
+import turing.example.documentmanagement.entity.UploadChunk;
+import turing.example.documentmanagement.entity.UploadSession;
+import turing.example.documentmanagement.entity.UploadSessionState;
+import turing.example.documentmanagement.exception.UploadSessionNotFoundException;
+import turing.example.documentmanagement.metrics.DocumentMetrics;
+import turing.example.documentmanagement.repository.UploadChunkRepository;
+import turing.example.documentmanagement.repository.UploadSessionRepository;
+import turing.example.documentmanagement.storage.BlobStore;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Service class implementing resumable, chunked uploads for very large documents.
+ * <p>
+ * A session pre-allocates a part file of the final size. Every chunk is written directly at
+ * its offset, so chunks can arrive in any order and over parallel connections, and a failed
+ * chunk only has to be re-sent on its own. Committing a session adopts the assembled file into
+ * the {@link BlobStore} without copying it and records the usual document metadata through
+ * {@link DocumentService}. The session and its part file are kept until the metadata is recorded,
+ * so a failed commit can be repeated.
+ * </p>
+ *
+ * <p>
+ * Chunk writes and the claim of a commit exclude each other through a lock per session. The commit
+ * waits for writes in progress before it claims the session, and writes check the session's state
+ * only once they hold the lock, so no bytes reach the part file after it has been handed to the
+ * blob store under its hash.
+ * </p>
+ */
+@Service
+public class ChunkedUploadService {
+
+    // Sub-directory of the storage root holding the part files of open sessions
+    private static final String SESSIONS_DIR = "sessions";
+
+    // Upload source reported in the metrics
+    private static final String METRICS_SOURCE = "chunked";
+
+    // Number of lock stripes serializing chunk writes with the commit of the same session
+    private static final int LOCK_STRIPES = 64;
+
+    private final UploadSessionRepository sessionRepository;
+    private final UploadChunkRepository chunkRepository;
+    private final BlobStore blobStore;
+    private final DocumentService documentService;
+    private final StorageProperties properties;
+    private final DocumentMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadWriteLock[] locks = new ReadWriteLock[LOCK_STRIPES];
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param sessionRepository  Repository for upload sessions.
+     * @param chunkRepository    Repository for received chunk records.
+     * @param blobStore          Store the committed files are adopted into.
+     * @param documentService    Service recording the committed files as document versions.
+     * @param properties         Storage configuration.
+     * @param metrics            Metrics recording upload latency, sizes and errors.
+     * @param transactionManager Transaction manager used for session clean-up.
+     */
+    public ChunkedUploadService(UploadSessionRepository sessionRepository, UploadChunkRepository chunkRepository,
+                                BlobStore blobStore, DocumentService documentService,
+                                StorageProperties properties, DocumentMetrics metrics,
+                                PlatformTransactionManager transactionManager) {
+        this.sessionRepository = sessionRepository;
+        this.chunkRepository = chunkRepository;
+        this.blobStore = blobStore;
+        this.documentService = documentService;
+        this.properties = properties;
+        this.metrics = metrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    /**
+     * Starts a new upload session and pre-allocates its part file.
+     *
+     * @param fileName  The name of the document being uploaded.
+     * @param owner     The owner of the document.
+     * @param totalSize The total size of the file in bytes.
+     * @param chunkSize The requested chunk size in bytes, or {@code null} for the configured default.
+     * @return The status of the new session, describing the chunk layout.
+     * @throws IOException If the part file cannot be created.
+     */
+    public UploadSessionStatus startSession(String fileName, String owner, long totalSize, Long chunkSize)
+            throws IOException {
+        if (fileName == null || fileName.isBlank()) {
+            throw new IllegalArgumentException("A file name is required.");
+        }
+        if (totalSize <= 0) {
+            throw new IllegalArgumentException("The total size must be positive.");
+        }
+        long effectiveChunkSize = chunkSize != null ? chunkSize : properties.getChunkSize().toBytes();
+        if (effectiveChunkSize <= 0 || effectiveChunkSize > properties.getMaxChunkSize().toBytes()) {
+            throw new IllegalArgumentException("The chunk size must be between 1 and "
+                    + properties.getMaxChunkSize().toBytes() + " bytes.");
+        }
+        long chunkCount = (totalSize + effectiveChunkSize - 1) / effectiveChunkSize;
+        if (chunkCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The chunk size is too small for a file of this size.");
+        }
+
+        UploadSession session = new UploadSession();
+        session.setId(UUID.randomUUID().toString());
+        session.setFileName(fileName);
+        session.setOwner(owner);
+        session.setTotalSize(totalSize);
+        session.setChunkSize(effectiveChunkSize);
+        session.setChunkCount((int) chunkCount);
+        session.setCreatedAt(LocalDateTime.now());
+
+        // Reserve the full file up front so chunks can be written at their offsets
+        Path partFile = partFile(session.getId());
+        Files.createDirectories(partFile.getParent());
+        try (RandomAccessFile file = new RandomAccessFile(partFile.toFile(), "rw")) {
+            file.setLength(totalSize);
+        }
+
+        sessionRepository.save(session);
+        return toStatus(session, List.of());
+    }
+
+    /**
+     * Writes one chunk of a session at its offset in the part file.
+     * <p>
+     * The chunk only counts as received once all of its bytes have been written, so an
+     * interrupted chunk can simply be sent again. Re-sending a received chunk is harmless until
+     * the session is committed; from then on it is rejected.
+     * </p>
+     *
+     * @param sessionId     The ID of the upload session.
+     * @param chunkIndex    The zero-based index of the chunk.
+     * @param body          The chunk content.
+     * @param contentLength The declared length of the chunk, or {@code -1} if unknown.
+     * @throws IOException If the chunk cannot be read or written completely.
+     */
+    public void writeChunk(String sessionId, int chunkIndex, InputStream body, long contentLength)
+            throws IOException {
+        // Shared with other chunks of the session, but not with its commit
+        Lock lock = lockOf(sessionId).readLock();
+        lock.lock();
+        try {
+            UploadSession session = findSession(sessionId);
+            if (session.getState() == UploadSessionState.COMMITTING) {
+                throw new IllegalStateException("Upload session " + sessionId + " is being committed.");
+            }
+            if (chunkIndex < 0 || chunkIndex >= session.getChunkCount()) {
+                throw new IllegalArgumentException("Chunk index must be between 0 and " + (session.getChunkCount() - 1) + ".");
+            }
+            long offset = chunkIndex * session.getChunkSize();
+            long expectedLength = Math.min(session.getChunkSize(), session.getTotalSize() - offset);
+            if (contentLength >= 0 && contentLength != expectedLength) {
+                throw new IllegalArgumentException("Chunk " + chunkIndex + " must be exactly " + expectedLength + " bytes.");
+            }
+
+            // The request body is owned by the caller, so only the file channel is closed here
+            ReadableByteChannel in = Channels.newChannel(body);
+            try (FileChannel out = FileChannel.open(partFile(sessionId), StandardOpenOption.WRITE)) {
+                long written = 0;
+                while (written < expectedLength) {
+                    long transferred = out.transferFrom(in, offset + written, expectedLength - written);
+                    if (transferred <= 0) {
+                        throw new EOFException("Chunk " + chunkIndex + " ended after " + written + " bytes.");
+                    }
+                    written += transferred;
+                }
+            }
+            if (body.read() != -1) {
+                throw new IllegalArgumentException("Chunk " + chunkIndex + " is larger than " + expectedLength + " bytes.");
+            }
+
+            if (!chunkRepository.existsBySessionIdAndChunkIndex(sessionId, chunkIndex)) {
+                UploadChunk chunk = new UploadChunk();
+                chunk.setSessionId(sessionId);
+                chunk.setChunkIndex(chunkIndex);
+                try {
+                    chunkRepository.save(chunk);
+                } catch (DataIntegrityViolationException e) {
+                    // A concurrent retry of the same chunk recorded it first
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retrieves the status of a session, including the chunks that are still missing.
+     *
+     * @param sessionId The ID of the upload session.
+     * @return The session status.
+     */
+    public UploadSessionStatus getStatus(String sessionId) {
+        UploadSession session = findSession(sessionId);
+        return toStatus(session, chunkRepository.findChunkIndexesBySessionId(sessionId));
+    }
+
+    /**
+     * Completes a session and records the assembled file as a document version.
+     * <p>
+     * The session is claimed first, once chunk writes in progress have finished, so concurrent
+     * commits, later chunk writes and aborts are turned away.
+     * It is deleted together with its part file only once the version is recorded; if storing or
+     * recording fails, the session is reopened with its part file intact and can be committed again.
+     * </p>
+     *
+     * @param sessionId   The ID of the upload session.
+     * @param committedBy The authenticated user committing the session, recorded in the audit trail.
+     * @return The document the new version was added to.
+     * @throws IOException If the assembled file cannot be stored.
+     * @throws IllegalStateException If chunks are still missing or the session is already being committed.
+     */
+    public Document commit(String sessionId, String committedBy) throws IOException {
+        UploadSession session = findSession(sessionId);
+        long received = chunkRepository.countBySessionId(sessionId);
+        if (received < session.getChunkCount()) {
+            throw new IllegalStateException("Upload is incomplete: " + (session.getChunkCount() - received)
+                    + " of " + session.getChunkCount() + " chunks are missing.");
+        }
+
+        // Only one concurrent commit can claim the session, once the chunk writes in progress are done
+        Integer claimed;
+        Lock lock = lockOf(sessionId).writeLock();
+        lock.lock();
+        try {
+            claimed = transactionTemplate.execute(status ->
+                    sessionRepository.claimForCommit(sessionId, UploadSessionState.COMMITTING));
+        } finally {
+            lock.unlock();
+        }
+        if (claimed == null || claimed != 1) {
+            if (sessionRepository.existsById(sessionId)) {
+                throw new IllegalStateException("Upload session " + sessionId + " is already being committed.");
+            }
+            throw new UploadSessionNotFoundException("Upload session " + sessionId + " not found");
+        }
+
+        Path partFile = partFile(sessionId);
+        Timer.Sample sample = metrics.uploadStarted();
+        ContentBlob blob;
+        Document document;
+        try {
+            blob = metrics.timeStorage(METRICS_SOURCE, () -> blobStore.adopt(linkForCommit(partFile), session.getFileName()));
+            document = metrics.timeMetadata(METRICS_SOURCE,
+                    () -> documentService.registerUpload(session.getFileName(), session.getOwner(), committedBy, blob));
+        } catch (IOException | RuntimeException e) {
+            try {
+                reopen(sessionId, partFile);
+            } catch (IOException | RuntimeException reopenFailure) {
+                e.addSuppressed(reopenFailure);
+            }
+            metrics.uploadFinished(sample, METRICS_SOURCE, e);
+            throw e;
+        }
+
+        // The version is recorded, so the session is no longer needed
+        removeSession(sessionId);
+        Files.deleteIfExists(partFile);
+        metrics.recordIngested(METRICS_SOURCE, blob.getSize());
+        metrics.uploadFinished(sample, METRICS_SOURCE, null);
+        return document;
+    }
+
+    /**
+     * Aborts a session and discards everything uploaded so far.
+     *
+     * @param sessionId The ID of the upload session.
+     * @throws IOException If the part file cannot be deleted.
+     */
+    public void abort(String sessionId) throws IOException {
+        Integer removed = transactionTemplate.execute(status -> {
+            int deleted = sessionRepository.deleteUnlessCommitting(sessionId, UploadSessionState.COMMITTING);
+            if (deleted == 1) {
+                chunkRepository.deleteBySessionId(sessionId);
+            }
+            return deleted;
+        });
+        if (removed == null || removed != 1) {
+            if (sessionRepository.existsById(sessionId)) {
+                throw new IllegalStateException("Upload session " + sessionId + " is being committed.");
+            }
+            throw new UploadSessionNotFoundException("Upload session " + sessionId + " not found");
+        }
+        Files.deleteIfExists(partFile(sessionId));
+    }
+
+    /**
+     * Periodically discards sessions that were started too long ago and never committed.
+     */
+    @Scheduled(fixedDelayString = "${document-management.storage.upload-session-purge-interval:PT1H}")
+    public void purgeExpiredSessions() throws IOException {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getUploadSessionExpiry());
+        for (UploadSession session : sessionRepository.findByCreatedAtBefore(cutoff)) {
+            if (removeSession(session.getId())) {
+                Files.deleteIfExists(partFile(session.getId()));
+            }
+        }
+    }
+
+    private UploadSession findSession(String sessionId) {
+        return sessionRepository.findById(sessionId)
+                .orElseThrow(() -> new UploadSessionNotFoundException("Upload session " + sessionId + " not found"));
+    }
+
+    /**
+     * Deletes the session and its chunk records.
+     *
+     * @return {@code true} if this call removed the session, {@code false} if it was already gone.
+     */
+    private boolean removeSession(String sessionId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            chunkRepository.deleteBySessionId(sessionId);
+            return sessionRepository.deleteSession(sessionId) == 1;
+        }));
+    }
+
+    /**
+     * Creates a second link to the part file for the blob store to adopt.
+     * <p>
+     * Adopting consumes the file it is given, while the part file itself has to survive a failed
+     * commit. A hard link costs no copy; file systems without hard links get a copy instead.
+     * </p>
+     */
+    private static Path linkForCommit(Path partFile) throws IOException {
+        Path link = partFile.resolveSibling(partFile.getFileName() + ".commit");
+        // Left over by an interrupted commit
+        Files.deleteIfExists(link);
+        try {
+            Files.createLink(link, partFile);
+        } catch (UnsupportedOperationException | FileSystemException e) {
+            // The file system does not support hard links
+            Files.copy(partFile, link);
+        }
+        return link;
+    }
+
+    /**
+     * Reopens a session whose commit failed.
+     * <p>
+     * The part file may share its content with a file the blob store kept, so it is replaced by a
+     * copy of its own before chunks can be written into it again.
+     * </p>
+     */
+    private void reopen(String sessionId, Path partFile) throws IOException {
+        Path copy = partFile.resolveSibling(partFile.getFileName() + ".reopen");
+        Files.copy(partFile, copy, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(copy, partFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        transactionTemplate.execute(status ->
+                sessionRepository.updateState(sessionId, UploadSessionState.COMMITTING, UploadSessionState.OPEN));
+    }
+
+    private ReadWriteLock lockOf(String sessionId) {
+        return locks[Math.floorMod(sessionId.hashCode(), LOCK_STRIPES)];
+    }
+
+    private Path partFile(String sessionId) {
+        return Paths.get(properties.getRoot(), SESSIONS_DIR, sessionId + ".part");
+    }
+
+    private static UploadSessionStatus toStatus(UploadSession session, List<Integer> receivedChunks) {
+        Set<Integer> received = new HashSet<>(receivedChunks);
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < session.getChunkCount(); i++) {
+            if (!received.contains(i)) {
+                missing.add(i);
+            }
+        }
+
+        UploadSessionStatus status = new UploadSessionStatus();
+        status.setSessionId(session.getId());
+        status.setFileName(session.getFileName());
+        status.setTotalSize(session.getTotalSize());
+        status.setChunkSize(session.getChunkSize());
+        status.setChunkCount(session.getChunkCount());
+        status.setReceivedChunks(receivedChunks);
+        status.setMissingChunks(missing);
+        return status;
+    }
+}
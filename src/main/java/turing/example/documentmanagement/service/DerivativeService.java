@@ -0,0 +1,354 @@
+package turing.example.documentmanagement.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import turing.example.documentmanagement.config.DerivativeProperties;
+import turing.example.documentmanagement.derivative.DerivativeGenerator;
+import turing.example.documentmanagement.derivative.GeneratedDerivative;
+import turing.example.documentmanagement.entity.ContentBlob;
+import turing.example.documentmanagement.entity.DerivativeJob;
+import turing.example.documentmanagement.entity.DerivativeKind;
+import turing.example.documentmanagement.entity.DerivativeStatus;
+import turing.example.documentmanagement.entity.DocumentVersion;
+import turing.example.documentmanagement.repository.ContentBlobRepository;
+import turing.example.documentmanagement.repository.DerivativeJobRepository;
+import turing.example.documentmanagement.repository.DocumentVersionRepository;
+import turing.example.documentmanagement.storage.BlobStore;
+import turing.example.documentmanagement.storage.CompressionPolicy;
+import turing.example.documentmanagement.storage.VersionContentReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service class generating derivatives, such as thumbnails and previews, in the background.
+ * <p>
+ * Jobs are queued in the {@link DerivativeJob} table by {@link #enqueue}, inside the transaction
+ * that creates the versions, so uploads only pay for one more batched insert. After the commit,
+ * the {@link DocumentVersionStoredEvent} wakes up a dispatcher thread, which claims pending jobs
+ * and hands them to a worker pool with one thread per processor. The pool's queue is bounded:
+ * the dispatcher only claims as many jobs as there is room for, so a burst of uploads builds a
+ * backlog in the table rather than in memory.
+ * </p>
+ *
+ * <p>
+ * The table is also polled periodically, which picks up jobs queued before a restart, retries
+ * failed attempts and reruns jobs that were claimed by a worker that died.
+ * </p>
+ */
+@Service
+public class DerivativeService {
+
+    private static final Logger log = LoggerFactory.getLogger(DerivativeService.class);
+
+    // Length of the lastError column
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final DerivativeJobRepository jobRepository;
+    private final DocumentVersionRepository versionRepository;
+    private final ContentBlobRepository blobRepository;
+    private final VersionContentReader contentReader;
+    private final BlobStore blobStore;
+    private final Map<DerivativeKind, DerivativeGenerator> generators = new EnumMap<>(DerivativeKind.class);
+    private final DerivativeProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolExecutor workers;
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "derivative-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean dispatchScheduled = new AtomicBoolean();
+    private volatile boolean backlog;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param jobRepository      Repository holding the job queue and the generated derivatives.
+     * @param versionRepository  Repository for the versions derivatives are generated from.
+     * @param blobRepository     Repository locating the blobs holding generated derivatives.
+     * @param contentReader      Reader providing the content of the versions.
+     * @param blobStore          Store holding the generated derivatives.
+     * @param generators         All derivative generators; at most one per kind.
+     * @param properties         Derivative configuration.
+     * @param transactionManager Transaction manager used to update the jobs.
+     */
+    public DerivativeService(DerivativeJobRepository jobRepository, DocumentVersionRepository versionRepository,
+                             ContentBlobRepository blobRepository, VersionContentReader contentReader,
+                             BlobStore blobStore, List<DerivativeGenerator> generators,
+                             DerivativeProperties properties, PlatformTransactionManager transactionManager) {
+        this.jobRepository = jobRepository;
+        this.versionRepository = versionRepository;
+        this.blobRepository = blobRepository;
+        this.contentReader = contentReader;
+        this.blobStore = blobStore;
+        for (DerivativeGenerator generator : generators) {
+            if (this.generators.putIfAbsent(generator.kind(), generator) != null) {
+                throw new IllegalStateException("More than one generator for " + generator.kind());
+            }
+        }
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        int threads = properties.getWorkerThreads() > 0
+                ? properties.getWorkerThreads() : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()), runnable -> {
+            Thread thread = new Thread(runnable, "derivative-worker-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues the derivatives of new versions.
+     * <p>
+     * Must be called in the transaction saving the versions, after they have been assigned
+     * their IDs; the jobs are then committed, or rolled back, together with the versions.
+     * A job is queued for every generator supporting the media type of the document name.
+     * </p>
+     *
+     * @param versions The new versions.
+     */
+    public void enqueue(List<DocumentVersion> versions) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<DerivativeJob> jobs = new ArrayList<>();
+        for (DocumentVersion version : versions) {
+            if (version.getSize() > properties.getMaxSourceSize().toBytes()) {
+                continue;
+            }
+            Optional<MediaType> mediaType = MediaTypeFactory.getMediaType(version.getDocument().getName());
+            if (mediaType.isEmpty()) {
+                continue;
+            }
+            for (DerivativeGenerator generator : generators.values()) {
+                if (generator.supports(mediaType.get())) {
+                    DerivativeJob job = new DerivativeJob();
+                    job.setVersionId(version.getId());
+                    job.setKind(generator.kind());
+                    job.setStatus(DerivativeStatus.PENDING);
+                    job.setCreatedAt(now);
+                    job.setUpdatedAt(now);
+                    jobs.add(job);
+                }
+            }
+        }
+        if (!jobs.isEmpty()) {
+            jobRepository.saveAll(jobs);
+        }
+    }
+
+    /**
+     * Starts processing the jobs of a newly committed version.
+     *
+     * @param event The event describing the stored version.
+     */
+    @EventListener
+    public void onVersionStored(DocumentVersionStoredEvent event) {
+        wakeUp();
+    }
+
+    /**
+     * Returns abandoned jobs to the queue and picks up jobs that are still pending.
+     */
+    @Scheduled(fixedDelayString = "${document-management.derivatives.poll-interval:PT30S}")
+    public void poll() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Integer requeued = transactionTemplate.execute(status -> jobRepository.requeueStale(
+                DerivativeStatus.RUNNING, DerivativeStatus.PENDING, now.minus(properties.getStaleAfter()), now));
+        if (requeued != null && requeued > 0) {
+            log.info("Requeued {} abandoned derivative jobs", requeued);
+        }
+        wakeUp();
+    }
+
+    /**
+     * Generates the derivative of a claimed job and records the result.
+     * <p>
+     * A failed attempt puts the job back in the queue until the configured number of attempts
+     * is exhausted. Jobs whose version no longer exists fail right away. If the job was returned
+     * to the queue while it ran, its outcome is discarded together with the stored derivative.
+     * </p>
+     *
+     * @param jobId The ID of a job in state {@link DerivativeStatus#RUNNING}.
+     */
+    public void process(Long jobId) {
+        DerivativeJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        Optional<DocumentVersion> version = versionRepository.findById(job.getVersionId());
+        if (version.isEmpty()) {
+            finish(job, DerivativeStatus.FAILED, "Version " + job.getVersionId() + " no longer exists");
+            return;
+        }
+
+        try {
+            GeneratedDerivative derivative;
+            try (InputStream content = contentReader.open(version.get())) {
+                derivative = generators.get(job.getKind()).generate(content);
+            }
+            ContentBlob blob = blobStore.store(new ByteArrayResource(derivative.content()), derivative.fileName());
+            job.setBlobKey(blob.getHash());
+            job.setContentType(derivative.contentType());
+            job.setSize(blob.getSize());
+            boolean recorded;
+            try {
+                recorded = finish(job, DerivativeStatus.DONE, null);
+            } catch (RuntimeException e) {
+                blobStore.release(blob.getHash());
+                throw e;
+            }
+            if (!recorded) {
+                blobStore.release(blob.getHash());
+            }
+        } catch (IOException | RuntimeException e) {
+            job.setAttempts(job.getAttempts() + 1);
+            boolean exhausted = job.getAttempts() >= properties.getMaxAttempts();
+            log.warn("Could not generate the {} of version {} (attempt {})",
+                    job.getKind(), job.getVersionId(), job.getAttempts(), e);
+            job.setBlobKey(null);
+            finish(job, exhausted ? DerivativeStatus.FAILED : DerivativeStatus.PENDING, String.valueOf(e.getMessage()));
+        }
+    }
+
+    /**
+     * Looks up the derivative of a given kind for a version.
+     *
+     * @param versionId The ID of the document version.
+     * @param kind      The kind of derivative.
+     * @return The job of the derivative, if one was queued for the version.
+     */
+    public Optional<DerivativeJob> findDerivative(Long versionId, DerivativeKind kind) {
+        return jobRepository.findByVersionIdAndKind(versionId, kind);
+    }
+
+    /**
+     * Reads a generated derivative.
+     *
+     * @param job A job in state {@link DerivativeStatus#DONE}.
+     * @return The bytes of the derivative.
+     * @throws IOException If the derivative's blob cannot be read.
+     */
+    public byte[] readDerivative(DerivativeJob job) throws IOException {
+        ContentBlob blob = blobRepository.findById(job.getBlobKey())
+                .orElseThrow(() -> new IOException("Blob of the " + job.getKind() + " of version "
+                        + job.getVersionId() + " is missing"));
+        return CompressionPolicy.readAllBytes(Paths.get(blob.getPath()), blob.getCompression());
+    }
+
+    /**
+     * Stops the dispatcher and lets the workers finish their current jobs; jobs still queued in
+     * memory stay claimed in the table and are rerun once they are considered abandoned.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        dispatcher.shutdownNow();
+        workers.shutdownNow();
+        workers.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Schedules a dispatch run unless one is already waiting.
+     */
+    private void wakeUp() {
+        if (properties.isEnabled() && dispatchScheduled.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(this::dispatch);
+            } catch (RuntimeException e) {
+                // Shutting down
+                dispatchScheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Claims pending jobs until the workers' queue is full or no job is left.
+     */
+    private void dispatch() {
+        dispatchScheduled.set(false);
+        try {
+            int free;
+            while ((free = workers.getQueue().remainingCapacity()) > 0) {
+                List<Long> ids = jobRepository.findIdsByStatus(DerivativeStatus.PENDING, PageRequest.of(0, free));
+                for (Long id : ids) {
+                    Integer claimed = transactionTemplate.execute(status -> jobRepository.transition(
+                            id, DerivativeStatus.PENDING, DerivativeStatus.RUNNING, LocalDateTime.now()));
+                    if (claimed != null && claimed == 1) {
+                        workers.execute(() -> run(id));
+                    }
+                }
+                if (ids.size() < free) {
+                    backlog = false;
+                    return;
+                }
+            }
+            // More jobs may be pending; dispatch again once a worker finishes
+            backlog = true;
+        } catch (RuntimeException e) {
+            log.warn("Could not dispatch derivative jobs", e);
+        }
+    }
+
+    private void run(Long jobId) {
+        try {
+            process(jobId);
+        } catch (RuntimeException e) {
+            log.warn("Derivative job {} failed", jobId, e);
+        } finally {
+            if (backlog) {
+                wakeUp();
+            }
+        }
+    }
+
+    /**
+     * Records the outcome of a job, unless it is no longer running under this worker's claim.
+     *
+     * @return {@code true} if the outcome was recorded.
+     */
+    private boolean finish(DerivativeJob job, DerivativeStatus status, String error) {
+        job.setStatus(status);
+        job.setLastError(error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        job.setUpdatedAt(LocalDateTime.now());
+        Integer updated = transactionTemplate.execute(transaction -> jobRepository.complete(job.getId(),
+                DerivativeStatus.RUNNING, job.getStatus(), job.getAttempts(), job.getLastError(), job.getBlobKey(),
+                job.getContentType(), job.getSize(), job.getUpdatedAt()));
+        if (updated == null || updated != 1) {
+            log.info("Derivative job {} was returned to the queue while it ran; its outcome is discarded", job.getId());
+            return false;
+        }
+        return true;
+    }
+}
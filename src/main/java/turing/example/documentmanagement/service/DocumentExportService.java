@@ -0,0 +1,283 @@
+package turing.example.documentmanagement.service;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import turing.example.documentmanagement.config.StorageProperties;
+import turing.example.documentmanagement.dto.DocumentResponse;
+import turing.example.documentmanagement.entity.DocumentVersion;
+import turing.example.documentmanagement.repository.DocumentRepository;
+import turing.example.documentmanagement.repository.DocumentVersionRepository;
+import turing.example.documentmanagement.storage.CompressionPolicy;
+import turing.example.documentmanagement.storage.VersionContentReader;
+
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Service class writing documents and their version histories as ZIP archives.
+ * <p>
+ * Archives are streamed: every entry is read sequentially from storage and written straight to
+ * the output, so neither the heap nor a temporary file grows with the size of an export, and the
+ * first bytes leave as soon as the first entry is being written. Archives beyond 4 GB or 65535
+ * entries are written in the ZIP64 format.
+ * </p>
+ *
+ * <p>
+ * Versions are read from the database one page at a time, by seeking past the last version of
+ * the previous page, and the persistence context is cleared after every page, so exports of any
+ * number of documents and versions keep a constant number of entities in memory. Already
+ * compressed formats such as images and archives are stored in the archive as they are; all
+ * other content is deflated at the fastest level.
+ * </p>
+ */
+@Service
+public class DocumentExportService {
+
+    // Buffer size used when copying content into the archive
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private final DocumentRepository documentRepository;
+    private final DocumentVersionRepository versionRepository;
+    private final VersionContentReader contentReader;
+    private final CompressionPolicy compressionPolicy;
+    private final EntityManager entityManager;
+    private final StorageProperties.Export settings;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param documentRepository Repository for documents.
+     * @param versionRepository  Repository for document versions.
+     * @param contentReader      Reader streaming version contents.
+     * @param compressionPolicy  Policy telling which formats are already compressed.
+     * @param entityManager      Entity manager whose persistence context is cleared between pages.
+     * @param properties         Storage configuration containing the export settings.
+     */
+    public DocumentExportService(DocumentRepository documentRepository, DocumentVersionRepository versionRepository,
+                                 VersionContentReader contentReader, CompressionPolicy compressionPolicy,
+                                 EntityManager entityManager, StorageProperties properties) {
+        this.documentRepository = documentRepository;
+        this.versionRepository = versionRepository;
+        this.contentReader = contentReader;
+        this.compressionPolicy = compressionPolicy;
+        this.entityManager = entityManager;
+        this.settings = properties.getExport();
+    }
+
+    /**
+     * Writes the documents of an owner as a ZIP archive.
+     * <p>
+     * With only the latest versions, every document becomes an entry named after the document.
+     * With all versions, version {@code n} of a document is stored as {@code name/vn/name}.
+     * Where distinct names map to the same entry name, the later document's ID is added to it,
+     * as in {@code name~id}.
+     * </p>
+     *
+     * @param owner       The owner whose documents are exported.
+     * @param allVersions Whether all versions are exported instead of only the latest ones.
+     * @param out         The stream to write the archive to; it is not closed.
+     * @throws IOException If a version cannot be read or the archive cannot be written.
+     */
+    public void exportOwner(String owner, boolean allVersions, OutputStream out) throws IOException {
+        ArchiveWriter archive = new ArchiveWriter(out);
+        PageRequest limit = PageRequest.of(0, settings.getPageSize());
+        List<DocumentResponse> documents = documentRepository.findPageByOwner(owner, limit);
+        while (!documents.isEmpty()) {
+            List<Long> ids = documents.stream().map(DocumentResponse::getId).toList();
+            if (allVersions) {
+                writeAllVersions(archive, ids, limit);
+            } else {
+                for (DocumentVersion version : versionRepository.findLatestByDocumentIdIn(ids)) {
+                    archive.write(archive.documentName(version), version);
+                }
+                entityManager.clear();
+            }
+
+            if (documents.size() < limit.getPageSize()) {
+                break;
+            }
+            DocumentResponse last = documents.get(documents.size() - 1);
+            documents = documentRepository.findPageByOwnerAfter(owner, last.getCreatedAt(), last.getId(), limit);
+        }
+        archive.finish();
+    }
+
+    /**
+     * Writes all versions of a document as a ZIP archive, version {@code n} stored as {@code vn/name}.
+     *
+     * @param documentId The ID of the document.
+     * @param out        The stream to write the archive to; it is not closed.
+     * @throws IOException If a version cannot be read or the archive cannot be written.
+     */
+    public void exportDocument(Long documentId, OutputStream out) throws IOException {
+        ArchiveWriter archive = new ArchiveWriter(out);
+        PageRequest limit = PageRequest.of(0, settings.getPageSize());
+        int after = 0;
+        while (true) {
+            List<DocumentVersion> versions = versionRepository
+                    .findByDocumentIdAndVersionGreaterThanOrderByVersionAsc(documentId, after, limit);
+            for (DocumentVersion version : versions) {
+                archive.write("v" + version.getVersion() + "/" + entryName(version.getDocument().getName()), version);
+            }
+            entityManager.clear();
+
+            if (versions.size() < limit.getPageSize()) {
+                break;
+            }
+            after = versions.get(versions.size() - 1).getVersion();
+        }
+        archive.finish();
+    }
+
+    /**
+     * Writes all versions of a page of documents, version {@code n} stored as {@code name/vn/name}.
+     */
+    private void writeAllVersions(ArchiveWriter archive, List<Long> documentIds, PageRequest limit)
+            throws IOException {
+        long afterDocumentId = 0;
+        int afterVersion = 0;
+        while (true) {
+            List<DocumentVersion> versions = versionRepository
+                    .findPageByDocumentIdInAfter(documentIds, afterDocumentId, afterVersion, limit);
+            for (DocumentVersion version : versions) {
+                String name = entryName(version.getDocument().getName());
+                archive.write(archive.documentName(version) + "/v" + version.getVersion() + "/" + name, version);
+            }
+            entityManager.clear();
+
+            if (versions.size() < limit.getPageSize()) {
+                break;
+            }
+            DocumentVersion last = versions.get(versions.size() - 1);
+            afterDocumentId = last.getDocument().getId();
+            afterVersion = last.getVersion();
+        }
+    }
+
+    /**
+     * Turns a document name into a single, safe path segment of an entry name.
+     * <p>
+     * Separators are replaced, so that names cannot create directories, and names consisting
+     * only of dots are prefixed, so that extracting an archive never escapes its target directory.
+     * </p>
+     */
+    static String entryName(String documentName) {
+        String name = documentName.replace('/', '_').replace('\\', '_');
+        if (name.isEmpty() || name.chars().allMatch(c -> c == '.')) {
+            return "_" + name;
+        }
+        return name;
+    }
+
+    /**
+     * Adds a suffix to an entry name, in front of its extension if it has one.
+     */
+    static String withSuffix(String name, String suffix) {
+        int extension = name.lastIndexOf('.');
+        if (extension <= 0) {
+            return name + suffix;
+        }
+        return name.substring(0, extension) + suffix + name.substring(extension);
+    }
+
+    /**
+     * Writes version contents as the entries of one archive.
+     */
+    private final class ArchiveWriter {
+
+        private final OutputStream out;
+        private final ZipOutputStream zip;
+        private final byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        // Entry names given to documents so far; ZIP entry names have to be unique
+        private final Set<String> documentNames = new HashSet<>();
+        private Long lastDocumentId;
+        private String lastDocumentName;
+
+        ArchiveWriter(OutputStream out) {
+            // Batches the many small writes of the deflater and of entry headers
+            this.out = new BufferedOutputStream(out, COPY_BUFFER_SIZE);
+            this.zip = new ZipOutputStream(this.out);
+        }
+
+        /**
+         * Gives the entry name of the version's document, made unique within the archive.
+         * <p>
+         * The versions of a document are written one after another, so the name of the last
+         * document is reused for its following versions.
+         * </p>
+         */
+        String documentName(DocumentVersion version) {
+            Long documentId = version.getDocument().getId();
+            if (documentId.equals(lastDocumentId)) {
+                return lastDocumentName;
+            }
+            String name = entryName(version.getDocument().getName());
+            while (!documentNames.add(name)) {
+                name = withSuffix(name, "~" + documentId);
+            }
+            lastDocumentId = documentId;
+            lastDocumentName = name;
+            return name;
+        }
+
+        void write(String name, DocumentVersion version) throws IOException {
+            ZipEntry entry = new ZipEntry(name);
+            entry.setTimeLocal(version.getUploadedAt());
+            if (compressionPolicy.isPrecompressed(version.getDocument().getName())) {
+                if (version.getSize() <= settings.getStoredMaxSize().toBytes()) {
+                    // Stored entries need their checksum up front, which takes a first pass over the content
+                    entry.setMethod(ZipEntry.STORED);
+                    entry.setSize(version.getSize());
+                    entry.setCompressedSize(version.getSize());
+                    entry.setCrc(checksum(version));
+                } else {
+                    zip.setLevel(Deflater.NO_COMPRESSION);
+                }
+            } else {
+                zip.setLevel(Deflater.BEST_SPEED);
+            }
+
+            zip.putNextEntry(entry);
+            long copied = 0;
+            try (InputStream in = contentReader.open(version)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    zip.write(buffer, 0, read);
+                    copied += read;
+                }
+            }
+            if (copied != version.getSize()) {
+                throw new EOFException("Stored content of version " + version.getVersion() + " of document "
+                        + version.getDocument().getId() + " does not match its recorded size");
+            }
+            zip.closeEntry();
+        }
+
+        void finish() throws IOException {
+            zip.finish();
+            out.flush();
+        }
+
+        private long checksum(DocumentVersion version) throws IOException {
+            CRC32 crc = new CRC32();
+            try (InputStream in = contentReader.open(version)) {
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    crc.update(buffer, 0, read);
+                }
+            }
+            return crc.getValue();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package turing.example.documentmanagement.service;
+
+import org.springframework.stereotype.Service;
+import turing.example.documentmanagement.dto.DocumentResponse;
+import turing.example.documentmanagement.dto.SearchResult;
+import turing.example.documentmanagement.repository.DocumentRepository;
+import turing.example.documentmanagement.search.DocumentIndex;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service class answering full-text searches over document names and contents.
+ * <p>
+ * The ranked hits of the {@link DocumentIndex} are joined back to the document metadata with
+ * a single query. Hits for documents that no longer exist are left out.
+ * </p>
+ */
+@Service
+public class DocumentSearchService {
+
+    private final DocumentIndex documentIndex;
+    private final DocumentRepository documentRepository;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param documentIndex      The full-text index.
+     * @param documentRepository Repository providing the metadata of the hits.
+     */
+    public DocumentSearchService(DocumentIndex documentIndex, DocumentRepository documentRepository) {
+        this.documentIndex = documentIndex;
+        this.documentRepository = documentRepository;
+    }
+
+    /**
+     * Searches document names and contents.
+     *
+     * @param query The query, in Lucene's classic query syntax.
+     * @param limit The maximum number of results.
+     * @return The matching documents, best match first.
+     * @throws IllegalArgumentException If the query is blank or cannot be parsed.
+     * @throws IOException If the index cannot be read.
+     */
+    public List<SearchResult> search(String query, int limit) throws IOException {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("A search query is required.");
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("The result size must be positive.");
+        }
+
+        List<DocumentIndex.Hit> hits = documentIndex.search(query, limit);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, DocumentResponse> documents = documentRepository
+                .findResponsesByIdIn(hits.stream().map(DocumentIndex.Hit::documentId).toList()).stream()
+                .collect(Collectors.toMap(DocumentResponse::getId, Function.identity()));
+
+        List<SearchResult> results = new ArrayList<>(hits.size());
+        for (DocumentIndex.Hit hit : hits) {
+            DocumentResponse document = documents.get(hit.documentId());
+            if (document != null) {
+                results.add(new SearchResult(document, hit.score()));
+            }
+        }
+        return results;
+    }
+}
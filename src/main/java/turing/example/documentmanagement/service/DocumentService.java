@@ -1,16 +1,40 @@
 package turing.example.documentmanagement.service;
 
+import io.micrometer.core.instrument.Timer;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import turing.example.documentmanagement.cache.DocumentNameCache;
+import turing.example.documentmanagement.cache.DocumentNameFilter;
+import turing.example.documentmanagement.dto.DocumentPage;
+import turing.example.documentmanagement.dto.DocumentResponse;
+import turing.example.documentmanagement.entity.AuditAction;
+import turing.example.documentmanagement.entity.ContentBlob;
 import turing.example.documentmanagement.entity.Document;
 import turing.example.documentmanagement.entity.DocumentVersion;
+import turing.example.documentmanagement.exception.DocumentNotFoundException;
+import turing.example.documentmanagement.metrics.DocumentMetrics;
 import turing.example.documentmanagement.repository.DocumentRepository;
 import turing.example.documentmanagement.repository.DocumentVersionRepository;
+import turing.example.documentmanagement.storage.BlobStore;
 
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service class responsible for managing document-related operations.
@@ -22,75 +46,477 @@ import java.time.LocalDateTime;
 @Service
 public class DocumentService {
 
+    // Largest page a client may request from the document listing
+    private static final int MAX_PAGE_SIZE = 500;
+
+    // Upload source reported in the metrics
+    private static final String METRICS_SOURCE = "single";
+
     private final DocumentRepository documentRepository;
     private final DocumentVersionRepository versionRepository;
-
-    // Directory where uploaded files will be stored
-    private static final String UPLOAD_DIR = "uploads/";
+    private final BlobStore blobStore;
+    private final VersionDeltaService versionDeltaService;
+    private final DerivativeService derivativeService;
+    private final AuditTrailWriter auditTrailWriter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DocumentNameCache nameCache;
+    private final DocumentNameFilter nameFilter;
+    private final DocumentMetrics metrics;
+    private final TransactionTemplate transactionTemplate;
 
     /**
-     * Constructor-based dependency injection for the repositories.
+     * Constructor-based dependency injection for the repositories and storage.
      *
      * @param documentRepository     Repository for managing document entities.
      * @param versionRepository      Repository for managing document version entities.
+     * @param blobStore              Content-addressed store holding the document contents.
+     * @param versionDeltaService    Service converting superseded versions to deltas.
+     * @param derivativeService      Service generating thumbnails and previews of new versions.
+     * @param auditTrailWriter       Writer recording uploads in the audit trail.
+     * @param eventPublisher         Publisher announcing committed versions to other components.
+     * @param nameCache              Cache resolving document names to document IDs.
+     * @param nameFilter             Filter ruling out names that belong to no document.
+     * @param metrics                Metrics recording upload latency, sizes and errors.
+     * @param transactionManager     Transaction manager used for the metadata transactions.
      */
-    public DocumentService(DocumentRepository documentRepository, DocumentVersionRepository versionRepository) {
+    public DocumentService(DocumentRepository documentRepository, DocumentVersionRepository versionRepository,
+                           BlobStore blobStore, VersionDeltaService versionDeltaService,
+                           DerivativeService derivativeService, AuditTrailWriter auditTrailWriter, ApplicationEventPublisher eventPublisher,
+                           DocumentNameCache nameCache, DocumentNameFilter nameFilter,
+                           DocumentMetrics metrics, PlatformTransactionManager transactionManager) {
         this.documentRepository = documentRepository;
         this.versionRepository = versionRepository;
+        this.blobStore = blobStore;
+        this.versionDeltaService = versionDeltaService;
+        this.derivativeService = derivativeService;
+        this.auditTrailWriter = auditTrailWriter;
+        this.eventPublisher = eventPublisher;
+        this.nameCache = nameCache;
+        this.nameFilter = nameFilter;
+        this.metrics = metrics;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     /**
-     * Uploads a new document and saves its metadata along with version tracking.
+     * Uploads a document and saves its metadata along with version tracking.
      *
      * <p>
      * The method performs the following steps:
      * <ul>
-     *     <li>Ensures the upload directory exists before storing the file.</li>
-     *     <li>Stores the file in the designated upload directory.</li>
-     *     <li>Creates a new {@link Document} entity and persists it.</li>
-     *     <li>Creates the first {@link DocumentVersion} and associates it with the document.</li>
+     *     <li>Streams the file into the content-addressed {@link BlobStore}; identical content
+     *     that is already stored is not written again.</li>
+     *     <li>Looks up the {@link Document} by file name, creating it if it does not exist yet.</li>
+     *     <li>Creates the next {@link DocumentVersion} pointing at the stored blob.</li>
      * </ul>
+     * The file is stored before the metadata transaction starts, so no database connection is
+     * held while the content is being transferred. Both steps are timed separately in
+     * {@link DocumentMetrics}.
      * </p>
      *
-     * @param file  The document file to be uploaded.
-     * @param owner The owner of the document.
+     * @param file       The document file to be uploaded.
+     * @param owner      The owner of the document.
+     * @param uploadedBy The authenticated user uploading the document, recorded in the audit trail.
      * @return The saved {@link Document} entity with metadata.
      * @throws Exception If file storage fails.
      */
-    public Document uploadDocument(MultipartFile file, String owner) throws Exception {
-        // Define the upload directory path
-        Path uploadDir = Paths.get(UPLOAD_DIR);
+    public Document uploadDocument(MultipartFile file, String owner, String uploadedBy) throws Exception {
+        String name = file.getOriginalFilename();
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("The uploaded file has no name.");
+        }
+
+        Timer.Sample sample = metrics.uploadStarted();
+        try {
+            // Store the content first, outside of any database transaction
+            ContentBlob blob = metrics.timeStorage(METRICS_SOURCE, () -> blobStore.store(file, name));
+            Document document = metrics.timeMetadata(METRICS_SOURCE, () -> registerUpload(name, owner, uploadedBy, blob));
+            metrics.recordIngested(METRICS_SOURCE, blob.getSize());
+            metrics.uploadFinished(sample, METRICS_SOURCE, null);
+            return document;
+        } catch (Exception e) {
+            metrics.uploadFinished(sample, METRICS_SOURCE, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Records already stored content as the next version of the named document.
+     * <p>
+     * The document is created if it does not exist yet. If a concurrent upload creates a document
+     * of the same name first, the unique name is violated and the version is added to that document
+     * in a second transaction. If the metadata cannot be saved, the reference the caller holds on
+     * the blob is released. Once the version is committed, the upload is recorded in the audit
+     * trail, the superseded version is handed to {@link VersionDeltaService} for delta compression
+     * and a {@link DocumentVersionStoredEvent} is published. The version's derivatives are queued
+     * in the same transaction and generated in the background by {@link DerivativeService}.
+     * </p>
+     *
+     * @param name       The document name.
+     * @param owner      The owner used if the document has to be created.
+     * @param uploadedBy The authenticated user uploading the content, recorded in the audit trail.
+     * @param blob       The stored content, referenced once on behalf of the new version.
+     * @return The document the version was added to.
+     */
+    public Document registerUpload(String name, String owner, String uploadedBy, ContentBlob blob) {
+        DocumentVersion version;
+        try {
+            try {
+                version = transactionTemplate.execute(status -> registerVersion(name, owner, blob, false));
+            } catch (DataIntegrityViolationException e) {
+                // Lost the race to create the document; the name is committed now, so look it up
+                version = transactionTemplate.execute(status -> registerVersion(name, owner, blob, true));
+            }
+        } catch (RuntimeException e) {
+            // The metadata was not saved, so give back the reference taken on the blob
+            blobStore.release(blob.getHash());
+            throw e;
+        }
+
+        versionStored(version, uploadedBy);
+        return version.getDocument();
+    }
+
+    /**
+     * Records several already stored contents as new document versions in one transaction.
+     * <p>
+     * All documents are looked up and locked with a single query before anything is persisted, and
+     * their latest-version pointers supply the next version numbers, so Hibernate does not have to
+     * flush between the inserts and can send them as JDBC batches when the transaction commits.
+     * Several contents with the same name become consecutive versions of that document, in list
+     * order. If a concurrent upload creates one of the documents first, the batch is repeated once
+     * with every name looked up. If the metadata cannot be saved, the references held on all blobs
+     * are released.
+     * </p>
+     *
+     * @param names      The document names, one per blob.
+     * @param owner      The owner used for documents that have to be created.
+     * @param uploadedBy The authenticated user uploading the contents, recorded in the audit trail.
+     * @param blobs      The stored contents, each referenced once on behalf of its new version.
+     * @return The saved versions, in the order of the given blobs.
+     */
+    public List<DocumentVersion> registerUploads(List<String> names, String owner, String uploadedBy,
+                                                 List<ContentBlob> blobs) {
+        return registerUploads(names, owner, uploadedBy, blobs, null);
+    }
+
+    /**
+     * Records several already stored contents as new document versions in one transaction,
+     * together with further changes that have to commit or roll back with them.
+     *
+     * @param names         The document names, one per blob.
+     * @param owner         The owner used for documents that have to be created.
+     * @param uploadedBy    The authenticated user uploading the contents, recorded in the audit trail.
+     * @param blobs         The stored contents, each referenced once on behalf of its new version.
+     * @param inTransaction Run in the transaction after the versions have been saved, e.g. to record a
+     *                      checkpoint; may be {@code null}.
+     * @return The saved versions, in the order of the given blobs.
+     * @see #registerUploads(List, String, String, List)
+     */
+    public List<DocumentVersion> registerUploads(List<String> names, String owner, String uploadedBy,
+                                                 List<ContentBlob> blobs, Runnable inTransaction) {
+        if (names.size() != blobs.size()) {
+            throw new IllegalArgumentException("Every blob needs exactly one document name.");
+        }
+        if (blobs.isEmpty()) {
+            if (inTransaction != null) {
+                transactionTemplate.executeWithoutResult(status -> inTransaction.run());
+            }
+            return List.of();
+        }
+
+        List<DocumentVersion> versions;
+        try {
+            try {
+                versions = registerVersionsInTransaction(names, owner, blobs, inTransaction, false);
+            } catch (DataIntegrityViolationException e) {
+                // Lost the race to create a document; its name is committed now, so look it up
+                versions = registerVersionsInTransaction(names, owner, blobs, inTransaction, true);
+            }
+        } catch (RuntimeException e) {
+            for (ContentBlob blob : blobs) {
+                blobStore.release(blob.getHash());
+            }
+            throw e;
+        }
+
+        for (DocumentVersion version : versions) {
+            versionStored(version, uploadedBy);
+        }
+        return versions;
+    }
+
+    /**
+     * Checks whether a document with the given name exists.
+     * <p>
+     * Answered from the {@link DocumentNameCache}, which also remembers names that do not exist,
+     * so repeated checks do not reach the database.
+     * </p>
+     *
+     * @param name The document name.
+     * @return {@code true} if a document with this name exists.
+     */
+    public boolean documentExists(String name) {
+        return nameCache.exists(name);
+    }
+
+    /**
+     * Retrieves the metadata of a document, including its latest version number and file path.
+     *
+     * @param documentId The ID of the document.
+     * @return The document metadata.
+     * @throws DocumentNotFoundException If the document does not exist.
+     */
+    public DocumentResponse getDocument(Long documentId) {
+        return documentRepository.findResponseById(documentId)
+                .orElseThrow(() -> new DocumentNotFoundException("Document with ID " + documentId + " not found"));
+    }
+
+    /**
+     * Lists an owner's documents, newest first, one page at a time.
+     * <p>
+     * Uses keyset pagination: the cursor encodes the creation time and ID of the last document
+     * of the previous page, and the next page is read by seeking past that position in the
+     * index. Unlike offset paging, deep pages are as cheap as the first one.
+     * </p>
+     *
+     * @param owner  The owner whose documents are listed.
+     * @param cursor The cursor returned with the previous page, or {@code null} for the first page.
+     * @param size   The maximum number of documents on the page.
+     * @return The page, with the cursor of the next page if there is one.
+     * @throws IllegalArgumentException If the cursor is malformed or the size is out of range.
+     */
+    public DocumentPage listDocuments(String owner, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("The page size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
 
-        // Ensure the uploads directory exists
-        if (!Files.exists(uploadDir)) {
-            Files.createDirectories(uploadDir);
+        // Fetch one extra row to find out whether there is a next page
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<DocumentResponse> items;
+        if (cursor == null || cursor.isBlank()) {
+            items = documentRepository.findPageByOwner(owner, limit);
+        } else {
+            String[] position = decodeCursor(cursor);
+            items = documentRepository.findPageByOwnerAfter(owner, LocalDateTime.parse(position[0]),
+                    Long.valueOf(position[1]), limit);
         }
 
-        // Define the file path within the uploads directory
-        Path filePath = uploadDir.resolve(file.getOriginalFilename());
+        if (items.size() <= size) {
+            return new DocumentPage(items, null);
+        }
+        items = new ArrayList<>(items.subList(0, size));
+        return new DocumentPage(items, encodeCursor(items.get(size - 1)));
+    }
 
-        // Save the file to the specified directory
-        Files.write(filePath, file.getBytes());
+    /**
+     * Retrieves the latest version of a document.
+     * <p>
+     * The version is found through the document's latest-version pointer, so the cost does not
+     * grow with the number of versions.
+     * </p>
+     *
+     * @param documentId The ID of the document.
+     * @return The version with the highest version number.
+     * @throws DocumentNotFoundException If the document does not exist or has no versions.
+     */
+    public DocumentVersion getLatestVersion(Long documentId) {
+        return versionRepository.findLatestByDocumentId(documentId)
+                .orElseThrow(() -> new DocumentNotFoundException("Document with ID " + documentId + " not found"));
+    }
 
-        // Create a new document entity
-        Document document = new Document();
-        document.setName(file.getOriginalFilename());
-        document.setOwner(owner);
-        document.setCreatedAt(LocalDateTime.now());
+    /**
+     * Retrieves a specific version of a document.
+     *
+     * @param documentId The ID of the document.
+     * @param version    The version number.
+     * @return The requested version.
+     * @throws DocumentNotFoundException If the document or the version does not exist.
+     */
+    public DocumentVersion getVersion(Long documentId, int version) {
+        return versionRepository.findByDocumentIdAndVersion(documentId, version)
+                .orElseThrow(() -> new DocumentNotFoundException(
+                        "Version " + version + " of document with ID " + documentId + " not found"));
+    }
 
-        // Save document metadata to the database
-        Document savedDocument = documentRepository.save(document);
+    /**
+     * Initialises the latest-version pointers of documents stored before they were maintained.
+     * <p>
+     * Runs once at start-up and only touches documents whose pointer has never been set.
+     * </p>
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillLatestVersions() {
+        transactionTemplate.executeWithoutResult(status -> documentRepository.backfillLatestVersions());
+    }
+
+    /**
+     * Starts the follow-up work for a committed version; all of it runs off the calling thread.
+     */
+    private void versionStored(DocumentVersion version, String uploadedBy) {
+        Long documentId = version.getDocument().getId();
+        // Only committed documents are written to the cache, so it never names a rolled-back one
+        nameCache.put(version.getDocument().getName(), documentId);
+        auditTrailWriter.record(AuditAction.UPLOAD, documentId, uploadedBy);
+        versionDeltaService.compactPreviousVersionAsync(documentId, version.getVersion());
+        eventPublisher.publishEvent(new DocumentVersionStoredEvent(documentId, version.getId(),
+                version.getVersion(), version.getDocument().getName()));
+    }
 
-        // Create an initial version entry for the document
+    /**
+     * Encodes the listing position after the given document as an opaque cursor.
+     */
+    private static String encodeCursor(DocumentResponse last) {
+        String position = last.getCreatedAt() + "|" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor into the creation time and ID it points after.
+     */
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (position.length != 2) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            // Validate both parts before they reach the query
+            LocalDateTime.parse(position[0]);
+            Long.parseLong(position[1]);
+            return position;
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor.", e);
+        }
+    }
+
+    /**
+     * Records a new version of the named document pointing at the given blob.
+     *
+     * @param name         The document name.
+     * @param owner        The owner used if the document has to be created.
+     * @param blob         The stored content of the new version.
+     * @param lookUpByName Whether to look the name up even if the filter rules it out, when
+     *                     retrying after a concurrent creation.
+     * @return The saved version.
+     */
+    private DocumentVersion registerVersion(String name, String owner, ContentBlob blob, boolean lookUpByName) {
+        // Resolve and lock the document, creating it on first upload. A cached ID lets the lock be
+        // taken through the primary key; a stale entry falls back to the lookup by name, which is
+        // skipped for names the filter rules out.
+        Document document = nameCache.findIdByName(name)
+                .flatMap(documentRepository::findByIdForUpdate)
+                .filter(found -> name.equals(found.getName()))
+                .or(() -> lookUpByName || nameFilter.mightExist(name)
+                        ? documentRepository.findByNameForUpdate(name) : Optional.empty())
+                .orElseGet(() -> {
+                    // Added before commit, so concurrent uploads of this name take the locking path
+                    nameFilter.add(name);
+                    Document created = new Document();
+                    created.setName(name);
+                    created.setOwner(owner);
+                    created.setCreatedAt(LocalDateTime.now());
+                    return documentRepository.save(created);
+                });
+
+        int nextVersion = document.getLatestVersion() + 1;
+
+        // Create the version entry for the document
         DocumentVersion version = new DocumentVersion();
-        version.setFilePath(filePath.toString());
-        version.setVersion(1);
+        version.setFilePath(blob.getPath());
+        version.setContentHash(blob.getHash());
+        version.setBlobKey(blob.getHash());
+        version.setSize(blob.getSize());
+        version.setStoredSize(blob.getStoredSize());
+        version.setCompression(blob.getCompression());
+        version.setVersion(nextVersion);
         version.setUploadedAt(LocalDateTime.now());
-        version.setDocument(savedDocument);
+        version.setDocument(document);
 
-        // Save the document version information
+        // Save the document version information and move the latest-version pointer
         versionRepository.save(version);
+        derivativeService.enqueue(List.of(version));
+        document.setLatestVersion(nextVersion);
+        document.setLatestVersionId(version.getId());
+
+        return version;
+    }
+
+    /**
+     * Records new versions for a batch of blobs and the caller's further changes in one transaction.
+     */
+    private List<DocumentVersion> registerVersionsInTransaction(List<String> names, String owner,
+                                                                List<ContentBlob> blobs, Runnable inTransaction,
+                                                                boolean lookUpByName) {
+        return transactionTemplate.execute(status -> {
+            List<DocumentVersion> saved = registerVersions(names, owner, blobs, lookUpByName);
+            if (inTransaction != null) {
+                inTransaction.run();
+            }
+            return saved;
+        });
+    }
+
+    /**
+     * Records new versions for a batch of blobs without issuing queries between the inserts.
+     * Names the filter rules out are not looked up unless {@code lookUpByName} is set.
+     */
+    private List<DocumentVersion> registerVersions(List<String> names, String owner, List<ContentBlob> blobs,
+                                                   boolean lookUpByName) {
+        Map<String, Document> documents = new HashMap<>();
+        Set<String> knownNames = new HashSet<>();
+        for (String name : names) {
+            if (lookUpByName || nameFilter.mightExist(name)) {
+                knownNames.add(name);
+            }
+        }
+        if (!knownNames.isEmpty()) {
+            for (Document document : documentRepository.findByNameInForUpdate(knownNames)) {
+                documents.putIfAbsent(document.getName(), document);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Document> createdDocuments = new ArrayList<>();
+        for (String name : names) {
+            documents.computeIfAbsent(name, missing -> {
+                nameFilter.add(missing);
+                Document created = new Document();
+                created.setName(missing);
+                created.setOwner(owner);
+                created.setCreatedAt(now);
+                createdDocuments.add(created);
+                return created;
+            });
+        }
+        documentRepository.saveAll(createdDocuments);
+
+        // Repeated names get consecutive versions, as each one advances the document's pointer
+        List<DocumentVersion> versions = new ArrayList<>(blobs.size());
+        for (int i = 0; i < blobs.size(); i++) {
+            Document document = documents.get(names.get(i));
+            ContentBlob blob = blobs.get(i);
+            int nextVersion = document.getLatestVersion() + 1;
+
+            DocumentVersion version = new DocumentVersion();
+            version.setFilePath(blob.getPath());
+            version.setContentHash(blob.getHash());
+            version.setBlobKey(blob.getHash());
+            version.setSize(blob.getSize());
+            version.setStoredSize(blob.getStoredSize());
+            version.setCompression(blob.getCompression());
+            version.setVersion(nextVersion);
+            version.setUploadedAt(now);
+            version.setDocument(document);
+            versions.add(version);
+            document.setLatestVersion(nextVersion);
+        }
+        versionRepository.saveAll(versions);
+        derivativeService.enqueue(versions);
+
+        // Point every document at its newest version; later entries for the same name win
+        for (DocumentVersion version : versions) {
+            version.getDocument().setLatestVersionId(version.getId());
+        }
 
-        return savedDocument;
+        return versions;
     }
 }
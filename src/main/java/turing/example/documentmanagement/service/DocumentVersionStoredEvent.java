@@ -0,0 +1,16 @@
+package turing.example.documentmanagement.service;
+
+/**
+ * Application event published by {@link DocumentService} once a new document version has been committed.
+ * <p>
+ * Listeners run on the publishing thread, so they are expected to hand any expensive work
+ * over to a background thread.
+ * </p>
+ *
+ * @param documentId The ID of the document.
+ * @param versionId  The ID of the new version.
+ * @param version    The version number of the new version.
+ * @param name       The name of the document.
+ */
+public record DocumentVersionStoredEvent(Long documentId, Long versionId, int version, String name) {
+}
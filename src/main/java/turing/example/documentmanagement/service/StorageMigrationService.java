@@ -0,0 +1,223 @@
+package turing.example.documentmanagement.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import turing.example.documentmanagement.config.StorageProperties;
+import turing.example.documentmanagement.dto.StorageMigrationStatus;
+import turing.example.documentmanagement.entity.ContentBlob;
+import turing.example.documentmanagement.repository.ContentBlobRepository;
+import turing.example.documentmanagement.repository.DocumentVersionRepository;
+import turing.example.documentmanagement.storage.BlobStore;
+import turing.example.documentmanagement.storage.BlobStore.Relocation;
+import turing.example.documentmanagement.storage.BlobStore.RelocationResult;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service class moving stored blobs to the configured storage layout while the system is in use.
+ * <p>
+ * The blobs are scanned in hash order and moved in batches of
+ * {@code document-management.storage.migration-batch-size}. Each batch is moved by
+ * {@link BlobStore#relocate}, which switches the blob records and the file paths of the
+ * versions referencing them in short transactions, one per lock stripe; uploads and downloads
+ * continue throughout, as every blob stays readable at its old path until the switch has been
+ * committed.
+ * </p>
+ *
+ * <p>
+ * An upload that took its reference on a blob before the switch registers its version with the
+ * old path. The old paths of a batch are therefore kept while the next batch is moved; then the
+ * versions still pointing to them are updated through the index on the file path, and only then
+ * are the old files removed.
+ * </p>
+ *
+ * <p>
+ * The migration runs on a single background thread. It can be repeated safely: blobs already
+ * in place are skipped, and blobs that fail to move are left at their old paths for the next run.
+ * </p>
+ */
+@Service
+public class StorageMigrationService {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageMigrationService.class);
+
+    private final ContentBlobRepository blobRepository;
+    private final DocumentVersionRepository versionRepository;
+    private final BlobStore blobStore;
+    private final StorageProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "storage-migration");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong migrated = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile boolean running;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param blobRepository     Repository scanned for the blobs to move.
+     * @param versionRepository  Repository for the document versions referencing the blobs.
+     * @param blobStore          Store moving the blobs.
+     * @param properties         Storage configuration providing the layout and batch size.
+     * @param transactionManager Transaction manager used to fix up stale version paths.
+     */
+    public StorageMigrationService(ContentBlobRepository blobRepository, DocumentVersionRepository versionRepository,
+                                   BlobStore blobStore, StorageProperties properties,
+                                   PlatformTransactionManager transactionManager) {
+        this.blobRepository = blobRepository;
+        this.versionRepository = versionRepository;
+        this.blobStore = blobStore;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Starts a migration on the background thread.
+     *
+     * @return The status of the started migration.
+     * @throws IllegalStateException If a migration is already running.
+     */
+    public synchronized StorageMigrationStatus start() {
+        if (running) {
+            throw new IllegalStateException("A storage migration is already running");
+        }
+        begin();
+        executor.execute(this::runMigration);
+        return getStatus();
+    }
+
+    /**
+     * Runs a migration on the calling thread.
+     *
+     * @return The status of the finished migration.
+     * @throws IllegalStateException If a migration is already running.
+     */
+    public StorageMigrationStatus migrate() {
+        synchronized (this) {
+            if (running) {
+                throw new IllegalStateException("A storage migration is already running");
+            }
+            begin();
+        }
+        runMigration();
+        return getStatus();
+    }
+
+    /**
+     * Reports the progress of the running or last migration.
+     *
+     * @return The migration status.
+     */
+    public StorageMigrationStatus getStatus() {
+        return new StorageMigrationStatus(running, properties.getLayout().name(), migrated.get(), skipped.get(),
+                failed.get(), startedAt, finishedAt);
+    }
+
+    /**
+     * Stops the background thread, letting the current batch finish.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private void begin() {
+        running = true;
+        migrated.set(0);
+        skipped.set(0);
+        failed.set(0);
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+    }
+
+    private void runMigration() {
+        List<Relocation> pending = List.of();
+        try {
+            String after = "";
+            int batchSize = properties.getMigrationBatchSize();
+            List<ContentBlob> batch;
+            while (!Thread.currentThread().isInterrupted()
+                    && !(batch = blobRepository.findPageAfter(after, PageRequest.of(0, batchSize))).isEmpty()) {
+                after = batch.get(batch.size() - 1).getHash();
+                List<Relocation> moved = List.of();
+                try {
+                    RelocationResult result = blobStore.relocate(batch, versionRepository::relocateFilePath);
+                    moved = result.moved();
+                    migrated.addAndGet(moved.size());
+                    failed.addAndGet(result.failed());
+                    skipped.addAndGet(batch.size() - moved.size() - result.failed());
+                } catch (RuntimeException e) {
+                    log.warn("Could not move {} blobs up to {} to the {} layout",
+                            batch.size(), after, properties.getLayout(), e);
+                    failed.addAndGet(batch.size());
+                }
+                // The previous batch had the time of this one to finish registering versions with old paths
+                retire(pending);
+                pending = moved;
+            }
+            // Versions registered with an old path while their blob was being moved
+            Integer stale = transactionTemplate.execute(status -> versionRepository.relocateStaleFilePaths());
+            if (stale != null && stale > 0) {
+                log.info("Updated {} document versions registered during the storage migration", stale);
+            }
+            deleteOldPaths(pending);
+            pending = List.of();
+            log.info("Storage migration finished: {} blobs moved, {} skipped, {} failed",
+                    migrated.get(), skipped.get(), failed.get());
+        } catch (RuntimeException e) {
+            log.error("Storage migration aborted; {} old blob paths are left in place", pending.size(), e);
+        } finally {
+            finishedAt = LocalDateTime.now();
+            running = false;
+        }
+    }
+
+    /**
+     * Points the versions still referencing the old paths of moved blobs to the new paths, then
+     * removes the old paths.
+     */
+    private void retire(List<Relocation> relocations) {
+        if (relocations.isEmpty()) {
+            return;
+        }
+        Integer stale = transactionTemplate.execute(status -> {
+            int updated = 0;
+            for (Relocation relocation : relocations) {
+                updated += versionRepository.relocateFilePath(relocation.oldPath(), relocation.newPath());
+            }
+            return updated;
+        });
+        if (stale != null && stale > 0) {
+            log.info("Updated {} document versions registered while their blobs were being moved", stale);
+        }
+        deleteOldPaths(relocations);
+    }
+
+    private void deleteOldPaths(List<Relocation> relocations) {
+        for (Relocation relocation : relocations) {
+            try {
+                blobStore.deleteRelocated(relocation);
+            } catch (RuntimeException e) {
+                log.warn("Could not remove old blob path {}", relocation.oldPath(), e);
+            }
+        }
+    }
+}
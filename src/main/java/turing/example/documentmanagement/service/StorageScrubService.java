@@ -0,0 +1,432 @@
+package turing.example.documentmanagement.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import turing.example.documentmanagement.config.StorageProperties;
+import turing.example.documentmanagement.dto.ScrubStatus;
+import turing.example.documentmanagement.entity.BlobCompression;
+import turing.example.documentmanagement.entity.ContentBlob;
+import turing.example.documentmanagement.entity.ScrubCheckpoint;
+import turing.example.documentmanagement.entity.ScrubFinding;
+import turing.example.documentmanagement.entity.ScrubProblem;
+import turing.example.documentmanagement.repository.ContentBlobRepository;
+import turing.example.documentmanagement.repository.ScrubCheckpointRepository;
+import turing.example.documentmanagement.repository.ScrubFindingRepository;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Service class verifying the integrity of the stored blobs in the background.
+ * <p>
+ * A pass reads every blob file in hash order with large sequential reads, decompressing it if
+ * necessary, and compares the content with the blob's recorded size and SHA-256 digest. Damaged
+ * files are recorded as {@link ScrubFinding}s, which are removed again once the blob verifies.
+ * Reads are limited to {@code document-management.storage.scrub.max-bytes-per-second}, so
+ * uploads and downloads keep most of the disk bandwidth.
+ * </p>
+ *
+ * <p>
+ * The progress of a pass is saved in a {@link ScrubCheckpoint} every
+ * {@code checkpoint-interval}; after a restart the pass continues after the last saved blob.
+ * A new pass starts {@code pass-interval} after the previous one started. Meters:
+ * {@code storage.scrub.bytes} and {@code storage.scrub.blobs}, whose rates are the scan rate,
+ * {@code storage.scrub.problems} tagged with the problem, and the gauge
+ * {@code storage.scrub.findings} with the number of blobs known to be damaged.
+ * </p>
+ */
+@Service
+public class StorageScrubService {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageScrubService.class);
+
+    static final String CHECKPOINT_ID = "content-blobs";
+
+    private static final Duration RETRY_DELAY = Duration.ofMinutes(5);
+    private static final int INFLATE_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_DETAIL_LENGTH = 500;
+    private static final int MAX_FINDINGS_PAGE_SIZE = 500;
+
+    private final ContentBlobRepository blobRepository;
+    private final ScrubCheckpointRepository checkpointRepository;
+    private final ScrubFindingRepository findingRepository;
+    private final StorageProperties.Scrub settings;
+    private final MeterRegistry registry;
+    private final Counter scannedBytes;
+    private final Counter scannedBlobs;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "storage-scrub");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final AtomicLong findings = new AtomicLong();
+    private volatile ScrubCheckpoint checkpoint;
+    private volatile long passRunningSince;
+    private volatile long activeNanos;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param blobRepository       Repository scanned for the blobs to verify.
+     * @param checkpointRepository Repository saving the progress of a pass.
+     * @param findingRepository    Repository recording damaged blobs.
+     * @param properties           Storage configuration providing the scrubber settings.
+     * @param registry             Registry the meters are registered with.
+     */
+    public StorageScrubService(ContentBlobRepository blobRepository, ScrubCheckpointRepository checkpointRepository,
+                               ScrubFindingRepository findingRepository, StorageProperties properties,
+                               MeterRegistry registry) {
+        this.blobRepository = blobRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.findingRepository = findingRepository;
+        this.settings = properties.getScrub();
+        this.registry = registry;
+        this.scannedBytes = Counter.builder("storage.scrub.bytes")
+                .description("Bytes read by the storage scrubber")
+                .baseUnit("bytes")
+                .register(registry);
+        this.scannedBlobs = Counter.builder("storage.scrub.blobs")
+                .description("Blobs verified by the storage scrubber")
+                .register(registry);
+        registry.gauge("storage.scrub.findings", findings);
+    }
+
+    /**
+     * Starts the scrubber on its background thread once the application is ready, if enabled.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (settings.isEnabled()) {
+            executor.execute(this::runScrubber);
+        }
+    }
+
+    /**
+     * Stops the background thread, saving the progress of the current pass.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Reports the progress of the current or last pass.
+     *
+     * @return The scrubber status.
+     */
+    public ScrubStatus getStatus() {
+        ScrubCheckpoint current = checkpoint != null ? checkpoint
+                : checkpointRepository.findById(CHECKPOINT_ID).orElseGet(ScrubCheckpoint::new);
+        long since = passRunningSince;
+        double seconds = (activeNanos + (since != 0 ? System.nanoTime() - since : 0)) / 1e9;
+        return new ScrubStatus(since != 0, current.getPass(), current.getPosition(), current.getPassStartedAt(),
+                current.getPassCompletedAt(), current.getScannedBlobs(), current.getScannedBytes(),
+                seconds > 0 ? scannedBytes.count() / seconds : 0, seconds > 0 ? scannedBlobs.count() / seconds : 0,
+                findingRepository.count());
+    }
+
+    /**
+     * Retrieves the damaged blobs in the order they were found.
+     *
+     * @param afterId The last ID of the previous page; {@code 0} for the first page.
+     * @param size    The maximum number of findings; at most 500 are returned.
+     * @return The findings following {@code afterId}.
+     */
+    public List<ScrubFinding> getFindings(long afterId, int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("The page size must be positive");
+        }
+        return findingRepository.findByIdGreaterThanOrderByIdAsc(afterId,
+                PageRequest.of(0, Math.min(size, MAX_FINDINGS_PAGE_SIZE)));
+    }
+
+    private void runScrubber() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                ScrubCheckpoint saved = checkpointRepository.findById(CHECKPOINT_ID).orElse(null);
+                if (saved != null && saved.getPassCompletedAt() != null) {
+                    Duration wait = Duration.between(LocalDateTime.now(),
+                            saved.getPassStartedAt().plus(settings.getPassInterval()));
+                    if (!wait.isNegative() && !wait.isZero()) {
+                        TimeUnit.MILLISECONDS.sleep(wait.toMillis());
+                        continue;
+                    }
+                }
+                scrubPass();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Storage scrub failed; retrying in {}", RETRY_DELAY, e);
+                try {
+                    TimeUnit.MILLISECONDS.sleep(RETRY_DELAY.toMillis());
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Continues the unfinished pass after its checkpoint, or starts a new pass, and runs it to the end.
+     *
+     * @throws InterruptedException If the thread is interrupted; the progress has been saved.
+     */
+    synchronized void scrubPass() throws InterruptedException {
+        ScrubCheckpoint current = checkpointRepository.findById(CHECKPOINT_ID).orElse(null);
+        if (current == null || current.getPassCompletedAt() != null) {
+            current = beginPass(current);
+        } else {
+            log.info("Continuing storage scrub pass {} after blob {}", current.getPass(), current.getPosition());
+        }
+        checkpoint = current;
+        findings.set(findingRepository.count());
+        Throttle throttle = new Throttle(settings.getMaxBytesPerSecond().toBytes());
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) settings.getReadSize().toBytes());
+        long checkpointNanos = settings.getCheckpointInterval().toNanos();
+        long lastSaved = System.nanoTime();
+        passRunningSince = lastSaved;
+        boolean completed = false;
+        try {
+            String after = current.getPosition() == null ? "" : current.getPosition();
+            List<ContentBlob> page;
+            while (!(page = blobRepository.findPageAfter(after, PageRequest.of(0, settings.getPageSize()))).isEmpty()) {
+                for (ContentBlob blob : page) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new InterruptedException();
+                    }
+                    long read = check(blob, buffer, throttle);
+                    after = blob.getHash();
+                    current.setPosition(after);
+                    current.setScannedBlobs(current.getScannedBlobs() + 1);
+                    current.setScannedBytes(current.getScannedBytes() + read);
+                    scannedBlobs.increment();
+                    scannedBytes.increment(read);
+                    if (System.nanoTime() - lastSaved >= checkpointNanos) {
+                        current = save(current);
+                        lastSaved = System.nanoTime();
+                    }
+                }
+            }
+            current.setPassCompletedAt(LocalDateTime.now());
+            current = save(current);
+            completed = true;
+            log.info("Storage scrub pass {} completed: {} blobs and {} bytes verified, {} damaged blobs",
+                    current.getPass(), current.getScannedBlobs(), current.getScannedBytes(), findings.get());
+        } finally {
+            activeNanos += System.nanoTime() - passRunningSince;
+            passRunningSince = 0;
+            if (!completed) {
+                try {
+                    save(current);
+                } catch (RuntimeException e) {
+                    log.warn("Could not save the progress of storage scrub pass {}", current.getPass(), e);
+                }
+            }
+        }
+    }
+
+    private ScrubCheckpoint beginPass(ScrubCheckpoint previous) {
+        ScrubCheckpoint next = new ScrubCheckpoint();
+        next.setId(CHECKPOINT_ID);
+        next.setPass(previous == null ? 1 : previous.getPass() + 1);
+        next.setPassStartedAt(LocalDateTime.now());
+        log.info("Starting storage scrub pass {}", next.getPass());
+        return save(next);
+    }
+
+    private ScrubCheckpoint save(ScrubCheckpoint current) {
+        current.setUpdatedAt(LocalDateTime.now());
+        ScrubCheckpoint saved = checkpointRepository.save(current);
+        checkpoint = saved;
+        return saved;
+    }
+
+    /**
+     * Verifies a blob and records the outcome.
+     *
+     * @return The number of bytes read.
+     */
+    private long check(ContentBlob blob, ByteBuffer buffer, Throttle throttle) throws InterruptedException {
+        Verification result = verify(blob, buffer, throttle);
+        long read = result.bytesRead();
+        if (result.problem() != null) {
+            // The blob may have been released or moved to another layout while it was read
+            ContentBlob current = blobRepository.findById(blob.getHash()).orElse(null);
+            if (current == null) {
+                return read;
+            }
+            if (!Objects.equals(current.getPath(), blob.getPath())) {
+                blob = current;
+                result = verify(current, buffer, throttle);
+                read += result.bytesRead();
+            }
+        }
+        record(blob, result);
+        return read;
+    }
+
+    /**
+     * Reads a blob's file and compares it with the blob's recorded sizes and digest.
+     *
+     * @param blob     The blob to verify.
+     * @param buffer   The buffer each read fills.
+     * @param throttle Limits the bytes read per second.
+     * @return The outcome of the verification.
+     * @throws InterruptedException If the thread is interrupted while waiting for the throttle or reading.
+     */
+    static Verification verify(ContentBlob blob, ByteBuffer buffer, Throttle throttle) throws InterruptedException {
+        Path file = Path.of(blob.getPath());
+        long expectedStoredSize = blob.getStoredSize() != null ? blob.getStoredSize() : blob.getSize();
+        try {
+            long storedSize = Files.size(file);
+            if (storedSize != expectedStoredSize) {
+                return new Verification(ScrubProblem.SIZE_MISMATCH,
+                        "File has " + storedSize + " bytes, expected " + expectedStoredSize, 0);
+            }
+        } catch (NoSuchFileException e) {
+            return new Verification(ScrubProblem.MISSING, "File does not exist", 0);
+        } catch (IOException e) {
+            return new Verification(ScrubProblem.UNREADABLE, e.toString(), 0);
+        }
+
+        MessageDigest digest = sha256();
+        Inflater inflater = blob.getCompression() == BlobCompression.DEFLATE ? new Inflater() : null;
+        byte[] inflated = inflater != null ? new byte[INFLATE_BUFFER_SIZE] : null;
+        long read = 0;
+        long size = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            int n;
+            while ((n = channel.read(buffer.clear())) >= 0) {
+                read += n;
+                throttle.acquire(n);
+                buffer.flip();
+                if (inflater == null) {
+                    size += n;
+                    digest.update(buffer);
+                } else {
+                    size += inflate(inflater, buffer, inflated, digest);
+                }
+            }
+            if (inflater != null && !inflater.finished()) {
+                return new Verification(ScrubProblem.CHECKSUM_MISMATCH, "Compressed content is truncated", read);
+            }
+        } catch (ClosedByInterruptException e) {
+            throw new InterruptedException();
+        } catch (NoSuchFileException e) {
+            return new Verification(ScrubProblem.MISSING, "File does not exist", read);
+        } catch (IOException e) {
+            return new Verification(ScrubProblem.UNREADABLE, e.toString(), read);
+        } catch (DataFormatException e) {
+            return new Verification(ScrubProblem.CHECKSUM_MISMATCH, "Compressed content cannot be decoded: "
+                    + e.getMessage(), read);
+        } finally {
+            if (inflater != null) {
+                inflater.end();
+            }
+        }
+
+        if (size != blob.getSize()) {
+            return new Verification(ScrubProblem.SIZE_MISMATCH,
+                    "Content has " + size + " bytes, expected " + blob.getSize(), read);
+        }
+        String hash = HexFormat.of().formatHex(digest.digest());
+        if (!hash.equals(blob.getHash())) {
+            return new Verification(ScrubProblem.CHECKSUM_MISMATCH, "Content hashes to " + hash, read);
+        }
+        return new Verification(null, null, read);
+    }
+
+    private static long inflate(Inflater inflater, ByteBuffer input, byte[] output, MessageDigest digest)
+            throws DataFormatException {
+        inflater.setInput(input);
+        long size = 0;
+        while (!inflater.needsInput() && !inflater.finished()) {
+            int n = inflater.inflate(output);
+            if (n == 0 && inflater.needsDictionary()) {
+                throw new DataFormatException("Preset dictionary required");
+            }
+            digest.update(output, 0, n);
+            size += n;
+        }
+        return size;
+    }
+
+    private void record(ContentBlob blob, Verification result) {
+        if (result.problem() == null) {
+            if (findings.get() > 0) {
+                findingRepository.findByBlobHash(blob.getHash()).ifPresent(finding -> {
+                    findingRepository.delete(finding);
+                    findings.decrementAndGet();
+                    log.info("Blob {} at {} verifies again", blob.getHash(), blob.getPath());
+                });
+            }
+            return;
+        }
+        Counter.builder("storage.scrub.problems")
+                .description("Damaged blobs found by the storage scrubber")
+                .tag("problem", result.problem().name())
+                .register(registry)
+                .increment();
+        LocalDateTime now = LocalDateTime.now();
+        ScrubFinding finding = findingRepository.findByBlobHash(blob.getHash()).orElse(null);
+        if (finding == null) {
+            finding = new ScrubFinding();
+            finding.setBlobHash(blob.getHash());
+            finding.setFirstDetectedAt(now);
+            findings.incrementAndGet();
+            log.warn("Blob {} at {} is damaged: {}", blob.getHash(), blob.getPath(), result.detail());
+        }
+        finding.setPath(blob.getPath());
+        finding.setProblem(result.problem());
+        String detail = result.detail();
+        finding.setDetail(detail.length() > MAX_DETAIL_LENGTH ? detail.substring(0, MAX_DETAIL_LENGTH) : detail);
+        finding.setLastDetectedAt(now);
+        findingRepository.save(finding);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Outcome of verifying a blob.
+     *
+     * @param problem   What is wrong with the blob's file, or {@code null} if it verified.
+     * @param detail    Description of the damage, or {@code null} if it verified.
+     * @param bytesRead Number of bytes read from the file.
+     */
+    record Verification(ScrubProblem problem, String detail, long bytesRead) {
+    }
+}
@@ -0,0 +1,43 @@
+package turing.example.documentmanagement.service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paces background work to a fixed number of permits per second.
+ * <p>
+ * Each call is admitted once the permits of the previous calls have been paid for, so bursts are
+ * spread out evenly. Not thread-safe; meant for a single background thread.
+ * </p>
+ */
+final class Throttle {
+
+    private final double nanosPerPermit;
+    private long nextFree = System.nanoTime();
+
+    /**
+     * Creates a throttle.
+     *
+     * @param permitsPerSecond The sustained rate; {@code 0} or less disables throttling.
+     */
+    Throttle(double permitsPerSecond) {
+        this.nanosPerPermit = permitsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / permitsPerSecond : 0;
+    }
+
+    /**
+     * Waits until the given number of permits may be used.
+     *
+     * @param permits The number of permits, e.g. bytes or files.
+     * @throws InterruptedException If the thread is interrupted while waiting.
+     */
+    void acquire(long permits) throws InterruptedException {
+        if (nanosPerPermit == 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        long start = Math.max(now, nextFree);
+        nextFree = start + (long) (permits * nanosPerPermit);
+        if (start > now) {
+            TimeUnit.NANOSECONDS.sleep(start - now);
+        }
+    }
+}
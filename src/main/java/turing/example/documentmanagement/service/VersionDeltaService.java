@@ -0,0 +1,185 @@
+package turing.example.documentmanagement.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import turing.example.documentmanagement.config.StorageProperties;
+import turing.example.documentmanagement.entity.ContentBlob;
+import turing.example.documentmanagement.entity.DocumentVersion;
+import turing.example.documentmanagement.entity.VersionStorageMode;
+import turing.example.documentmanagement.repository.DocumentVersionRepository;
+import turing.example.documentmanagement.storage.BlobStore;
+import turing.example.documentmanagement.storage.DeltaCodec;
+import turing.example.documentmanagement.storage.VersionContentReader;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service class maintaining delta-compressed version chains.
+ * <p>
+ * The newest version of a document is always stored in full, so reading it stays as fast
+ * as before. Once a newer version arrives, the previous one is replaced by a reverse delta
+ * against it and its full copy is released. A version is kept in full as a snapshot whenever
+ * converting it would make some older version need more than the configured number of delta
+ * applications, which bounds the reconstruction cost of every version.
+ * </p>
+ *
+ * <p>
+ * Conversions run on a single background thread after the upload has been committed, so they
+ * neither delay uploads nor race with each other.
+ * </p>
+ */
+@Service
+public class VersionDeltaService {
+
+    private static final Logger log = LoggerFactory.getLogger(VersionDeltaService.class);
+
+    private final DocumentVersionRepository versionRepository;
+    private final BlobStore blobStore;
+    private final VersionContentReader contentReader;
+    private final StorageProperties.Delta settings;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "version-delta");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param versionRepository  Repository for document versions.
+     * @param blobStore          Store holding full versions and deltas.
+     * @param contentReader      Reader reconstructing version contents.
+     * @param properties         Storage configuration containing the delta settings.
+     * @param transactionManager Transaction manager used to switch versions to deltas.
+     */
+    public VersionDeltaService(DocumentVersionRepository versionRepository, BlobStore blobStore,
+                               VersionContentReader contentReader, StorageProperties properties,
+                               PlatformTransactionManager transactionManager) {
+        this.versionRepository = versionRepository;
+        this.blobStore = blobStore;
+        this.contentReader = contentReader;
+        this.settings = properties.getDelta();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Schedules the conversion of the version preceding a newly stored version.
+     *
+     * @param documentId    The ID of the document.
+     * @param latestVersion The version number of the newly stored version.
+     */
+    public void compactPreviousVersionAsync(Long documentId, int latestVersion) {
+        if (!settings.isEnabled() || latestVersion < 2) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                compactPreviousVersion(documentId, latestVersion);
+            } catch (Exception e) {
+                log.warn("Could not convert version {} of document {} to a delta", latestVersion - 1, documentId, e);
+            }
+        });
+    }
+
+    /**
+     * Replaces the version preceding {@code latestVersion} by a delta against it, if worthwhile.
+     *
+     * @param documentId    The ID of the document.
+     * @param latestVersion The version number of the version to compute the delta against.
+     * @return {@code true} if the previous version is now stored as a delta.
+     * @throws IOException If a version cannot be read or the delta cannot be stored.
+     */
+    public boolean compactPreviousVersion(Long documentId, int latestVersion) throws IOException {
+        Optional<DocumentVersion> latest = versionRepository.findByDocumentIdAndVersion(documentId, latestVersion);
+        Optional<DocumentVersion> previous = versionRepository.findByDocumentIdAndVersion(documentId, latestVersion - 1);
+        if (latest.isEmpty() || previous.isEmpty() || isDelta(latest.get()) || isDelta(previous.get())) {
+            return false;
+        }
+        long maxFileSize = settings.getMaxFileSize().toBytes();
+        if (latest.get().getSize() > maxFileSize || previous.get().getSize() > maxFileSize) {
+            return false;
+        }
+        if (chainLengthBelow(documentId, latestVersion - 1) + 1 > settings.getMaxChainLength()) {
+            // Keep the previous version as a full snapshot to bound reconstruction cost
+            return false;
+        }
+
+        byte[] source = contentReader.readAllBytes(latest.get());
+        byte[] target = contentReader.readAllBytes(previous.get());
+        byte[] delta = DeltaCodec.encode(source, target);
+        if (delta.length > target.length * settings.getMaxDeltaRatio()) {
+            return false;
+        }
+        if (!Arrays.equals(DeltaCodec.decode(source, delta), target)) {
+            log.warn("Delta for version {} of document {} does not round-trip; keeping it in full",
+                    latestVersion - 1, documentId);
+            return false;
+        }
+
+        ContentBlob deltaBlob = blobStore.store(new ByteArrayResource(delta));
+        Integer updated;
+        try {
+            updated = transactionTemplate.execute(status -> versionRepository.convertToDelta(
+                    previous.get().getId(), deltaBlob.getHash(), deltaBlob.getPath(),
+                    deltaBlob.getCompression(), deltaBlob.getStoredSize(), latestVersion,
+                    VersionStorageMode.DELTA, VersionStorageMode.FULL));
+        } catch (RuntimeException e) {
+            blobStore.release(deltaBlob.getHash());
+            throw e;
+        }
+        if (updated == null || updated == 0) {
+            blobStore.release(deltaBlob.getHash());
+            return false;
+        }
+
+        // The full copy is no longer referenced by this version
+        blobStore.release(blobKeyOf(previous.get()));
+        return true;
+    }
+
+    /**
+     * Stops the background thread, letting a running conversion finish.
+     */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Counts the consecutive delta versions directly below the given version.
+     */
+    private int chainLengthBelow(Long documentId, int version) {
+        int maxChainLength = settings.getMaxChainLength();
+        List<DocumentVersion> below = versionRepository.findByDocumentIdAndVersionBetweenOrderByVersionDesc(
+                documentId, Math.max(1, version - maxChainLength), version - 1);
+        int length = 0;
+        for (DocumentVersion candidate : below) {
+            if (!isDelta(candidate)) {
+                break;
+            }
+            length++;
+        }
+        return length;
+    }
+
+    private static boolean isDelta(DocumentVersion version) {
+        return version.getStorageMode() == VersionStorageMode.DELTA;
+    }
+
+    private static String blobKeyOf(DocumentVersion version) {
+        return version.getBlobKey() != null ? version.getBlobKey() : version.getContentHash();
+    }
+}
@@ -0,0 +1,301 @@
+package turing.example.documentmanagement.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import turing.example.documentmanagement.config.StorageProperties;
+import turing.example.documentmanagement.entity.AuditAction;
+import turing.example.documentmanagement.entity.ContentBlob;
+import turing.example.documentmanagement.entity.DerivativeJob;
+import turing.example.documentmanagement.entity.DerivativeStatus;
+import turing.example.documentmanagement.entity.DocumentVersion;
+import turing.example.documentmanagement.entity.VersionStorageMode;
+import turing.example.documentmanagement.repository.DerivativeJobRepository;
+import turing.example.documentmanagement.repository.DocumentRepository;
+import turing.example.documentmanagement.repository.DocumentVersionRepository;
+import turing.example.documentmanagement.storage.BlobStore;
+import turing.example.documentmanagement.storage.VersionContentReader;
+
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service class removing document versions that fall outside the configured retention.
+ * <p>
+ * The collector runs every {@code interval} on a scheduler thread. Version rows are never
+ * removed through {@code Document.versions}, which would load the whole collection: the expired
+ * versions of a document are locked and deleted in batches of {@code batch-size} with bulk
+ * statements, together with their derivative jobs. Only after a batch has been committed is a
+ * {@code DELETE} audit event recorded for each of its versions by the system user, and are the
+ * blob references of its versions and derivatives released, deleting files that are no longer
+ * referenced.
+ * </p>
+ *
+ * <p>
+ * The latest version of a document is always kept. A kept version stored as a delta whose base
+ * version is removed is first stored in full again. Versions whose derivatives are still being
+ * generated are left for the next run. Releases and the I/O for storing versions in full are
+ * rate-limited, so the collector stays in the background of uploads.
+ * </p>
+ */
+@Service
+public class VersionRetentionService {
+
+    private static final Logger log = LoggerFactory.getLogger(VersionRetentionService.class);
+
+    // Documents whose versions are examined per query of the document table
+    private static final int DOCUMENT_PAGE_SIZE = 100;
+
+    private final DocumentRepository documentRepository;
+    private final DocumentVersionRepository versionRepository;
+    private final DerivativeJobRepository jobRepository;
+    private final BlobStore blobStore;
+    private final VersionContentReader contentReader;
+    private final AuditTrailWriter auditTrailWriter;
+    private final StorageProperties.Retention settings;
+    private final TransactionTemplate transactionTemplate;
+    private final Throttle releaseThrottle;
+    private final Throttle ioThrottle;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param documentRepository Repository used to find documents with old versions.
+     * @param versionRepository  Repository the versions are deleted from.
+     * @param jobRepository      Repository of the derivative jobs of the versions.
+     * @param blobStore          Store whose blob references are released.
+     * @param contentReader      Reader reconstructing delta versions that are stored in full again.
+     * @param auditTrailWriter   Writer recording the removed versions in the audit trail.
+     * @param properties         Storage configuration containing the retention settings.
+     * @param transactionManager Transaction manager used for the deletions.
+     */
+    public VersionRetentionService(DocumentRepository documentRepository, DocumentVersionRepository versionRepository,
+                                   DerivativeJobRepository jobRepository, BlobStore blobStore,
+                                   VersionContentReader contentReader, AuditTrailWriter auditTrailWriter,
+                                   StorageProperties properties, PlatformTransactionManager transactionManager) {
+        this.documentRepository = documentRepository;
+        this.versionRepository = versionRepository;
+        this.jobRepository = jobRepository;
+        this.blobStore = blobStore;
+        this.contentReader = contentReader;
+        this.auditTrailWriter = auditTrailWriter;
+        this.settings = properties.getRetention();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.releaseThrottle = new Throttle(settings.getMaxReleasesPerSecond());
+        this.ioThrottle = new Throttle(settings.getMaxBytesPerSecond().toBytes());
+    }
+
+    /**
+     * Removes the expired versions of all documents, if retention is enabled.
+     */
+    @Scheduled(fixedDelayString = "${document-management.storage.retention.interval:PT1H}")
+    public void collect() {
+        if (!settings.isEnabled()) {
+            return;
+        }
+        try {
+            int removed = collect(LocalDateTime.now());
+            if (removed > 0) {
+                log.info("Removed {} expired document versions", removed);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Removes the expired versions of all documents.
+     *
+     * @param now The time the retention periods are measured from.
+     * @return The number of removed versions.
+     * @throws InterruptedException If the thread is interrupted while throttled.
+     */
+    int collect(LocalDateTime now) throws InterruptedException {
+        int removed = 0;
+        long afterId = 0;
+        List<Long> documentIds;
+        PageRequest page = PageRequest.of(0, DOCUMENT_PAGE_SIZE);
+        while (!(documentIds = documentRepository.findIdsWithMoreVersionsAfter(afterId, keepLast(), page)).isEmpty()) {
+            for (Long documentId : documentIds) {
+                try {
+                    removed += collectDocument(documentId, now);
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Could not remove the expired versions of document {}", documentId, e);
+                }
+            }
+            afterId = documentIds.get(documentIds.size() - 1);
+        }
+        return removed;
+    }
+
+    /**
+     * Removes the expired versions of one document.
+     *
+     * @param documentId The ID of the document.
+     * @param now        The time the retention periods are measured from.
+     * @return The number of removed versions.
+     * @throws IOException          If a kept version cannot be stored in full.
+     * @throws InterruptedException If the thread is interrupted while throttled.
+     */
+    int collectDocument(Long documentId, LocalDateTime now) throws IOException, InterruptedException {
+        List<DocumentVersion> versions = versionRepository.findByDocumentIdOrderByVersionDesc(documentId);
+        List<DocumentVersion> expired = selectExpired(versions, settings, now);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        // Versions whose derivatives are still being generated are kept until the next run
+        Set<Long> busy = jobRepository.findByVersionIdIn(expired.stream().map(DocumentVersion::getId).toList()).stream()
+                .filter(job -> job.getStatus() == DerivativeStatus.PENDING || job.getStatus() == DerivativeStatus.RUNNING)
+                .map(DerivativeJob::getVersionId)
+                .collect(Collectors.toSet());
+        expired = expired.stream().filter(version -> !busy.contains(version.getId())).toList();
+        if (expired.isEmpty()) {
+            return 0;
+        }
+
+        // Kept deltas must not depend on a removed version
+        Set<Integer> expiredNumbers = expired.stream().map(DocumentVersion::getVersion).collect(Collectors.toSet());
+        for (DocumentVersion version : versions) {
+            if (!expiredNumbers.contains(version.getVersion())
+                    && version.getStorageMode() == VersionStorageMode.DELTA
+                    && expiredNumbers.contains(version.getDeltaBaseVersion())) {
+                storeInFull(version);
+            }
+        }
+
+        int removed = 0;
+        int batchSize = Math.max(1, settings.getBatchSize());
+        for (int start = 0; start < expired.size(); start += batchSize) {
+            List<Long> ids = expired.subList(start, Math.min(expired.size(), start + batchSize)).stream()
+                    .map(DocumentVersion::getId)
+                    .toList();
+            Deletion deletion = transactionTemplate.execute(status -> delete(ids));
+            if (deletion == null) {
+                continue;
+            }
+            for (int i = 0; i < deletion.versions(); i++) {
+                auditTrailWriter.record(AuditAction.DELETE, documentId, AuditTrailWriter.SYSTEM);
+            }
+            for (String blobKey : deletion.blobKeys()) {
+                releaseThrottle.acquire(1);
+                blobStore.release(blobKey);
+            }
+            removed += deletion.versions();
+        }
+        return removed;
+    }
+
+    /**
+     * Selects the versions that no retention rule keeps.
+     *
+     * @param versions The versions of a document, newest first.
+     * @param settings The retention settings.
+     * @param now      The time the retention periods are measured from.
+     * @return The expired versions, newest first.
+     */
+    static List<DocumentVersion> selectExpired(List<DocumentVersion> versions, StorageProperties.Retention settings,
+                                               LocalDateTime now) {
+        int keepLast = Math.max(1, settings.getKeepLast());
+        LocalDateTime keepSince = settings.getKeepFor() != null ? now.minus(settings.getKeepFor()) : now;
+        Function<LocalDateTime, LocalDate> period = switch (settings.getThinning()) {
+            case NONE -> null;
+            case DAILY -> LocalDateTime::toLocalDate;
+            case WEEKLY -> time -> time.toLocalDate().with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        };
+
+        List<DocumentVersion> expired = new ArrayList<>();
+        Set<LocalDate> thinnedPeriods = new HashSet<>();
+        for (int i = 0; i < versions.size(); i++) {
+            DocumentVersion version = versions.get(i);
+            LocalDateTime uploadedAt = version.getUploadedAt();
+            if (uploadedAt == null) {
+                continue;
+            }
+            // Versions are newest first, so the first one seen of a period is its newest
+            boolean newestOfPeriod = period != null && thinnedPeriods.add(period.apply(uploadedAt));
+            if (i >= keepLast && uploadedAt.isBefore(keepSince) && !newestOfPeriod) {
+                expired.add(version);
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * Deletes a batch of versions and their derivative jobs.
+     *
+     * @return The number of deleted versions and the blob references they held.
+     */
+    private Deletion delete(List<Long> ids) {
+        List<DocumentVersion> locked = versionRepository.findByIdInForUpdate(ids);
+        Map<Long, List<DerivativeJob>> jobs = jobRepository.findByVersionIdIn(ids).stream()
+                .collect(Collectors.groupingBy(DerivativeJob::getVersionId));
+
+        List<Long> deletable = new ArrayList<>();
+        List<String> blobKeys = new ArrayList<>();
+        for (DocumentVersion version : locked) {
+            deletable.add(version.getId());
+            blobKeys.add(version.getBlobKey() != null ? version.getBlobKey() : version.getContentHash());
+            jobs.getOrDefault(version.getId(), List.of()).stream()
+                    .filter(job -> job.getStatus() == DerivativeStatus.DONE && job.getBlobKey() != null)
+                    .forEach(job -> blobKeys.add(job.getBlobKey()));
+        }
+        if (deletable.isEmpty()) {
+            // Already deleted by a concurrent run
+            return null;
+        }
+        jobRepository.deleteByVersionIdIn(deletable);
+        versionRepository.deleteByIdIn(deletable);
+        return new Deletion(deletable.size(), blobKeys);
+    }
+
+    /**
+     * Replaces the delta of a kept version by its full content.
+     */
+    private void storeInFull(DocumentVersion version) throws IOException, InterruptedException {
+        ioThrottle.acquire(version.getSize());
+        byte[] content = contentReader.readAllBytes(version);
+        ioThrottle.acquire(content.length);
+        ContentBlob blob = blobStore.store(new ByteArrayResource(content), version.getDocument().getName());
+
+        Integer updated;
+        try {
+            updated = transactionTemplate.execute(status -> versionRepository.convertToFull(version.getId(),
+                    version.getBlobKey(), blob.getHash(), blob.getPath(), blob.getCompression(),
+                    blob.getStoredSize(), VersionStorageMode.FULL, VersionStorageMode.DELTA));
+        } catch (RuntimeException e) {
+            blobStore.release(blob.getHash());
+            throw e;
+        }
+        if (updated == null || updated == 0) {
+            blobStore.release(blob.getHash());
+            throw new IllegalStateException("Version " + version.getVersion() + " changed while it was stored in full");
+        }
+        // The delta is no longer referenced by this version
+        blobStore.release(version.getBlobKey());
+    }
+
+    private int keepLast() {
+        return Math.max(1, settings.getKeepLast());
+    }
+
+    /**
+     * The outcome of deleting a batch of versions.
+     */
+    private record Deletion(int versions, List<String> blobKeys) {
+    }
+}
@@ -0,0 +1,588 @@
+package turing.example.documentmanagement.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import turing.example.documentmanagement.config.StorageProperties;
+import turing.example.documentmanagement.entity.BlobCompression;
+import turing.example.documentmanagement.entity.ContentBlob;
+import turing.example.documentmanagement.repository.ContentBlobRepository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Content-addressed store for document contents.
+ * <p>
+ * Every blob is stored exactly once under the SHA-256 digest of its content and carries a
+ * reference count in the {@link ContentBlob} table. Storing content that is already present
+ * only increments the reference count: the digest is computed in a read-only pass over the
+ * source, so a deduplication hit never writes to disk. New content is copied to a staging
+ * file and atomically moved into place.
+ * </p>
+ *
+ * <p>
+ * New content that the {@link CompressionPolicy} selects is deflated on its way into the
+ * staging file. The digest and size always describe the original content, so deduplication
+ * works the same for compressed and uncompressed blobs.
+ * </p>
+ *
+ * <p>
+ * Where blobs are placed under the root is decided by the configured {@link StorageLayout}.
+ * Every blob records its own path, so blobs stored under a previous layout remain readable and
+ * can be moved over with {@link #relocate(List, BiConsumer)} while the store is in use.
+ * </p>
+ *
+ * <p>
+ * Reference count changes run in their own short transactions. When a caller's transaction
+ * rolls back after a blob was stored, the reference taken by that call is released again.
+ * </p>
+ */
+@Component
+public class BlobStore {
+
+    private static final Logger log = LoggerFactory.getLogger(BlobStore.class);
+
+    private static final String DIGEST_ALGORITHM = "SHA-256";
+
+    // Sub-directory of the root holding partially written blobs
+    private static final String STAGING_DIR = "tmp";
+
+    // Buffer size used for the read-only digest pass
+    private static final int DIGEST_BUFFER_SIZE = 64 * 1024;
+
+    // Maximum number of bytes handed to a single FileChannel#transferFrom call
+    private static final long TRANSFER_CHUNK_SIZE = 8L * 1024 * 1024;
+
+    // Output buffer size of the deflater compressing new blobs
+    private static final int DEFLATE_BUFFER_SIZE = 64 * 1024;
+
+    // Number of lock stripes serializing publish/release of the same hash
+    private static final int LOCK_STRIPES = 64;
+
+    private final ContentBlobRepository blobRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Path root;
+    private final StorageLayout layout;
+    private final CompressionPolicy compressionPolicy;
+    private final ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param properties         Storage configuration providing the root directory.
+     * @param blobRepository     Repository holding blob metadata and reference counts.
+     * @param transactionManager Transaction manager used for the reference count transactions.
+     * @param layout             Layout deciding where new blobs are placed under the root.
+     * @param compressionPolicy  Policy deciding which new blobs are compressed.
+     */
+    public BlobStore(StorageProperties properties, ContentBlobRepository blobRepository,
+                     PlatformTransactionManager transactionManager, StorageLayout layout,
+                     CompressionPolicy compressionPolicy) {
+        this.blobRepository = blobRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.root = Paths.get(properties.getRoot());
+        this.layout = layout;
+        this.compressionPolicy = compressionPolicy;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Stores the content of the given source and takes a reference on the resulting blob.
+     * <p>
+     * The source is read once to compute its digest. If a blob with that digest already exists,
+     * its reference count is incremented and nothing is written. Otherwise the source is read
+     * a second time, compressed if the {@link CompressionPolicy} selects it, streamed into a
+     * staging file and moved into place.
+     * </p>
+     *
+     * @param source Source of the content; every call to {@link InputStreamSource#getInputStream()}
+     *               must return a fresh stream over the same bytes.
+     * @return The stored {@link ContentBlob}.
+     * @throws IOException If reading the source or writing the blob fails.
+     */
+    public ContentBlob store(InputStreamSource source) throws IOException {
+        return store(source, null);
+    }
+
+    /**
+     * Stores the content of the given source, choosing the compression by the file name.
+     *
+     * @param source   Source of the content; every call to {@link InputStreamSource#getInputStream()}
+     *                 must return a fresh stream over the same bytes.
+     * @param fileName The name the content was uploaded under, or {@code null} if unknown.
+     * @return The stored {@link ContentBlob}.
+     * @throws IOException If reading the source or writing the blob fails.
+     * @see #store(InputStreamSource)
+     */
+    public ContentBlob store(InputStreamSource source, String fileName) throws IOException {
+        Digest digest = digest(source);
+
+        ContentBlob existing = reference(digest.hash());
+        if (existing != null) {
+            releaseOnRollback(existing.getHash());
+            return existing;
+        }
+
+        Path staged = createStagingFile();
+        try {
+            BlobCompression compression = compressionPolicy.select(fileName, digest.size(), source);
+            Digest copied = copy(source, staged, compression);
+            if (compression != BlobCompression.NONE && Files.size(staged) >= digest.size()) {
+                // The sample was misleading; the content does not shrink
+                compression = BlobCompression.NONE;
+                copied = copy(source, staged, compression);
+            }
+            if (!copied.equals(digest)) {
+                throw new IOException("Content changed while it was being stored");
+            }
+            BlobCompression stagedCompression = compression;
+            ContentBlob blob = withLock(digest.hash(), () -> publish(digest, staged, stagedCompression));
+            releaseOnRollback(blob.getHash());
+            return blob;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            Files.deleteIfExists(staged);
+        }
+    }
+
+    /**
+     * Takes over a file that already exists in the storage file system as a blob.
+     * <p>
+     * The file is digested in place. On a deduplication hit it is simply deleted. Otherwise it
+     * is renamed into the store, so large files assembled on disk are never copied, unless the
+     * {@link CompressionPolicy} selects it for compression, in which case the compressed copy
+     * is stored instead.
+     * </p>
+     *
+     * @param file     The file to adopt; it no longer exists once this method returns.
+     * @param fileName The name the content was uploaded under, or {@code null} if unknown.
+     * @return The stored {@link ContentBlob}.
+     * @throws IOException If reading or moving the file fails.
+     */
+    public ContentBlob adopt(Path file, String fileName) throws IOException {
+        FileSystemResource source = new FileSystemResource(file);
+        Digest digest = digest(source);
+        Path staged = null;
+        try {
+            ContentBlob existing = reference(digest.hash());
+            if (existing != null) {
+                releaseOnRollback(existing.getHash());
+                return existing;
+            }
+
+            Path content = file;
+            BlobCompression compression = compressionPolicy.select(fileName, digest.size(), source);
+            if (compression != BlobCompression.NONE) {
+                staged = createStagingFile();
+                copy(source, staged, compression);
+                if (Files.size(staged) < digest.size()) {
+                    content = staged;
+                } else {
+                    compression = BlobCompression.NONE;
+                }
+            }
+            Path adopted = content;
+            BlobCompression adoptedCompression = compression;
+            ContentBlob blob = withLock(digest.hash(), () -> publish(digest, adopted, adoptedCompression));
+            releaseOnRollback(blob.getHash());
+            return blob;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            Files.deleteIfExists(file);
+            if (staged != null) {
+                Files.deleteIfExists(staged);
+            }
+        }
+    }
+
+    /**
+     * Releases one reference on a blob, deleting its content once it is no longer referenced.
+     *
+     * @param hash The content hash of the blob.
+     */
+    public void release(String hash) {
+        withLock(hash, () -> transactionTemplate.execute(status -> {
+            blobRepository.decrementRefCount(hash);
+            blobRepository.findById(hash)
+                    .filter(blob -> blob.getRefCount() == 0)
+                    .ifPresent(blob -> {
+                        blobRepository.deleteIfUnreferenced(hash);
+                        deleteFile(Paths.get(blob.getPath()));
+                    });
+            return null;
+        }));
+    }
+
+    /**
+     * Moves blobs that are not stored where the current layout places them.
+     * <p>
+     * The blobs are moved in groups sharing a lock stripe, holding no more than that stripe's
+     * lock at a time, so a concurrent publish or release of the same content is serialized with
+     * the move while other uploads are not held up. Each blob is first hard-linked, or copied
+     * where links are unsupported, to a staging path without any lock held; a blob released in
+     * the meantime is skipped. Then, under the group's lock, the blob records are switched over
+     * in one short transaction, the links are renamed to the new paths, and {@code onMoved} is
+     * invoked for every moved blob so that references to the old path can be updated atomically.
+     * Blobs that were released or moved concurrently are skipped, and a group that fails is left
+     * at its old paths without affecting the others.
+     * </p>
+     *
+     * <p>
+     * The old paths stay in place, as versions registered with a blob's old path while it was being
+     * moved still read from there. The caller removes them with {@link #deleteRelocated} once such
+     * versions have been pointed to the new paths.
+     * </p>
+     *
+     * @param blobs   The blobs to move; blobs already in place are skipped.
+     * @param onMoved Callback receiving the old and new path of every moved blob, invoked
+     *                inside the transaction switching the blob records.
+     * @return The moves made and the number of blobs that could not be moved.
+     */
+    public RelocationResult relocate(List<ContentBlob> blobs, BiConsumer<String, String> onMoved) {
+        Map<Integer, Map<ContentBlob, Path>> groups = new TreeMap<>();
+        for (ContentBlob blob : blobs) {
+            Path target = pathFor(blob.getHash());
+            if (!Paths.get(blob.getPath()).equals(target)) {
+                groups.computeIfAbsent(stripeOf(blob.getHash()), stripe -> new LinkedHashMap<>()).put(blob, target);
+            }
+        }
+
+        List<Relocation> moved = new ArrayList<>();
+        int failed = 0;
+        for (Map<ContentBlob, Path> group : groups.values()) {
+            try {
+                moved.addAll(relocateGroup(group, onMoved));
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not move {} blobs to {}", group.size(), group.values(), e);
+                failed += group.size();
+            }
+        }
+        return new RelocationResult(moved, failed);
+    }
+
+    /**
+     * Removes the old path of a moved blob.
+     *
+     * @param relocation A move made by {@link #relocate}.
+     */
+    public void deleteRelocated(Relocation relocation) {
+        withLock(relocation.hash(), () -> {
+            deleteFile(Paths.get(relocation.oldPath()));
+            return null;
+        });
+    }
+
+    /**
+     * Resolves the path at which the current layout stores a blob with the given hash.
+     *
+     * @param hash The content hash of the blob.
+     * @return The blob's storage path.
+     */
+    public Path pathFor(String hash) {
+        return layout.resolve(root, hash);
+    }
+
+    /**
+     * Moves a staged file into place and registers the blob, unless another upload published
+     * the same content in the meantime.
+     */
+    private ContentBlob publish(Digest digest, Path staged, BlobCompression compression) {
+        return transactionTemplate.execute(status -> {
+            if (blobRepository.incrementRefCount(digest.hash()) == 1) {
+                return blobRepository.findById(digest.hash()).orElseThrow();
+            }
+
+            Path target = pathFor(digest.hash());
+            long storedSize;
+            try {
+                storedSize = Files.size(staged);
+                Files.createDirectories(target.getParent());
+                Files.move(staged, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            ContentBlob blob = new ContentBlob();
+            blob.setHash(digest.hash());
+            blob.setSize(digest.size());
+            blob.setCompression(compression);
+            blob.setStoredSize(storedSize);
+            blob.setRefCount(1);
+            blob.setPath(target.toString());
+            blob.setCreatedAt(LocalDateTime.now());
+            return blobRepository.save(blob);
+        });
+    }
+
+    /**
+     * Takes a reference on an existing blob, returning {@code null} if there is none.
+     */
+    private ContentBlob reference(String hash) {
+        return withLock(hash, () -> transactionTemplate.execute(status ->
+                blobRepository.incrementRefCount(hash) == 1
+                        ? blobRepository.findById(hash).orElse(null)
+                        : null));
+    }
+
+    private Path createStagingFile() throws IOException {
+        Path stagingDir = root.resolve(STAGING_DIR);
+        Files.createDirectories(stagingDir);
+        return Files.createTempFile(stagingDir, "blob-", ".tmp");
+    }
+
+    /**
+     * Releases the reference taken by the current call if the surrounding transaction rolls back.
+     */
+    private void releaseOnRollback(String hash) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    release(hash);
+                }
+            }
+        });
+    }
+
+    /**
+     * Computes the digest of the source without writing anything.
+     */
+    private Digest digest(InputStreamSource source) throws IOException {
+        MessageDigest messageDigest = newMessageDigest();
+        long size = 0;
+        byte[] buffer = new byte[DIGEST_BUFFER_SIZE];
+        try (InputStream in = source.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                messageDigest.update(buffer, 0, read);
+                size += read;
+            }
+        }
+        return new Digest(HexFormat.of().formatHex(messageDigest.digest()), size);
+    }
+
+    /**
+     * Streams the source into the target file, digesting it on the way; uncompressed content
+     * is copied channel-to-channel.
+     */
+    private Digest copy(InputStreamSource source, Path target, BlobCompression compression) throws IOException {
+        MessageDigest messageDigest = newMessageDigest();
+        if (compression == BlobCompression.DEFLATE) {
+            Deflater deflater = compressionPolicy.newDeflater();
+            long size;
+            try (InputStream in = new DigestInputStream(source.getInputStream(), messageDigest);
+                 OutputStream out = new DeflaterOutputStream(Files.newOutputStream(target,
+                         StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), deflater, DEFLATE_BUFFER_SIZE)) {
+                size = in.transferTo(out);
+            } finally {
+                deflater.end();
+            }
+            return new Digest(HexFormat.of().formatHex(messageDigest.digest()), size);
+        }
+
+        long position = 0;
+        try (ReadableByteChannel in = Channels.newChannel(new DigestInputStream(source.getInputStream(), messageDigest));
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long transferred;
+            while ((transferred = out.transferFrom(in, position, TRANSFER_CHUNK_SIZE)) > 0) {
+                position += transferred;
+            }
+        }
+        return new Digest(HexFormat.of().formatHex(messageDigest.digest()), position);
+    }
+
+    /**
+     * Moves blobs of the same lock stripe, linking them before the lock is taken.
+     */
+    private List<Relocation> relocateGroup(Map<ContentBlob, Path> targets, BiConsumer<String, String> onMoved)
+            throws IOException {
+        Map<ContentBlob, Path> staged = new LinkedHashMap<>();
+        try {
+            for (ContentBlob blob : targets.keySet()) {
+                Path link = stageLink(Paths.get(blob.getPath()));
+                if (link != null) {
+                    staged.put(blob, link);
+                }
+            }
+            if (staged.isEmpty()) {
+                return List.of();
+            }
+            return withLock(staged.keySet().iterator().next().getHash(), () -> switchOver(staged, targets, onMoved));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            // Links of blobs that were not moved; the others have been renamed into place
+            staged.values().forEach(BlobStore::deleteQuietly);
+        }
+    }
+
+    /**
+     * Switches the records of staged blobs to their new paths and renames the links into place.
+     * Called holding the lock of the blobs' stripe.
+     */
+    private List<Relocation> switchOver(Map<ContentBlob, Path> staged, Map<ContentBlob, Path> targets,
+                                        BiConsumer<String, String> onMoved) {
+        List<Path> placed = new ArrayList<>();
+        try {
+            return transactionTemplate.execute(status -> {
+                List<Relocation> updated = new ArrayList<>();
+                staged.forEach((blob, link) -> {
+                    Path target = targets.get(blob);
+                    // Only a blob still recorded at its old path is moved; no other file belongs at its target
+                    if (blobRepository.relocate(blob.getHash(), blob.getPath(), target.toString()) == 1) {
+                        moveIntoPlace(link, target);
+                        placed.add(target);
+                        onMoved.accept(blob.getPath(), target.toString());
+                        updated.add(new Relocation(blob.getHash(), blob.getPath(), target.toString()));
+                    }
+                });
+                return updated;
+            });
+        } catch (RuntimeException e) {
+            // The records still point to the old paths
+            placed.forEach(BlobStore::deleteQuietly);
+            throw e;
+        }
+    }
+
+    /**
+     * Makes the blob file available at a new staging path as well, returning {@code null} if the
+     * file no longer exists because the blob was released.
+     */
+    private Path stageLink(Path source) throws IOException {
+        Path stagingDir = root.resolve(STAGING_DIR);
+        Files.createDirectories(stagingDir);
+        Path link = stagingDir.resolve("relocate-" + UUID.randomUUID() + ".tmp");
+        try {
+            try {
+                Files.createLink(link, source);
+            } catch (NoSuchFileException e) {
+                throw e;
+            } catch (UnsupportedOperationException | FileSystemException e) {
+                // The file system does not support hard links
+                Files.copy(source, link);
+            }
+            return link;
+        } catch (NoSuchFileException e) {
+            deleteQuietly(link);
+            return null;
+        }
+    }
+
+    private static void moveIntoPlace(Path link, Path target) {
+        try {
+            Files.createDirectories(target.getParent());
+            // Replaces a file left over by an interrupted migration
+            Files.move(link, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T withLock(String hash, Supplier<T> action) {
+        ReentrantLock lock = locks[stripeOf(hash)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static int stripeOf(String hash) {
+        return Math.floorMod(hash.hashCode(), LOCK_STRIPES);
+    }
+
+    private static void deleteFile(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // Orphaned files do no harm; a target is replaced when the blob is moved again
+        }
+    }
+
+    private static MessageDigest newMessageDigest() {
+        try {
+            return MessageDigest.getInstance(DIGEST_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(DIGEST_ALGORITHM + " is not available", e);
+        }
+    }
+
+    /**
+     * A blob moved by {@link #relocate}, with the path it was stored at before and its new path.
+     *
+     * @param hash    The content hash of the blob.
+     * @param oldPath The path the blob was stored at before.
+     * @param newPath The path the blob is stored at now.
+     */
+    public record Relocation(String hash, String oldPath, String newPath) {
+    }
+
+    /**
+     * Outcome of {@link #relocate}.
+     *
+     * @param moved  The moves made.
+     * @param failed The number of blobs that could not be moved and stay at their old paths.
+     */
+    public record RelocationResult(List<Relocation> moved, int failed) {
+    }
+
+    /**
+     * Digest and length of a piece of content.
+     */
+    private record Digest(String hash, long size) {
+    }
+}
@@ -0,0 +1,154 @@
+package turing.example.documentmanagement.storage;
+
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+import turing.example.documentmanagement.config.StorageProperties;
+import turing.example.documentmanagement.entity.BlobCompression;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.Deflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Decides which blobs are compressed at rest, and how compressed blobs are read back.
+ * <p>
+ * The media type is derived from the file name. Listed compressible types such as text, CSV,
+ * JSON and XML are always compressed and listed already compressed formats such as images,
+ * archives and office documents never are. Content of any other type is judged by compressing
+ * a sample from its start, which costs a fraction of a millisecond and avoids spending CPU on
+ * content that would not shrink.
+ * </p>
+ */
+@Component
+public class CompressionPolicy {
+
+    // Buffer size used when reading compressed files
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private final StorageProperties.Compression settings;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param properties Storage configuration containing the compression settings.
+     */
+    public CompressionPolicy(StorageProperties properties) {
+        this.settings = properties.getCompression();
+    }
+
+    /**
+     * Selects the compression of new content.
+     *
+     * @param fileName The name the content was uploaded under, or {@code null} if unknown.
+     * @param size     The size of the content in bytes.
+     * @param source   Source of the content, read once to take a sample if the type is not listed.
+     * @return The compression to store the content with.
+     * @throws IOException If the sample cannot be read.
+     */
+    public BlobCompression select(String fileName, long size, InputStreamSource source) throws IOException {
+        if (!settings.isEnabled() || size < settings.getMinSize().toBytes()) {
+            return BlobCompression.NONE;
+        }
+        Optional<MediaType> type = fileName != null ? MediaTypeFactory.getMediaType(fileName) : Optional.empty();
+        if (type.isPresent()) {
+            // Checked first, so that e.g. image/svg+xml wins over image/*
+            if (matches(settings.getCompressibleTypes(), type.get())) {
+                return BlobCompression.DEFLATE;
+            }
+            if (matches(settings.getIncompressibleTypes(), type.get())) {
+                return BlobCompression.NONE;
+            }
+        }
+        byte[] sample;
+        try (InputStream in = source.getInputStream()) {
+            sample = in.readNBytes((int) Math.min(settings.getSampleSize().toBytes(), Integer.MAX_VALUE - 8));
+        }
+        return compressedSize(sample) <= sample.length * settings.getMaxSampleRatio()
+                ? BlobCompression.DEFLATE : BlobCompression.NONE;
+    }
+
+    /**
+     * Tells whether a file's format is listed as already compressed, judging by its name only.
+     * <p>
+     * Unlike {@link #select}, the answer does not depend on whether compression at rest is enabled.
+     * </p>
+     *
+     * @param fileName The name of the file.
+     * @return {@code true} if compressing the content again would not shrink it.
+     */
+    public boolean isPrecompressed(String fileName) {
+        Optional<MediaType> type = MediaTypeFactory.getMediaType(fileName);
+        return type.isPresent() && !matches(settings.getCompressibleTypes(), type.get())
+                && matches(settings.getIncompressibleTypes(), type.get());
+    }
+
+    /**
+     * Creates a deflater with the configured level; the caller has to {@link Deflater#end() end} it.
+     *
+     * @return A new deflater producing zlib-wrapped output.
+     */
+    public Deflater newDeflater() {
+        return new Deflater(settings.getLevel());
+    }
+
+    /**
+     * Opens a stream over the content held in a blob file.
+     *
+     * @param file        The blob's file.
+     * @param compression How the file is encoded; {@code null} means uncompressed.
+     * @return A stream over the original content.
+     * @throws IOException If the file cannot be opened.
+     */
+    public static InputStream open(Path file, BlobCompression compression) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        if (compression == BlobCompression.DEFLATE) {
+            return new InflaterInputStream(new BufferedInputStream(in, READ_BUFFER_SIZE));
+        }
+        return in;
+    }
+
+    /**
+     * Reads the complete content held in a blob file into memory.
+     *
+     * @param file        The blob's file.
+     * @param compression How the file is encoded; {@code null} means uncompressed.
+     * @return The original content.
+     * @throws IOException If the file cannot be read or is corrupt.
+     */
+    public static byte[] readAllBytes(Path file, BlobCompression compression) throws IOException {
+        if (compression != BlobCompression.DEFLATE) {
+            return Files.readAllBytes(file);
+        }
+        try (InputStream in = open(file, compression)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private long compressedSize(byte[] sample) {
+        Deflater deflater = newDeflater();
+        try {
+            deflater.setInput(sample);
+            deflater.finish();
+            byte[] buffer = new byte[READ_BUFFER_SIZE];
+            long size = 0;
+            while (!deflater.finished()) {
+                size += deflater.deflate(buffer);
+            }
+            return size;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static boolean matches(List<MediaType> types, MediaType type) {
+        return types.stream().anyMatch(candidate -> candidate.includes(type));
+    }
+}
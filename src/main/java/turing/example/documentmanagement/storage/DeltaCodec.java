@@ -0,0 +1,278 @@
+package turing.example.documentmanagement.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Binary delta encoder and decoder in the spirit of VCDIFF.
+ * <p>
+ * A delta describes a target byte sequence as a list of instructions against a source:
+ * {@code COPY} instructions reference a range of the source, {@code ADD} instructions carry
+ * literal bytes that do not occur in the source. The encoder indexes the source in fixed-size
+ * blocks and scans the target with a rolling hash, extending every verified block match in
+ * both directions, so small edits to large files produce tiny deltas.
+ * </p>
+ *
+ * <p>
+ * Encoded format: the magic bytes {@code DLT1}, the target length, then a sequence of
+ * instructions, each a one-byte opcode followed by variable-length integers
+ * ({@code COPY offset length} or {@code ADD length bytes}).
+ * </p>
+ */
+public final class DeltaCodec {
+
+    private static final byte[] MAGIC = {'D', 'L', 'T', '1'};
+    private static final int OP_COPY = 1;
+    private static final int OP_ADD = 2;
+
+    // Length of the source blocks that are indexed; also the minimum match length
+    private static final int BLOCK_SIZE = 16;
+
+    // Multiplier of the polynomial rolling hash
+    private static final int PRIME = 31;
+
+    private DeltaCodec() {
+    }
+
+    /**
+     * Computes a delta that turns {@code source} into {@code target}.
+     *
+     * @param source The content the delta will be applied to.
+     * @param target The content the delta reproduces.
+     * @return The encoded delta.
+     */
+    public static byte[] encode(byte[] source, byte[] target) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(MAGIC);
+        writeVarLong(out, target.length);
+
+        if (source.length < BLOCK_SIZE || target.length < BLOCK_SIZE) {
+            writeAdd(out, target, 0, target.length);
+            return out.toByteArray();
+        }
+
+        BlockIndex index = new BlockIndex(source);
+        int highPower = power(BLOCK_SIZE - 1);
+
+        int position = 0;
+        int literalStart = 0;
+        int hash = hash(target, 0);
+        while (position + BLOCK_SIZE <= target.length) {
+            int candidate = index.find(hash);
+            if (candidate >= 0 && regionsEqual(source, candidate, target, position, BLOCK_SIZE)) {
+                // Extend the match backwards into the pending literal run, then forwards
+                int sourceStart = candidate;
+                int targetStart = position;
+                while (sourceStart > 0 && targetStart > literalStart
+                        && source[sourceStart - 1] == target[targetStart - 1]) {
+                    sourceStart--;
+                    targetStart--;
+                }
+                int length = BLOCK_SIZE + (position - targetStart);
+                while (sourceStart + length < source.length && targetStart + length < target.length
+                        && source[sourceStart + length] == target[targetStart + length]) {
+                    length++;
+                }
+
+                writeAdd(out, target, literalStart, targetStart - literalStart);
+                out.write(OP_COPY);
+                writeVarLong(out, sourceStart);
+                writeVarLong(out, length);
+
+                position = targetStart + length;
+                literalStart = position;
+                if (position + BLOCK_SIZE <= target.length) {
+                    hash = hash(target, position);
+                }
+                continue;
+            }
+
+            if (position + BLOCK_SIZE < target.length) {
+                hash = (hash - target[position] * highPower) * PRIME + target[position + BLOCK_SIZE];
+            }
+            position++;
+        }
+        writeAdd(out, target, literalStart, target.length - literalStart);
+        return out.toByteArray();
+    }
+
+    /**
+     * Applies a delta to its source, reproducing the target.
+     *
+     * @param source The content the delta was computed against.
+     * @param delta  The encoded delta.
+     * @return The reconstructed target content.
+     * @throws IOException If the delta is malformed or does not match the source.
+     */
+    public static byte[] decode(byte[] source, byte[] delta) throws IOException {
+        if (delta.length < MAGIC.length || !Arrays.equals(delta, 0, MAGIC.length, MAGIC, 0, MAGIC.length)) {
+            throw new IOException("Not a delta");
+        }
+        Reader reader = new Reader(delta, MAGIC.length);
+        long targetLength = reader.readVarLong();
+        if (targetLength > Integer.MAX_VALUE) {
+            throw new IOException("Delta target is too large");
+        }
+
+        byte[] target = new byte[(int) targetLength];
+        int written = 0;
+        while (reader.hasMore()) {
+            int op = reader.readByte();
+            if (op == OP_COPY) {
+                long offset = reader.readVarLong();
+                long length = reader.readVarLong();
+                if (offset < 0 || length < 0 || offset + length > source.length || written + length > target.length) {
+                    throw new IOException("Delta copy instruction is out of bounds");
+                }
+                System.arraycopy(source, (int) offset, target, written, (int) length);
+                written += (int) length;
+            } else if (op == OP_ADD) {
+                long length = reader.readVarLong();
+                if (length < 0 || written + length > target.length) {
+                    throw new IOException("Delta add instruction is out of bounds");
+                }
+                reader.readBytes(target, written, (int) length);
+                written += (int) length;
+            } else {
+                throw new IOException("Unknown delta instruction " + op);
+            }
+        }
+        if (written != target.length) {
+            throw new IOException("Delta is truncated");
+        }
+        return target;
+    }
+
+    private static void writeAdd(ByteArrayOutputStream out, byte[] data, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        out.write(OP_ADD);
+        writeVarLong(out, length);
+        out.write(data, offset, length);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static int hash(byte[] data, int offset) {
+        int hash = 0;
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            hash = hash * PRIME + data[offset + i];
+        }
+        return hash;
+    }
+
+    private static int power(int exponent) {
+        int result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= PRIME;
+        }
+        return result;
+    }
+
+    private static boolean regionsEqual(byte[] a, int aOffset, byte[] b, int bOffset, int length) {
+        return Arrays.equals(a, aOffset, aOffset + length, b, bOffset, bOffset + length);
+    }
+
+    /**
+     * Open-addressing hash table from block hash to the offset of the first source block with that hash.
+     */
+    private static final class BlockIndex {
+
+        private final int[] hashes;
+        private final int[] offsets;
+        private final int mask;
+
+        BlockIndex(byte[] source) {
+            int blocks = source.length / BLOCK_SIZE;
+            int capacity = Integer.highestOneBit(Math.max(blocks, 1) * 2 - 1) << 1;
+            hashes = new int[capacity];
+            offsets = new int[capacity];
+            Arrays.fill(offsets, -1);
+            mask = capacity - 1;
+            for (int offset = 0; offset + BLOCK_SIZE <= source.length; offset += BLOCK_SIZE) {
+                insert(hash(source, offset), offset);
+            }
+        }
+
+        private void insert(int hash, int offset) {
+            int slot = spread(hash) & mask;
+            while (offsets[slot] >= 0) {
+                if (hashes[slot] == hash) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            hashes[slot] = hash;
+            offsets[slot] = offset;
+        }
+
+        int find(int hash) {
+            int slot = spread(hash) & mask;
+            while (offsets[slot] >= 0) {
+                if (hashes[slot] == hash) {
+                    return offsets[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return -1;
+        }
+
+        private static int spread(int hash) {
+            int mixed = hash * 0x9E3779B1;
+            return mixed ^ (mixed >>> 16);
+        }
+    }
+
+    /**
+     * Sequential reader over an encoded delta.
+     */
+    private static final class Reader {
+
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        boolean hasMore() {
+            return position < data.length;
+        }
+
+        int readByte() throws IOException {
+            if (position >= data.length) {
+                throw new IOException("Delta is truncated");
+            }
+            return data[position++] & 0xFF;
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed length in delta");
+        }
+
+        void readBytes(byte[] target, int offset, int length) throws IOException {
+            if (position + length > data.length) {
+                throw new IOException("Delta is truncated");
+            }
+            System.arraycopy(data, position, target, offset, length);
+            position += length;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package turing.example.documentmanagement.storage;
+
+import java.nio.file.Path;
+
+/**
+ * Layout storing every blob directly in the storage root.
+ * <p>
+ * Only suitable for small stores: directory lookups, listings and backups slow down once the
+ * root holds a few hundred thousand files.
+ * </p>
+ */
+public class FlatStorageLayout implements StorageLayout {
+
+    @Override
+    public Path resolve(Path root, String hash) {
+        return root.resolve(hash);
+    }
+}
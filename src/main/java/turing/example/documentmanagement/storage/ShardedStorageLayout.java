@@ -0,0 +1,45 @@
+package turing.example.documentmanagement.storage;
+
+import java.nio.file.Path;
+
+/**
+ * Layout fanning blobs out into nested sub-directories named after the leading hash digits.
+ * <p>
+ * Every level uses the next two hex digits of the hash, giving 256 directories per level:
+ * with two levels, blob {@code abcdef...} is stored at {@code ab/cd/abcdef...}. As hashes are
+ * uniformly distributed, the files spread evenly, and even a hundred million blobs leave only
+ * about 1,500 files per directory.
+ * </p>
+ */
+public class ShardedStorageLayout implements StorageLayout {
+
+    // Hex digits per directory level, giving 256 directories per level
+    private static final int DIGITS_PER_LEVEL = 2;
+
+    private final int levels;
+
+    /**
+     * Creates a layout with the given number of directory levels.
+     *
+     * @param levels The number of nested directory levels, at least 1.
+     */
+    public ShardedStorageLayout(int levels) {
+        if (levels < 1) {
+            throw new IllegalArgumentException("A sharded layout needs at least one directory level.");
+        }
+        this.levels = levels;
+    }
+
+    @Override
+    public Path resolve(Path root, String hash) {
+        if (hash.length() <= levels * DIGITS_PER_LEVEL) {
+            throw new IllegalArgumentException("Hash '" + hash + "' is too short for " + levels + " directory levels.");
+        }
+        Path directory = root;
+        for (int level = 0; level < levels; level++) {
+            int start = level * DIGITS_PER_LEVEL;
+            directory = directory.resolve(hash.substring(start, start + DIGITS_PER_LEVEL));
+        }
+        return directory.resolve(hash);
+    }
+}
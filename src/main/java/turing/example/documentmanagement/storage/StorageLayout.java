@@ -0,0 +1,23 @@
+package turing.example.documentmanagement.storage;
+
+import java.nio.file.Path;
+
+/**
+ * Strategy deciding where in the storage root the file of a blob is placed.
+ * <p>
+ * The layout only applies to blobs stored from now on: every blob records the path it was
+ * written to, so files stored under a previous layout stay readable until they are moved by
+ * {@link turing.example.documentmanagement.service.StorageMigrationService}.
+ * </p>
+ */
+public interface StorageLayout {
+
+    /**
+     * Resolves the path of the blob with the given hash.
+     *
+     * @param root The storage root directory.
+     * @param hash The hex-encoded content hash of the blob.
+     * @return The path the blob's file is stored at.
+     */
+    Path resolve(Path root, String hash);
+}
@@ -0,0 +1,107 @@
+package turing.example.documentmanagement.storage;
+
+import org.springframework.stereotype.Component;
+import turing.example.documentmanagement.entity.BlobCompression;
+import turing.example.documentmanagement.entity.DocumentVersion;
+import turing.example.documentmanagement.entity.VersionStorageMode;
+import turing.example.documentmanagement.repository.DocumentVersionRepository;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Reads the content of document versions regardless of how they are stored.
+ * <p>
+ * Versions stored in full are read straight from their file, which callers can also access
+ * directly for zero-copy transfers. Versions stored as deltas are reconstructed by applying
+ * their delta to the content of their base version; the length of these chains is bounded
+ * by the delta configuration, which bounds the reconstruction cost. Compressed files are
+ * inflated while they are read.
+ * </p>
+ */
+@Component
+public class VersionContentReader {
+
+    private final DocumentVersionRepository versionRepository;
+
+    /**
+     * Constructor-based dependency injection.
+     *
+     * @param versionRepository Repository used to look up the base versions of deltas.
+     */
+    public VersionContentReader(DocumentVersionRepository versionRepository) {
+        this.versionRepository = versionRepository;
+    }
+
+    /**
+     * Returns the file holding the complete content of the version, if there is one.
+     *
+     * @param version The document version.
+     * @return The content file, or {@code null} if the content has to be decompressed or reconstructed.
+     */
+    public Path directPath(DocumentVersion version) {
+        return isDelta(version) || version.getCompression() == BlobCompression.DEFLATE
+                ? null : Paths.get(version.getFilePath());
+    }
+
+    /**
+     * Opens a stream over the complete content of the version.
+     *
+     * @param version The document version.
+     * @return A stream over the version's content.
+     * @throws IOException If the content cannot be read or reconstructed.
+     */
+    public InputStream open(DocumentVersion version) throws IOException {
+        Path direct = directPath(version);
+        if (direct != null) {
+            return Files.newInputStream(direct);
+        }
+        if (!isDelta(version)) {
+            return CompressionPolicy.open(Paths.get(version.getFilePath()), version.getCompression());
+        }
+        return new ByteArrayInputStream(readAllBytes(version));
+    }
+
+    /**
+     * Reads the complete content of the version into memory.
+     * <p>
+     * Only intended for versions small enough to take part in delta chains.
+     * </p>
+     *
+     * @param version The document version.
+     * @return The version's content.
+     * @throws IOException If the content cannot be read or reconstructed.
+     */
+    public byte[] readAllBytes(DocumentVersion version) throws IOException {
+        if (!isDelta(version)) {
+            return readStored(version);
+        }
+        DocumentVersion base = versionRepository
+                .findByDocumentIdAndVersion(version.getDocument().getId(), version.getDeltaBaseVersion())
+                .orElseThrow(() -> new IOException("Base version " + version.getDeltaBaseVersion()
+                        + " of document " + version.getDocument().getId() + " is missing"));
+        return DeltaCodec.decode(readAllBytes(base), readStored(version));
+    }
+
+    /**
+     * Reloads a version, picking up storage changes made since it was read.
+     *
+     * @param version The possibly stale document version.
+     * @return The current state of the version.
+     */
+    public DocumentVersion reload(DocumentVersion version) {
+        return versionRepository.findById(version.getId()).orElse(version);
+    }
+
+    private static byte[] readStored(DocumentVersion version) throws IOException {
+        return CompressionPolicy.readAllBytes(Paths.get(version.getFilePath()), version.getCompression());
+    }
+
+    private static boolean isDelta(DocumentVersion version) {
+        return version.getStorageMode() == VersionStorageMode.DELTA;
+    }
+}
@@ -0,0 +1,60 @@
+package turing.example.documentmanagement.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Configuration running request handling on virtual threads.
+ * <p>
+ * Uploads spend most of their time blocked: reading the request body from slow clients,
+ * writing it to disk and waiting for JDBC. On platform threads every such upload occupies one
+ * of Tomcat's worker threads, so the pool runs out long before CPU or disk are busy. With this
+ * configuration Tomcat starts a virtual thread per request instead, and a blocked upload only
+ * holds on to its stack; the storage and JDBC calls made by the request run on that virtual
+ * thread as well. Concurrency is then bounded by the connection pool and the disk, not by the
+ * number of threads.
+ * </p>
+ *
+ * <p>
+ * Only compiled by the {@code java21} Maven profile and enabled with
+ * {@code document-management.threads.virtual=true}. Blocking calls in this application are
+ * guarded by {@link java.util.concurrent.locks.ReentrantLock}s rather than {@code synchronized}
+ * blocks, which would pin the virtual thread to its carrier while it waits.
+ * </p>
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "document-management.threads", name = "virtual", havingValue = "true")
+public class VirtualThreadConfig {
+
+    /**
+     * Lets Tomcat run every request on a new virtual thread.
+     *
+     * @return The customizer replacing the connector's worker thread pool.
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(newVirtualThreadExecutor("http-vt-"));
+    }
+
+    /**
+     * Runs Spring's asynchronous request processing and {@code @Async} methods on virtual threads.
+     *
+     * @return The application task executor.
+     */
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(newVirtualThreadExecutor("task-vt-"));
+    }
+
+    private static ExecutorService newVirtualThreadExecutor(String namePrefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(namePrefix, 0).factory());
+    }
+}
@@ -0,0 +1,163 @@
+package turing.example.documentmanagement.audit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import turing.example.documentmanagement.config.AuditProperties;
+
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link MySqlAuditPartitioning}.
+ * <p>
+ * This test class verifies the partitioning statements issued for the different states of the
+ * {@code audit_trail} table.
+ * </p>
+ */
+class MySqlAuditPartitioningTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private MySqlAuditPartitioning partitioning;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        partitioning = new MySqlAuditPartitioning(jdbcTemplate);
+    }
+
+    /**
+     * Test case: Preparing a table that is not partitioned yet.
+     * <p>
+     * Verifies that the primary key is extended and that older entries share the partition of
+     * the previous month.
+     * </p>
+     */
+    @Test
+    void testPrepare_PartitionsTable() {
+        partitions((String) null);
+
+        partitioning.prepare(YearMonth.of(2024, 3), YearMonth.of(2024, 4));
+
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).execute("ALTER TABLE audit_trail DROP PRIMARY KEY, ADD PRIMARY KEY (id, `timestamp`)");
+        order.verify(jdbcTemplate).execute("ALTER TABLE audit_trail PARTITION BY RANGE COLUMNS(`timestamp`) ("
+                + "PARTITION p202402 VALUES LESS THAN ('2024-03-01 00:00:00'), "
+                + "PARTITION p202403 VALUES LESS THAN ('2024-04-01 00:00:00'), "
+                + "PARTITION p202404 VALUES LESS THAN ('2024-05-01 00:00:00'), "
+                + "PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+    }
+
+    /**
+     * Test case: Preparing a table that still has the foreign key of an earlier schema.
+     * <p>
+     * Verifies that the foreign key is dropped before the table is partitioned, as MySQL rejects
+     * partitioning a table with foreign keys.
+     * </p>
+     */
+    @Test
+    void testPrepare_DropsForeignKeyBeforePartitioning() {
+        partitions((String) null);
+        when(jdbcTemplate.queryForList(contains("CONSTRAINT_TYPE = 'FOREIGN KEY'"), eq(String.class), eq("audit_trail")))
+                .thenReturn(List.of("FKk2l2mf6y7yd0gflh6sb0ooa1u"));
+
+        partitioning.prepare(YearMonth.of(2024, 3), YearMonth.of(2024, 4));
+
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).execute("ALTER TABLE audit_trail DROP FOREIGN KEY `FKk2l2mf6y7yd0gflh6sb0ooa1u`");
+        order.verify(jdbcTemplate).execute("ALTER TABLE audit_trail DROP PRIMARY KEY, ADD PRIMARY KEY (id, `timestamp`)");
+        order.verify(jdbcTemplate).execute(startsWith("ALTER TABLE audit_trail PARTITION BY RANGE COLUMNS"));
+    }
+
+    /**
+     * Test case: Preparing a partitioned table.
+     * <p>
+     * Verifies that only the missing months are split off the catch-all partition, and that
+     * nothing happens once they exist.
+     * </p>
+     */
+    @Test
+    void testPrepare_AddsMissingMonths() {
+        partitions("p202402", "p202403", "pmax");
+
+        partitioning.prepare(YearMonth.of(2024, 3), YearMonth.of(2024, 5));
+        partitioning.prepare(YearMonth.of(2024, 3), YearMonth.of(2024, 3));
+
+        verify(jdbcTemplate, times(1)).execute(anyString());
+        verify(jdbcTemplate).execute("ALTER TABLE audit_trail REORGANIZE PARTITION pmax INTO ("
+                + "PARTITION p202404 VALUES LESS THAN ('2024-05-01 00:00:00'), "
+                + "PARTITION p202405 VALUES LESS THAN ('2024-06-01 00:00:00'), "
+                + "PARTITION pmax VALUES LESS THAN (MAXVALUE))");
+    }
+
+    /**
+     * Test case: Expiring months with the DROP policy.
+     * <p>
+     * Verifies that the partitions of the expired months are dropped and all others are kept.
+     * </p>
+     */
+    @Test
+    void testExpire_DropsPartitions() {
+        partitions("p202401", "p202402", "p202403", "pmax");
+
+        partitioning.expire(YearMonth.of(2024, 3), AuditProperties.ExpiredPolicy.DROP);
+
+        verify(jdbcTemplate).execute("ALTER TABLE audit_trail DROP PARTITION p202401");
+        verify(jdbcTemplate).execute("ALTER TABLE audit_trail DROP PARTITION p202402");
+        verify(jdbcTemplate, times(2)).execute(anyString());
+    }
+
+    /**
+     * Test case: Expiring a month with the ARCHIVE policy.
+     * <p>
+     * Verifies that the partition is exchanged with a new archive table before it is dropped,
+     * and that a partition whose archive table already exists is never exchanged again.
+     * </p>
+     */
+    @Test
+    void testExpire_ArchivesPartitions() {
+        partitions("p202401", "p202402", "pmax");
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("audit_trail_archive_p202401"))).thenReturn(0);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("audit_trail_archive_p202402"))).thenReturn(1);
+        when(jdbcTemplate.queryForList("SELECT 1 FROM audit_trail PARTITION (p202402) LIMIT 1", Integer.class))
+                .thenReturn(List.of(1));
+
+        partitioning.expire(YearMonth.of(2024, 3), AuditProperties.ExpiredPolicy.ARCHIVE);
+
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).execute("CREATE TABLE audit_trail_archive_p202401 LIKE audit_trail");
+        order.verify(jdbcTemplate).execute("ALTER TABLE audit_trail_archive_p202401 REMOVE PARTITIONING");
+        order.verify(jdbcTemplate).execute(
+                "ALTER TABLE audit_trail EXCHANGE PARTITION p202401 WITH TABLE audit_trail_archive_p202401");
+        order.verify(jdbcTemplate).execute("ALTER TABLE audit_trail DROP PARTITION p202401");
+        verify(jdbcTemplate, never()).execute(contains("p202402"));
+    }
+
+    /**
+     * Test case: Deriving months from partition names.
+     * <p>
+     * Verifies that only monthly partitions are recognised.
+     * </p>
+     */
+    @Test
+    void testMonth() {
+        assertEquals(YearMonth.of(2024, 12), MySqlAuditPartitioning.month("p202412"));
+        assertNull(MySqlAuditPartitioning.month("pmax"));
+        assertNull(MySqlAuditPartitioning.month(null));
+    }
+
+    private void partitions(String... names) {
+        when(jdbcTemplate.queryForList(contains("information_schema.PARTITIONS"), eq(String.class), eq("audit_trail")))
+                .thenReturn(Arrays.asList(names));
+    }
+}
@@ -0,0 +1,72 @@
+package turing.example.documentmanagement.audit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import turing.example.documentmanagement.config.AuditProperties;
+import turing.example.documentmanagement.repository.AuditTrailRepository;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link RangeDeleteAuditPartitioning}.
+ * <p>
+ * This test class verifies that expired months are deleted in batches and that nothing is
+ * deleted when they are supposed to be archived.
+ * </p>
+ */
+class RangeDeleteAuditPartitioningTest {
+
+    private static final LocalDateTime MARCH = LocalDateTime.of(2024, 3, 1, 0, 0);
+
+    @Mock
+    private AuditTrailRepository auditTrailRepository;
+
+    private RangeDeleteAuditPartitioning partitioning;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        partitioning = new RangeDeleteAuditPartitioning(auditTrailRepository, 2);
+    }
+
+    /**
+     * Test case: Expiring months with the DROP policy.
+     * <p>
+     * Verifies that the entries before the first kept month are deleted batch by batch.
+     * </p>
+     */
+    @Test
+    void testExpire_DeletesInBatches() {
+        when(auditTrailRepository.findIdsBefore(eq(MARCH), any(Pageable.class)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L))
+                .thenReturn(List.of());
+
+        partitioning.expire(YearMonth.of(2024, 3), AuditProperties.ExpiredPolicy.DROP);
+
+        verify(auditTrailRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(auditTrailRepository).deleteAllByIdInBatch(List.of(3L));
+        verify(auditTrailRepository, times(3)).findIdsBefore(eq(MARCH), argThat(page -> page.getPageSize() == 2));
+    }
+
+    /**
+     * Test case: Expiring months with the ARCHIVE policy.
+     * <p>
+     * Verifies that the entries are kept.
+     * </p>
+     */
+    @Test
+    void testExpire_KeepsEntriesToArchive() {
+        partitioning.expire(YearMonth.of(2024, 3), AuditProperties.ExpiredPolicy.ARCHIVE);
+
+        verifyNoInteractions(auditTrailRepository);
+    }
+}
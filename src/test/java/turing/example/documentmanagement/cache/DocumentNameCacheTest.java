@@ -0,0 +1,111 @@
+package turing.example.documentmanagement.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import turing.example.documentmanagement.config.MetadataCacheProperties;
+import turing.example.documentmanagement.repository.DocumentRepository;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link DocumentNameCache}.
+ * <p>
+ * This test class verifies that name lookups are answered from the cache, including
+ * lookups of names that do not exist, and that writes replace cached entries.
+ * </p>
+ */
+class DocumentNameCacheTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private DocumentNameFilter nameFilter;
+
+    private DocumentNameCache nameCache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(nameFilter.mightExist(anyString())).thenReturn(true);
+        nameCache = new DocumentNameCache(documentRepository, nameFilter, new MetadataCacheProperties());
+    }
+
+    /**
+     * Test case: Looking up the same name repeatedly.
+     * <p>
+     * This test verifies that only the first lookup reaches the repository.
+     * </p>
+     */
+    @Test
+    void testFindIdByName_CachesResult() {
+        when(documentRepository.findIdByName("report.pdf")).thenReturn(Optional.of(5L));
+
+        assertEquals(Optional.of(5L), nameCache.findIdByName("report.pdf"));
+        assertEquals(Optional.of(5L), nameCache.findIdByName("report.pdf"));
+
+        verify(documentRepository, times(1)).findIdByName("report.pdf");
+        assertEquals(1, nameCache.stats().hitCount());
+        assertEquals(1, nameCache.stats().missCount());
+    }
+
+    /**
+     * Test case: Checking a name that belongs to no document.
+     * <p>
+     * This test verifies that the negative result is cached, and that recording the
+     * document created under that name replaces it.
+     * </p>
+     */
+    @Test
+    void testExists_CachesMissingNameUntilPut() {
+        when(documentRepository.findIdByName("draft.txt")).thenReturn(Optional.empty());
+
+        assertFalse(nameCache.exists("draft.txt"));
+        assertFalse(nameCache.exists("draft.txt"));
+        verify(documentRepository, times(1)).findIdByName("draft.txt");
+
+        nameCache.put("draft.txt", 9L);
+
+        assertTrue(nameCache.exists("draft.txt"));
+        verifyNoMoreInteractions(documentRepository);
+    }
+
+    /**
+     * Test case: Looking up a name the name filter rules out.
+     * <p>
+     * This test verifies that the repository is not queried.
+     * </p>
+     */
+    @Test
+    void testFindIdByName_FilteredNameSkipsRepository() {
+        when(nameFilter.mightExist("new.txt")).thenReturn(false);
+
+        assertEquals(Optional.empty(), nameCache.findIdByName("new.txt"));
+
+        verify(documentRepository, never()).findIdByName(anyString());
+    }
+
+    /**
+     * Test case: Invalidating a cached name.
+     * <p>
+     * This test verifies that the next lookup reads the name from the repository again.
+     * </p>
+     */
+    @Test
+    void testInvalidate_ReloadsName() {
+        when(documentRepository.findIdByName("report.pdf")).thenReturn(Optional.of(5L))
+                .thenReturn(Optional.empty());
+
+        assertTrue(nameCache.exists("report.pdf"));
+        nameCache.invalidate("report.pdf");
+
+        assertFalse(nameCache.exists("report.pdf"));
+        verify(documentRepository, times(2)).findIdByName("report.pdf");
+    }
+}
@@ -0,0 +1,98 @@
+package turing.example.documentmanagement.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import turing.example.documentmanagement.config.MetadataCacheProperties;
+import turing.example.documentmanagement.repository.DocumentRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link DocumentNameFilter}.
+ * <p>
+ * This test class verifies that the filter is built from the document table and that a rebuild
+ * keeps names whose documents were committed behind its scan.
+ * </p>
+ */
+class DocumentNameFilterTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    private DocumentNameFilter nameFilter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        nameFilter = new DocumentNameFilter(documentRepository, new MetadataCacheProperties());
+    }
+
+    /**
+     * Test case: Checking names before and after the first build.
+     * <p>
+     * Verifies that every name may exist until the filter is built, and that afterwards only the
+     * scanned names do.
+     * </p>
+     */
+    @Test
+    void testBuild_RulesOutUnknownNames() {
+        when(documentRepository.findNamesAfter(anyLong(), any(Pageable.class))).thenReturn(List.of(name(1, "a.txt")));
+        assertTrue(nameFilter.mightExist("unknown.txt"));
+
+        nameFilter.build();
+
+        assertTrue(nameFilter.mightExist("a.txt"));
+        assertFalse(nameFilter.mightExist("unknown.txt"));
+    }
+
+    /**
+     * Test case: Rebuilding while a document created just before is still being committed.
+     * <p>
+     * Verifies that a name added to the previous filter only, whose row the scan did not see, is
+     * read again from the documents created shortly before the rebuild.
+     * </p>
+     */
+    @Test
+    void testRebuild_KeepsNamesCommittedBehindScan() {
+        when(documentRepository.findNamesAfter(anyLong(), any(Pageable.class))).thenReturn(List.of(name(1, "a.txt")));
+        nameFilter.build();
+        ScalableBloomFilter previous = nameFilter.currentFilter();
+
+        // Added before the rebuild starts; the creating transaction commits after the scan
+        nameFilter.add("late.txt");
+        when(documentRepository.findNamesCreatedSince(any())).thenReturn(List.of("late.txt"));
+        LocalDateTime before = LocalDateTime.now();
+        nameFilter.rebuild();
+
+        assertNotSame(previous, nameFilter.currentFilter());
+        assertTrue(nameFilter.mightExist("late.txt"));
+        ArgumentCaptor<LocalDateTime> since = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(documentRepository, times(2)).findNamesCreatedSince(since.capture());
+        assertFalse(since.getValue().isAfter(before.minus(Duration.ofMinutes(5)).plusSeconds(1)));
+    }
+
+    private static DocumentRepository.DocumentName name(long id, String name) {
+        return new DocumentRepository.DocumentName() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+}
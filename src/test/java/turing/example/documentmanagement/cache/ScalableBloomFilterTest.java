@@ -0,0 +1,79 @@
+package turing.example.documentmanagement.cache;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link ScalableBloomFilter}.
+ * <p>
+ * This test class verifies that the filter has no false negatives, grows beyond its initial
+ * capacity and keeps the measured false-positive rate within the configured bound.
+ * </p>
+ */
+class ScalableBloomFilterTest {
+
+    /**
+     * Test case: Adding far more names than the initial capacity.
+     * <p>
+     * This test verifies that every added name is found, that the filter grew new stages,
+     * and that the share of unknown names reported as possibly present stays below the
+     * configured false-positive rate.
+     * </p>
+     */
+    @Test
+    void testFalsePositiveRate_StaysWithinBoundWhileGrowing() {
+        double falsePositiveRate = 0.01;
+        ScalableBloomFilter filter = new ScalableBloomFilter(1_000, falsePositiveRate);
+        int names = 100_000;
+        for (int i = 0; i < names; i++) {
+            filter.add("document-" + i + ".pdf");
+        }
+
+        for (int i = 0; i < names; i++) {
+            assertTrue(filter.mightContain("document-" + i + ".pdf"));
+        }
+        assertTrue(filter.stageCount() > 1);
+        assertTrue(filter.memoryBytes() > 0);
+
+        int probes = 200_000;
+        int falsePositives = 0;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("unknown-" + i + ".pdf")) {
+                falsePositives++;
+            }
+        }
+        double measured = (double) falsePositives / probes;
+        assertTrue(measured <= falsePositiveRate, "Measured false-positive rate " + measured);
+        assertTrue(filter.estimatedFalsePositiveRate() <= falsePositiveRate);
+    }
+
+    /**
+     * Test case: Adding the same name twice.
+     * <p>
+     * This test verifies that only the first addition counts towards the size.
+     * </p>
+     */
+    @Test
+    void testAdd_RepeatedNameCountedOnce() {
+        ScalableBloomFilter filter = new ScalableBloomFilter(100, 0.01);
+
+        assertTrue(filter.add("report.pdf"));
+        assertFalse(filter.add("report.pdf"));
+
+        assertEquals(1, filter.size());
+        assertFalse(filter.mightContain("invoice.pdf"));
+    }
+
+    /**
+     * Test case: Creating a filter with an invalid false-positive rate.
+     * <p>
+     * This test ensures that the rate must lie strictly between 0 and 1.
+     * </p>
+     */
+    @Test
+    void testConstructor_InvalidFalsePositiveRate() {
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ScalableBloomFilter(100, 1));
+    }
+}
@@ -0,0 +1,163 @@
+package turing.example.documentmanagement.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import turing.example.documentmanagement.entity.Document;
+import turing.example.documentmanagement.entity.DocumentVersion;
+import turing.example.documentmanagement.repository.DocumentRepository;
+import turing.example.documentmanagement.repository.DocumentVersionRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for {@link SecondLevelCacheConfig}.
+ * <p>
+ * This test class runs the JPA layer against an in-memory database and counts the SQL
+ * statements of repeated reads, and verifies that writes made the way {@code DocumentService}
+ * makes them are visible to the following reads.
+ * </p>
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(SecondLevelCacheConfig.class)
+@EnableConfigurationProperties(MetadataCacheProperties.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SecondLevelCacheConfigTest {
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private DocumentVersionRepository versionRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Test case: Reading the same document twice by ID.
+     * <p>
+     * Verifies that the second read is served from the cache without any statement.
+     * </p>
+     */
+    @Test
+    void testFindById_SecondReadFromCache() {
+        Long documentId = createDocument(2);
+        entityManagerFactory.getCache().evictAll();
+
+        statistics.clear();
+        assertTrue(documentRepository.findById(documentId).isPresent());
+        long firstRead = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        Document document = documentRepository.findById(documentId).orElseThrow();
+        assertEquals(2, document.getLatestVersion());
+        assertTrue(firstRead > 0);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    /**
+     * Test case: Reading the version history of a document twice.
+     * <p>
+     * Verifies that the second read takes the version IDs from the query cache and the versions
+     * and their document from the entity caches, without any statement.
+     * </p>
+     */
+    @Test
+    void testFindVersionHistory_SecondReadFromCache() {
+        Long documentId = createDocument(3);
+        entityManagerFactory.getCache().evictAll();
+
+        statistics.clear();
+        assertEquals(3, versionRepository.findByDocumentIdOrderByVersionDesc(documentId).size());
+        long firstRead = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        List<DocumentVersion> versions = versionRepository.findByDocumentIdOrderByVersionDesc(documentId);
+        assertEquals(List.of(3, 2, 1), versions.stream().map(DocumentVersion::getVersion).toList());
+        assertTrue(firstRead > 0);
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+    }
+
+    /**
+     * Test case: Adding a version after the document and its history have been cached.
+     * <p>
+     * Verifies that the document, its version collection and its cached history all reflect the
+     * new version, which is saved without being added to the document's collection.
+     * </p>
+     */
+    @Test
+    void testAddVersion_InvalidatesCachedReads() {
+        Long documentId = createDocument(1);
+        transactionTemplate.executeWithoutResult(status ->
+                assertEquals(1, documentRepository.findById(documentId).orElseThrow().getVersions().size()));
+        assertEquals(1, versionRepository.findByDocumentIdOrderByVersionDesc(documentId).size());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            Document document = documentRepository.findByIdForUpdate(documentId).orElseThrow();
+            addVersion(document, 2);
+        });
+
+        assertEquals(2, documentRepository.findById(documentId).orElseThrow().getLatestVersion());
+        transactionTemplate.executeWithoutResult(status ->
+                assertEquals(2, documentRepository.findById(documentId).orElseThrow().getVersions().size()));
+        List<DocumentVersion> versions = versionRepository.findByDocumentIdOrderByVersionDesc(documentId);
+        assertEquals(List.of(2, 1), versions.stream().map(DocumentVersion::getVersion).toList());
+    }
+
+    private Long createDocument(int versionCount) {
+        return transactionTemplate.execute(status -> {
+            Document document = new Document();
+            document.setName("cached-" + UUID.randomUUID() + ".txt");
+            document.setOwner("alice");
+            document.setCreatedAt(LocalDateTime.now());
+            documentRepository.save(document);
+            for (int number = 1; number <= versionCount; number++) {
+                addVersion(document, number);
+            }
+            return document.getId();
+        });
+    }
+
+    // Mirrors DocumentService: the version points at the document, whose pointer is moved
+    private void addVersion(Document document, int number) {
+        DocumentVersion version = new DocumentVersion();
+        version.setFilePath("uploads/" + document.getName() + "-" + number);
+        version.setVersion(number);
+        version.setUploadedAt(LocalDateTime.now());
+        version.setDocument(document);
+        versionRepository.save(version);
+        document.setLatestVersion(number);
+        document.setLatestVersionId(version.getId());
+    }
+}
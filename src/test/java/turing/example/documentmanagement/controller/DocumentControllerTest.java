@@ -4,19 +4,39 @@ import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import turing.example.documentmanagement.dto.DocumentResponse;
+import turing.example.documentmanagement.entity.AuditAction;
 import turing.example.documentmanagement.entity.Document;
+import turing.example.documentmanagement.entity.DocumentVersion;
+import turing.example.documentmanagement.entity.VersionStorageMode;
+import turing.example.documentmanagement.exception.DocumentNotFoundException;
+import turing.example.documentmanagement.repository.DocumentVersionRepository;
+import turing.example.documentmanagement.service.AuditTrailWriter;
+import turing.example.documentmanagement.service.BatchUploadService;
+import turing.example.documentmanagement.service.DocumentSearchService;
 import turing.example.documentmanagement.service.DocumentService;
+import turing.example.documentmanagement.storage.DeltaCodec;
+import turing.example.documentmanagement.storage.VersionContentReader;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 
 /**
@@ -33,13 +53,32 @@ class DocumentControllerTest {
     @Mock
     private DocumentService documentService;
 
-    @InjectMocks
+    @Mock
+    private BatchUploadService batchUploadService;
+
+    @Mock
+    private AuditTrailWriter auditTrailWriter;
+
+    @Mock
+    private DocumentSearchService searchService;
+
+    @Mock
+    private DocumentVersionRepository versionRepository;
+
+    private DocumentDownloadWriter downloadWriter;
+
+    @TempDir
+    Path storageDir;
+
     private DocumentController documentController;
 
     @BeforeEach
     void setUp() {
         // Initialize mocks and setup the controller for testing
         MockitoAnnotations.openMocks(this);
+        downloadWriter = new DocumentDownloadWriter(new VersionContentReader(versionRepository));
+        documentController = new DocumentController(documentService, batchUploadService, downloadWriter,
+                auditTrailWriter, searchService);
         mockMvc = MockMvcBuilders.standaloneSetup(documentController).build();
     }
 
@@ -47,7 +86,8 @@ class DocumentControllerTest {
      * Test case: Successfully uploading a document.
      * <p>
      * This test verifies that a valid file upload request returns HTTP 201 Created
-     * and the document details in the response.
+     * and the document details in the response, and that the authenticated user is passed on
+     * as the uploader.
      * </p>
      */
     @Test
@@ -64,19 +104,68 @@ class DocumentControllerTest {
         mockDocument.setOwner("JohnDoe");
 
         // Define service behavior
-        when(documentService.uploadDocument(any(MultipartFile.class), eq("JohnDoe"))).thenReturn(mockDocument);
+        when(documentService.uploadDocument(any(MultipartFile.class), eq("JohnDoe"), eq("alice"))).thenReturn(mockDocument);
+        when(documentService.getDocument(1L)).thenReturn(new DocumentResponse(1L, "test-document.txt", "JohnDoe",
+                LocalDateTime.of(2024, 3, 1, 12, 0), 1, "uploads/abc"));
 
         // Perform the request
         mockMvc.perform(multipart("/documents/upload")
                         .file(mockFile)
-                        .param("owner", "JohnDoe"))
+                        .param("owner", "JohnDoe")
+                        .with(request -> {
+                            request.setRemoteUser("alice");
+                            return request;
+                        }))
                 .andExpect(status().isCreated()) // Expect HTTP 201 Created
                 .andExpect(jsonPath("$.id").value(1L))
                 .andExpect(jsonPath("$.name").value("test-document.txt"))
                 .andExpect(jsonPath("$.owner").value("JohnDoe"));
 
         // Verify service method was called
-        verify(documentService, times(1)).uploadDocument(any(MultipartFile.class), eq("JohnDoe"));
+        // The authenticated user is recorded as the uploader, not the owner named in the request
+        verify(documentService, times(1)).uploadDocument(any(MultipartFile.class), eq("JohnDoe"), eq("alice"));
+    }
+
+    /**
+     * Test case: Uploading a new version of an existing document.
+     * <p>
+     * The service returns the existing document, whose versions refer back to it. This test
+     * verifies that both uploads answer with the document's metadata instead of serialising the
+     * entity graph, which never ends.
+     * </p>
+     */
+    @Test
+    void testUploadDocument_SameNameTwice() throws Exception {
+        Document document = new Document();
+        document.setId(1L);
+        document.setName("same.txt");
+        document.setOwner("JohnDoe");
+        DocumentVersion first = new DocumentVersion();
+        first.setVersion(1);
+        first.setDocument(document);
+        DocumentVersion second = new DocumentVersion();
+        second.setVersion(2);
+        second.setDocument(document);
+        document.setVersions(new ArrayList<>(List.of(first, second)));
+
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 12, 0);
+        when(documentService.uploadDocument(any(MultipartFile.class), eq("JohnDoe"), eq(AuditTrailWriter.ANONYMOUS)))
+                .thenReturn(document);
+        when(documentService.getDocument(1L)).thenReturn(
+                new DocumentResponse(1L, "same.txt", "JohnDoe", createdAt, 1, "uploads/v1"),
+                new DocumentResponse(1L, "same.txt", "JohnDoe", createdAt, 2, "uploads/v2"));
+
+        for (int version = 1; version <= 2; version++) {
+            MockMultipartFile file = new MockMultipartFile(
+                    "file", "same.txt", MediaType.TEXT_PLAIN_VALUE, ("content " + version).getBytes());
+            mockMvc.perform(multipart("/documents/upload")
+                            .file(file)
+                            .param("owner", "JohnDoe"))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.id").value(1L))
+                    .andExpect(jsonPath("$.latestVersion").value(version))
+                    .andExpect(jsonPath("$.versions").doesNotExist());
+        }
     }
 
     /**
@@ -100,7 +189,7 @@ class DocumentControllerTest {
                 .andExpect(content().string("File is empty. Please upload a valid document."));
 
         // Ensure service method is NOT called
-        verify(documentService, never()).uploadDocument(any(MultipartFile.class), anyString());
+        verify(documentService, never()).uploadDocument(any(MultipartFile.class), anyString(), anyString());
     }
 
     /**
@@ -118,7 +207,7 @@ class DocumentControllerTest {
         );
 
         // Simulate an exception in service layer
-        when(documentService.uploadDocument(any(MultipartFile.class), eq("JohnDoe")))
+        when(documentService.uploadDocument(any(MultipartFile.class), eq("JohnDoe"), eq(AuditTrailWriter.ANONYMOUS)))
                 .thenThrow(new RuntimeException("Database error"));
 
         // Perform the request
@@ -129,6 +218,164 @@ class DocumentControllerTest {
                 .andExpect(content().string("An error occurred while uploading the document: Database error"));
 
         // Verify service method was called once
-        verify(documentService, times(1)).uploadDocument(any(MultipartFile.class), eq("JohnDoe"));
+        verify(documentService, times(1))
+                .uploadDocument(any(MultipartFile.class), eq("JohnDoe"), eq(AuditTrailWriter.ANONYMOUS));
+    }
+
+    /**
+     * Test case: Downloading the latest version of a document.
+     * <p>
+     * This test verifies that the full content is returned with a strong ETag
+     * and an {@code Accept-Ranges} header.
+     * </p>
+     */
+    @Test
+    void testDownloadLatestVersion_Success() throws Exception {
+        when(documentService.getLatestVersion(1L)).thenReturn(storedVersion("Hello, range world!"));
+
+        mockMvc.perform(get("/documents/1/content"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc123\""))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 19))
+                .andExpect(content().string("Hello, range world!"));
+
+        verify(auditTrailWriter, times(1)).record(AuditAction.DOWNLOAD, 1L, "anonymous");
+    }
+
+    /**
+     * Test case: Downloading a byte range of a specific version.
+     * <p>
+     * This test verifies that a {@code Range} request is answered with HTTP 206 Partial Content
+     * and only the requested bytes.
+     * </p>
+     */
+    @Test
+    void testDownloadVersion_Range() throws Exception {
+        when(documentService.getVersion(1L, 2)).thenReturn(storedVersion("Hello, range world!"));
+
+        mockMvc.perform(get("/documents/1/versions/2/content").header(HttpHeaders.RANGE, "bytes=7-11"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 7-11/19"))
+                .andExpect(content().string("range"));
+    }
+
+    /**
+     * Test case: Requesting a range beyond the end of the content.
+     * <p>
+     * This test verifies that the API responds with HTTP 416 Range Not Satisfiable.
+     * </p>
+     */
+    @Test
+    void testDownloadVersion_UnsatisfiableRange() throws Exception {
+        when(documentService.getVersion(1L, 2)).thenReturn(storedVersion("Hello, range world!"));
+
+        mockMvc.perform(get("/documents/1/versions/2/content").header(HttpHeaders.RANGE, "bytes=100-200"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */19"));
+    }
+
+    /**
+     * Test case: Downloading a byte range of a version stored as a delta.
+     * <p>
+     * This test verifies that the version is reconstructed from its base version
+     * before the requested range is served.
+     * </p>
+     */
+    @Test
+    void testDownloadVersion_DeltaRange() throws Exception {
+        DocumentVersion base = storedVersion("Hello, range world!");
+        when(versionRepository.findByDocumentIdAndVersion(1L, 2)).thenReturn(Optional.of(base));
+
+        byte[] oldContent = "Hello, older range world!".getBytes(StandardCharsets.UTF_8);
+        Path deltaFile = Files.write(storageDir.resolve("delta"),
+                DeltaCodec.encode("Hello, range world!".getBytes(StandardCharsets.UTF_8), oldContent));
+        DocumentVersion deltaVersion = new DocumentVersion();
+        deltaVersion.setFilePath(deltaFile.toString());
+        deltaVersion.setContentHash("old123");
+        deltaVersion.setSize(oldContent.length);
+        deltaVersion.setVersion(1);
+        deltaVersion.setStorageMode(VersionStorageMode.DELTA);
+        deltaVersion.setDeltaBaseVersion(2);
+        deltaVersion.setUploadedAt(LocalDateTime.of(2024, 3, 20, 10, 0));
+        deltaVersion.setDocument(base.getDocument());
+        when(documentService.getVersion(1L, 1)).thenReturn(deltaVersion);
+
+        mockMvc.perform(get("/documents/1/versions/1/content").header(HttpHeaders.RANGE, "bytes=7-11"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 7-11/25"))
+                .andExpect(content().string("older"));
+    }
+
+    /**
+     * Test case: Retrieving document metadata.
+     * <p>
+     * This test verifies that the metadata, including the latest version, is returned as JSON.
+     * </p>
+     */
+    @Test
+    void testGetDocument_Success() throws Exception {
+        DocumentResponse response = new DocumentResponse(1L, "test-document.txt", "JohnDoe",
+                LocalDateTime.of(2024, 3, 20, 10, 0), 5, "uploads/abc123");
+        when(documentService.getDocument(1L)).thenReturn(response);
+
+        mockMvc.perform(get("/documents/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("test-document.txt"))
+                .andExpect(jsonPath("$.latestVersion").value(5))
+                .andExpect(jsonPath("$.filePath").value("uploads/abc123"));
+    }
+
+    /**
+     * Test case: Conditional download with a matching ETag.
+     * <p>
+     * This test verifies that the API responds with HTTP 304 Not Modified and no body
+     * when the client already holds the current content.
+     * </p>
+     */
+    @Test
+    void testDownloadLatestVersion_NotModified() throws Exception {
+        when(documentService.getLatestVersion(1L)).thenReturn(storedVersion("Hello, range world!"));
+
+        mockMvc.perform(get("/documents/1/content").header(HttpHeaders.IF_NONE_MATCH, "\"abc123\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(auditTrailWriter, never()).record(any(), any(), any());
+    }
+
+    /**
+     * Test case: Downloading a document that does not exist.
+     * <p>
+     * This test verifies that the API responds with HTTP 404 Not Found.
+     * </p>
+     */
+    @Test
+    void testDownloadLatestVersion_NotFound() throws Exception {
+        when(documentService.getLatestVersion(99L)).thenThrow(new DocumentNotFoundException("Document with ID 99 not found"));
+
+        mockMvc.perform(get("/documents/99/content"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Document with ID 99 not found"));
+    }
+
+    /**
+     * Creates a document version whose content is stored in the temporary storage directory.
+     */
+    private DocumentVersion storedVersion(String content) throws Exception {
+        Path file = Files.writeString(storageDir.resolve("abc123"), content);
+
+        Document document = new Document();
+        document.setId(1L);
+        document.setName("greeting.txt");
+
+        DocumentVersion version = new DocumentVersion();
+        version.setFilePath(file.toString());
+        version.setContentHash("abc123");
+        version.setSize(content.length());
+        version.setVersion(2);
+        version.setUploadedAt(LocalDateTime.of(2024, 3, 21, 10, 0));
+        version.setDocument(document);
+        return version;
     }
 }
@@ -0,0 +1,65 @@
+package turing.example.documentmanagement.derivative;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import turing.example.documentmanagement.config.DerivativeProperties;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link ImageThumbnailGenerator}.
+ * <p>
+ * This test class verifies which images are supported and how thumbnails are scaled.
+ * </p>
+ */
+class ImageThumbnailGeneratorTest {
+
+    private final DerivativeProperties properties = new DerivativeProperties();
+    private final ImageThumbnailGenerator generator = new ImageThumbnailGenerator(properties);
+
+    /**
+     * Test case: Scaling a landscape image.
+     * <p>
+     * Verifies that the thumbnail is a PNG whose longest edge is the configured size, keeping the aspect ratio.
+     * </p>
+     */
+    @Test
+    void testGenerate_ScalesToThumbnailSize() throws Exception {
+        GeneratedDerivative thumbnail = generator.generate(new ByteArrayInputStream(image(800, 400, "jpeg")));
+
+        BufferedImage result = ImageIO.read(new ByteArrayInputStream(thumbnail.content()));
+        assertEquals(MediaType.IMAGE_PNG_VALUE, thumbnail.contentType());
+        assertEquals(256, result.getWidth());
+        assertEquals(128, result.getHeight());
+    }
+
+    /**
+     * Test case: Supported media types and invalid content.
+     * <p>
+     * Verifies that only decodable image types are supported, and that oversized or corrupt
+     * images are rejected.
+     * </p>
+     */
+    @Test
+    void testGenerate_RejectsUnsupportedContent() throws Exception {
+        assertTrue(generator.supports(MediaType.IMAGE_PNG));
+        assertFalse(generator.supports(MediaType.parseMediaType("image/svg+xml")));
+        assertFalse(generator.supports(MediaType.APPLICATION_PDF));
+
+        properties.setMaxImagePixels(100);
+        assertThrows(IOException.class, () -> generator.generate(new ByteArrayInputStream(image(20, 20, "png"))));
+        assertThrows(IOException.class, () -> generator.generate(new ByteArrayInputStream("not an image".getBytes())));
+    }
+
+    private static byte[] image(int width, int height, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), format, out);
+        return out.toByteArray();
+    }
+}
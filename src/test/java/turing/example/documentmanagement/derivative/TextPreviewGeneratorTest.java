@@ -0,0 +1,55 @@
+package turing.example.documentmanagement.derivative;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import turing.example.documentmanagement.config.DerivativeProperties;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link TextPreviewGenerator}.
+ * <p>
+ * This test class verifies which documents get previews and where previews are cut.
+ * </p>
+ */
+class TextPreviewGeneratorTest {
+
+    private final DerivativeProperties properties = new DerivativeProperties();
+    private final TextPreviewGenerator generator = new TextPreviewGenerator(properties);
+
+    /**
+     * Test case: Previewing a long text.
+     * <p>
+     * Verifies that the preview ends at the last complete line within the configured length.
+     * </p>
+     */
+    @Test
+    void testGenerate_CutsAtLastCompleteLine() throws Exception {
+        properties.setPreviewLength(20);
+
+        GeneratedDerivative preview = generator.generate(new ByteArrayInputStream(
+                "first line\nsecond line\nthird line\n".getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals("first line\n", new String(preview.content(), StandardCharsets.UTF_8));
+        assertTrue(preview.contentType().startsWith(MediaType.TEXT_PLAIN_VALUE));
+    }
+
+    /**
+     * Test case: Supported media types.
+     * <p>
+     * Verifies that textual types are supported and binary ones are not.
+     * </p>
+     */
+    @Test
+    void testSupports_TextualTypesOnly() {
+        assertTrue(generator.supports(MediaType.TEXT_PLAIN));
+        assertTrue(generator.supports(MediaType.parseMediaType("text/csv")));
+        assertTrue(generator.supports(MediaType.APPLICATION_JSON));
+        assertTrue(generator.supports(MediaType.parseMediaType("application/ld+json")));
+        assertFalse(generator.supports(MediaType.IMAGE_PNG));
+        assertFalse(generator.supports(MediaType.APPLICATION_OCTET_STREAM));
+    }
+}
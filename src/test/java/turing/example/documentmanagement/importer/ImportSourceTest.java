@@ -0,0 +1,102 @@
+package turing.example.documentmanagement.importer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link ImportSource} and its implementations.
+ * <p>
+ * This test class verifies that directory trees and ZIP archives are enumerated in a stable
+ * order with their relative paths as names, and that a checkpoint can be skipped.
+ * </p>
+ */
+class ImportSourceTest {
+
+    @TempDir
+    Path root;
+
+    /**
+     * Test case: Enumerating a directory tree.
+     * <p>
+     * Verifies that files are returned depth first, sorted by name, and that directories are left out.
+     * </p>
+     */
+    @Test
+    void testDirectory_SortedDepthFirst() throws Exception {
+        Path tree = Files.createDirectories(root.resolve("tree"));
+        Files.writeString(tree.resolve("b.txt"), "B");
+        Files.createDirectories(tree.resolve("a/empty"));
+        Files.writeString(tree.resolve("a/z.txt"), "Z");
+        Files.writeString(tree.resolve("a/y.txt"), "YY");
+        Files.writeString(tree.resolve("c.txt"), "C");
+
+        try (ImportSource source = ImportSource.open(tree)) {
+            assertInstanceOf(DirectoryImportSource.class, source);
+            List<ImportEntry> entries = drain(source);
+            assertEquals(List.of("a/y.txt", "a/z.txt", "b.txt", "c.txt"), entries.stream().map(ImportEntry::name).toList());
+            assertEquals(2, entries.get(0).size());
+            try (InputStream in = entries.get(0).content().getInputStream()) {
+                assertEquals("YY", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+
+        try (ImportSource source = ImportSource.open(tree)) {
+            assertEquals(3, source.skip(3));
+            assertEquals("c.txt", source.next().name());
+            assertFalse(source.hasNext());
+            assertEquals(0, source.skip(1));
+        }
+    }
+
+    /**
+     * Test case: Enumerating a ZIP archive.
+     * <p>
+     * Verifies that file entries are returned in archive order and can be read.
+     * </p>
+     */
+    @Test
+    void testZip_ArchiveOrder() throws Exception {
+        Path archive = root.resolve("import.zip");
+        try (ZipOutputStream zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            zip.putNextEntry(new ZipEntry("docs/"));
+            zip.closeEntry();
+            write(zip, "docs/second.txt", "2");
+            write(zip, "first.txt", "one");
+        }
+
+        try (ImportSource source = ImportSource.open(archive)) {
+            assertInstanceOf(ZipImportSource.class, source);
+            List<ImportEntry> entries = drain(source);
+            assertEquals(List.of("docs/second.txt", "first.txt"), entries.stream().map(ImportEntry::name).toList());
+            assertEquals(3, entries.get(1).size());
+            try (InputStream in = entries.get(1).content().getInputStream()) {
+                assertEquals("one", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+    }
+
+    private static void write(ZipOutputStream zip, String name, String content) throws Exception {
+        zip.putNextEntry(new ZipEntry(name));
+        OutputStream out = zip;
+        out.write(content.getBytes(StandardCharsets.UTF_8));
+        zip.closeEntry();
+    }
+
+    private static List<ImportEntry> drain(ImportSource source) {
+        List<ImportEntry> entries = new ArrayList<>();
+        source.forEachRemaining(entries::add);
+        return entries;
+    }
+}
@@ -0,0 +1,81 @@
+package turing.example.documentmanagement.repository;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import turing.example.documentmanagement.config.MetadataCacheProperties;
+import turing.example.documentmanagement.config.SecondLevelCacheConfig;
+import turing.example.documentmanagement.entity.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test for {@link DocumentRepository}.
+ * <p>
+ * This test class runs the repository against an in-memory database and verifies that the
+ * locking lookups by name are backed by a unique index.
+ * </p>
+ */
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(SecondLevelCacheConfig.class)
+@EnableConfigurationProperties(MetadataCacheProperties.class)
+class DocumentRepositoryTest {
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Test case: The schema created for the document table.
+     * <p>
+     * Verifies that the name column is indexed on its own, so the locking lookups by name do not
+     * scan the table.
+     * </p>
+     */
+    @Test
+    void testSchema_NameIsUniquelyIndexed() {
+        List<?> indexes = entityManager.createNativeQuery(
+                        "select i.index_name from information_schema.indexes i "
+                                + "join information_schema.index_columns c on c.index_name = i.index_name "
+                                + "and c.table_name = i.table_name "
+                                + "where i.table_name = 'DOCUMENT' and i.index_type_name = 'UNIQUE INDEX' "
+                                + "and c.column_name = 'NAME' and c.ordinal_position = 1")
+                .getResultList();
+
+        assertEquals(1, indexes.size());
+    }
+
+    /**
+     * Test case: Locking documents by name, and saving a name twice.
+     * <p>
+     * Verifies that the locking lookups find the documents, and that a second document with an
+     * existing name is rejected.
+     * </p>
+     */
+    @Test
+    void testFindByNameForUpdate_UniqueNames() {
+        save("a.txt");
+        save("b.txt");
+
+        assertTrue(documentRepository.findByNameForUpdate("a.txt").isPresent());
+        assertEquals(2, documentRepository.findByNameInForUpdate(List.of("a.txt", "b.txt", "c.txt")).size());
+        assertThrows(DataIntegrityViolationException.class, () -> save("a.txt"));
+    }
+
+    private void save(String name) {
+        Document document = new Document();
+        document.setName(name);
+        document.setOwner("alice");
+        document.setCreatedAt(LocalDateTime.now());
+        documentRepository.saveAndFlush(document);
+    }
+}
@@ -0,0 +1,146 @@
+package turing.example.documentmanagement.search;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import turing.example.documentmanagement.config.SearchProperties;
+import turing.example.documentmanagement.entity.Document;
+import turing.example.documentmanagement.entity.DocumentVersion;
+import turing.example.documentmanagement.repository.DocumentVersionRepository;
+import turing.example.documentmanagement.storage.VersionContentReader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for {@link DocumentIndex}.
+ * <p>
+ * This test class verifies indexing, ranked search and the catch-up at startup against a
+ * Lucene index in a temporary directory.
+ * </p>
+ */
+class DocumentIndexTest {
+
+    @TempDir
+    Path root;
+
+    @Mock
+    private DocumentVersionRepository versionRepository;
+
+    private DocumentIndex documentIndex;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        SearchProperties properties = new SearchProperties();
+        properties.setIndexDir(root.resolve("index").toString());
+        properties.setCatchUpPageSize(2);
+        documentIndex = new DocumentIndex(properties, versionRepository, new VersionContentReader(versionRepository));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        documentIndex.close();
+    }
+
+    /**
+     * Test case: Searching by content.
+     * <p>
+     * Verifies that documents are found by the words they contain, best match first.
+     * </p>
+     */
+    @Test
+    void testSearch_FindsDocumentsByContent() throws Exception {
+        documentIndex.index(version(1L, "report.txt", 1, "Quarterly revenue grew. Revenue, revenue, revenue."));
+        documentIndex.index(version(2L, "notes.md", 1, "Meeting notes: revenue was discussed briefly."));
+        documentIndex.index(version(3L, "photo.png", 1, "revenue"));
+
+        List<DocumentIndex.Hit> hits = documentIndex.search("revenue", 10);
+
+        // The binary file is only indexed by name
+        assertEquals(List.of(1L, 2L), hits.stream().map(DocumentIndex.Hit::documentId).toList());
+        assertTrue(hits.get(0).score() > hits.get(1).score());
+    }
+
+    /**
+     * Test case: Indexing a newer version of a document.
+     * <p>
+     * Verifies that the entry is replaced and that an older version cannot overwrite it afterwards.
+     * </p>
+     */
+    @Test
+    void testIndex_NewerVersionReplacesOlder() throws Exception {
+        documentIndex.index(version(1L, "plan.txt", 2, "second draft with budget"));
+        documentIndex.index(version(1L, "plan.txt", 1, "first draft with timeline"));
+
+        assertEquals(1, documentIndex.search("budget", 10).size());
+        assertTrue(documentIndex.search("timeline", 10).isEmpty());
+
+        documentIndex.index(version(1L, "plan.txt", 3, "final version with timeline"));
+
+        assertTrue(documentIndex.search("budget", 10).isEmpty());
+        assertEquals(1, documentIndex.search("timeline", 10).size());
+        assertEquals(1, documentIndex.search("name:plan", 10).size());
+    }
+
+    /**
+     * Test case: Catching up with documents stored while the index was not fed.
+     * <p>
+     * Verifies that the latest versions are read page by page, and that only documents missing
+     * from the index or indexed at an older version are indexed.
+     * </p>
+     */
+    @Test
+    void testIndexMissingVersions_IndexesMissingAndOutdatedDocuments() throws Exception {
+        DocumentVersion current = version(1L, "current.txt", 2, "already indexed");
+        DocumentVersion outdated = version(2L, "outdated.txt", 3, "third draft");
+        DocumentVersion missing = version(3L, "missing.txt", 1, "never indexed");
+        current.setId(10L);
+        outdated.setId(20L);
+        missing.setId(30L);
+        documentIndex.index(current);
+        documentIndex.index(version(2L, "outdated.txt", 2, "second draft"));
+        when(versionRepository.findLatestPageAfter(eq(0L), any(Pageable.class))).thenReturn(List.of(current, outdated));
+        when(versionRepository.findLatestPageAfter(eq(20L), any(Pageable.class))).thenReturn(List.of(missing));
+
+        assertEquals(2, documentIndex.indexMissingVersions());
+
+        assertEquals(1, documentIndex.search("third", 10).size());
+        assertTrue(documentIndex.search("second", 10).isEmpty());
+        assertEquals(List.of(3L), documentIndex.search("never", 10).stream().map(DocumentIndex.Hit::documentId).toList());
+    }
+
+    /**
+     * Test case: Searching with invalid query syntax.
+     * <p>
+     * Verifies that parse errors are reported as invalid arguments.
+     * </p>
+     */
+    @Test
+    void testSearch_InvalidQuery() {
+        assertThrows(IllegalArgumentException.class, () -> documentIndex.search("revenue AND (", 10));
+    }
+
+    private DocumentVersion version(Long documentId, String name, int number, String content) throws Exception {
+        Document document = new Document();
+        document.setId(documentId);
+        document.setName(name);
+
+        DocumentVersion version = new DocumentVersion();
+        version.setDocument(document);
+        version.setVersion(number);
+        version.setFilePath(Files.writeString(root.resolve(documentId + "-" + number), content).toString());
+        return version;
+    }
+}
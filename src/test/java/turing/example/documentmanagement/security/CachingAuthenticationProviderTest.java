@@ -0,0 +1,97 @@
+package turing.example.documentmanagement.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link CachingAuthenticationProvider}.
+ * <p>
+ * This test class verifies that verified credentials are accepted without the wrapped provider
+ * and that any other credentials still reach it.
+ * </p>
+ */
+class CachingAuthenticationProviderTest {
+
+    @Mock
+    private AuthenticationProvider delegate;
+
+    private CachingAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        provider = new CachingAuthenticationProvider(delegate, 100, Duration.ofMinutes(5));
+        when(delegate.authenticate(any())).thenAnswer(invocation -> {
+            Authentication request = invocation.getArgument(0);
+            if (!"admin123".equals(request.getCredentials())) {
+                throw new BadCredentialsException("Bad credentials");
+            }
+            return UsernamePasswordAuthenticationToken.authenticated(request.getName(), null,
+                    AuthorityUtils.createAuthorityList("ROLE_ADMIN"));
+        });
+    }
+
+    /**
+     * Test case: Repeated authentication with the same credentials.
+     * <p>
+     * Verifies that only the first attempt is verified by the wrapped provider.
+     * </p>
+     */
+    @Test
+    void testAuthenticate_RemembersVerifiedCredentials() {
+        Authentication first = provider.authenticate(credentials("admin", "admin123"));
+        Authentication second = provider.authenticate(credentials("admin", "admin123"));
+
+        assertTrue(second.isAuthenticated());
+        assertEquals("admin", second.getName());
+        assertEquals(first.getAuthorities(), second.getAuthorities());
+        verify(delegate, times(1)).authenticate(any());
+    }
+
+    /**
+     * Test case: Authentication with a wrong password after a successful one.
+     * <p>
+     * Verifies that the wrong password is passed on to the wrapped provider and rejected.
+     * </p>
+     */
+    @Test
+    void testAuthenticate_WrongPasswordIsVerified() {
+        provider.authenticate(credentials("admin", "admin123"));
+
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(credentials("admin", "guess")));
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    /**
+     * Test case: Authentication after the remembered credentials were invalidated.
+     * <p>
+     * Verifies that the credentials are verified by the wrapped provider again.
+     * </p>
+     */
+    @Test
+    void testInvalidateAll() {
+        provider.authenticate(credentials("admin", "admin123"));
+        provider.invalidateAll();
+        provider.authenticate(credentials("admin", "admin123"));
+
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    private static Authentication credentials(String username, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+    }
+}
@@ -0,0 +1,108 @@
+package turing.example.documentmanagement.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import turing.example.documentmanagement.config.AuthProperties;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link TokenService}.
+ * <p>
+ * This test class verifies that issued tokens carry the user and authorities, and that
+ * tampered, foreign and expired tokens are rejected.
+ * </p>
+ */
+class TokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2024-03-01T12:00:00Z");
+    private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+    private AuthProperties properties;
+    private TokenService tokenService;
+    private Authentication admin;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AuthProperties();
+        properties.setTokenSecret(SECRET);
+        properties.setTokenTtl(Duration.ofMinutes(15));
+        tokenService = new TokenService(properties, Clock.fixed(NOW, ZoneOffset.UTC));
+        admin = UsernamePasswordAuthenticationToken.authenticated("admin", null,
+                AuthorityUtils.createAuthorityList("ROLE_ADMIN", "ROLE_USER"));
+    }
+
+    /**
+     * Test case: Verifying an issued token.
+     * <p>
+     * Verifies that the token authenticates the user with the authorities it was issued for.
+     * </p>
+     */
+    @Test
+    void testVerify_IssuedToken() {
+        TokenService.IssuedToken issued = tokenService.issue(admin);
+        assertEquals(NOW.plus(Duration.ofMinutes(15)), issued.expiresAt());
+
+        Authentication verified = tokenService.verify(issued.token());
+        assertNotNull(verified);
+        assertTrue(verified.isAuthenticated());
+        assertEquals("admin", verified.getName());
+        assertEquals(admin.getAuthorities(), verified.getAuthorities());
+    }
+
+    /**
+     * Test case: Verifying modified or foreign tokens.
+     * <p>
+     * Verifies that a changed payload, a token signed with another secret and garbage are rejected.
+     * </p>
+     */
+    @Test
+    void testVerify_RejectsForgedTokens() {
+        String token = tokenService.issue(admin).token();
+        String[] parts = token.split("\\.");
+        String longerExpiry = parts[0] + "." + (Long.parseLong(parts[1]) + 3600) + "." + parts[2] + "." + parts[3];
+        assertNull(tokenService.verify(longerExpiry));
+
+        properties.setTokenSecret(SECRET.toUpperCase());
+        TokenService otherInstance = new TokenService(properties, Clock.fixed(NOW, ZoneOffset.UTC));
+        assertNull(otherInstance.verify(token));
+
+        assertNull(tokenService.verify("not-a-token"));
+        assertNull(tokenService.verify("a.b.c.d"));
+        assertNull(tokenService.verify(""));
+    }
+
+    /**
+     * Test case: Verifying an expired token.
+     * <p>
+     * Verifies that a token is rejected once its lifetime has passed.
+     * </p>
+     */
+    @Test
+    void testVerify_RejectsExpiredToken() {
+        String token = tokenService.issue(admin).token();
+        TokenService later = new TokenService(properties,
+                Clock.fixed(NOW.plus(Duration.ofMinutes(15)), ZoneOffset.UTC));
+        assertNull(later.verify(token));
+    }
+
+    /**
+     * Test case: Configuring a short secret.
+     * <p>
+     * Verifies that secrets shorter than 32 bytes are refused.
+     * </p>
+     */
+    @Test
+    void testShortSecretIsRefused() {
+        properties.setTokenSecret("too-short");
+        assertThrows(IllegalStateException.class, () -> new TokenService(properties));
+    }
+}
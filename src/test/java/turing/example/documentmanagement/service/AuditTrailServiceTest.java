@@ -0,0 +1,148 @@
+package turing.example.documentmanagement.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import turing.example.documentmanagement.audit.AuditPartitioning;
+import turing.example.documentmanagement.config.AuditProperties;
+import turing.example.documentmanagement.dto.AuditEntry;
+import turing.example.documentmanagement.dto.AuditPage;
+import turing.example.documentmanagement.repository.AuditTrailRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link AuditTrailService}.
+ * <p>
+ * This test class verifies the keyset pagination of the audit trail and the partition
+ * maintenance derived from the retention settings.
+ * </p>
+ */
+class AuditTrailServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 3, 1, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 4, 1, 0, 0);
+
+    @Mock
+    private AuditTrailRepository auditTrailRepository;
+
+    @Mock
+    private AuditPartitioning partitioning;
+
+    private AuditProperties properties;
+    private AuditTrailService auditTrailService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new AuditProperties();
+        auditTrailService = new AuditTrailService(auditTrailRepository, partitioning, properties);
+    }
+
+    /**
+     * Test case: Paging through the entries of a document.
+     * <p>
+     * Verifies that the first page starts at the end of the time range and that the cursor of a
+     * full page continues after its last entry.
+     * </p>
+     */
+    @Test
+    void testFindByDocument_Pages() {
+        AuditEntry newest = entry(3L, FROM.plusDays(3));
+        AuditEntry middle = entry(2L, FROM.plusDays(2));
+        AuditEntry oldest = entry(1L, FROM.plusDays(2));
+        when(auditTrailRepository.findPageByDocument(eq(7L), eq(FROM), eq(TO), eq(Long.MIN_VALUE), any(Pageable.class)))
+                .thenReturn(List.of(newest, middle, oldest));
+        when(auditTrailRepository.findPageByDocument(eq(7L), eq(FROM), eq(FROM.plusDays(2)), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of(oldest));
+
+        AuditPage first = auditTrailService.findByDocument(7L, FROM, TO, null, 2);
+        assertEquals(List.of(newest, middle), first.getItems());
+        assertNotNull(first.getNextCursor());
+
+        AuditPage second = auditTrailService.findByDocument(7L, FROM, TO, first.getNextCursor(), 2);
+        assertEquals(List.of(oldest), second.getItems());
+        assertNull(second.getNextCursor());
+        verify(auditTrailRepository, times(2)).findPageByDocument(eq(7L), any(), any(), any(),
+                argThat(page -> page.getPageSize() == 3));
+    }
+
+    /**
+     * Test case: Listing entries without a time range.
+     * <p>
+     * Verifies that an open range is bounded by fixed dates rather than rejected.
+     * </p>
+     */
+    @Test
+    void testFindByUser_OpenRange() {
+        when(auditTrailRepository.findPageByUser(eq("alice"), any(), any(), eq(Long.MIN_VALUE), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        assertTrue(auditTrailService.findByUser("alice", null, null, null, 10).getItems().isEmpty());
+        verify(auditTrailRepository).findPageByUser(eq("alice"),
+                argThat(from -> from.getYear() == 1970), argThat(to -> to.getYear() == 9999), eq(Long.MIN_VALUE), any());
+    }
+
+    /**
+     * Test case: Listing entries with invalid parameters.
+     * <p>
+     * Verifies that an empty time range, a malformed cursor and an oversized page are rejected.
+     * </p>
+     */
+    @Test
+    void testFindInRange_InvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> auditTrailService.findInRange(TO, FROM, null, 10));
+        assertThrows(IllegalArgumentException.class, () -> auditTrailService.findInRange(FROM, TO, "not a cursor", 10));
+        assertThrows(IllegalArgumentException.class, () -> auditTrailService.findInRange(FROM, TO, null, 501));
+        verifyNoInteractions(auditTrailRepository);
+    }
+
+    /**
+     * Test case: Maintaining the partitions.
+     * <p>
+     * Verifies that the months ahead are prepared and that only months lying completely outside
+     * the retention period are expired.
+     * </p>
+     */
+    @Test
+    void testMaintainPartitions() {
+        properties.getPartitions().setRetention(Duration.ofDays(90));
+        properties.getPartitions().setPremadeMonths(2);
+        properties.getPartitions().setExpiredPolicy(AuditProperties.ExpiredPolicy.DROP);
+
+        auditTrailService.maintainPartitions(LocalDateTime.of(2024, 6, 15, 8, 0));
+
+        verify(partitioning).prepare(YearMonth.of(2024, 6), YearMonth.of(2024, 8));
+        // 90 days before 15 June is 17 March: February is the last month entirely before it
+        verify(partitioning).expire(YearMonth.of(2024, 3), AuditProperties.ExpiredPolicy.DROP);
+    }
+
+    /**
+     * Test case: Maintaining the partitions without a retention period.
+     * <p>
+     * Verifies that nothing is expired.
+     * </p>
+     */
+    @Test
+    void testMaintainPartitions_KeepsEverything() {
+        properties.getPartitions().setRetention(Duration.ZERO);
+
+        auditTrailService.maintainPartitions(LocalDateTime.of(2024, 6, 15, 8, 0));
+
+        verify(partitioning).prepare(any(), any());
+        verify(partitioning, never()).expire(any(), any());
+    }
+
+    private static AuditEntry entry(Long id, LocalDateTime timestamp) {
+        return new AuditEntry(id, "UPLOAD", "alice", timestamp, 7L);
+    }
+}
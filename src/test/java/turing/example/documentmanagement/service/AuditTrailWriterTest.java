@@ -0,0 +1,163 @@
+package turing.example.documentmanagement.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import turing.example.documentmanagement.config.AuditProperties;
+import turing.example.documentmanagement.entity.AuditAction;
+import turing.example.documentmanagement.entity.AuditTrail;
+import turing.example.documentmanagement.entity.Document;
+import turing.example.documentmanagement.repository.AuditTrailRepository;
+import turing.example.documentmanagement.repository.DocumentRepository;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link AuditTrailWriter}.
+ * <p>
+ * This test class verifies that audit events are written in batches off the calling
+ * thread, that the overflow policy applies when the queue is full, and that shutdown
+ * writes every queued event.
+ * </p>
+ */
+class AuditTrailWriterTest {
+
+    @Mock
+    private AuditTrailRepository auditTrailRepository;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private AuditProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        properties = new AuditProperties();
+        when(documentRepository.getReferenceById(anyLong())).thenAnswer(invocation -> {
+            Document document = new Document();
+            document.setId(invocation.getArgument(0));
+            return document;
+        });
+    }
+
+    /**
+     * Test case: Events recorded in quick succession.
+     * <p>
+     * Verifies that the events are written together in one batch by the background thread.
+     * </p>
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testRecord_WritesBatches() throws Exception {
+        properties.setFlushSize(3);
+        properties.setFlushInterval(Duration.ofSeconds(10));
+        AuditTrailWriter writer = new AuditTrailWriter(auditTrailRepository, documentRepository, properties,
+                transactionManager);
+        writer.start();
+
+        writer.record(AuditAction.UPLOAD, 1L, "alice");
+        writer.record(AuditAction.DOWNLOAD, 1L, "bob");
+        writer.record(AuditAction.DELETE, 2L, "alice");
+
+        ArgumentCaptor<List<AuditTrail>> batch = ArgumentCaptor.forClass(List.class);
+        verify(auditTrailRepository, timeout(5000)).saveAll(batch.capture());
+        assertEquals(3, batch.getValue().size());
+        assertEquals("DOWNLOAD", batch.getValue().get(1).getAction());
+        assertEquals("bob", batch.getValue().get(1).getPerformedBy());
+        assertEquals(2L, batch.getValue().get(2).getDocument().getId());
+
+        writer.shutdown();
+        assertEquals(3, writer.getWrittenCount());
+    }
+
+    /**
+     * Test case: The queue is full and the DROP policy applies.
+     * <p>
+     * Verifies that surplus events are counted as dropped and that shutdown writes the queued ones.
+     * </p>
+     */
+    @Test
+    void testRecord_DropsWhenFullAndFlushesOnShutdown() throws Exception {
+        properties.setQueueCapacity(2);
+        AuditTrailWriter writer = new AuditTrailWriter(auditTrailRepository, documentRepository, properties,
+                transactionManager);
+        // The background thread is not started, so the queue fills up
+
+        writer.record(AuditAction.UPLOAD, 1L, "alice");
+        writer.record(AuditAction.UPLOAD, 2L, "alice");
+        writer.record(AuditAction.UPLOAD, 3L, "alice");
+
+        assertEquals(1, writer.getDroppedCount());
+        assertEquals(2, writer.getQueueSize());
+
+        writer.shutdown();
+
+        verify(auditTrailRepository, times(1)).saveAll(argThat(entries -> entries.spliterator().getExactSizeIfKnown() == 2));
+        assertEquals(0, writer.getQueueSize());
+        assertEquals(2, writer.getWrittenCount());
+    }
+
+    /**
+     * Test case: The queue is full and the CALLER_RUNS policy applies.
+     * <p>
+     * Verifies that the surplus event is written synchronously instead of being lost.
+     * </p>
+     */
+    @Test
+    void testRecord_CallerRunsWhenFull() {
+        properties.setQueueCapacity(1);
+        properties.setOverflowPolicy(AuditProperties.OverflowPolicy.CALLER_RUNS);
+        AuditTrailWriter writer = new AuditTrailWriter(auditTrailRepository, documentRepository, properties,
+                transactionManager);
+
+        writer.record(AuditAction.UPLOAD, 1L, "alice");
+        writer.record(AuditAction.UPLOAD, 2L, "alice");
+
+        assertEquals(0, writer.getDroppedCount());
+        assertEquals(1, writer.getWrittenCount());
+        verify(auditTrailRepository, times(1)).saveAll(anyList());
+    }
+
+    /**
+     * Test case: A caller blocked on a full queue gets its event in while the writer shuts down.
+     * <p>
+     * Verifies that the event is written even if it entered the queue after the final drain.
+     * </p>
+     */
+    @Test
+    void testRecord_EventOfferedDuringShutdownIsWritten() throws Exception {
+        properties.setQueueCapacity(1);
+        properties.setOverflowPolicy(AuditProperties.OverflowPolicy.BLOCK);
+        properties.setBlockTimeout(Duration.ofSeconds(10));
+        AuditTrailWriter writer = new AuditTrailWriter(auditTrailRepository, documentRepository, properties,
+                transactionManager);
+        writer.record(AuditAction.UPLOAD, 1L, "alice");
+
+        Thread caller = new Thread(() -> writer.record(AuditAction.UPLOAD, 2L, "bob"));
+        caller.start();
+        while (caller.getState() != Thread.State.TIMED_WAITING) {
+            Thread.onSpinWait();
+        }
+
+        writer.shutdown();
+        caller.join(5000);
+
+        assertFalse(caller.isAlive());
+        assertEquals(0, writer.getQueueSize());
+        assertEquals(2, writer.getWrittenCount());
+        assertEquals(0, writer.getDroppedCount());
+    }
+}
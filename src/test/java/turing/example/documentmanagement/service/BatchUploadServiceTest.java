@@ -0,0 +1,129 @@
+package turing.example.documentmanagement.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+import turing.example.documentmanagement.config.StorageProperties;
+import turing.example.documentmanagement.dto.BatchUploadResult;
+import turing.example.documentmanagement.entity.ContentBlob;
+import turing.example.documentmanagement.entity.Document;
+import turing.example.documentmanagement.entity.DocumentVersion;
+import turing.example.documentmanagement.metrics.DocumentMetrics;
+import turing.example.documentmanagement.storage.BlobStore;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link BatchUploadService}.
+ * <p>
+ * This test class verifies that batch uploads report one result per file and that
+ * failures are confined to the files they affect.
+ * </p>
+ */
+class BatchUploadServiceTest {
+
+    private static final String OWNER = "JohnDoe";
+    private static final String UPLOADER = "JaneRoe";
+
+    @Mock
+    private BlobStore blobStore;
+
+    @Mock
+    private DocumentService documentService;
+
+    private BatchUploadService batchUploadService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        StorageProperties properties = new StorageProperties();
+        properties.setUploadThreads(2);
+        batchUploadService = new BatchUploadService(blobStore, documentService, properties,
+                new DocumentMetrics(new SimpleMeterRegistry()));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        batchUploadService.shutdown();
+    }
+
+    /**
+     * Test case: A batch with stored, empty and failing files.
+     * <p>
+     * Verifies that only the stored files are registered and that every file gets a result in request order.
+     * </p>
+     */
+    @Test
+    void testUploadDocuments_PerFileResults() throws Exception {
+        MultipartFile good = new MockMultipartFile("files", "a.txt", "text/plain", "A".getBytes());
+        MultipartFile empty = new MockMultipartFile("files", "empty.txt", "text/plain", new byte[0]);
+        MultipartFile broken = new MockMultipartFile("files", "b.txt", "text/plain", "B".getBytes());
+        ContentBlob blob = blob("hash-a");
+        when(blobStore.store(eq(good), any())).thenReturn(blob);
+        when(blobStore.store(eq(broken), any())).thenThrow(new IOException("Disk full"));
+        when(documentService.registerUploads(List.of("a.txt"), OWNER, UPLOADER, List.of(blob)))
+                .thenReturn(List.of(version(5L, 2, "hash-a")));
+
+        List<BatchUploadResult> results = batchUploadService.uploadDocuments(List.of(good, empty, broken), OWNER, UPLOADER);
+
+        assertEquals(3, results.size());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(5L, results.get(0).getDocumentId());
+        assertEquals(2, results.get(0).getVersion());
+        assertEquals("hash-a", results.get(0).getContentHash());
+        assertFalse(results.get(1).isSuccess());
+        assertEquals("empty.txt", results.get(1).getFileName());
+        assertFalse(results.get(2).isSuccess());
+        assertTrue(results.get(2).getError().contains("Disk full"));
+        verify(blobStore, never()).store(eq(empty), any());
+    }
+
+    /**
+     * Test case: The batch metadata cannot be saved.
+     * <p>
+     * Verifies that all stored files are reported as failed instead of failing the request.
+     * </p>
+     */
+    @Test
+    void testUploadDocuments_MetadataFailure() throws Exception {
+        MultipartFile first = new MockMultipartFile("files", "a.txt", "text/plain", "A".getBytes());
+        MultipartFile second = new MockMultipartFile("files", "b.txt", "text/plain", "B".getBytes());
+        when(blobStore.store(any(), any())).thenReturn(blob("hash"));
+        when(documentService.registerUploads(anyList(), eq(OWNER), eq(UPLOADER), anyList()))
+                .thenThrow(new RuntimeException("Database error"));
+
+        List<BatchUploadResult> results = batchUploadService.uploadDocuments(List.of(first, second), OWNER, UPLOADER);
+
+        assertTrue(results.stream().noneMatch(BatchUploadResult::isSuccess));
+        assertTrue(results.stream().allMatch(result -> result.getError().contains("Database error")));
+    }
+
+    private static ContentBlob blob(String hash) {
+        ContentBlob blob = new ContentBlob();
+        blob.setHash(hash);
+        blob.setPath("uploads/" + hash);
+        blob.setSize(1);
+        return blob;
+    }
+
+    private static DocumentVersion version(Long documentId, int number, String hash) {
+        Document document = new Document();
+        document.setId(documentId);
+        DocumentVersion version = new DocumentVersion();
+        version.setDocument(document);
+        version.setVersion(number);
+        version.setContentHash(hash);
+        return version;
+    }
+}
@@ -0,0 +1,274 @@
+package turing.example.documentmanagement.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import turing.example.documentmanagement.config.ImportProperties;
+import turing.example.documentmanagement.dto.ImportProgress;
+import turing.example.documentmanagement.entity.ContentBlob;
+import turing.example.documentmanagement.entity.ImportJob;
+import turing.example.documentmanagement.entity.ImportJobStatus;
+import turing.example.documentmanagement.metrics.DocumentMetrics;
+import turing.example.documentmanagement.repository.ImportJobRepository;
+import turing.example.documentmanagement.storage.BlobStore;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link BulkImportService}.
+ * <p>
+ * This test class verifies that imports record their files batch by batch together with a
+ * checkpoint, that a failed import resumes after its last checkpoint, and that only one import
+ * runs at a time.
+ * </p>
+ */
+class BulkImportServiceTest {
+
+    private static final String OWNER = "importer";
+    private static final String UPLOADER = "admin";
+
+    @TempDir
+    Path root;
+
+    @Mock
+    private ImportJobRepository jobRepository;
+
+    @Mock
+    private DocumentService documentService;
+
+    @Mock
+    private BlobStore blobStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BulkImportService importService;
+    private ImportJob job;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        ImportProperties properties = new ImportProperties();
+        properties.setRoot(root.toString());
+        properties.setThreads(2);
+        properties.setBatchSize(2);
+        importService = new BulkImportService(jobRepository, documentService, blobStore,
+                new DocumentMetrics(new SimpleMeterRegistry()), properties, transactionManager);
+
+        when(jobRepository.save(any(ImportJob.class))).thenAnswer(invocation -> {
+            job = invocation.getArgument(0);
+            return job;
+        });
+        when(jobRepository.findById(anyString())).thenAnswer(invocation -> Optional.ofNullable(job));
+        when(blobStore.store(any(InputStreamSource.class), anyString())).thenAnswer(invocation -> {
+            String name = invocation.getArgument(1);
+            return blob(name);
+        });
+        when(documentService.registerUploads(anyList(), eq(OWNER), eq(UPLOADER), anyList(), any(Runnable.class)))
+                .thenAnswer(invocation -> {
+                    invocation.<Runnable>getArgument(4).run();
+                    return List.of();
+                });
+
+        Path tree = Files.createDirectories(root.resolve("department"));
+        Files.writeString(tree.resolve("a.txt"), "A");
+        Files.writeString(tree.resolve("b.txt"), "");
+        Files.writeString(tree.resolve("c.txt"), "CC");
+        Files.writeString(tree.resolve("d.txt"), "DDD");
+        Files.writeString(tree.resolve("e.txt"), "EEEE");
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        importService.shutdown();
+    }
+
+    /**
+     * Test case: Importing a directory tree.
+     * <p>
+     * Verifies that every batch is recorded with its checkpoint and that empty files are skipped.
+     * </p>
+     */
+    @Test
+    void testStart_ImportsInBatches() throws Exception {
+        ImportProgress started = importService.start("department", OWNER, UPLOADER);
+        assertEquals(ImportJobStatus.RUNNING, started.getStatus());
+
+        ImportProgress finished = awaitFinished(started.getId());
+        assertEquals(ImportJobStatus.COMPLETED, finished.getStatus());
+        assertEquals(5, finished.getPosition());
+        assertEquals(4, finished.getImported());
+        assertEquals(1, finished.getSkipped());
+        assertEquals(10, finished.getBytes());
+
+        verify(documentService).registerUploads(eq(List.of("a.txt")), eq(OWNER), eq(UPLOADER), anyList(), any(Runnable.class));
+        verify(documentService).registerUploads(eq(List.of("c.txt", "d.txt")), eq(OWNER), eq(UPLOADER), anyList(), any(Runnable.class));
+        verify(documentService).registerUploads(eq(List.of("e.txt")), eq(OWNER), eq(UPLOADER), anyList(), any(Runnable.class));
+        verify(jobRepository).checkpoint(eq(started.getId()), eq(2L), eq(1L), eq(1L), eq(0L), eq(1L), any());
+        verify(jobRepository).checkpoint(eq(started.getId()), eq(5L), eq(1L), eq(0L), eq(0L), eq(4L), any());
+    }
+
+    /**
+     * Test case: A file that cannot be stored.
+     * <p>
+     * Verifies that the file is counted as failed while the rest of the batch is imported.
+     * </p>
+     */
+    @Test
+    void testStart_FailedFileIsSkipped() throws Exception {
+        when(blobStore.store(any(InputStreamSource.class), eq("c.txt"))).thenThrow(new IOException("Unreadable"));
+
+        ImportProgress finished = awaitFinished(importService.start("department", OWNER, UPLOADER).getId());
+        assertEquals(ImportJobStatus.COMPLETED, finished.getStatus());
+        assertEquals(3, finished.getImported());
+        assertEquals(1, finished.getFailed());
+        assertTrue(finished.getLastError().startsWith("c.txt"));
+        verify(documentService).registerUploads(eq(List.of("d.txt")), eq(OWNER), eq(UPLOADER), anyList(), any(Runnable.class));
+    }
+
+    /**
+     * Test case: Resuming an import whose metadata could not be recorded.
+     * <p>
+     * Verifies that the import fails without advancing its checkpoint, releases any blobs stored
+     * ahead, and resumes with the batch that failed.
+     * </p>
+     */
+    @Test
+    void testResume_ContinuesAfterCheckpoint() throws Exception {
+        when(documentService.registerUploads(eq(List.of("c.txt", "d.txt")), eq(OWNER), eq(UPLOADER), anyList(), any(Runnable.class)))
+                .thenThrow(new DataAccessResourceFailureException("Database unavailable"));
+
+        String id = importService.start("department", OWNER, UPLOADER).getId();
+        ImportProgress failed = awaitFinished(id);
+        assertEquals(ImportJobStatus.FAILED, failed.getStatus());
+        assertEquals(2, failed.getPosition());
+        // e.txt may have been stored while c.txt and d.txt were being recorded; then it is given back
+        long storedAhead = mockingDetails(blobStore).getInvocations().stream()
+                .filter(invocation -> invocation.getMethod().getName().equals("store")
+                        && "e.txt".equals(invocation.getArgument(1)))
+                .count();
+        verify(blobStore, times((int) storedAhead)).release("e.txt");
+
+        reset(documentService);
+        when(documentService.registerUploads(anyList(), eq(OWNER), eq(UPLOADER), anyList(), any(Runnable.class))).thenReturn(List.of());
+        importService.resume(id, UPLOADER);
+        ImportProgress resumed = awaitFinished(id);
+        assertEquals(ImportJobStatus.COMPLETED, resumed.getStatus());
+        assertEquals(5, resumed.getPosition());
+        verify(documentService).registerUploads(eq(List.of("c.txt", "d.txt")), eq(OWNER), eq(UPLOADER), anyList(), any(Runnable.class));
+        verify(documentService, never()).registerUploads(eq(List.of("a.txt")), any(), any(), anyList(), any(Runnable.class));
+
+        assertThrows(IllegalStateException.class, () -> importService.resume(id, UPLOADER));
+    }
+
+    /**
+     * Test case: Sources outside the import root.
+     * <p>
+     * Verifies that they are rejected before an import is created.
+     * </p>
+     */
+    @Test
+    void testStart_RejectsSourceOutsideRoot() {
+        assertThrows(IllegalArgumentException.class, () -> importService.start("../elsewhere", OWNER, UPLOADER));
+        assertThrows(IllegalArgumentException.class, () -> importService.start("missing", OWNER, UPLOADER));
+        verify(jobRepository, never()).save(any());
+    }
+
+    /**
+     * Test case: Starting an import while another is being recorded.
+     * <p>
+     * Verifies that the second request is refused at once instead of waiting for the database,
+     * and that the first import runs to completion.
+     * </p>
+     */
+    @Test
+    void testStart_RefusesConcurrentStartWithoutWaiting() throws Exception {
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            saving.countDown();
+            proceed.await();
+            job = invocation.getArgument(0);
+            return job;
+        }).doAnswer(invocation -> {
+            job = invocation.getArgument(0);
+            return job;
+        }).when(jobRepository).save(any(ImportJob.class));
+
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<ImportProgress> first = caller.submit(() -> importService.start("department", OWNER, UPLOADER));
+            assertTrue(saving.await(10, TimeUnit.SECONDS));
+
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                    assertThrows(IllegalStateException.class, () -> importService.start("department", OWNER, UPLOADER)));
+
+            proceed.countDown();
+            ImportProgress finished = awaitFinished(first.get(10, TimeUnit.SECONDS).getId());
+            assertEquals(ImportJobStatus.COMPLETED, finished.getStatus());
+        } finally {
+            proceed.countDown();
+            caller.shutdownNow();
+        }
+    }
+
+    /**
+     * Test case: An import that cannot be recorded.
+     * <p>
+     * Verifies that the running slot is given back, so the next import can start.
+     * </p>
+     */
+    @Test
+    void testStart_ReleasesSlotWhenRecordingFails() throws Exception {
+        doThrow(new DataAccessResourceFailureException("Database unavailable"))
+                .doAnswer(invocation -> {
+                    job = invocation.getArgument(0);
+                    return job;
+                }).when(jobRepository).save(any(ImportJob.class));
+
+        assertThrows(DataAccessResourceFailureException.class, () -> importService.start("department", OWNER, UPLOADER));
+
+        ImportProgress finished = awaitFinished(importService.start("department", OWNER, UPLOADER).getId());
+        assertEquals(ImportJobStatus.COMPLETED, finished.getStatus());
+    }
+
+    private ImportProgress awaitFinished(String id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        ImportProgress progress = importService.getProgress(id);
+        while (progress.getStatus() == ImportJobStatus.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            progress = importService.getProgress(id);
+        }
+        return progress;
+    }
+
+    private static ContentBlob blob(String hash) {
+        ContentBlob blob = new ContentBlob();
+        blob.setHash(hash);
+        // Matches the length of the file's content
+        blob.setSize(hash.equals("a.txt") ? 1 : hash.charAt(0) - 'a');
+        return blob;
+    }
+}
@@ -0,0 +1,329 @@
+package turing.example.documentmanagement.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+import turing.example.documentmanagement.config.StorageProperties;
+import turing.example.documentmanagement.dto.UploadSessionStatus;
+import turing.example.documentmanagement.entity.ContentBlob;
+import turing.example.documentmanagement.entity.Document;
+import turing.example.documentmanagement.entity.UploadSession;
+import turing.example.documentmanagement.entity.UploadSessionState;
+import turing.example.documentmanagement.metrics.DocumentMetrics;
+import turing.example.documentmanagement.repository.UploadChunkRepository;
+import turing.example.documentmanagement.repository.UploadSessionRepository;
+import turing.example.documentmanagement.storage.BlobStore;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link ChunkedUploadService}.
+ * <p>
+ * This test class verifies session set-up, positional chunk writes and the commit of
+ * resumable uploads against a temporary storage directory.
+ * </p>
+ */
+class ChunkedUploadServiceTest {
+
+    private static final String CONTENT = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final String OWNER = "JohnDoe";
+    private static final String UPLOADER = "JaneRoe";
+
+    @TempDir
+    Path root;
+
+    @Mock
+    private UploadSessionRepository sessionRepository;
+
+    @Mock
+    private UploadChunkRepository chunkRepository;
+
+    @Mock
+    private BlobStore blobStore;
+
+    @Mock
+    private DocumentService documentService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ChunkedUploadService chunkedUploadService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        StorageProperties properties = new StorageProperties();
+        properties.setRoot(root.toString());
+        chunkedUploadService = new ChunkedUploadService(sessionRepository, chunkRepository, blobStore,
+                documentService, properties, new DocumentMetrics(new SimpleMeterRegistry()), transactionManager);
+    }
+
+    /**
+     * Test case: Starting a session.
+     * <p>
+     * Verifies that the chunk layout is computed and the part file is pre-allocated to the full size.
+     * </p>
+     */
+    @Test
+    void testStartSession_PreallocatesPartFile() throws Exception {
+        UploadSessionStatus status = chunkedUploadService.startSession("big.bin", OWNER, CONTENT.length(), 10L);
+
+        assertEquals(10, status.getChunkSize());
+        assertEquals(4, status.getChunkCount());
+        assertEquals(List.of(0, 1, 2, 3), status.getMissingChunks());
+        assertEquals(CONTENT.length(), Files.size(root.resolve("sessions").resolve(status.getSessionId() + ".part")));
+    }
+
+    /**
+     * Test case: Uploading chunks out of order and in parallel, then committing.
+     * <p>
+     * Verifies that every chunk lands at its offset and the assembled file is handed to the blob store.
+     * </p>
+     */
+    @Test
+    void testWriteChunksInParallel_AndCommit() throws Exception {
+        UploadSession session = startSession();
+        when(chunkRepository.countBySessionId(session.getId())).thenReturn(4L);
+        when(sessionRepository.claimForCommit(session.getId(), UploadSessionState.COMMITTING)).thenReturn(1);
+        when(sessionRepository.deleteSession(session.getId())).thenReturn(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int index : new int[]{3, 1, 0, 2}) {
+                futures.add(executor.submit(() -> {
+                    sendChunk(session.getId(), index);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        AtomicReference<String> adoptedContent = new AtomicReference<>();
+        ContentBlob blob = new ContentBlob();
+        blob.setHash("hash");
+        when(blobStore.adopt(any(Path.class), any())).thenAnswer(invocation -> {
+            adoptedContent.set(Files.readString(invocation.getArgument(0)));
+            return blob;
+        });
+        Document document = new Document();
+        when(documentService.registerUpload("big.bin", OWNER, UPLOADER, blob)).thenReturn(document);
+
+        assertSame(document, chunkedUploadService.commit(session.getId(), UPLOADER));
+        assertEquals(CONTENT, adoptedContent.get());
+        verify(chunkRepository, times(4)).save(any());
+        verify(sessionRepository).deleteSession(session.getId());
+        assertFalse(Files.exists(partFile(session.getId())));
+    }
+
+    /**
+     * Test case: The metadata of a committed upload cannot be recorded.
+     * <p>
+     * Verifies that the session is reopened instead of deleted, that its part file keeps the
+     * assembled content although the blob store consumed the file it was given, and that the
+     * commit can be repeated.
+     * </p>
+     */
+    @Test
+    void testCommit_RegistrationFailureKeepsSession() throws Exception {
+        UploadSession session = startSession();
+        for (int index = 0; index < 4; index++) {
+            sendChunk(session.getId(), index);
+        }
+        when(chunkRepository.countBySessionId(session.getId())).thenReturn(4L);
+        when(sessionRepository.claimForCommit(session.getId(), UploadSessionState.COMMITTING)).thenReturn(1);
+        ContentBlob blob = new ContentBlob();
+        blob.setHash("hash");
+        // Like the real store, the adopted file is gone afterwards
+        when(blobStore.adopt(any(Path.class), any())).thenAnswer(invocation -> {
+            Files.delete(invocation.getArgument(0));
+            return blob;
+        });
+        Document document = new Document();
+        when(documentService.registerUpload("big.bin", OWNER, UPLOADER, blob))
+                .thenThrow(new RuntimeException("Database error"))
+                .thenReturn(document);
+
+        assertThrows(RuntimeException.class, () -> chunkedUploadService.commit(session.getId(), UPLOADER));
+
+        verify(sessionRepository).updateState(session.getId(), UploadSessionState.COMMITTING, UploadSessionState.OPEN);
+        verify(sessionRepository, never()).deleteSession(any());
+        assertEquals(CONTENT, Files.readString(partFile(session.getId())));
+
+        assertSame(document, chunkedUploadService.commit(session.getId(), UPLOADER));
+        verify(sessionRepository).deleteSession(session.getId());
+        assertFalse(Files.exists(partFile(session.getId())));
+    }
+
+    /**
+     * Test case: Committing or aborting a session that another commit has claimed.
+     * <p>
+     * Verifies that both are rejected as a conflict and leave the session alone.
+     * </p>
+     */
+    @Test
+    void testCommitAndAbort_SessionBeingCommitted() throws Exception {
+        UploadSession session = startSession();
+        when(chunkRepository.countBySessionId(session.getId())).thenReturn(4L);
+        when(sessionRepository.existsById(session.getId())).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> chunkedUploadService.commit(session.getId(), UPLOADER));
+        assertThrows(IllegalStateException.class, () -> chunkedUploadService.abort(session.getId()));
+
+        verify(blobStore, never()).adopt(any(Path.class), any());
+        verify(chunkRepository, never()).deleteBySessionId(any());
+        assertTrue(Files.exists(partFile(session.getId())));
+    }
+
+    /**
+     * Test case: Committing a session while a chunk is being re-sent.
+     * <p>
+     * Verifies that the commit claims the session only after the write in progress has finished,
+     * and that chunks sent after the claim are rejected without touching the part file.
+     * </p>
+     */
+    @Test
+    void testCommit_WaitsForChunkWriteInProgress() throws Exception {
+        UploadSession session = startSession();
+        for (int index = 0; index < 4; index++) {
+            sendChunk(session.getId(), index);
+        }
+        when(chunkRepository.countBySessionId(session.getId())).thenReturn(4L);
+        when(chunkRepository.existsBySessionIdAndChunkIndex(any(), anyInt())).thenReturn(true);
+        when(sessionRepository.claimForCommit(session.getId(), UploadSessionState.COMMITTING)).thenAnswer(invocation -> {
+            session.setState(UploadSessionState.COMMITTING);
+            return 1;
+        });
+        when(sessionRepository.deleteSession(session.getId())).thenReturn(1);
+        AtomicReference<String> adoptedContent = new AtomicReference<>();
+        ContentBlob blob = new ContentBlob();
+        blob.setHash("hash");
+        when(blobStore.adopt(any(Path.class), any())).thenAnswer(invocation -> {
+            adoptedContent.set(Files.readString(invocation.getArgument(0)));
+            return blob;
+        });
+
+        // A re-sent first chunk whose body arrives slowly
+        CountDownLatch reading = new CountDownLatch(1);
+        CountDownLatch proceed = new CountDownLatch(1);
+        InputStream slowBody = new SequenceInputStream(new ByteArrayInputStream("01234".getBytes(StandardCharsets.UTF_8)),
+                new InputStream() {
+                    private final InputStream rest = new ByteArrayInputStream("56789".getBytes(StandardCharsets.UTF_8));
+
+                    @Override
+                    public int read() throws IOException {
+                        reading.countDown();
+                        try {
+                            proceed.await();
+                        } catch (InterruptedException e) {
+                            throw new IOException(e);
+                        }
+                        return rest.read();
+                    }
+                });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> write = executor.submit(() -> {
+                chunkedUploadService.writeChunk(session.getId(), 0, slowBody, 10);
+                return null;
+            });
+            assertTrue(reading.await(10, TimeUnit.SECONDS));
+            Future<Document> commit = executor.submit(() -> chunkedUploadService.commit(session.getId(), UPLOADER));
+
+            Thread.sleep(200);
+            verify(sessionRepository, never()).claimForCommit(any(), any());
+            proceed.countDown();
+
+            write.get(10, TimeUnit.SECONDS);
+            commit.get(10, TimeUnit.SECONDS);
+        } finally {
+            proceed.countDown();
+            executor.shutdownNow();
+        }
+        assertEquals(CONTENT, adoptedContent.get());
+
+        assertThrows(IllegalStateException.class, () -> sendChunk(session.getId(), 1));
+    }
+
+    /**
+     * Test case: Committing a session with missing chunks.
+     * <p>
+     * Verifies that the commit is rejected and nothing is stored.
+     * </p>
+     */
+    @Test
+    void testCommit_IncompleteUpload() throws Exception {
+        UploadSession session = startSession();
+        when(chunkRepository.countBySessionId(session.getId())).thenReturn(3L);
+
+        assertThrows(IllegalStateException.class, () -> chunkedUploadService.commit(session.getId(), UPLOADER));
+        verify(blobStore, never()).adopt(any(Path.class), any());
+        verify(documentService, never()).registerUpload(any(), any(), any(), any());
+    }
+
+    /**
+     * Test case: Uploading a chunk with the wrong length.
+     * <p>
+     * Verifies that the chunk is rejected and not recorded as received.
+     * </p>
+     */
+    @Test
+    void testWriteChunk_WrongLength() throws Exception {
+        UploadSession session = startSession();
+
+        byte[] tooShort = "0123".getBytes(StandardCharsets.UTF_8);
+        assertThrows(IllegalArgumentException.class, () -> chunkedUploadService.writeChunk(
+                session.getId(), 0, new ByteArrayInputStream(tooShort), tooShort.length));
+        verify(chunkRepository, never()).save(any());
+    }
+
+    private UploadSession startSession() throws Exception {
+        chunkedUploadService.startSession("big.bin", OWNER, CONTENT.length(), 10L);
+        ArgumentCaptor<UploadSession> saved = ArgumentCaptor.forClass(UploadSession.class);
+        verify(sessionRepository).save(saved.capture());
+        when(sessionRepository.findById(saved.getValue().getId())).thenReturn(Optional.of(saved.getValue()));
+        return saved.getValue();
+    }
+
+    private Path partFile(String sessionId) {
+        return root.resolve("sessions").resolve(sessionId + ".part");
+    }
+
+    private void sendChunk(String sessionId, int index) throws Exception {
+        byte[] content = CONTENT.getBytes(StandardCharsets.UTF_8);
+        byte[] chunk = Arrays.copyOfRange(content, index * 10, Math.min(content.length, (index + 1) * 10));
+        chunkedUploadService.writeChunk(sessionId, index, new ByteArrayInputStream(chunk), chunk.length);
+    }
+}
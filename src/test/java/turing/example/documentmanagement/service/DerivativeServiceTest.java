@@ -0,0 +1,226 @@
+package turing.example.documentmanagement.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import turing.example.documentmanagement.config.DerivativeProperties;
+import turing.example.documentmanagement.derivative.ImageThumbnailGenerator;
+import turing.example.documentmanagement.derivative.TextPreviewGenerator;
+import turing.example.documentmanagement.entity.ContentBlob;
+import turing.example.documentmanagement.entity.DerivativeJob;
+import turing.example.documentmanagement.entity.DerivativeKind;
+import turing.example.documentmanagement.entity.DerivativeStatus;
+import turing.example.documentmanagement.entity.Document;
+import turing.example.documentmanagement.entity.DocumentVersion;
+import turing.example.documentmanagement.repository.ContentBlobRepository;
+import turing.example.documentmanagement.repository.DerivativeJobRepository;
+import turing.example.documentmanagement.repository.DocumentVersionRepository;
+import turing.example.documentmanagement.storage.BlobStore;
+import turing.example.documentmanagement.storage.VersionContentReader;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link DerivativeService}.
+ * <p>
+ * This test class verifies which jobs are queued for new versions and how jobs are completed,
+ * retried and failed.
+ * </p>
+ */
+class DerivativeServiceTest {
+
+    private static final String PREVIEW_HASH = "b".repeat(64);
+
+    @Mock
+    private DerivativeJobRepository jobRepository;
+
+    @Mock
+    private DocumentVersionRepository versionRepository;
+
+    @Mock
+    private ContentBlobRepository blobRepository;
+
+    @Mock
+    private VersionContentReader contentReader;
+
+    @Mock
+    private BlobStore blobStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DerivativeProperties properties;
+    private DerivativeService derivativeService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        properties = new DerivativeProperties();
+        properties.setWorkerThreads(1);
+        derivativeService = new DerivativeService(jobRepository, versionRepository, blobRepository, contentReader,
+                blobStore, List.of(new ImageThumbnailGenerator(properties), new TextPreviewGenerator(properties)),
+                properties, transactionManager);
+        when(jobRepository.complete(anyLong(), eq(DerivativeStatus.RUNNING), any(), anyInt(), any(), any(), any(),
+                anyLong(), any())).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        derivativeService.shutdown();
+    }
+
+    /**
+     * Test case: Queueing the derivatives of new versions.
+     * <p>
+     * Verifies that one job is queued per supporting generator, and none for unsupported types.
+     * </p>
+     */
+    @Test
+    void testEnqueue_OneJobPerSupportingGenerator() {
+        derivativeService.enqueue(List.of(version(1L, "photo.png"), version(2L, "notes.txt"),
+                version(3L, "archive.zip")));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<DerivativeJob>> jobs = ArgumentCaptor.forClass(List.class);
+        verify(jobRepository).saveAll(jobs.capture());
+        assertEquals(2, jobs.getValue().size());
+        assertEquals(1L, jobs.getValue().get(0).getVersionId());
+        assertEquals(DerivativeKind.THUMBNAIL, jobs.getValue().get(0).getKind());
+        assertEquals(2L, jobs.getValue().get(1).getVersionId());
+        assertEquals(DerivativeKind.PREVIEW, jobs.getValue().get(1).getKind());
+        assertTrue(jobs.getValue().stream().allMatch(job -> job.getStatus() == DerivativeStatus.PENDING));
+    }
+
+    /**
+     * Test case: Processing a job.
+     * <p>
+     * Verifies that the generated derivative is stored as a blob and the job is marked as done.
+     * </p>
+     */
+    @Test
+    void testProcess_StoresDerivative() throws Exception {
+        DerivativeJob job = job(DerivativeKind.PREVIEW);
+        DocumentVersion version = version(2L, "notes.txt");
+        when(jobRepository.findById(10L)).thenReturn(Optional.of(job));
+        when(versionRepository.findById(2L)).thenReturn(Optional.of(version));
+        when(contentReader.open(version)).thenReturn(
+                new ByteArrayInputStream("Meeting notes".getBytes(StandardCharsets.UTF_8)));
+        ContentBlob blob = new ContentBlob();
+        blob.setHash(PREVIEW_HASH);
+        blob.setSize(13);
+        when(blobStore.store(any(InputStreamSource.class), eq("preview.txt"))).thenReturn(blob);
+
+        derivativeService.process(10L);
+
+        assertEquals(DerivativeStatus.DONE, job.getStatus());
+        assertEquals(PREVIEW_HASH, job.getBlobKey());
+        assertEquals(13, job.getSize());
+        verify(jobRepository).complete(eq(10L), eq(DerivativeStatus.RUNNING), eq(DerivativeStatus.DONE), eq(0),
+                isNull(), eq(PREVIEW_HASH), eq("text/plain;charset=UTF-8"), eq(13L), any());
+        verify(blobStore, never()).release(any());
+    }
+
+    /**
+     * Test case: Finishing a job that was returned to the queue while it ran.
+     * <p>
+     * Verifies that the outcome is not recorded over the other claim's, and that the stored
+     * derivative is released instead of leaking.
+     * </p>
+     */
+    @Test
+    void testProcess_RequeuedJobReleasesDerivative() throws Exception {
+        DerivativeJob job = job(DerivativeKind.PREVIEW);
+        DocumentVersion version = version(2L, "notes.txt");
+        when(jobRepository.findById(10L)).thenReturn(Optional.of(job));
+        when(versionRepository.findById(2L)).thenReturn(Optional.of(version));
+        when(contentReader.open(version)).thenReturn(
+                new ByteArrayInputStream("Meeting notes".getBytes(StandardCharsets.UTF_8)));
+        ContentBlob blob = new ContentBlob();
+        blob.setHash(PREVIEW_HASH);
+        when(blobStore.store(any(InputStreamSource.class), eq("preview.txt"))).thenReturn(blob);
+        // Another worker has already recorded its outcome
+        when(jobRepository.complete(anyLong(), any(), any(), anyInt(), any(), any(), any(), anyLong(), any()))
+                .thenReturn(0);
+
+        derivativeService.process(10L);
+
+        verify(blobStore).release(PREVIEW_HASH);
+        verify(jobRepository, never()).save(any());
+    }
+
+    /**
+     * Test case: A failing job.
+     * <p>
+     * Verifies that a failed attempt is queued again until the attempts are exhausted.
+     * </p>
+     */
+    @Test
+    void testProcess_RetriesUntilAttemptsExhausted() throws Exception {
+        properties.setMaxAttempts(2);
+        DerivativeJob job = job(DerivativeKind.THUMBNAIL);
+        DocumentVersion version = version(2L, "photo.png");
+        when(jobRepository.findById(10L)).thenReturn(Optional.of(job));
+        when(versionRepository.findById(2L)).thenReturn(Optional.of(version));
+        when(contentReader.open(version)).thenAnswer(invocation -> new ByteArrayInputStream(new byte[]{1, 2, 3}));
+
+        derivativeService.process(10L);
+        assertEquals(DerivativeStatus.PENDING, job.getStatus());
+        assertEquals(1, job.getAttempts());
+        assertNotNull(job.getLastError());
+
+        derivativeService.process(10L);
+        assertEquals(DerivativeStatus.FAILED, job.getStatus());
+        assertEquals(2, job.getAttempts());
+        verifyNoInteractions(blobStore);
+    }
+
+    /**
+     * Test case: A job whose version has been deleted.
+     * <p>
+     * Verifies that the job fails right away without reading any content.
+     * </p>
+     */
+    @Test
+    void testProcess_MissingVersionFails() {
+        DerivativeJob job = job(DerivativeKind.THUMBNAIL);
+        when(jobRepository.findById(10L)).thenReturn(Optional.of(job));
+        when(versionRepository.findById(2L)).thenReturn(Optional.empty());
+
+        derivativeService.process(10L);
+
+        assertEquals(DerivativeStatus.FAILED, job.getStatus());
+        verifyNoInteractions(contentReader, blobStore);
+    }
+
+    private static DerivativeJob job(DerivativeKind kind) {
+        DerivativeJob job = new DerivativeJob();
+        job.setId(10L);
+        job.setVersionId(2L);
+        job.setKind(kind);
+        job.setStatus(DerivativeStatus.RUNNING);
+        return job;
+    }
+
+    private static DocumentVersion version(Long id, String name) {
+        Document document = new Document();
+        document.setName(name);
+        DocumentVersion version = new DocumentVersion();
+        version.setId(id);
+        version.setDocument(document);
+        version.setSize(100);
+        return version;
+    }
+}
@@ -0,0 +1,271 @@
+package turing.example.documentmanagement.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import turing.example.documentmanagement.config.StorageProperties;
+import turing.example.documentmanagement.dto.DocumentResponse;
+import turing.example.documentmanagement.entity.Document;
+import turing.example.documentmanagement.entity.DocumentVersion;
+import turing.example.documentmanagement.entity.VersionStorageMode;
+import turing.example.documentmanagement.repository.DocumentRepository;
+import turing.example.documentmanagement.repository.DocumentVersionRepository;
+import turing.example.documentmanagement.storage.CompressionPolicy;
+import turing.example.documentmanagement.storage.VersionContentReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link DocumentExportService}.
+ * <p>
+ * This test class verifies the entries of the exported archives, how they are compressed,
+ * and that versions are read page by page.
+ * </p>
+ */
+class DocumentExportServiceTest {
+
+    private static final LocalDateTime UPLOADED_AT = LocalDateTime.of(2024, 3, 1, 12, 30, 0);
+
+    @TempDir
+    Path root;
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private DocumentVersionRepository versionRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private StorageProperties properties;
+    private DocumentExportService exportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        properties = new StorageProperties();
+        properties.getExport().setPageSize(2);
+        exportService = new DocumentExportService(documentRepository, versionRepository,
+                new VersionContentReader(versionRepository), new CompressionPolicy(properties),
+                entityManager, properties);
+    }
+
+    /**
+     * Test case: Exporting the version history of a document.
+     * <p>
+     * Verifies that every version becomes an entry, that versions are read page by page and
+     * that the persistence context is cleared after every page.
+     * </p>
+     */
+    @Test
+    void testExportDocument_WritesAllVersions() throws Exception {
+        Document document = document(1L, "report.txt");
+        DocumentVersion first = version(document, 1, "first draft");
+        DocumentVersion second = version(document, 2, "second draft");
+        DocumentVersion third = version(document, 3, "final");
+        when(versionRepository.findByDocumentIdAndVersionGreaterThanOrderByVersionAsc(eq(1L), eq(0), any(Pageable.class)))
+                .thenReturn(List.of(first, second));
+        when(versionRepository.findByDocumentIdAndVersionGreaterThanOrderByVersionAsc(eq(1L), eq(2), any(Pageable.class)))
+                .thenReturn(List.of(third));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportDocument(1L, out);
+
+        Map<String, ZipEntry> entries = new LinkedHashMap<>();
+        Map<String, String> contents = read(out.toByteArray(), entries);
+        assertEquals(List.of("v1/report.txt", "v2/report.txt", "v3/report.txt"), List.copyOf(contents.keySet()));
+        assertEquals("second draft", contents.get("v2/report.txt"));
+        assertEquals(ZipEntry.DEFLATED, entries.get("v1/report.txt").getMethod());
+        assertEquals(UPLOADED_AT, entries.get("v1/report.txt").getTimeLocal());
+        verify(entityManager, times(2)).clear();
+    }
+
+    /**
+     * Test case: Exporting documents whose names map to the same entry name.
+     * <p>
+     * Verifies that the later document's entries get its ID added, so the archive is complete,
+     * with only the latest and with all versions.
+     * </p>
+     */
+    @Test
+    void testExportOwner_CollidingNamesGetDocumentId() throws Exception {
+        Document slashed = document(1L, "a/b.txt");
+        Document underscored = document(2L, "a_b.txt");
+        DocumentVersion first = version(slashed, 1, "slashed");
+        DocumentVersion second = version(underscored, 1, "underscored");
+        DocumentVersion third = version(underscored, 2, "underscored again");
+        when(documentRepository.findPageByOwner(eq("alice"), any(Pageable.class))).thenReturn(List.of(
+                new DocumentResponse(1L, "a/b.txt", "alice", UPLOADED_AT, 1, first.getFilePath()),
+                new DocumentResponse(2L, "a_b.txt", "alice", UPLOADED_AT, 2, third.getFilePath())));
+        when(documentRepository.findPageByOwnerAfter(eq("alice"), any(), eq(2L), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(versionRepository.findLatestByDocumentIdIn(List.of(1L, 2L))).thenReturn(List.of(first, third));
+        when(versionRepository.findPageByDocumentIdInAfter(eq(List.of(1L, 2L)), eq(0L), eq(0), any(Pageable.class)))
+                .thenReturn(List.of(first, second));
+        when(versionRepository.findPageByDocumentIdInAfter(eq(List.of(1L, 2L)), eq(2L), eq(1), any(Pageable.class)))
+                .thenReturn(List.of(third));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportOwner("alice", false, out);
+        assertEquals(Map.of("a_b.txt", "slashed", "a_b~2.txt", "underscored again"),
+                read(out.toByteArray(), new LinkedHashMap<>()));
+
+        out = new ByteArrayOutputStream();
+        exportService.exportOwner("alice", true, out);
+        assertEquals(Map.of("a_b.txt/v1/a_b.txt", "slashed",
+                        "a_b~2.txt/v1/a_b.txt", "underscored",
+                        "a_b~2.txt/v2/a_b.txt", "underscored again"),
+                read(out.toByteArray(), new LinkedHashMap<>()));
+    }
+
+    /**
+     * Test case: Exporting the latest versions of an owner's documents.
+     * <p>
+     * Verifies that already compressed formats are stored rather than deflated.
+     * </p>
+     */
+    @Test
+    void testExportOwner_StoresPrecompressedEntries() throws Exception {
+        DocumentVersion image = version(document(1L, "photo.png"), 1, "not really a png");
+        DocumentVersion text = version(document(2L, "notes.txt"), 4, "some notes");
+        when(documentRepository.findPageByOwner(eq("alice"), any(Pageable.class))).thenReturn(List.of(
+                new DocumentResponse(1L, "photo.png", "alice", UPLOADED_AT, 1, image.getFilePath())));
+        when(versionRepository.findLatestByDocumentIdIn(List.of(1L))).thenReturn(List.of(image));
+        when(documentRepository.findPageByOwner(eq("bob"), any(Pageable.class))).thenReturn(List.of(
+                new DocumentResponse(2L, "notes.txt", "bob", UPLOADED_AT, 4, text.getFilePath())));
+        when(versionRepository.findPageByDocumentIdInAfter(eq(List.of(2L)), eq(0L), eq(0), any(Pageable.class)))
+                .thenReturn(List.of(text));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportOwner("alice", false, out);
+        Map<String, ZipEntry> entries = new LinkedHashMap<>();
+        Map<String, String> contents = read(out.toByteArray(), entries);
+        assertEquals("not really a png", contents.get("photo.png"));
+        assertEquals(ZipEntry.STORED, entries.get("photo.png").getMethod());
+
+        out = new ByteArrayOutputStream();
+        exportService.exportOwner("bob", true, out);
+        contents = read(out.toByteArray(), new LinkedHashMap<>());
+        assertEquals(Map.of("notes.txt/v4/notes.txt", "some notes"), contents);
+        verify(documentRepository, never()).findPageByOwnerAfter(any(), any(), any(), any());
+    }
+
+    /**
+     * Test case: Exporting all versions of an owner's documents.
+     * <p>
+     * Verifies that the versions are read page by page, seeking past the last version of each
+     * page even where a page ends inside a document's history, and that the persistence context
+     * is cleared after every page.
+     * </p>
+     */
+    @Test
+    void testExportOwner_PagesThroughAllVersions() throws Exception {
+        Document report = document(2L, "report.txt");
+        Document notes = document(3L, "notes.txt");
+        when(documentRepository.findPageByOwner(eq("alice"), any(Pageable.class))).thenReturn(List.of(
+                new DocumentResponse(2L, "report.txt", "alice", UPLOADED_AT, 3, null),
+                new DocumentResponse(3L, "notes.txt", "alice", UPLOADED_AT, 1, null)));
+        when(documentRepository.findPageByOwnerAfter(eq("alice"), any(), eq(3L), any(Pageable.class)))
+                .thenReturn(List.of());
+        when(versionRepository.findPageByDocumentIdInAfter(eq(List.of(2L, 3L)), eq(0L), eq(0), any(Pageable.class)))
+                .thenReturn(List.of(version(report, 1, "first draft"), version(report, 2, "second draft")));
+        when(versionRepository.findPageByDocumentIdInAfter(eq(List.of(2L, 3L)), eq(2L), eq(2), any(Pageable.class)))
+                .thenReturn(List.of(version(report, 3, "final"), version(notes, 1, "some notes")));
+        when(versionRepository.findPageByDocumentIdInAfter(eq(List.of(2L, 3L)), eq(3L), eq(1), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.exportOwner("alice", true, out);
+
+        Map<String, String> contents = read(out.toByteArray(), new LinkedHashMap<>());
+        assertEquals(List.of("report.txt/v1/report.txt", "report.txt/v2/report.txt", "report.txt/v3/report.txt",
+                "notes.txt/v1/notes.txt"), List.copyOf(contents.keySet()));
+        assertEquals("final", contents.get("report.txt/v3/report.txt"));
+        verify(versionRepository, times(3)).findPageByDocumentIdInAfter(any(), any(), anyInt(), any(Pageable.class));
+        verify(entityManager, times(3)).clear();
+    }
+
+    /**
+     * Test case: Exporting a version whose file does not match its recorded size.
+     * <p>
+     * Verifies that the export fails instead of producing an archive with silently altered content.
+     * </p>
+     */
+    @Test
+    void testExportDocument_TruncatedContent() throws Exception {
+        DocumentVersion version = version(document(1L, "report.txt"), 1, "complete content");
+        version.setSize(version.getSize() + 1);
+        when(versionRepository.findByDocumentIdAndVersionGreaterThanOrderByVersionAsc(eq(1L), eq(0), any(Pageable.class)))
+                .thenReturn(List.of(version));
+
+        assertThrows(EOFException.class, () -> exportService.exportDocument(1L, new ByteArrayOutputStream()));
+    }
+
+    /**
+     * Test case: Deriving entry names from document names.
+     * <p>
+     * Verifies that names cannot create directories or escape the extraction directory, and
+     * that suffixes keep the extension.
+     * </p>
+     */
+    @Test
+    void testEntryName() {
+        assertEquals("report.txt", DocumentExportService.entryName("report.txt"));
+        assertEquals(".._.._etc_passwd", DocumentExportService.entryName("../../etc/passwd"));
+        assertEquals("_..", DocumentExportService.entryName(".."));
+        assertEquals("_", DocumentExportService.entryName(""));
+        assertEquals("report~7.txt", DocumentExportService.withSuffix("report.txt", "~7"));
+        assertEquals(".profile~7", DocumentExportService.withSuffix(".profile", "~7"));
+    }
+
+    private Map<String, String> read(byte[] archive, Map<String, ZipEntry> entries) throws Exception {
+        Map<String, String> contents = new LinkedHashMap<>();
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(archive))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                contents.put(entry.getName(), new String(zip.readAllBytes(), StandardCharsets.UTF_8));
+                entries.put(entry.getName(), entry);
+            }
+        }
+        return contents;
+    }
+
+    private static Document document(Long id, String name) {
+        Document document = new Document();
+        document.setId(id);
+        document.setName(name);
+        return document;
+    }
+
+    private DocumentVersion version(Document document, int number, String content) throws Exception {
+        DocumentVersion version = new DocumentVersion();
+        version.setDocument(document);
+        version.setVersion(number);
+        version.setSize(content.length());
+        version.setUploadedAt(UPLOADED_AT);
+        version.setStorageMode(VersionStorageMode.FULL);
+        version.setFilePath(Files.writeString(root.resolve(document.getId() + "-" + number), content).toString());
+        return version;
+    }
+}
@@ -1,37 +1,86 @@
 package turing.example.documentmanagement.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.web.multipart.MultipartFile;
+import turing.example.documentmanagement.cache.DocumentNameCache;
+import turing.example.documentmanagement.cache.DocumentNameFilter;
+import turing.example.documentmanagement.dto.DocumentPage;
+import turing.example.documentmanagement.dto.DocumentResponse;
+import turing.example.documentmanagement.entity.AuditAction;
+import turing.example.documentmanagement.entity.ContentBlob;
 import turing.example.documentmanagement.entity.Document;
 import turing.example.documentmanagement.entity.DocumentVersion;
+import turing.example.documentmanagement.metrics.DocumentMetrics;
 import turing.example.documentmanagement.repository.DocumentRepository;
 import turing.example.documentmanagement.repository.DocumentVersionRepository;
+import turing.example.documentmanagement.storage.BlobStore;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 
 /**
  * Unit test for {@link DocumentService}.
  * <p>
  * This test class verifies the behavior of document upload functionality,
- * ensuring correct interactions with the database and file system.
+ * ensuring correct interactions with the database and the blob store.
  * </p>
  */
 class DocumentServiceTest {
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @Mock
     private DocumentRepository documentRepository;
 
     @Mock
     private DocumentVersionRepository versionRepository;
 
+    @Mock
+    private BlobStore blobStore;
+
+    @Mock
+    private VersionDeltaService versionDeltaService;
+
+    @Mock
+    private DerivativeService derivativeService;
+
+    @Mock
+    private AuditTrailWriter auditTrailWriter;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private DocumentNameCache nameCache;
+
+    @Mock
+    private DocumentNameFilter nameFilter;
+
+    @Spy
+    private DocumentMetrics metrics = new DocumentMetrics(meterRegistry);
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
     @Mock
     private MultipartFile mockFile;
 
@@ -40,13 +89,24 @@ class DocumentServiceTest {
 
     private static final String UPLOAD_DIR = "uploads/";
     private static final String FILE_NAME = "test-document.txt";
-    private static final String FILE_PATH = UPLOAD_DIR + FILE_NAME;
+    private static final String CONTENT_HASH = "a".repeat(64);
+    private static final String FILE_PATH = UPLOAD_DIR + CONTENT_HASH;
     private static final String OWNER = "JohnDoe";
+    private static final String UPLOADER = "JaneRoe";
+
+    private ContentBlob blob;
 
     @BeforeEach
     void setUp() {
         // Initialize mocks before each test
         MockitoAnnotations.openMocks(this);
+        when(nameFilter.mightExist(anyString())).thenReturn(true);
+
+        blob = new ContentBlob();
+        blob.setHash(CONTENT_HASH);
+        blob.setSize(14);
+        blob.setRefCount(1);
+        blob.setPath(FILE_PATH);
     }
 
     /**
@@ -60,7 +120,7 @@ class DocumentServiceTest {
     void testUploadDocument_Success() throws Exception {
         // Mock file behavior
         when(mockFile.getOriginalFilename()).thenReturn(FILE_NAME);
-        when(mockFile.getBytes()).thenReturn("Sample content".getBytes());
+        when(blobStore.store(eq(mockFile), any())).thenReturn(blob);
 
         // Mock database interactions
         Document mockDocument = new Document();
@@ -80,14 +140,197 @@ class DocumentServiceTest {
         when(versionRepository.save(any(DocumentVersion.class))).thenReturn(mockVersion);
 
         // Call the service method
-        Document uploadedDocument = documentService.uploadDocument(mockFile, OWNER);
+        Document uploadedDocument = documentService.uploadDocument(mockFile, OWNER, UPLOADER);
 
         // Assertions
         assertNotNull(uploadedDocument);
         assertEquals(FILE_NAME, uploadedDocument.getName());
         assertEquals(OWNER, uploadedDocument.getOwner());
         verify(documentRepository, times(1)).save(any(Document.class));
-        verify(versionRepository, times(1)).save(any(DocumentVersion.class));
+
+        ArgumentCaptor<DocumentVersion> savedVersion = ArgumentCaptor.forClass(DocumentVersion.class);
+        verify(versionRepository, times(1)).save(savedVersion.capture());
+        assertEquals(1, savedVersion.getValue().getVersion());
+        assertEquals(FILE_PATH, savedVersion.getValue().getFilePath());
+        assertEquals(CONTENT_HASH, savedVersion.getValue().getContentHash());
+        verify(derivativeService).enqueue(List.of(savedVersion.getValue()));
+
+        // The upload is reported with its size and the time of both steps
+        assertEquals(1, meterRegistry.get("documents.upload").tag("outcome", "success").timer().count());
+        assertEquals(14, meterRegistry.get("documents.ingested").counter().count());
+        assertEquals(1, meterRegistry.get("documents.upload.storage").timer().count());
+        assertEquals(1, meterRegistry.get("documents.upload.metadata").timer().count());
+        assertEquals(0, meterRegistry.get("documents.uploads.in.flight").gauge().value());
+    }
+
+    /**
+     * Test case: Re-uploading a file with an existing name.
+     * <p>
+     * This test verifies that the upload is recorded as the next version of the existing
+     * document instead of creating a new document.
+     * </p>
+     */
+    @Test
+    void testUploadDocument_ExistingNameCreatesNewVersion() throws Exception {
+        Document existing = new Document();
+        existing.setId(7L);
+        existing.setName(FILE_NAME);
+        existing.setOwner(OWNER);
+        existing.setLatestVersion(3);
+
+        when(mockFile.getOriginalFilename()).thenReturn(FILE_NAME);
+        when(blobStore.store(eq(mockFile), any())).thenReturn(blob);
+        when(documentRepository.findByNameForUpdate(FILE_NAME)).thenReturn(Optional.of(existing));
+        when(versionRepository.save(any(DocumentVersion.class))).thenAnswer(invocation -> {
+            DocumentVersion version = invocation.getArgument(0);
+            version.setId(42L);
+            return version;
+        });
+
+        Document uploadedDocument = documentService.uploadDocument(mockFile, OWNER, UPLOADER);
+
+        assertSame(existing, uploadedDocument);
+        verify(documentRepository, never()).save(any(Document.class));
+
+        ArgumentCaptor<DocumentVersion> savedVersion = ArgumentCaptor.forClass(DocumentVersion.class);
+        verify(versionRepository).save(savedVersion.capture());
+        assertEquals(4, savedVersion.getValue().getVersion());
+        assertSame(existing, savedVersion.getValue().getDocument());
+
+        // The latest-version pointer is moved without reading the version history
+        assertEquals(4, existing.getLatestVersion());
+        assertEquals(42L, existing.getLatestVersionId());
+        verify(versionRepository, never()).findByDocumentIdOrderByVersionDesc(any());
+
+        // The superseded version is handed over for delta compression
+        verify(versionDeltaService).compactPreviousVersionAsync(7L, 4);
+        verify(auditTrailWriter).record(AuditAction.UPLOAD, 7L, UPLOADER);
+        verify(eventPublisher).publishEvent(new DocumentVersionStoredEvent(7L, 42L, 4, FILE_NAME));
+        verify(nameCache).put(FILE_NAME, 7L);
+    }
+
+    /**
+     * Test case: Re-uploading a file whose name is in the name cache.
+     * <p>
+     * This test verifies that the document is locked through the cached ID, without
+     * looking it up by name.
+     * </p>
+     */
+    @Test
+    void testUploadDocument_CachedNameLocksById() throws Exception {
+        Document existing = new Document();
+        existing.setId(7L);
+        existing.setName(FILE_NAME);
+        existing.setLatestVersion(1);
+
+        when(mockFile.getOriginalFilename()).thenReturn(FILE_NAME);
+        when(blobStore.store(eq(mockFile), any())).thenReturn(blob);
+        when(nameCache.findIdByName(FILE_NAME)).thenReturn(Optional.of(7L));
+        when(documentRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(existing));
+
+        Document uploadedDocument = documentService.uploadDocument(mockFile, OWNER, UPLOADER);
+
+        assertSame(existing, uploadedDocument);
+        assertEquals(2, existing.getLatestVersion());
+        verify(documentRepository, never()).findByNameForUpdate(anyString());
+    }
+
+    /**
+     * Test case: Uploading a file whose cached ID belongs to a deleted document.
+     * <p>
+     * This test ensures that a stale cache entry falls back to the lookup by name and
+     * that the cache is updated with the document the version was added to.
+     * </p>
+     */
+    @Test
+    void testUploadDocument_StaleCachedNameFallsBackToName() throws Exception {
+        Document existing = new Document();
+        existing.setId(8L);
+        existing.setName(FILE_NAME);
+
+        when(mockFile.getOriginalFilename()).thenReturn(FILE_NAME);
+        when(blobStore.store(eq(mockFile), any())).thenReturn(blob);
+        when(nameCache.findIdByName(FILE_NAME)).thenReturn(Optional.of(7L));
+        when(documentRepository.findByIdForUpdate(7L)).thenReturn(Optional.empty());
+        when(documentRepository.findByNameForUpdate(FILE_NAME)).thenReturn(Optional.of(existing));
+
+        Document uploadedDocument = documentService.uploadDocument(mockFile, OWNER, UPLOADER);
+
+        assertSame(existing, uploadedDocument);
+        verify(nameCache).put(FILE_NAME, 8L);
+    }
+
+    /**
+     * Test case: Handling a metadata failure after the content was stored.
+     * <p>
+     * This test ensures that the reference taken on the blob is released when the
+     * document metadata cannot be saved.
+     * </p>
+     */
+    @Test
+    void testUploadDocument_MetadataFailureReleasesBlob() throws Exception {
+        when(mockFile.getOriginalFilename()).thenReturn(FILE_NAME);
+        when(blobStore.store(eq(mockFile), any())).thenReturn(blob);
+        when(documentRepository.save(any(Document.class))).thenThrow(new RuntimeException("Database error"));
+
+        assertThrows(RuntimeException.class, () -> documentService.uploadDocument(mockFile, OWNER, UPLOADER));
+
+        verify(blobStore, times(1)).release(CONTENT_HASH);
+        assertEquals(1, meterRegistry.get("documents.upload.errors").tag("cause", "RuntimeException").counter().count());
+    }
+
+    /**
+     * Test case: A concurrent upload creates the document first.
+     * <p>
+     * This test verifies that the violated unique name is retried as a lookup, even for a name the
+     * filter ruled out, that the version is added to the other upload's document, and that the
+     * blob is not released.
+     * </p>
+     */
+    @Test
+    void testRegisterUpload_LostCreationRaceRetriesAsLookup() {
+        Document existing = new Document();
+        existing.setId(9L);
+        existing.setName(FILE_NAME);
+        existing.setLatestVersion(1);
+        when(nameFilter.mightExist(FILE_NAME)).thenReturn(false);
+        when(documentRepository.save(any(Document.class)))
+                .thenThrow(new DataIntegrityViolationException("uk_document_name"));
+        when(documentRepository.findByNameForUpdate(FILE_NAME)).thenReturn(Optional.of(existing));
+
+        Document document = documentService.registerUpload(FILE_NAME, OWNER, UPLOADER, blob);
+
+        assertSame(existing, document);
+        assertEquals(2, existing.getLatestVersion());
+        verify(documentRepository, times(1)).save(any(Document.class));
+        verify(documentRepository, times(1)).findByNameForUpdate(FILE_NAME);
+        verify(blobStore, never()).release(anyString());
+    }
+
+    /**
+     * Test case: A concurrent upload creates a document of a batch first.
+     * <p>
+     * This test verifies that the batch is repeated with every name looked up.
+     * </p>
+     */
+    @Test
+    void testRegisterUploads_LostCreationRaceRetriesAsLookup() {
+        Document existing = new Document();
+        existing.setId(9L);
+        existing.setName("a.txt");
+        when(nameFilter.mightExist(anyString())).thenReturn(false);
+        when(documentRepository.saveAll(anyCollection()))
+                .thenThrow(new DataIntegrityViolationException("uk_document_name"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(documentRepository.findByNameInForUpdate(anyCollection())).thenReturn(List.of(existing));
+
+        List<DocumentVersion> versions = documentService.registerUploads(
+                List.of("a.txt", "b.txt"), OWNER, UPLOADER, List.of(blob, blob));
+
+        assertSame(existing, versions.get(0).getDocument());
+        assertEquals("b.txt", versions.get(1).getDocument().getName());
+        verify(documentRepository, times(1)).findByNameInForUpdate(anyCollection());
+        verify(blobStore, never()).release(anyString());
     }
 
     /**
@@ -102,7 +345,7 @@ class DocumentServiceTest {
         when(mockFile.getOriginalFilename()).thenReturn(null);
 
         // Expect an exception when calling uploadDocument
-        Exception exception = assertThrows(Exception.class, () -> documentService.uploadDocument(mockFile, OWNER));
+        Exception exception = assertThrows(Exception.class, () -> documentService.uploadDocument(mockFile, OWNER, UPLOADER));
 
         // Verify that database save operations were never called
         verify(documentRepository, never()).save(any(Document.class));
@@ -111,4 +354,107 @@ class DocumentServiceTest {
         // Assert that the correct exception is thrown
         assertNotNull(exception);
     }
+
+    /**
+     * Test case: Registering a batch of uploads.
+     * <p>
+     * This test verifies that documents are resolved with a single query, that missing
+     * documents are created, and that repeated names become consecutive versions.
+     * </p>
+     */
+    @Test
+    void testRegisterUploads_RepeatedNamesGetConsecutiveVersions() {
+        Document existing = new Document();
+        existing.setId(7L);
+        existing.setName("a.txt");
+        existing.setLatestVersion(2);
+        when(documentRepository.findByNameInForUpdate(anyCollection())).thenReturn(List.of(existing));
+
+        List<DocumentVersion> versions = documentService.registerUploads(
+                List.of("a.txt", "b.txt", "a.txt"), OWNER, UPLOADER, List.of(blob, blob, blob));
+
+        assertEquals(List.of(3, 1, 4), versions.stream().map(DocumentVersion::getVersion).toList());
+        assertSame(existing, versions.get(0).getDocument());
+        assertEquals("b.txt", versions.get(1).getDocument().getName());
+        assertEquals(OWNER, versions.get(1).getDocument().getOwner());
+        verify(documentRepository, times(1)).saveAll(argThat(documents -> documents.spliterator().getExactSizeIfKnown() == 1));
+        verify(versionRepository, times(1)).saveAll(versions);
+        assertEquals(4, existing.getLatestVersion());
+        verify(documentRepository, never()).findByNameForUpdate(anyString());
+        verify(versionDeltaService, times(1)).compactPreviousVersionAsync(7L, 3);
+    }
+
+    /**
+     * Test case: Registering a batch of names the name filter rules out.
+     * <p>
+     * This test verifies that no lookup query is issued and that the created names are
+     * added to the filter.
+     * </p>
+     */
+    @Test
+    void testRegisterUploads_NewNamesSkipLookup() {
+        when(nameFilter.mightExist(anyString())).thenReturn(false);
+
+        documentService.registerUploads(List.of("a.txt", "b.txt"), OWNER, UPLOADER, List.of(blob, blob));
+
+        verify(documentRepository, never()).findByNameInForUpdate(anyCollection());
+        verify(nameFilter).add("a.txt");
+        verify(nameFilter).add("b.txt");
+    }
+
+    /**
+     * Test case: Batch metadata cannot be saved.
+     * <p>
+     * This test ensures that the references taken on all blobs of the batch are released.
+     * </p>
+     */
+    @Test
+    void testRegisterUploads_FailureReleasesAllBlobs() {
+        when(documentRepository.findByNameInForUpdate(anyCollection())).thenThrow(new RuntimeException("Database error"));
+
+        assertThrows(RuntimeException.class,
+                () -> documentService.registerUploads(List.of("a.txt", "b.txt"), OWNER, UPLOADER, List.of(blob, blob)));
+
+        verify(blobStore, times(2)).release(CONTENT_HASH);
+    }
+
+    /**
+     * Test case: Paging through an owner's documents.
+     * <p>
+     * This test verifies that a full page carries a cursor which seeks past its last document.
+     * </p>
+     */
+    @Test
+    void testListDocuments_CursorSeeksPastLastDocument() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 20, 10, 0, 5);
+        List<DocumentResponse> rows = List.of(
+                new DocumentResponse(9L, "c.txt", OWNER, createdAt.plusMinutes(1), 1, "uploads/c"),
+                new DocumentResponse(8L, "b.txt", OWNER, createdAt, 2, "uploads/b"),
+                new DocumentResponse(7L, "a.txt", OWNER, createdAt, 1, "uploads/a"));
+        when(documentRepository.findPageByOwner(eq(OWNER), any())).thenReturn(rows);
+
+        DocumentPage firstPage = documentService.listDocuments(OWNER, null, 2);
+
+        assertEquals(2, firstPage.getItems().size());
+        assertNotNull(firstPage.getNextCursor());
+
+        when(documentRepository.findPageByOwnerAfter(eq(OWNER), any(), any(), any())).thenReturn(rows.subList(2, 3));
+        DocumentPage secondPage = documentService.listDocuments(OWNER, firstPage.getNextCursor(), 2);
+
+        verify(documentRepository).findPageByOwnerAfter(eq(OWNER), eq(createdAt), eq(8L), any());
+        assertEquals(1, secondPage.getItems().size());
+        assertNull(secondPage.getNextCursor());
+    }
+
+    /**
+     * Test case: Listing with a cursor that was not issued by the service.
+     * <p>
+     * This test ensures that malformed cursors are rejected before any query runs.
+     * </p>
+     */
+    @Test
+    void testListDocuments_InvalidCursor() {
+        assertThrows(IllegalArgumentException.class, () -> documentService.listDocuments(OWNER, "not-a-cursor", 10));
+        verify(documentRepository, never()).findPageByOwnerAfter(any(), any(), any(), any());
+    }
 }
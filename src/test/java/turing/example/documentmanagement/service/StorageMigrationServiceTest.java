@@ -0,0 +1,141 @@
+package turing.example.documentmanagement.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import turing.example.documentmanagement.config.StorageProperties;
+import turing.example.documentmanagement.dto.StorageMigrationStatus;
+import turing.example.documentmanagement.entity.ContentBlob;
+import turing.example.documentmanagement.repository.ContentBlobRepository;
+import turing.example.documentmanagement.repository.DocumentVersionRepository;
+import turing.example.documentmanagement.storage.BlobStore;
+import turing.example.documentmanagement.storage.BlobStore.Relocation;
+import turing.example.documentmanagement.storage.BlobStore.RelocationResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link StorageMigrationService}.
+ * <p>
+ * This test class verifies that all blobs are scanned in batches and that the progress of
+ * the migration is reported.
+ * </p>
+ */
+class StorageMigrationServiceTest {
+
+    @Mock
+    private ContentBlobRepository blobRepository;
+
+    @Mock
+    private DocumentVersionRepository versionRepository;
+
+    @Mock
+    private BlobStore blobStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StorageMigrationService migrationService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        StorageProperties properties = new StorageProperties();
+        properties.setMigrationBatchSize(2);
+        migrationService = new StorageMigrationService(blobRepository, versionRepository, blobStore, properties,
+                transactionManager);
+
+        List<ContentBlob> first = List.of(blob("a"), blob("b"));
+        List<ContentBlob> second = List.of(blob("c"));
+        when(blobRepository.findPageAfter(eq(""), any(Pageable.class))).thenReturn(first);
+        when(blobRepository.findPageAfter(eq("b"), any(Pageable.class))).thenReturn(second);
+        when(blobRepository.findPageAfter(eq("c"), any(Pageable.class))).thenReturn(List.of());
+    }
+
+    /**
+     * Test case: Migrating all blobs.
+     * <p>
+     * Verifies that the scan seeks past each batch and counts moved and skipped blobs.
+     * </p>
+     */
+    @Test
+    void testMigrate_MovesAllBatches() throws Exception {
+        when(blobStore.relocate(anyList(), any())).thenReturn(moved(relocation("a"), relocation("b")), moved());
+
+        StorageMigrationStatus status = migrationService.migrate();
+
+        assertFalse(status.isRunning());
+        assertEquals("SHARDED", status.getLayout());
+        assertEquals(2, status.getMigrated());
+        assertEquals(1, status.getSkipped());
+        assertEquals(0, status.getFailed());
+        assertNotNull(status.getFinishedAt());
+        verify(blobStore, times(2)).relocate(anyList(), any());
+        verify(versionRepository).relocateStaleFilePaths();
+    }
+
+    /**
+     * Test case: Blobs that cannot be moved.
+     * <p>
+     * Verifies that the failures are counted and the migration continues with the next batch.
+     * </p>
+     */
+    @Test
+    void testMigrate_FailedBatchDoesNotStopMigration() throws Exception {
+        when(blobStore.relocate(anyList(), any())).thenReturn(new RelocationResult(List.of(), 2),
+                moved(relocation("c")));
+
+        StorageMigrationStatus status = migrationService.migrate();
+
+        assertEquals(1, status.getMigrated());
+        assertEquals(2, status.getFailed());
+        verify(blobStore, times(2)).relocate(anyList(), any());
+    }
+
+    /**
+     * Test case: Removing the old paths of a moved batch.
+     * <p>
+     * Verifies that the old paths are kept while the next batch is moved, and removed only after
+     * the versions still pointing to them have been updated.
+     * </p>
+     */
+    @Test
+    void testMigrate_OldPathsRemovedAfterNextBatch() throws Exception {
+        Relocation a = relocation("a");
+        Relocation c = relocation("c");
+        when(blobStore.relocate(anyList(), any())).thenReturn(moved(a), moved(c));
+
+        migrationService.migrate();
+
+        InOrder inOrder = inOrder(blobStore, versionRepository);
+        inOrder.verify(blobStore, times(2)).relocate(anyList(), any());
+        inOrder.verify(versionRepository).relocateFilePath(a.oldPath(), a.newPath());
+        inOrder.verify(blobStore).deleteRelocated(a);
+        inOrder.verify(versionRepository).relocateStaleFilePaths();
+        inOrder.verify(blobStore).deleteRelocated(c);
+    }
+
+    private static RelocationResult moved(Relocation... relocations) {
+        return new RelocationResult(List.of(relocations), 0);
+    }
+
+    private static Relocation relocation(String hash) {
+        return new Relocation(hash, "uploads/" + hash, "uploads/" + hash.charAt(0) + "/" + hash);
+    }
+
+    private static ContentBlob blob(String hash) {
+        ContentBlob blob = new ContentBlob();
+        blob.setHash(hash);
+        blob.setPath("uploads/" + hash);
+        return blob;
+    }
+}
@@ -0,0 +1,271 @@
+package turing.example.documentmanagement.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.unit.DataSize;
+import turing.example.documentmanagement.config.StorageProperties;
+import turing.example.documentmanagement.entity.BlobCompression;
+import turing.example.documentmanagement.entity.ContentBlob;
+import turing.example.documentmanagement.entity.ScrubCheckpoint;
+import turing.example.documentmanagement.entity.ScrubFinding;
+import turing.example.documentmanagement.entity.ScrubProblem;
+import turing.example.documentmanagement.repository.ContentBlobRepository;
+import turing.example.documentmanagement.repository.ScrubCheckpointRepository;
+import turing.example.documentmanagement.repository.ScrubFindingRepository;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link StorageScrubService}.
+ * <p>
+ * This test class verifies how blob files are checked, how damage is recorded and cleared,
+ * and that a pass continues after its checkpoint.
+ * </p>
+ */
+class StorageScrubServiceTest {
+
+    @TempDir
+    Path root;
+
+    @Mock
+    private ContentBlobRepository blobRepository;
+
+    @Mock
+    private ScrubCheckpointRepository checkpointRepository;
+
+    @Mock
+    private ScrubFindingRepository findingRepository;
+
+    private MeterRegistry registry;
+    private StorageScrubService scrubService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        StorageProperties properties = new StorageProperties();
+        properties.getScrub().setMaxBytesPerSecond(DataSize.ofBytes(0));
+        // Smaller than the test files, so they are read in several parts
+        properties.getScrub().setReadSize(DataSize.ofBytes(16));
+        properties.getScrub().setPageSize(2);
+        registry = new SimpleMeterRegistry();
+        scrubService = new StorageScrubService(blobRepository, checkpointRepository, findingRepository,
+                properties, registry);
+        when(checkpointRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        when(findingRepository.findByBlobHash(any())).thenReturn(Optional.empty());
+    }
+
+    /**
+     * Test case: A pass over healthy and damaged blobs.
+     * <p>
+     * Verifies that plain and compressed blobs verify, that missing, resized and corrupted files
+     * are recorded with the matching problem, and that the pass is completed and measured.
+     * </p>
+     */
+    @Test
+    void testScrubPass_RecordsDamagedBlobs() throws Exception {
+        ContentBlob plain = blob("plain", "the quick brown fox jumps over the lazy dog", false);
+        ContentBlob compressed = blob("compressed", "compressible content ".repeat(20), true);
+        ContentBlob missing = blob("missing", "this file will be lost", false);
+        Files.delete(Path.of(missing.getPath()));
+        ContentBlob truncated = blob("truncated", "this file will be cut short", false);
+        Files.write(Path.of(truncated.getPath()), "this file".getBytes(StandardCharsets.UTF_8));
+        ContentBlob corrupted = blob("corrupted", "this file will rot", false);
+        Files.writeString(Path.of(corrupted.getPath()), "this file will ROT");
+        pages(plain, compressed, missing, truncated, corrupted);
+
+        scrubService.scrubPass();
+
+        ArgumentCaptor<ScrubFinding> captor = ArgumentCaptor.forClass(ScrubFinding.class);
+        verify(findingRepository, times(3)).save(captor.capture());
+        Map<String, ScrubProblem> problems = captor.getAllValues().stream()
+                .collect(Collectors.toMap(ScrubFinding::getBlobHash, ScrubFinding::getProblem));
+        assertEquals(Map.of(missing.getHash(), ScrubProblem.MISSING,
+                truncated.getHash(), ScrubProblem.SIZE_MISMATCH,
+                corrupted.getHash(), ScrubProblem.CHECKSUM_MISMATCH), problems);
+
+        ScrubCheckpoint checkpoint = lastSavedCheckpoint();
+        assertEquals(1, checkpoint.getPass());
+        assertNotNull(checkpoint.getPassCompletedAt());
+        assertEquals(5, checkpoint.getScannedBlobs());
+        long expectedBytes = Files.size(Path.of(plain.getPath())) + Files.size(Path.of(compressed.getPath()))
+                + Files.size(Path.of(corrupted.getPath()));
+        assertEquals(expectedBytes, checkpoint.getScannedBytes());
+        assertEquals(expectedBytes, registry.get("storage.scrub.bytes").counter().count());
+        assertEquals(3, registry.get("storage.scrub.findings").gauge().value());
+    }
+
+    /**
+     * Test case: Verifying a compressed blob whose file has been altered.
+     * <p>
+     * Verifies that content that cannot be decompressed, or decompresses to other content,
+     * is reported as a checksum mismatch.
+     * </p>
+     */
+    @Test
+    void testVerify_CorruptedCompressedBlob() throws Exception {
+        ContentBlob blob = blob("compressed", "compressible content ".repeat(20), true);
+        Path file = Path.of(blob.getPath());
+        byte[] stored = Files.readAllBytes(file);
+        stored[stored.length / 2] ^= 0x40;
+        Files.write(file, stored);
+
+        StorageScrubService.Verification result = StorageScrubService.verify(blob,
+                ByteBuffer.allocate(16), new Throttle(0));
+
+        assertEquals(ScrubProblem.CHECKSUM_MISMATCH, result.problem());
+        assertEquals(stored.length, result.bytesRead());
+    }
+
+    /**
+     * Test case: Continuing an interrupted pass.
+     * <p>
+     * Verifies that the scan seeks past the checkpointed blob and keeps the pass number and counters.
+     * </p>
+     */
+    @Test
+    void testScrubPass_ContinuesAfterCheckpoint() throws Exception {
+        ContentBlob blob = blob("next", "content after the checkpoint", false);
+        ScrubCheckpoint checkpoint = checkpoint(4, "aaaa", null);
+        checkpoint.setScannedBlobs(10);
+        when(checkpointRepository.findById(StorageScrubService.CHECKPOINT_ID)).thenReturn(Optional.of(checkpoint));
+        when(blobRepository.findPageAfter(eq("aaaa"), any(Pageable.class))).thenReturn(List.of(blob));
+        when(blobRepository.findPageAfter(eq(blob.getHash()), any(Pageable.class))).thenReturn(List.of());
+
+        scrubService.scrubPass();
+
+        verify(blobRepository, never()).findPageAfter(eq(""), any(Pageable.class));
+        ScrubCheckpoint saved = lastSavedCheckpoint();
+        assertEquals(4, saved.getPass());
+        assertEquals(11, saved.getScannedBlobs());
+        assertEquals(blob.getHash(), saved.getPosition());
+        assertNotNull(saved.getPassCompletedAt());
+    }
+
+    /**
+     * Test case: Starting a pass after a completed one.
+     * <p>
+     * Verifies that the new pass starts from the first blob with a new number and reset counters.
+     * </p>
+     */
+    @Test
+    void testScrubPass_StartsNextPass() throws Exception {
+        ScrubCheckpoint checkpoint = checkpoint(4, "ffff", LocalDateTime.now().minusDays(1));
+        checkpoint.setScannedBlobs(10);
+        when(checkpointRepository.findById(StorageScrubService.CHECKPOINT_ID)).thenReturn(Optional.of(checkpoint));
+        when(blobRepository.findPageAfter(eq(""), any(Pageable.class))).thenReturn(List.of());
+
+        scrubService.scrubPass();
+
+        ScrubCheckpoint saved = lastSavedCheckpoint();
+        assertEquals(5, saved.getPass());
+        assertEquals(0, saved.getScannedBlobs());
+        assertNull(saved.getPosition());
+        assertNotNull(saved.getPassCompletedAt());
+    }
+
+    /**
+     * Test case: Checking blobs that were damaged before or changed while being read.
+     * <p>
+     * Verifies that the finding of a restored blob is removed, and that a blob released while it
+     * was read is not reported.
+     * </p>
+     */
+    @Test
+    void testScrubPass_ClearsRestoredAndReleasedBlobs() throws Exception {
+        ContentBlob restored = blob("restored", "restored from a backup", false);
+        ContentBlob released = blob("released", "released during the check", false);
+        Files.delete(Path.of(released.getPath()));
+        pages(restored, released);
+        ScrubFinding finding = new ScrubFinding();
+        finding.setBlobHash(restored.getHash());
+        when(findingRepository.count()).thenReturn(1L);
+        when(findingRepository.findByBlobHash(restored.getHash())).thenReturn(Optional.of(finding));
+        when(blobRepository.findById(released.getHash())).thenReturn(Optional.empty());
+
+        scrubService.scrubPass();
+
+        verify(findingRepository).delete(finding);
+        verify(findingRepository, never()).save(any());
+        assertEquals(0, registry.get("storage.scrub.findings").gauge().value());
+    }
+
+    private void pages(ContentBlob... blobs) {
+        List<ContentBlob> sorted = Arrays.stream(blobs)
+                .sorted((a, b) -> a.getHash().compareTo(b.getHash()))
+                .toList();
+        Map<String, ContentBlob> byHash = sorted.stream()
+                .collect(Collectors.toMap(ContentBlob::getHash, Function.identity()));
+        when(blobRepository.findPageAfter(anyString(), any(Pageable.class))).thenAnswer(invocation -> {
+            String after = invocation.getArgument(0);
+            Pageable pageable = invocation.getArgument(1);
+            return sorted.stream()
+                    .filter(blob -> blob.getHash().compareTo(after) > 0)
+                    .limit(pageable.getPageSize())
+                    .toList();
+        });
+        when(blobRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(byHash.get(invocation.<String>getArgument(0))));
+    }
+
+    private ScrubCheckpoint lastSavedCheckpoint() {
+        ArgumentCaptor<ScrubCheckpoint> captor = ArgumentCaptor.forClass(ScrubCheckpoint.class);
+        verify(checkpointRepository, atLeastOnce()).save(captor.capture());
+        return captor.getValue();
+    }
+
+    private static ScrubCheckpoint checkpoint(long pass, String position, LocalDateTime completedAt) {
+        ScrubCheckpoint checkpoint = new ScrubCheckpoint();
+        checkpoint.setId(StorageScrubService.CHECKPOINT_ID);
+        checkpoint.setPass(pass);
+        checkpoint.setPosition(position);
+        checkpoint.setPassStartedAt(LocalDateTime.now().minusDays(2));
+        checkpoint.setPassCompletedAt(completedAt);
+        return checkpoint;
+    }
+
+    private ContentBlob blob(String name, String content, boolean compress) throws Exception {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        byte[] stored = bytes;
+        if (compress) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (DeflaterOutputStream deflater = new DeflaterOutputStream(out)) {
+                deflater.write(bytes);
+            }
+            stored = out.toByteArray();
+        }
+        ContentBlob blob = new ContentBlob();
+        blob.setHash(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes)));
+        blob.setSize(bytes.length);
+        blob.setCompression(compress ? BlobCompression.DEFLATE : BlobCompression.NONE);
+        blob.setStoredSize((long) stored.length);
+        blob.setRefCount(1);
+        blob.setPath(Files.write(root.resolve(name), stored).toString());
+        return blob;
+    }
+}
@@ -0,0 +1,148 @@
+package turing.example.documentmanagement.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.transaction.PlatformTransactionManager;
+import turing.example.documentmanagement.config.StorageProperties;
+import turing.example.documentmanagement.entity.ContentBlob;
+import turing.example.documentmanagement.entity.Document;
+import turing.example.documentmanagement.entity.DocumentVersion;
+import turing.example.documentmanagement.entity.VersionStorageMode;
+import turing.example.documentmanagement.repository.DocumentVersionRepository;
+import turing.example.documentmanagement.storage.BlobStore;
+import turing.example.documentmanagement.storage.DeltaCodec;
+import turing.example.documentmanagement.storage.VersionContentReader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link VersionDeltaService}.
+ * <p>
+ * This test class verifies when superseded versions are converted to deltas and that
+ * the full copies they no longer need are released.
+ * </p>
+ */
+class VersionDeltaServiceTest {
+
+    private static final String OLD_CONTENT = "The quick brown fox jumps over the lazy dog. ".repeat(20);
+    private static final String NEW_CONTENT = OLD_CONTENT + "And then it ran away.";
+
+    @TempDir
+    Path root;
+
+    @Mock
+    private DocumentVersionRepository versionRepository;
+
+    @Mock
+    private BlobStore blobStore;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StorageProperties properties;
+    private VersionDeltaService versionDeltaService;
+    private DocumentVersion previous;
+    private DocumentVersion latest;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        properties = new StorageProperties();
+        properties.getDelta().setEnabled(true);
+        properties.getDelta().setMaxChainLength(2);
+        versionDeltaService = new VersionDeltaService(versionRepository, blobStore,
+                new VersionContentReader(versionRepository), properties, transactionManager);
+
+        Document document = new Document();
+        document.setId(1L);
+        previous = storedVersion(document, 3, "old", OLD_CONTENT);
+        latest = storedVersion(document, 4, "new", NEW_CONTENT);
+        when(versionRepository.findByDocumentIdAndVersion(1L, 3)).thenReturn(Optional.of(previous));
+        when(versionRepository.findByDocumentIdAndVersion(1L, 4)).thenReturn(Optional.of(latest));
+    }
+
+    /**
+     * Test case: Converting the previous version.
+     * <p>
+     * Verifies that the stored delta reproduces the previous version and that its full copy is released.
+     * </p>
+     */
+    @Test
+    void testCompactPreviousVersion_StoresDelta() throws Exception {
+        when(versionRepository.findByDocumentIdAndVersionBetweenOrderByVersionDesc(1L, 1, 2)).thenReturn(List.of());
+        ContentBlob deltaBlob = new ContentBlob();
+        deltaBlob.setHash("delta");
+        deltaBlob.setPath(root.resolve("delta").toString());
+        when(blobStore.store(any(ByteArrayResource.class))).thenAnswer(invocation -> {
+            ByteArrayResource resource = invocation.getArgument(0);
+            assertEquals(OLD_CONTENT, new String(DeltaCodec.decode(NEW_CONTENT.getBytes(), resource.getByteArray())));
+            return deltaBlob;
+        });
+        when(versionRepository.convertToDelta(any(), eq("delta"), any(), any(), any(), eq(4), eq(VersionStorageMode.DELTA),
+                eq(VersionStorageMode.FULL))).thenReturn(1);
+
+        assertTrue(versionDeltaService.compactPreviousVersion(1L, 4));
+
+        verify(blobStore).release("old");
+        verify(blobStore, never()).release("delta");
+    }
+
+    /**
+     * Test case: The chain below the previous version is already at its maximum length.
+     * <p>
+     * Verifies that the previous version is kept as a full snapshot.
+     * </p>
+     */
+    @Test
+    void testCompactPreviousVersion_KeepsSnapshotAtMaxChainLength() throws Exception {
+        DocumentVersion deltaVersion = new DocumentVersion();
+        deltaVersion.setStorageMode(VersionStorageMode.DELTA);
+        when(versionRepository.findByDocumentIdAndVersionBetweenOrderByVersionDesc(1L, 1, 2))
+                .thenReturn(List.of(deltaVersion, deltaVersion));
+
+        assertFalse(versionDeltaService.compactPreviousVersion(1L, 4));
+
+        verifyNoInteractions(blobStore);
+    }
+
+    /**
+     * Test case: Delta compression is disabled.
+     * <p>
+     * Verifies that uploads do not trigger any conversion.
+     * </p>
+     */
+    @Test
+    void testCompactPreviousVersionAsync_Disabled() {
+        properties.getDelta().setEnabled(false);
+
+        versionDeltaService.compactPreviousVersionAsync(1L, 4);
+
+        verifyNoInteractions(versionRepository, blobStore);
+    }
+
+    private DocumentVersion storedVersion(Document document, int number, String hash, String content)
+            throws Exception {
+        DocumentVersion version = new DocumentVersion();
+        version.setId((long) number);
+        version.setDocument(document);
+        version.setVersion(number);
+        version.setContentHash(hash);
+        version.setBlobKey(hash);
+        version.setSize(content.length());
+        version.setStorageMode(VersionStorageMode.FULL);
+        version.setFilePath(Files.writeString(root.resolve(hash), content).toString());
+        return version;
+    }
+}
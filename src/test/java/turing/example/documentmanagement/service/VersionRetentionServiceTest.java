@@ -0,0 +1,257 @@
+package turing.example.documentmanagement.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+import turing.example.documentmanagement.config.StorageProperties;
+import turing.example.documentmanagement.entity.AuditAction;
+import turing.example.documentmanagement.entity.ContentBlob;
+import turing.example.documentmanagement.entity.DerivativeJob;
+import turing.example.documentmanagement.entity.DerivativeStatus;
+import turing.example.documentmanagement.entity.Document;
+import turing.example.documentmanagement.entity.DocumentVersion;
+import turing.example.documentmanagement.entity.VersionStorageMode;
+import turing.example.documentmanagement.repository.DerivativeJobRepository;
+import turing.example.documentmanagement.repository.DocumentRepository;
+import turing.example.documentmanagement.repository.DocumentVersionRepository;
+import turing.example.documentmanagement.storage.BlobStore;
+import turing.example.documentmanagement.storage.VersionContentReader;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link VersionRetentionService}.
+ * <p>
+ * This test class verifies which versions the retention rules expire, and that expired
+ * versions are deleted without breaking the delta chains of the versions that are kept.
+ * </p>
+ */
+class VersionRetentionServiceTest {
+
+    // A Sunday
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 30, 12, 0);
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    @Mock
+    private DocumentVersionRepository versionRepository;
+
+    @Mock
+    private DerivativeJobRepository jobRepository;
+
+    @Mock
+    private BlobStore blobStore;
+
+    @Mock
+    private VersionContentReader contentReader;
+
+    @Mock
+    private AuditTrailWriter auditTrailWriter;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StorageProperties properties;
+    private VersionRetentionService retentionService;
+    private Document document;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        properties = new StorageProperties();
+        properties.getRetention().setEnabled(true);
+        properties.getRetention().setKeepLast(2);
+        properties.getRetention().setKeepFor(Duration.ofDays(7));
+        properties.getRetention().setBatchSize(2);
+        properties.getRetention().setMaxReleasesPerSecond(0);
+        properties.getRetention().setMaxBytesPerSecond(DataSize.ofBytes(0));
+        retentionService = new VersionRetentionService(documentRepository, versionRepository, jobRepository,
+                blobStore, contentReader, auditTrailWriter, properties, transactionManager);
+
+        document = new Document();
+        document.setId(1L);
+        document.setName("report.txt");
+        when(versionRepository.findByIdInForUpdate(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            return versionRepository.findByDocumentIdOrderByVersionDesc(1L).stream()
+                    .filter(version -> ids.contains(version.getId()))
+                    .sorted(Comparator.comparing(DocumentVersion::getId))
+                    .toList();
+        });
+    }
+
+    /**
+     * Test case: Selecting expired versions by count and age.
+     * <p>
+     * Verifies that versions are kept while they are among the newest or recent enough.
+     * </p>
+     */
+    @Test
+    void testSelectExpired_KeepLastAndKeepFor() {
+        List<DocumentVersion> versions = List.of(
+                version(5, NOW.minusDays(20)),
+                version(4, NOW.minusDays(21)),
+                version(3, NOW.minusDays(22)),
+                version(2, NOW.minusDays(23)),
+                version(1, NOW.minusDays(24)));
+        assertEquals(List.of(3, 2, 1), numbers(VersionRetentionService.selectExpired(versions, properties.getRetention(), NOW)));
+
+        properties.getRetention().setKeepFor(Duration.ofDays(23));
+        assertEquals(List.of(1), numbers(VersionRetentionService.selectExpired(versions, properties.getRetention(), NOW)));
+
+        properties.getRetention().setKeepLast(0);
+        properties.getRetention().setKeepFor(Duration.ZERO);
+        assertEquals(List.of(4, 3, 2, 1), numbers(VersionRetentionService.selectExpired(versions, properties.getRetention(), NOW)),
+                "The latest version is always kept");
+    }
+
+    /**
+     * Test case: Thinning old versions.
+     * <p>
+     * Verifies that the newest version of every week or day is kept.
+     * </p>
+     */
+    @Test
+    void testSelectExpired_Thinning() {
+        properties.getRetention().setKeepLast(1);
+        properties.getRetention().setKeepFor(Duration.ZERO);
+        List<DocumentVersion> versions = List.of(
+                version(6, NOW),
+                version(5, LocalDateTime.of(2024, 6, 19, 18, 0)),
+                version(4, LocalDateTime.of(2024, 6, 19, 9, 0)),
+                version(3, LocalDateTime.of(2024, 6, 17, 9, 0)),
+                version(2, LocalDateTime.of(2024, 6, 16, 9, 0)),
+                version(1, LocalDateTime.of(2024, 6, 10, 9, 0)));
+
+        properties.getRetention().setThinning(StorageProperties.Thinning.WEEKLY);
+        assertEquals(List.of(4, 3, 1), numbers(VersionRetentionService.selectExpired(versions, properties.getRetention(), NOW)));
+
+        properties.getRetention().setThinning(StorageProperties.Thinning.DAILY);
+        assertEquals(List.of(4), numbers(VersionRetentionService.selectExpired(versions, properties.getRetention(), NOW)));
+    }
+
+    /**
+     * Test case: Collecting the expired versions of a document.
+     * <p>
+     * Verifies that the versions and their derivative jobs are deleted in batches, that the
+     * deletions are audited and the blobs released only afterwards, and that versions whose
+     * derivatives are still being generated are kept.
+     * </p>
+     */
+    @Test
+    void testCollectDocument_DeletesInBatches() throws Exception {
+        List<DocumentVersion> versions = new ArrayList<>();
+        for (int number = 6; number >= 1; number--) {
+            versions.add(version(number, NOW.minusDays(30 + number)));
+        }
+        when(versionRepository.findByDocumentIdOrderByVersionDesc(1L)).thenReturn(versions);
+        when(jobRepository.findByVersionIdIn(anyCollection())).thenReturn(List.of(
+                job(14L, DerivativeStatus.DONE, "thumb"),
+                job(12L, DerivativeStatus.RUNNING, null)));
+
+        assertEquals(3, retentionService.collectDocument(1L, NOW));
+
+        InOrder order = inOrder(versionRepository, jobRepository, auditTrailWriter, blobStore);
+        order.verify(versionRepository).deleteByIdIn(List.of(13L, 14L));
+        order.verify(auditTrailWriter, times(2)).record(AuditAction.DELETE, 1L, AuditTrailWriter.SYSTEM);
+        order.verify(blobStore).release("blob-3");
+        order.verify(blobStore).release("blob-4");
+        order.verify(blobStore).release("thumb");
+        order.verify(versionRepository).deleteByIdIn(List.of(11L));
+        order.verify(auditTrailWriter).record(AuditAction.DELETE, 1L, AuditTrailWriter.SYSTEM);
+        order.verify(blobStore).release("blob-1");
+        verify(jobRepository).deleteByVersionIdIn(List.of(13L, 14L));
+        verify(blobStore, never()).release("blob-2");
+        verify(blobStore, never()).release("blob-5");
+    }
+
+    /**
+     * Test case: Collecting a version that a kept delta is based on.
+     * <p>
+     * Verifies that the kept version is stored in full before its base is deleted.
+     * </p>
+     */
+    @Test
+    void testCollectDocument_StoresKeptDeltaInFull() throws Exception {
+        properties.getRetention().setKeepLast(1);
+        properties.getRetention().setKeepFor(Duration.ZERO);
+        properties.getRetention().setThinning(StorageProperties.Thinning.DAILY);
+        DocumentVersion latest = version(3, NOW);
+        DocumentVersion sameDay = version(2, NOW.minusHours(2));
+        sameDay.setStorageMode(VersionStorageMode.DELTA);
+        sameDay.setDeltaBaseVersion(3);
+        DocumentVersion dayBefore = version(1, NOW.minusDays(1));
+        dayBefore.setStorageMode(VersionStorageMode.DELTA);
+        dayBefore.setDeltaBaseVersion(2);
+        when(versionRepository.findByDocumentIdOrderByVersionDesc(1L)).thenReturn(List.of(latest, sameDay, dayBefore));
+        when(contentReader.readAllBytes(dayBefore)).thenReturn("first".getBytes());
+        ContentBlob full = new ContentBlob();
+        full.setHash("full-1");
+        full.setPath("/blobs/full-1");
+        when(blobStore.store(any(ByteArrayResource.class), eq("report.txt"))).thenReturn(full);
+        when(versionRepository.convertToFull(11L, "blob-1", "full-1", "/blobs/full-1", null, null,
+                VersionStorageMode.FULL, VersionStorageMode.DELTA)).thenReturn(1);
+
+        assertEquals(1, retentionService.collectDocument(1L, NOW));
+
+        InOrder order = inOrder(versionRepository, blobStore);
+        order.verify(versionRepository).convertToFull(eq(11L), eq("blob-1"), eq("full-1"), any(), any(), any(), any(), any());
+        order.verify(blobStore).release("blob-1");
+        order.verify(versionRepository).deleteByIdIn(List.of(12L));
+        order.verify(blobStore).release("blob-2");
+    }
+
+    /**
+     * Test case: Collecting with retention disabled.
+     * <p>
+     * Verifies that no document is looked at.
+     * </p>
+     */
+    @Test
+    void testCollect_Disabled() {
+        properties.getRetention().setEnabled(false);
+
+        retentionService.collect();
+
+        verifyNoInteractions(documentRepository, versionRepository, blobStore);
+    }
+
+    private DocumentVersion version(int number, LocalDateTime uploadedAt) {
+        DocumentVersion version = new DocumentVersion();
+        version.setId(10L + number);
+        version.setVersion(number);
+        version.setUploadedAt(uploadedAt);
+        version.setBlobKey("blob-" + number);
+        version.setContentHash("hash-" + number);
+        version.setDocument(document);
+        return version;
+    }
+
+    private static DerivativeJob job(Long versionId, DerivativeStatus status, String blobKey) {
+        DerivativeJob job = new DerivativeJob();
+        job.setVersionId(versionId);
+        job.setStatus(status);
+        job.setBlobKey(blobKey);
+        return job;
+    }
+
+    private static List<Integer> numbers(List<DocumentVersion> versions) {
+        return versions.stream().map(DocumentVersion::getVersion).toList();
+    }
+}
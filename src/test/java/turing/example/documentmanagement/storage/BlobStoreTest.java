@@ -0,0 +1,350 @@
+package turing.example.documentmanagement.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import turing.example.documentmanagement.config.StorageProperties;
+import turing.example.documentmanagement.entity.BlobCompression;
+import turing.example.documentmanagement.entity.ContentBlob;
+import turing.example.documentmanagement.repository.ContentBlobRepository;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit test for {@link BlobStore}.
+ * <p>
+ * This test class verifies content-addressed storage, deduplication and reference
+ * counting against a temporary storage directory.
+ * </p>
+ */
+class BlobStoreTest {
+
+    // SHA-256 of "Sample content"
+    private static final String SAMPLE_HASH = "ca83c6acbe7f1270c63b0b4d0b2b180c347b6d5cab6e95b2fd7be152f345314b";
+
+    @TempDir
+    Path root;
+
+    @Mock
+    private ContentBlobRepository blobRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StorageProperties properties;
+    private BlobStore blobStore;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        properties = new StorageProperties();
+        properties.setRoot(root.toString());
+        // Compression is covered by its own tests; the others check the stored bytes directly
+        properties.getCompression().setEnabled(false);
+        blobStore = blobStore(new FlatStorageLayout());
+
+        when(blobRepository.save(any(ContentBlob.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    /**
+     * Test case: Storing new content.
+     * <p>
+     * Verifies that the content is written under its SHA-256 digest with a reference count of one.
+     * </p>
+     */
+    @Test
+    void testStore_NewContent() throws Exception {
+        ContentBlob blob = blobStore.store(new ByteArrayResource("Sample content".getBytes(StandardCharsets.UTF_8)));
+
+        String expectedHash = SAMPLE_HASH;
+        assertEquals(expectedHash, blob.getHash());
+        assertEquals(14, blob.getSize());
+        assertEquals(1, blob.getRefCount());
+        assertEquals(root.resolve(expectedHash).toString(), blob.getPath());
+        assertEquals("Sample content", Files.readString(root.resolve(expectedHash)));
+        verify(blobRepository, times(1)).save(any(ContentBlob.class));
+    }
+
+    /**
+     * Test case: Storing content that already exists.
+     * <p>
+     * Verifies that a deduplication hit only increments the reference count, reads the
+     * source once and never writes to disk.
+     * </p>
+     */
+    @Test
+    void testStore_DeduplicationHitSkipsWrite() throws Exception {
+        ContentBlob existing = new ContentBlob();
+        existing.setHash(SAMPLE_HASH);
+        existing.setRefCount(2);
+        existing.setPath(root.resolve(SAMPLE_HASH).toString());
+
+        when(blobRepository.incrementRefCount(anyString())).thenReturn(1);
+        when(blobRepository.findById(anyString())).thenReturn(Optional.of(existing));
+
+        AtomicInteger opened = new AtomicInteger();
+        InputStreamSource source = () -> {
+            opened.incrementAndGet();
+            return new ByteArrayResource("Sample content".getBytes(StandardCharsets.UTF_8)).getInputStream();
+        };
+
+        ContentBlob blob = blobStore.store(source);
+
+        assertSame(existing, blob);
+        assertEquals(1, opened.get());
+        verify(blobRepository, never()).save(any(ContentBlob.class));
+        try (var entries = Files.list(root)) {
+            assertEquals(0, entries.count());
+        }
+    }
+
+    /**
+     * Test case: Storing a file larger than the available heap.
+     * <p>
+     * Verifies that content is streamed to disk rather than buffered in memory: the file is
+     * bigger than the maximum heap, so loading it into a byte array would fail with an
+     * {@link OutOfMemoryError}.
+     * </p>
+     */
+    @Test
+    void testStore_FileLargerThanHeap() throws Exception {
+        long fileSize = Runtime.getRuntime().maxMemory() + 64L * 1024 * 1024;
+
+        ContentBlob blob = blobStore.store(() -> new GeneratedInputStream(fileSize));
+
+        assertEquals(fileSize, blob.getSize());
+        assertEquals(fileSize, Files.size(Path.of(blob.getPath())));
+    }
+
+    /**
+     * Test case: Releasing the last reference on a blob.
+     * <p>
+     * Verifies that the blob record and its file are deleted once no version refers to it.
+     * </p>
+     */
+    @Test
+    void testRelease_LastReferenceDeletesFile() throws Exception {
+        ContentBlob blob = blobStore.store(new ByteArrayResource("Sample content".getBytes(StandardCharsets.UTF_8)));
+        blob.setRefCount(0);
+        when(blobRepository.findById(blob.getHash())).thenReturn(Optional.of(blob));
+
+        blobStore.release(blob.getHash());
+
+        verify(blobRepository).decrementRefCount(blob.getHash());
+        verify(blobRepository).deleteIfUnreferenced(blob.getHash());
+        assertFalse(Files.exists(Path.of(blob.getPath())));
+    }
+
+    /**
+     * Test case: Moving a flat blob to the sharded layout.
+     * <p>
+     * Verifies that the file ends up in its hash directories, the callback receives both paths,
+     * and the old path is kept until it is removed explicitly.
+     * </p>
+     */
+    @Test
+    void testRelocate_MovesBlobToShardedLayout() throws Exception {
+        ContentBlob blob = blobStore.store(new ByteArrayResource("Sample content".getBytes(StandardCharsets.UTF_8)));
+        when(blobRepository.relocate(eq(SAMPLE_HASH), anyString(), anyString())).thenReturn(1);
+        BlobStore sharded = shardedBlobStore();
+        List<String> moves = new ArrayList<>();
+
+        List<BlobStore.Relocation> moved = sharded.relocate(List.of(blob),
+                (oldPath, newPath) -> moves.add(oldPath + " -> " + newPath)).moved();
+
+        Path target = root.resolve("ca").resolve("83").resolve(SAMPLE_HASH);
+        assertEquals(List.of(new BlobStore.Relocation(SAMPLE_HASH, root.resolve(SAMPLE_HASH).toString(),
+                target.toString())), moved);
+        assertEquals(List.of(root.resolve(SAMPLE_HASH) + " -> " + target), moves);
+        assertEquals("Sample content", Files.readString(target));
+        assertEquals("Sample content", Files.readString(root.resolve(SAMPLE_HASH)));
+
+        sharded.deleteRelocated(moved.get(0));
+        assertFalse(Files.exists(root.resolve(SAMPLE_HASH)));
+        assertTrue(Files.exists(target));
+
+        // Already in place
+        blob.setPath(target.toString());
+        assertEquals(new BlobStore.RelocationResult(List.of(), 0),
+                sharded.relocate(List.of(blob), (oldPath, newPath) -> fail("Blob moved twice")));
+        assertStagingEmpty();
+    }
+
+    /**
+     * Test case: Moving a blob whose record changed in the meantime.
+     * <p>
+     * Verifies that the blob stays at its old path and the new link is removed again.
+     * </p>
+     */
+    @Test
+    void testRelocate_ConcurrentlyChangedBlobIsSkipped() throws Exception {
+        ContentBlob blob = blobStore.store(new ByteArrayResource("Sample content".getBytes(StandardCharsets.UTF_8)));
+        when(blobRepository.relocate(eq(SAMPLE_HASH), anyString(), anyString())).thenReturn(0);
+
+        BlobStore.RelocationResult result = shardedBlobStore().relocate(List.of(blob),
+                (oldPath, newPath) -> fail("Blob reported as moved"));
+
+        assertEquals(new BlobStore.RelocationResult(List.of(), 0), result);
+        assertStagingEmpty();
+        assertTrue(Files.exists(root.resolve(SAMPLE_HASH)));
+        assertFalse(Files.exists(root.resolve("ca").resolve("83").resolve(SAMPLE_HASH)));
+    }
+
+    /**
+     * Test case: Moving blobs of which one cannot be switched over, and one was released.
+     * <p>
+     * Verifies that the failing blob is counted and stays at its old path, that the released blob
+     * is skipped, and that the remaining blob is still moved.
+     * </p>
+     */
+    @Test
+    void testRelocate_FailingAndReleasedBlobsDoNotStopOthers() throws Exception {
+        ContentBlob failing = blobStore.store(new ByteArrayResource("First content".getBytes(StandardCharsets.UTF_8)));
+        ContentBlob released = blobStore.store(new ByteArrayResource("Second content".getBytes(StandardCharsets.UTF_8)));
+        ContentBlob moving = blobStore.store(new ByteArrayResource("Third content".getBytes(StandardCharsets.UTF_8)));
+        Files.delete(Path.of(released.getPath()));
+        when(blobRepository.relocate(eq(failing.getHash()), anyString(), anyString()))
+                .thenThrow(new IllegalStateException("Database error"));
+        when(blobRepository.relocate(eq(moving.getHash()), anyString(), anyString())).thenReturn(1);
+        BlobStore sharded = shardedBlobStore();
+
+        BlobStore.RelocationResult result = sharded.relocate(List.of(failing, released, moving), (oldPath, newPath) -> {
+        });
+
+        assertEquals(1, result.failed());
+        assertEquals(List.of(moving.getHash()), result.moved().stream().map(BlobStore.Relocation::hash).toList());
+        assertTrue(Files.exists(Path.of(failing.getPath())));
+        assertFalse(Files.exists(sharded.pathFor(failing.getHash())));
+        assertFalse(Files.exists(sharded.pathFor(released.getHash())));
+        assertEquals("Third content", Files.readString(sharded.pathFor(moving.getHash())));
+        verify(blobRepository, never()).relocate(eq(released.getHash()), anyString(), anyString());
+        assertStagingEmpty();
+    }
+
+    /**
+     * Test case: Storing compressible content.
+     * <p>
+     * Verifies that text is stored deflated, with the original size and digest, and reads back unchanged.
+     * </p>
+     */
+    @Test
+    void testStore_CompressesText() throws Exception {
+        properties.getCompression().setEnabled(true);
+        String content = "id,name,owner\n".repeat(1000);
+
+        ContentBlob blob = blobStore(new FlatStorageLayout())
+                .store(new ByteArrayResource(content.getBytes(StandardCharsets.UTF_8)), "report.csv");
+
+        assertEquals(BlobCompression.DEFLATE, blob.getCompression());
+        assertEquals(content.length(), blob.getSize());
+        assertTrue(blob.getStoredSize() < content.length() / 5);
+        assertEquals(blob.getStoredSize(), Files.size(Path.of(blob.getPath())));
+        assertEquals(content, new String(CompressionPolicy.readAllBytes(Path.of(blob.getPath()), blob.getCompression()),
+                StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Test case: Storing incompressible content.
+     * <p>
+     * Verifies that random bytes of an unlisted type fail the sample check and are stored as is.
+     * </p>
+     */
+    @Test
+    void testStore_SkipsIncompressibleContent() throws Exception {
+        properties.getCompression().setEnabled(true);
+        byte[] content = new byte[32 * 1024];
+        new Random(42).nextBytes(content);
+
+        ContentBlob blob = blobStore(new FlatStorageLayout()).store(new ByteArrayResource(content), "data.bin");
+
+        assertEquals(BlobCompression.NONE, blob.getCompression());
+        assertEquals(content.length, blob.getStoredSize());
+        assertArrayEquals(content, Files.readAllBytes(Path.of(blob.getPath())));
+    }
+
+    /**
+     * Test case: Adopting a compressible file.
+     * <p>
+     * Verifies that the compressed copy is stored and the adopted file is removed.
+     * </p>
+     */
+    @Test
+    void testAdopt_CompressesText() throws Exception {
+        properties.getCompression().setEnabled(true);
+        Path file = Files.writeString(root.resolve("upload.part"), "{\"name\": \"value\"}\n".repeat(1000));
+
+        ContentBlob blob = blobStore(new FlatStorageLayout()).adopt(file, "export.json");
+
+        assertEquals(BlobCompression.DEFLATE, blob.getCompression());
+        assertTrue(blob.getStoredSize() < blob.getSize());
+        assertFalse(Files.exists(file));
+        assertEquals(blob.getSize(), CompressionPolicy.readAllBytes(Path.of(blob.getPath()), blob.getCompression()).length);
+    }
+
+    private void assertStagingEmpty() throws Exception {
+        try (var staged = Files.list(root.resolve("tmp"))) {
+            assertEquals(List.of(), staged.toList());
+        }
+    }
+
+    private BlobStore shardedBlobStore() {
+        return blobStore(new ShardedStorageLayout(2));
+    }
+
+    private BlobStore blobStore(StorageLayout layout) {
+        return new BlobStore(properties, blobRepository, transactionManager, layout, new CompressionPolicy(properties));
+    }
+
+    /**
+     * Input stream producing a fixed number of bytes without holding them in memory.
+     */
+    private static final class GeneratedInputStream extends InputStream {
+
+        private long remaining;
+
+        GeneratedInputStream(long size) {
+            this.remaining = size;
+        }
+
+        @Override
+        public int read() {
+            if (remaining <= 0) {
+                return -1;
+            }
+            remaining--;
+            return 'x';
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int count = (int) Math.min(length, remaining);
+            Arrays.fill(buffer, offset, offset + count, (byte) 'x');
+            remaining -= count;
+            return count;
+        }
+    }
+}
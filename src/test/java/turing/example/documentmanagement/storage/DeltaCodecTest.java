@@ -0,0 +1,91 @@
+package turing.example.documentmanagement.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link DeltaCodec}.
+ * <p>
+ * This test verifies that deltas reproduce their target exactly and stay small
+ * when the target is a lightly edited copy of the source.
+ * </p>
+ */
+class DeltaCodecTest {
+
+    /**
+     * Test case: Small edits in a large file.
+     * <p>
+     * Verifies that the delta round-trips and is a tiny fraction of the file size.
+     * </p>
+     */
+    @Test
+    void testEncode_SmallEditsProduceSmallDelta() throws IOException {
+        byte[] source = randomBytes(2 * 1024 * 1024, 42);
+        byte[] target = Arrays.copyOf(source, source.length + 100);
+        // Overwrite a few bytes, insert a run in the middle and append to the end
+        target[10] = (byte) ~target[10];
+        System.arraycopy(source, 1_000_000, target, 1_000_050, source.length - 1_000_050);
+        Arrays.fill(target, 1_000_000, 1_000_050, (byte) 7);
+        Arrays.fill(target, source.length, target.length, (byte) 9);
+
+        byte[] delta = DeltaCodec.encode(source, target);
+
+        assertArrayEquals(target, DeltaCodec.decode(source, delta));
+        assertTrue(delta.length < 1024, "delta should be tiny but was " + delta.length + " bytes");
+    }
+
+    /**
+     * Test case: Unrelated content.
+     * <p>
+     * Verifies that the delta still round-trips when nothing can be copied from the source.
+     * </p>
+     */
+    @Test
+    void testEncode_UnrelatedContent() throws IOException {
+        byte[] source = randomBytes(10_000, 1);
+        byte[] target = randomBytes(12_345, 2);
+
+        assertArrayEquals(target, DeltaCodec.decode(source, DeltaCodec.encode(source, target)));
+    }
+
+    /**
+     * Test case: Content shorter than a block.
+     * <p>
+     * Verifies that tiny inputs and empty targets are handled.
+     * </p>
+     */
+    @Test
+    void testEncode_TinyInputs() throws IOException {
+        byte[] source = "abc".getBytes();
+        byte[] target = "abcd".getBytes();
+
+        assertArrayEquals(target, DeltaCodec.decode(source, DeltaCodec.encode(source, target)));
+        assertArrayEquals(new byte[0], DeltaCodec.decode(target, DeltaCodec.encode(target, new byte[0])));
+    }
+
+    /**
+     * Test case: Decoding data that is not a delta.
+     * <p>
+     * Verifies that corrupt input is rejected instead of producing wrong content.
+     * </p>
+     */
+    @Test
+    void testDecode_RejectsCorruptDelta() {
+        byte[] source = randomBytes(1000, 3);
+        byte[] delta = DeltaCodec.encode(source, randomBytes(1000, 4));
+
+        assertThrows(IOException.class, () -> DeltaCodec.decode(source, "garbage".getBytes()));
+        assertThrows(IOException.class, () -> DeltaCodec.decode(source, Arrays.copyOf(delta, delta.length - 1)));
+    }
+
+    private static byte[] randomBytes(int length, long seed) {
+        byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        return data;
+    }
+}
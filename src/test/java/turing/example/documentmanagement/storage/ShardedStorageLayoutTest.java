@@ -0,0 +1,44 @@
+package turing.example.documentmanagement.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for {@link ShardedStorageLayout}.
+ * <p>
+ * This test class verifies how blob paths are fanned out into hash directories.
+ * </p>
+ */
+class ShardedStorageLayoutTest {
+
+    private static final String HASH = "ca83c6acbe7f1270c63b0b4d0b2b180c347b6d5cab6e95b2fd7be152f345314b";
+
+    /**
+     * Test case: Resolving a hash with two directory levels.
+     * <p>
+     * Verifies that each level is named after the next two hex digits of the hash.
+     * </p>
+     */
+    @Test
+    void testResolve_TwoLevels() {
+        Path root = Path.of("uploads");
+
+        assertEquals(root.resolve("ca").resolve("83").resolve(HASH), new ShardedStorageLayout(2).resolve(root, HASH));
+        assertEquals(root.resolve("ca").resolve(HASH), new ShardedStorageLayout(1).resolve(root, HASH));
+    }
+
+    /**
+     * Test case: Invalid layouts and hashes.
+     * <p>
+     * Verifies that a layout without levels and hashes too short for the levels are rejected.
+     * </p>
+     */
+    @Test
+    void testResolve_InvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> new ShardedStorageLayout(0));
+        assertThrows(IllegalArgumentException.class, () -> new ShardedStorageLayout(2).resolve(Path.of("uploads"), "ca83"));
+    }
+}
@@ -0,0 +1,76 @@
+package turing.example.documentmanagement.cache;
+
+import jdk.jfr.consumer.RecordingStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import turing.example.documentmanagement.config.MetadataCacheProperties;
+import turing.example.documentmanagement.repository.DocumentRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+/**
+ * Pinning guard for {@link DocumentNameFilter} on virtual threads.
+ * <p>
+ * Rebuilds block on JDBC while holding the rebuild lock. This test records the JFR
+ * {@code jdk.VirtualThreadPinned} event while several virtual threads rebuild at once,
+ * which fails if the lock is ever turned back into a {@code synchronized} section.
+ * </p>
+ */
+class DocumentNameFilterPinningTest {
+
+    @Mock
+    private DocumentRepository documentRepository;
+
+    private DocumentNameFilter nameFilter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        nameFilter = new DocumentNameFilter(documentRepository, new MetadataCacheProperties());
+
+        // Simulates a slow scan query
+        when(documentRepository.findNamesAfter(anyLong(), any())).thenAnswer(invocation -> {
+            Thread.sleep(50);
+            return List.of();
+        });
+    }
+
+    /**
+     * Test case: Concurrent rebuilds on virtual threads.
+     * <p>
+     * This test verifies that no virtual thread is pinned to its carrier while it waits.
+     * </p>
+     */
+    @Test
+    void testRebuild_DoesNotPinVirtualThreads() throws Exception {
+        AtomicInteger pinned = new AtomicInteger();
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(1));
+            recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.incrementAndGet());
+            recording.startAsync();
+
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                threads.add(Thread.ofVirtual().start(nameFilter::rebuild));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            recording.stop();
+        }
+
+        assertEquals(0, pinned.get());
+        assertNotNull(nameFilter.currentFilter());
+        verify(documentRepository, times(4)).findNamesAfter(anyLong(), any());
+    }
+}
@@ -0,0 +1,138 @@
+package turing.example.documentmanagement.config;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test for {@link VirtualThreadConfig}.
+ * <p>
+ * Starts an embedded Tomcat whose upload servlet reads the request body from deliberately slow
+ * clients, once with a bounded platform worker pool and once with the virtual-thread executor,
+ * and compares the number of uploads in flight at the same time.
+ * </p>
+ */
+class VirtualThreadConfigTest {
+
+    private static final int PLATFORM_THREADS = 20;
+    private static final int CONCURRENT_UPLOADS = 200;
+
+    // Every upload sends this many body chunks with a pause before each one
+    private static final int CHUNKS = 10;
+    private static final long CHUNK_DELAY_MILLIS = 100;
+
+    /**
+     * Test case: Many slow uploads at once.
+     * <p>
+     * This test verifies that the platform-thread setup never has more uploads in flight than
+     * worker threads, while the virtual-thread mode accepts all of them concurrently.
+     * </p>
+     */
+    @Test
+    void testSlowUploads_VirtualThreadsKeepMoreUploadsInFlight() throws Exception {
+        TomcatServletWebServerFactory platform = new TomcatServletWebServerFactory(0);
+        platform.addConnectorCustomizers(connector -> connector.setProperty("maxThreads",
+                String.valueOf(PLATFORM_THREADS)));
+        int platformPeak = peakUploadsInFlight(platform);
+
+        TomcatServletWebServerFactory virtual = new TomcatServletWebServerFactory(0);
+        virtual.addProtocolHandlerCustomizers(new VirtualThreadConfig().virtualThreadProtocolHandlerCustomizer());
+        int virtualPeak = peakUploadsInFlight(virtual);
+
+        assertTrue(platformPeak <= PLATFORM_THREADS, "Platform threads peak " + platformPeak);
+        assertTrue(virtualPeak >= CONCURRENT_UPLOADS / 2, "Virtual threads peak " + virtualPeak);
+    }
+
+    /**
+     * Sends slow uploads concurrently and returns the highest number handled at the same time.
+     */
+    private static int peakUploadsInFlight(TomcatServletWebServerFactory factory) throws Exception {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        WebServer server = factory.getWebServer(context -> context.addServlet("upload", new HttpServlet() {
+            @Override
+            protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+                peak.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                try {
+                    request.getInputStream().transferTo(OutputStream.nullOutputStream());
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            }
+        }).addMapping("/upload"));
+        server.start();
+
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientThreads)
+                    .build();
+            URI uri = URI.create("http://localhost:" + server.getPort() + "/upload");
+            List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_UPLOADS; i++) {
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .POST(HttpRequest.BodyPublishers.ofInputStream(SlowInputStream::new))
+                        .build();
+                responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+            }
+            for (CompletableFuture<HttpResponse<Void>> response : responses) {
+                assertEquals(200, response.get().statusCode());
+            }
+        } finally {
+            server.stop();
+        }
+        return peak.get();
+    }
+
+    /**
+     * Body of a client that sends its upload in small chunks with pauses in between.
+     */
+    private static final class SlowInputStream extends InputStream {
+
+        private int chunksLeft = CHUNKS;
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (chunksLeft == 0) {
+                return -1;
+            }
+            try {
+                Thread.sleep(CHUNK_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            chunksLeft--;
+            int count = Math.min(length, 1024);
+            Arrays.fill(buffer, offset, offset + count, (byte) 'x');
+            return count;
+        }
+    }
+}